@@ -0,0 +1,130 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.accessibility;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ObjDoubleConsumer;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.matsim.api.core.v01.BasicLocation;
+import org.matsim.api.core.v01.Id;
+import org.matsim.core.utils.collections.Tuple;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.io.UncheckedIOException;
+import org.matsim.facilities.ActivityFacilities;
+import org.matsim.facilities.ActivityFacility;
+
+/**
+ * Stores the accessibilities of one block of aggregated measuring points per file, see
+ * {@link AccessibilityConfigGroup#getBlockResultsDirectory()}. A block file is only visible under its final name once it is
+ * completely written, so an existing block file can always be re-used when an interrupted computation is restarted.
+ * <p>
+ * The name of a block file contains the block size and a fingerprint of the origins and measuring points of the block, see
+ * {@link #getBlockName}. Blocks of a computation with another block size or other measuring points therefore never match
+ * and are computed again instead of being re-used.
+ */
+final class AccessibilityBlockResults {
+
+	private static final String SEPARATOR = ";";
+
+	private final Path directory;
+
+	AccessibilityBlockResults(String directory) {
+		this.directory = Paths.get(directory);
+		try {
+			Files.createDirectories(this.directory);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @return the name under which the results of the block are stored, made of the index and size of the block and a
+	 * fingerprint of its origin ids and the ids of the measuring points assigned to them
+	 */
+	static String getBlockName(int blockIndex, int blockSize, List<Id<? extends BasicLocation>> originIds,
+							   Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins) {
+		Hasher hasher = Hashing.sha256().newHasher();
+		for (Id<? extends BasicLocation> originId : originIds) {
+			hasher.putString(originId.toString(), StandardCharsets.UTF_8).putChar(':');
+			for (ActivityFacility measuringPoint : aggregatedOrigins.get(originId)) {
+				hasher.putString(measuringPoint.getId().toString(), StandardCharsets.UTF_8).putChar(',');
+			}
+			hasher.putChar(';');
+		}
+		// 64 bits are plenty to tell the blocks of different computations apart
+		return blockIndex + "_" + blockSize + "_" + hasher.hash().toString().substring(0, 16);
+	}
+
+	boolean exists(String mode, double timeOfDay, String block) {
+		return Files.exists(getFile(mode, timeOfDay, block));
+	}
+
+	void write(String mode, double timeOfDay, String block, List<Tuple<ActivityFacility, Double>> accessibilities) {
+		Path file = getFile(mode, timeOfDay, block);
+		Path tmpFile = file.resolveSibling("tmp_" + file.getFileName());
+		try (BufferedWriter writer = IOUtils.getBufferedWriter(tmpFile.toString())) {
+			for (Tuple<ActivityFacility, Double> accessibility : accessibilities) {
+				writer.write(accessibility.getFirst().getId() + SEPARATOR + accessibility.getSecond());
+				writer.newLine();
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		try {
+			Files.move(tmpFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	void read(String mode, double timeOfDay, String block, ActivityFacilities measuringPoints, ObjDoubleConsumer<ActivityFacility> consumer) {
+		try (BufferedReader reader = IOUtils.getBufferedReader(getFile(mode, timeOfDay, block).toString())) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				int separator = line.indexOf(SEPARATOR);
+				ActivityFacility measuringPoint = measuringPoints.getFacilities().get(Id.create(line.substring(0, separator), ActivityFacility.class));
+				if (measuringPoint == null) {
+					throw new RuntimeException("Measuring point " + line.substring(0, separator) + " of block file " + getFile(mode, timeOfDay, block)
+							+ " does not exist. The block results were probably computed for other measuring points.");
+				}
+				consumer.accept(measuringPoint, Double.parseDouble(line.substring(separator + 1)));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private Path getFile(String mode, double timeOfDay, String block) {
+		return directory.resolve(mode + "_" + (long) timeOfDay + "_" + block + ".csv.gz");
+	}
+}
@@ -23,7 +23,7 @@ import java.io.File;
 import java.util.*;
 import java.util.concurrent.*;
 
-import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.BasicLocation;
 import org.matsim.api.core.v01.Id;
@@ -54,6 +54,9 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 
 	private final Map<String, AccessibilityContributionCalculator> calculators = new LinkedHashMap<>();
 	private AccessibilityAggregator accessibilityAggregator;
+	private String blockResultsDirectory = null;
+	private AccessibilityBlockResults blockResults;
+	private final Map<String, List<String>> blockNames = new HashMap<>();
 	private final ArrayList<FacilityDataExchangeInterface> zoneDataExchangeListeners = new ArrayList<>();
 
 	private AccessibilityConfigGroup acg;
@@ -93,8 +96,12 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 			return;
 		}
 		LOG.info("Initializing accessibility computation...");
-		accessibilityAggregator = new AccessibilityAggregator();
-		addFacilityDataExchangeListener(accessibilityAggregator);
+		if (blockResultsDirectory == null) {
+			accessibilityAggregator = new AccessibilityAggregator();
+			addFacilityDataExchangeListener(accessibilityAggregator);
+		} else {
+			blockResults = new AccessibilityBlockResults(blockResultsDirectory);
+		}
 
 		if (outputDirectory != null) {
 			File file = new File(outputDirectory);
@@ -105,48 +112,77 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 		computeAccessibilities(acg.getTimeOfDay(), opportunities);
 		LOG.info("Finished computing accessibilities.");
 
-		writeCSVFile(outputDirectory);
+		if (blockResults == null) {
+			writeCSVFile(outputDirectory);
+		} else {
+			writeCSVFileFromBlockResults(outputDirectory, acg.getTimeOfDay());
+		}
 	}
 
 
 	public final void computeAccessibilities(Double departureTime, ActivityFacilities opportunities) {
-		for (String mode : calculators.keySet()) {
-			AccessibilityContributionCalculator calculator = calculators.get(mode);
+		for (AccessibilityContributionCalculator calculator : calculators.values()) {
 			calculator.initialize(measuringPoints, opportunities);
+		}
 
+		for (List<String> modes : getModeGroups()) {
 			// TODO
-            Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins = calculator.getAggregatedMeasurePoints();
-            Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities = calculator.getAgregatedOpportunities();
-
-            Collection<Id<? extends BasicLocation>> aggregatedOriginIds = new LinkedList<>();
-			for (Id<? extends BasicLocation> nodeId : aggregatedOrigins.keySet()) {
-				aggregatedOriginIds.add(nodeId);
+            Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins = calculators.get(modes.get(0)).getAggregatedMeasurePoints();
+
+			// sorted such that the blocks are the same in every run, which is required to re-use block results
+			List<Id<? extends BasicLocation>> aggregatedOriginIds = new ArrayList<>(aggregatedOrigins.keySet());
+			aggregatedOriginIds.sort(Comparator.comparing(Id::toString));
+			List<List<Id<? extends BasicLocation>>> blocks = Lists.partition(aggregatedOriginIds, acg.getComputationBlockSize());
+			List<String> modeGroupBlockNames = new ArrayList<>();
+			if (blockResults != null) {
+				for (int i = 0; i < blocks.size(); i++) {
+					modeGroupBlockNames.add(AccessibilityBlockResults.getBlockName(i, acg.getComputationBlockSize(), blocks.get(i), aggregatedOrigins));
+				}
+			}
+			for (String mode : modes) {
+				blockNames.put(mode, modeGroupBlockNames);
 			}
 
-			LOG.info("Iterating over all aggregated measuring points...");
+			LOG.info("Iterating over all aggregated measuring points for mode(s) " + modes + " in " + blocks.size() + " blocks...");
+			ProgressBar progressBar = new ProgressBar(aggregatedOrigins.size());
+			ThreadLocal<List<AccessibilityContributionCalculator>> threadCalculators = ThreadLocal.withInitial(() -> {
+				List<AccessibilityContributionCalculator> duplicates = new ArrayList<>();
+				ConstantSpeedAccessibilityExpContributionCalculator constantSpeedCalculator = null;
+				for (String mode : modes) {
+					AccessibilityContributionCalculator duplicate = calculators.get(mode).duplicate();
+					// the constant speed modes of a group compute the same distance tree for each origin node
+					if (duplicate instanceof ConstantSpeedAccessibilityExpContributionCalculator) {
+						ConstantSpeedAccessibilityExpContributionCalculator constantSpeedDuplicate = (ConstantSpeedAccessibilityExpContributionCalculator) duplicate;
+						if (constantSpeedCalculator == null) {
+							constantSpeedCalculator = constantSpeedDuplicate;
+						} else {
+							constantSpeedDuplicate.shareTravelDistanceTree(constantSpeedCalculator);
+						}
+					}
+					duplicates.add(duplicate);
+				}
+				return duplicates;
+			});
+
+			List<Callable<Void>> tasks = new ArrayList<>();
+			for (int i = 0; i < blocks.size(); i++) {
+				final String blockName = blockResults != null ? modeGroupBlockNames.get(i) : null;
+				final List<Id<? extends BasicLocation>> block = blocks.get(i);
+				tasks.add(() -> {
+					computeBlock(modes, departureTime, blockName, block, threadCalculators.get(), aggregatedOrigins);
+					for (int j = 0; j < block.size(); j++) {
+						progressBar.update();
+					}
+					return null;
+				});
+			}
 
 			if (acg.isUseParallelization()) {
 				int numberOfProcessors = Runtime.getRuntime().availableProcessors();
 				LOG.info("There are " + numberOfProcessors + " available processors.");
 
-				final int partitionSize = (int) ((double) aggregatedOrigins.size() / numberOfProcessors) + 1;
-				LOG.info("Size of partitions = " + partitionSize);
-				Iterable<List<Id<? extends BasicLocation>>> partitions = Iterables.partition(aggregatedOriginIds, partitionSize);
-
-				ProgressBar progressBar = new ProgressBar(aggregatedOrigins.size());
-
-				ExecutorService service = Executors.newFixedThreadPool(numberOfProcessors);
-				List<Callable<Void>> tasks = new ArrayList<>();
-				for (final List<Id<? extends BasicLocation>> partition : partitions) {
-					tasks.add(() -> {
-						try {
-							compute(mode, departureTime, aggregatedOpportunities, aggregatedOrigins, partition, progressBar);
-						} catch (Exception e) {
-							throw new RuntimeException(e);
-						}
-						return null;
-					});
-				}
+				// many small blocks on a work-stealing pool balance the load better than one partition per processor
+				ExecutorService service = Executors.newWorkStealingPool(numberOfProcessors);
 				try {
 					List<Future<Void>> futures = service.invokeAll(tasks);
 					for (Future<Void> future : futures) {
@@ -156,12 +192,18 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 					throw new RuntimeException(e);
 				} catch (ExecutionException e) {
 					throw new RuntimeException(e);
+				} finally {
+					service.shutdown();
 				}
-				service.shutdown();
 			} else {
 				LOG.info("Performing the computation without parallelization.");
-				ProgressBar progressBar = new ProgressBar(aggregatedOrigins.size());
-				compute(mode, departureTime, aggregatedOpportunities, aggregatedOrigins, aggregatedOriginIds, progressBar);
+				for (Callable<Void> task : tasks) {
+					try {
+						task.call();
+					} catch (Exception e) {
+						throw new RuntimeException(e);
+					}
+				}
 			}
 		}
 		for (FacilityDataExchangeInterface zoneDataExchangeInterface : this.zoneDataExchangeListeners) {
@@ -170,38 +212,114 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 	}
 
 
-	private void compute(String mode, Double departureTime, Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities,
+	/**
+	 * Groups the modes which are computed together in one pass over the origin nodes. Without
+	 * {@link AccessibilityConfigGroup#isComputeAllModesPerOrigin()}, every mode is computed on its own. Otherwise, all modes
+	 * with the same aggregated measuring points (i.e. the same origin nodes) are evaluated one after another for each origin
+	 * node, so that calculators which compute the same tree for an origin node only compute it once.
+	 */
+	private List<List<String>> getModeGroups() {
+		List<List<String>> modeGroups = new ArrayList<>();
+		for (String mode : calculators.keySet()) {
+			List<String> modeGroup = null;
+			if (acg.isComputeAllModesPerOrigin()) {
+				for (List<String> candidate : modeGroups) {
+					if (calculators.get(candidate.get(0)).getAggregatedMeasurePoints().equals(calculators.get(mode).getAggregatedMeasurePoints())) {
+						modeGroup = candidate;
+						break;
+					}
+				}
+			}
+			if (modeGroup == null) {
+				modeGroup = new ArrayList<>();
+				modeGroups.add(modeGroup);
+			}
+			modeGroup.add(mode);
+		}
+		return modeGroups;
+	}
+
+
+	private void computeBlock(List<String> modes, Double departureTime, String blockName, List<Id<? extends BasicLocation>> block,
+							  List<AccessibilityContributionCalculator> modeCalculators,
+							  Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins) {
+		List<String> modesToCompute = new ArrayList<>();
+		List<AccessibilityContributionCalculator> calculatorsToCompute = new ArrayList<>();
+		for (int i = 0; i < modes.size(); i++) {
+			final String mode = modes.get(i);
+			if (blockResults != null && blockResults.exists(mode, departureTime, blockName)) {
+				// computed by a previous (interrupted) run
+				blockResults.read(mode, departureTime, blockName, measuringPoints, (origin, accessibility) -> {
+					for (FacilityDataExchangeInterface zoneDataExchangeInterface : this.zoneDataExchangeListeners) {
+						zoneDataExchangeInterface.setFacilityAccessibilities(origin, departureTime, mode, accessibility);
+					}
+				});
+			} else {
+				modesToCompute.add(mode);
+				calculatorsToCompute.add(modeCalculators.get(i));
+			}
+		}
+		if (modesToCompute.isEmpty()) {
+			return;
+		}
+
+		List<List<Tuple<ActivityFacility, Double>>> accessibilities = null;
+		if (blockResults != null) {
+			accessibilities = new ArrayList<>();
+			for (int i = 0; i < modesToCompute.size(); i++) {
+				accessibilities.add(new ArrayList<>());
+			}
+		}
+		compute(modesToCompute, departureTime, calculatorsToCompute, aggregatedOrigins, block, accessibilities);
+		if (blockResults != null) {
+			for (int i = 0; i < modesToCompute.size(); i++) {
+				blockResults.write(modesToCompute.get(i), departureTime, blockName, accessibilities.get(i));
+			}
+		}
+	}
+
+
+	private void compute(List<String> modes, Double departureTime, List<AccessibilityContributionCalculator> modeCalculators,
 						 Map<Id<? extends BasicLocation>, ArrayList<ActivityFacility>> aggregatedOrigins,
-						 Collection<Id<? extends BasicLocation>> subsetOfNodes, ProgressBar progressBar) {
+						 Collection<Id<? extends BasicLocation>> subsetOfNodes, List<List<Tuple<ActivityFacility, Double>>> accessibilities) {
 
-		AccessibilityContributionCalculator calculator = calculators.get(mode).duplicate();
+		List<Map<Id<? extends BasicLocation>, AggregationObject>> aggregatedOpportunities = new ArrayList<>();
+		for (String mode : modes) {
+			aggregatedOpportunities.add(calculators.get(mode).getAgregatedOpportunities());
+		}
 
 		// Go through all nodes that have a measuring point assigned
 		for (Id<? extends BasicLocation> fromNodeId : subsetOfNodes) {
-			progressBar.update();
-
-			Gbl.assertNotNull(calculator);
-			calculator.notifyNewOriginNode(fromNodeId, departureTime);
-
-			// Go through all measuring points assigned to current node
-			for (ActivityFacility origin : aggregatedOrigins.get(fromNodeId)) {
-				assert(origin.getCoord() != null);
-
-                double expSum = calculator.computeContributionOfOpportunity(origin, aggregatedOpportunities, departureTime);
-
-				double accessibility;
-                if (acg.getAccessibilityMeasureType() == AccessibilityConfigGroup.AccessibilityMeasureType.logSum) {
-					accessibility = (1/this.cnScoringGroup.getBrainExpBeta()) * Math.log(expSum);
-                } else if (acg.getAccessibilityMeasureType() == AccessibilityConfigGroup.AccessibilityMeasureType.rawSum) {
-					accessibility = expSum;
-                } else if (acg.getAccessibilityMeasureType() == AccessibilityConfigGroup.AccessibilityMeasureType.gravity) {
-                    throw new IllegalArgumentException("This accessibility measure is not yet implemented.");
-                } else {
-                    throw new IllegalArgumentException("No valid accessibility measure type chosen.");
-                }
-
-				for (FacilityDataExchangeInterface zoneDataExchangeInterface : this.zoneDataExchangeListeners) {
-					zoneDataExchangeInterface.setFacilityAccessibilities(origin, departureTime, mode, accessibility);
+			for (int i = 0; i < modes.size(); i++) {
+				String mode = modes.get(i);
+				AccessibilityContributionCalculator calculator = modeCalculators.get(i);
+
+				Gbl.assertNotNull(calculator);
+				calculator.notifyNewOriginNode(fromNodeId, departureTime);
+
+				// Go through all measuring points assigned to current node
+				for (ActivityFacility origin : aggregatedOrigins.get(fromNodeId)) {
+					assert(origin.getCoord() != null);
+
+					double expSum = calculator.computeContributionOfOpportunity(origin, aggregatedOpportunities.get(i), departureTime);
+
+					double accessibility;
+					if (acg.getAccessibilityMeasureType() == AccessibilityConfigGroup.AccessibilityMeasureType.logSum) {
+						accessibility = (1/this.cnScoringGroup.getBrainExpBeta()) * Math.log(expSum);
+					} else if (acg.getAccessibilityMeasureType() == AccessibilityConfigGroup.AccessibilityMeasureType.rawSum) {
+						accessibility = expSum;
+					} else if (acg.getAccessibilityMeasureType() == AccessibilityConfigGroup.AccessibilityMeasureType.gravity) {
+						throw new IllegalArgumentException("This accessibility measure is not yet implemented.");
+					} else {
+						throw new IllegalArgumentException("No valid accessibility measure type chosen.");
+					}
+
+					for (FacilityDataExchangeInterface zoneDataExchangeInterface : this.zoneDataExchangeListeners) {
+						zoneDataExchangeInterface.setFacilityAccessibilities(origin, departureTime, mode, accessibility);
+					}
+					if (accessibilities != null) {
+						accessibilities.get(i).add(new Tuple<>(origin, accessibility));
+					}
 				}
 			}
 		}
@@ -213,20 +331,7 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 
 		Map<Tuple<ActivityFacility, Double>, Map<String,Double>> accessibilitiesMap = accessibilityAggregator.getAccessibilitiesMap();
 		final CSVWriter writer = new CSVWriter(adaptedOutputDirectory + "/" + CSVWriter.FILE_NAME ) ;
-
-		// Write header
-		writer.writeField(Labels.ID);
-		writer.writeField(Labels.X_COORDINATE);
-		writer.writeField(Labels.Y_COORDINATE);
-		writer.writeField(Labels.TIME);
-		for (String mode : getModes() ) {
-			writer.writeField(mode + "_accessibility");
-		}
-		for (ActivityFacilities additionalDataFacilities : this.additionalFacilityData) { // Iterate over all additional data collections
-			String additionalDataName = additionalDataFacilities.getName();
-			writer.writeField(additionalDataName);
-		}
-		writer.writeNewLine();
+		writeHeader(writer);
 
 		// Write data
 		for (Tuple<ActivityFacility, Double> tuple : accessibilitiesMap.keySet()) {
@@ -244,11 +349,61 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 					writer.writeField(Double.NaN) ;
 				}
 			}
-			for (ActivityFacilities additionalDataFacilities : this.additionalFacilityData) { // Again: Iterate over all additional data collections
-				String additionalDataName = additionalDataFacilities.getName();
-				int value = (int) facility.getAttributes().getAttribute(additionalDataName);
-				writer.writeField(value);
+			writeAdditionalFacilityData(writer, facility);
+			writer.writeNewLine();
+		}
+		writer.close() ;
+		LOG.info("Finished writing accessibility output to " + adaptedOutputDirectory + ".");
+	}
+
+
+	/**
+	 * Writes the same output as {@link #writeCSVFile(String)}, but collects the accessibilities from the block files into
+	 * primitive arrays instead of keeping a map entry per measuring point and mode during the whole computation.
+	 */
+	private void writeCSVFileFromBlockResults(String adaptedOutputDirectory, double timeOfDay) {
+		LOG.info("Start writing accessibility output from block results to " + adaptedOutputDirectory + ".");
+
+		// same order as in AccessibilityAggregator
+		List<ActivityFacility> facilities = new ArrayList<>(measuringPoints.getFacilities().values());
+		facilities.sort(Comparator.comparingDouble((ActivityFacility facility) -> facility.getCoord().getY())
+				.thenComparingDouble(facility -> facility.getCoord().getX()));
+		int[] positionByIdIndex = new int[Id.getNumberOfIds(ActivityFacility.class)];
+		Arrays.fill(positionByIdIndex, -1);
+		for (int i = 0; i < facilities.size(); i++) {
+			positionByIdIndex[facilities.get(i).getId().index()] = i;
+		}
+
+		List<String> modes = new ArrayList<>(getModes());
+		double[][] accessibilities = new double[modes.size()][facilities.size()];
+		boolean[] computed = new boolean[facilities.size()];
+		for (int m = 0; m < modes.size(); m++) {
+			final double[] modeAccessibilities = accessibilities[m];
+			Arrays.fill(modeAccessibilities, Double.NaN);
+			for (String blockName : blockNames.get(modes.get(m))) {
+				blockResults.read(modes.get(m), timeOfDay, blockName, measuringPoints, (facility, accessibility) -> {
+					int position = positionByIdIndex[facility.getId().index()];
+					modeAccessibilities[position] = accessibility;
+					computed[position] = true;
+				});
+			}
+		}
+
+		final CSVWriter writer = new CSVWriter(adaptedOutputDirectory + "/" + CSVWriter.FILE_NAME ) ;
+		writeHeader(writer);
+		for (int i = 0; i < facilities.size(); i++) {
+			if (!computed[i]) {
+				continue;
 			}
+			ActivityFacility facility = facilities.get(i);
+			writer.writeField(facility.getId().toString());
+			writer.writeField(facility.getCoord().getX());
+			writer.writeField(facility.getCoord().getY());
+			writer.writeField(timeOfDay);
+			for (double[] modeAccessibilities : accessibilities) {
+				writer.writeField(modeAccessibilities[i]);
+			}
+			writeAdditionalFacilityData(writer, facility);
 			writer.writeNewLine();
 		}
 		writer.close() ;
@@ -256,6 +411,31 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 	}
 
 
+	private void writeHeader(CSVWriter writer) {
+		writer.writeField(Labels.ID);
+		writer.writeField(Labels.X_COORDINATE);
+		writer.writeField(Labels.Y_COORDINATE);
+		writer.writeField(Labels.TIME);
+		for (String mode : getModes() ) {
+			writer.writeField(mode + "_accessibility");
+		}
+		for (ActivityFacilities additionalDataFacilities : this.additionalFacilityData) { // Iterate over all additional data collections
+			String additionalDataName = additionalDataFacilities.getName();
+			writer.writeField(additionalDataName);
+		}
+		writer.writeNewLine();
+	}
+
+
+	private void writeAdditionalFacilityData(CSVWriter writer, ActivityFacility facility) {
+		for (ActivityFacilities additionalDataFacilities : this.additionalFacilityData) { // Again: Iterate over all additional data collections
+			String additionalDataName = additionalDataFacilities.getName();
+			int value = (int) facility.getAttributes().getAttribute(additionalDataName);
+			writer.writeField(value);
+		}
+	}
+
+
 	public final void putAccessibilityContributionCalculator(String mode, AccessibilityContributionCalculator calculator) {
 		LOG.info("Adding accessibility contribution calculator for " + mode + ".");
 		Gbl.assertNotNull(calculator);
@@ -263,6 +443,15 @@ final class AccessibilityComputationShutdownListener implements ShutdownListener
 	}
 
 
+	/**
+	 * If set, the results are written block by block to this directory instead of being kept in memory, and blocks which
+	 * already exist in this directory are not computed again.
+	 */
+	void setBlockResultsDirectory(String blockResultsDirectory) {
+		this.blockResultsDirectory = blockResultsDirectory;
+	}
+
+
 	public void addAdditionalFacilityData(ActivityFacilities facilities) {
 		this.additionalFacilityData.add(facilities);
 	}
@@ -58,6 +58,13 @@ public final class AccessibilityConfigGroup extends ReflectiveConfigGroup{
 
 	private static final String USE_PARALLELIZATION = "useParallelization";
 	private boolean useParallelization = true;
+
+	private static final String COMPUTATION_BLOCK_SIZE = "computationBlockSize";
+	private int computationBlockSize = 100;
+	private static final String BLOCK_RESULTS_DIRECTORY = "blockResultsDirectory";
+	private String blockResultsDirectory = null;
+	private static final String COMPUTE_ALL_MODES_PER_ORIGIN = "computeAllModesPerOrigin";
+	private boolean computeAllModesPerOrigin = false;
 	
 //	private static final String ACCESSIBILITY_DESTINATION_SAMPLING_RATE = "accessibilityDestinationSamplingRate";
 //	private Double accessibilityDestinationSamplingRate;
@@ -140,6 +147,15 @@ public final class AccessibilityConfigGroup extends ReflectiveConfigGroup{
 		
 		map.put(MEASURING_POINTS_FILE, "if the accibility is computed using the `fromFile` option, " +
 				"the this must be the file containing the measuring points' coordinates. ");
+		map.put(COMPUTATION_BLOCK_SIZE, "number of aggregated measuring points (i.e. origin nodes) which are computed together as one block. "
+				+ "Blocks are distributed dynamically over the available threads.");
+		map.put(BLOCK_RESULTS_DIRECTORY, "if set, the results of each block are written to this directory as soon as the block is computed "
+				+ "instead of being kept in memory until the end of the computation. Blocks which are already found in this directory "
+				+ "(e.g. from an interrupted run with the same measuring points, opportunities and block size) are not computed again. "
+				+ "Use a directory which is not deleted when the run is restarted.");
+		map.put(COMPUTE_ALL_MODES_PER_ORIGIN, "if true, all modes with the same origin nodes are computed in one pass, i.e. one origin node after "
+				+ "the other for all these modes instead of one mode after the other. Modes which compute the same tree per origin node "
+				+ "(e.g. the constant speed modes walk and bike) then only compute it once.");
 		return map ;
 	}
 	
@@ -236,6 +252,33 @@ public final class AccessibilityConfigGroup extends ReflectiveConfigGroup{
 	public void setUseParallelization(Boolean useParallelization) {
 		this.useParallelization = useParallelization;
 	}
+	@StringGetter(COMPUTATION_BLOCK_SIZE)
+	public int getComputationBlockSize() {
+		return computationBlockSize;
+	}
+	@StringSetter(COMPUTATION_BLOCK_SIZE)
+	public void setComputationBlockSize(int computationBlockSize) {
+		if (computationBlockSize <= 0) {
+			throw new IllegalArgumentException("Computation block size must be greater than zero.");
+		}
+		this.computationBlockSize = computationBlockSize;
+	}
+	@StringGetter(COMPUTE_ALL_MODES_PER_ORIGIN)
+	public boolean isComputeAllModesPerOrigin() {
+		return computeAllModesPerOrigin;
+	}
+	@StringSetter(COMPUTE_ALL_MODES_PER_ORIGIN)
+	public void setComputeAllModesPerOrigin(boolean computeAllModesPerOrigin) {
+		this.computeAllModesPerOrigin = computeAllModesPerOrigin;
+	}
+	@StringGetter(BLOCK_RESULTS_DIRECTORY)
+	public String getBlockResultsDirectory() {
+		return blockResultsDirectory;
+	}
+	@StringSetter(BLOCK_RESULTS_DIRECTORY)
+	public void setBlockResultsDirectory(String blockResultsDirectory) {
+		this.blockResultsDirectory = blockResultsDirectory;
+	}
     @StringGetter(WEIGHT_EXPONENT)
     public double getWeightExponent() {
     	return weightExponent;
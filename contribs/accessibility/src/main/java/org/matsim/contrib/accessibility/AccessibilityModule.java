@@ -140,6 +140,9 @@ public final class AccessibilityModule extends AbstractModule {
 				
 				String outputDirectory = scenario.getConfig().controler().getOutputDirectory() + "/" + activityType;
 				AccessibilityComputationShutdownListener accessibilityShutdownListener = new AccessibilityComputationShutdownListener(scenario, measuringPoints, opportunities, outputDirectory);
+				if (acg.getBlockResultsDirectory() != null) {
+					accessibilityShutdownListener.setBlockResultsDirectory(acg.getBlockResultsDirectory() + "/" + activityType);
+				}
 
 //				for (Modes4Accessibility mode : acg.getIsComputingMode()) {
 				for( String mode : acg.getModes() ){
@@ -48,7 +48,9 @@ final class ConstantSpeedAccessibilityExpContributionCalculator implements Acces
 
 	// Estimates travel time by a constant speed along network, considering all links (including highways, which seems
 	// to be realistic in South Africa, but less elsewhere)
-	private final LeastCostPathTree lcptTravelDistance = new LeastCostPathTree(new FreeSpeedTravelTime(), new LinkLengthTravelDisutility());
+	// The distance tree is the same for all constant speed modes on the same network. It may hence be shared with other
+	// calculators of the same thread and is only recomputed for another origin node, see shareTravelDistanceTree(...).
+	private LeastCostPathTree lcptTravelDistance = new LeastCostPathTree(new FreeSpeedTravelTime(), new LinkLengthTravelDisutility());
 
 	private final String mode;
 	private Config config;
@@ -113,7 +115,9 @@ final class ConstantSpeedAccessibilityExpContributionCalculator implements Acces
 	@Override
 	public void notifyNewOriginNode(Id<? extends BasicLocation> fromNodeId, Double departureTime) {
 		this.fromNode = network.getNodes().get(fromNodeId);
-		this.lcptTravelDistance.calculate(network, fromNode, departureTime);
+		if (lcptTravelDistance.getOrigin() != fromNode || lcptTravelDistance.getDepartureTime() != departureTime) {
+			this.lcptTravelDistance.calculate(network, fromNode, departureTime);
+		}
 	}
 
 	
@@ -122,25 +126,27 @@ final class ConstantSpeedAccessibilityExpContributionCalculator implements Acces
 			Map<Id<? extends BasicLocation>, AggregationObject> aggregatedOpportunities, Double departureTime) {
 		double expSum = 0.;
 
-		for (final AggregationObject destination : aggregatedOpportunities.values()) {
-			// TODO departure time is not used, dz, apr'17
-			Link nearestLinkToOrigin = NetworkUtils.getNearestLinkExactly(network, origin.getCoord());
+		// The way from the origin to the network does not depend on the destination
+		Link nearestLinkToOrigin = NetworkUtils.getNearestLinkExactly(network, origin.getCoord());
 
-			// Captures the distance between the origin via the link to the node:
-			Distances distances = NetworkUtil.getDistances2NodeViaGivenLink(origin.getCoord(), nearestLinkToOrigin, fromNode);
+		// Captures the distance between the origin via the link to the node:
+		Distances distances = NetworkUtil.getDistances2NodeViaGivenLink(origin.getCoord(), nearestLinkToOrigin, fromNode);
 
-			// TODO: extract this walk part?
-			// In the state found before modularization (june 15), this was anyway not consistent accross modes
-			// (different for PtMatrix), pointing to the fact that making this mode-specific might make sense.
-			// distance to road, and then to node:
+		// TODO: extract this walk part?
+		// In the state found before modularization (june 15), this was anyway not consistent accross modes
+		// (different for PtMatrix), pointing to the fact that making this mode-specific might make sense.
+		// distance to road, and then to node:
 
-			// Utility to get on the network by walking
-			double distancePoint2Intersection_m = distances.getDistancePoint2Intersection();
-			double utilityMeasuringPoint2Road = (distancePoint2Intersection_m / this.walkSpeed_m_h * betaWalkTT)	+ (distancePoint2Intersection_m * betaWalkTD);
+		// Utility to get on the network by walking
+		double distancePoint2Intersection_m = distances.getDistancePoint2Intersection();
+		double utilityMeasuringPoint2Road = (distancePoint2Intersection_m / this.walkSpeed_m_h * betaWalkTT)	+ (distancePoint2Intersection_m * betaWalkTD);
 
-			// Utility on the network to first node
-			double distanceIntersection2Node_m = distances.getDistanceIntersection2Node();
-			double utilityRoad2Node = (distanceIntersection2Node_m / modeSpeed_m_h * betaModeTT)	+ (distanceIntersection2Node_m * betaModeTD); // toll or money ???
+		// Utility on the network to first node
+		double distanceIntersection2Node_m = distances.getDistanceIntersection2Node();
+		double utilityRoad2Node = (distanceIntersection2Node_m / modeSpeed_m_h * betaModeTT)	+ (distanceIntersection2Node_m * betaModeTD); // toll or money ???
+
+		for (final AggregationObject destination : aggregatedOpportunities.values()) {
+			// TODO departure time is not used, dz, apr'17
 
 			// Uutility on the network from first node to destination node
 			double travelDistance_m = lcptTravelDistance.getTree().get(((Node) destination.getNearestBasicLocation()).getId()).getCost(); // travel link distances on road network for bicycle and walk
@@ -156,6 +162,19 @@ final class ConstantSpeedAccessibilityExpContributionCalculator implements Acces
 	}
 
 
+	/**
+	 * Lets this calculator use the distance tree of another calculator, so that the tree is only computed once per origin
+	 * node for all constant speed modes, see {@link AccessibilityConfigGroup#isComputeAllModesPerOrigin()}. Both calculators
+	 * have to be used by the same thread.
+	 */
+	void shareTravelDistanceTree(ConstantSpeedAccessibilityExpContributionCalculator other) {
+		if (other.network != this.network) {
+			throw new IllegalArgumentException("The distance tree can only be shared by calculators on the same network.");
+		}
+		this.lcptTravelDistance = other.lcptTravelDistance;
+	}
+
+
 	@Override
 	public ConstantSpeedAccessibilityExpContributionCalculator duplicate() {
 		LOG.info("Creating another ConstantSpeedAccessibilityExpContributionCalculator object.");
@@ -210,6 +210,24 @@ public final class GridUtils {
 		}
 	}
 
+	/**
+	 * stores measured accessibilities in a binary raster file, see {@link SpatialGridRasterWriter}
+	 * 
+	 * @param grid SpatialGrid containing measured accessibilities
+	 * @param fileName output file, e.g. 'accessibility.bil'
+	 */
+	static void writeSpatialGridRaster( SpatialGrid grid, String fileName ){
+
+		LOG.info("Writing spatial grid raster " + fileName + " ...");
+		SpatialGridRasterWriter sgRasterWriter = new SpatialGridRasterWriter();
+		try{
+			sgRasterWriter.write(grid, fileName);
+			LOG.info("... done!");
+		}catch(IOException e){
+			e.printStackTrace();
+		}
+	}
+
 	public static final String WEIGHT = "weight";
 
 	public static final void writeSpatialGrids( List<SpatialGrid> spatialGrids, String path ) {
@@ -406,6 +406,14 @@ public final class SpatialGrid{
 		GridUtils.writeSpatialGridTable(this, filename );
 	}
 	
+	/**
+	 * writes the grid as binary raster, see {@link SpatialGridRasterWriter}
+	 * @param filename
+	 */
+	public void writeToRasterFile(String filename){
+		GridUtils.writeSpatialGridRaster(this, filename );
+	}
+	
 	/**
 	 * for testing
 	 * @param args
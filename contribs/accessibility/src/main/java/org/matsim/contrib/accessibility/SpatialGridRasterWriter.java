@@ -0,0 +1,39 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * SpatialGridRasterWriter.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.contrib.accessibility;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.matsim.contrib.analysis.spatial.BilRasterWriter;
+
+/**
+ * Writes a {@link SpatialGrid} as binary raster instead of the text table of {@link SpatialGridTableWriter}, in the ESRI
+ * band interleaved by line (BIL) format, see {@link BilRasterWriter}. Cells without value are NaN.
+ */
+public final class SpatialGridRasterWriter {
+
+	public void write(SpatialGrid grid, String fileName) throws IOException {
+		double[][] matrix = grid.getMatrix();
+		// the matrix is stored mirrored, i.e. the first row is the northern most one, which is what the format expects
+		BilRasterWriter.write(Paths.get(fileName), grid.getNumRows(), grid.getNumCols(0), grid.getXmin(), grid.getYmin(),
+				grid.getResolution(), (row, col) -> matrix[row][col]);
+	}
+}
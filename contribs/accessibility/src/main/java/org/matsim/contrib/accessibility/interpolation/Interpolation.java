@@ -1,5 +1,7 @@
 package org.matsim.contrib.accessibility.interpolation;
 
+import java.util.stream.IntStream;
+
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.Coord;
 import org.matsim.contrib.accessibility.SpatialGrid;
@@ -34,6 +36,8 @@ public final class Interpolation {
 	public static final int BICUBIC = 1;
 	public static final int INVERSE_DISTANCE_WEIGHTING = 2;
 	
+	static final int TILE_ROWS = 16;
+	
 	private SpatialGrid sg = null;
 	private BiCubicInterpolator biCubicInterpolator = null;
 	private BiLinearInterpolator biLinearInterpolator = null;
@@ -112,6 +116,31 @@ public final class Interpolation {
 		return Double.NaN;
 	}
 
+	/**
+	 * Interpolates the values of all cells of the given grid, e.g. a grid with a finer resolution than the one to interpolate.
+	 * The grid is divided into tiles of {@link #TILE_ROWS} rows which are interpolated in parallel. 
+	 * 
+	 * @param target the grid to fill with interpolated values
+	 * @return the target grid
+	 */
+	public SpatialGrid interpolate(SpatialGrid target){
+		final double[][] matrix = target.getMatrix();
+		final int numRows = target.getNumRows();
+		final int numTiles = (numRows + TILE_ROWS - 1) / TILE_ROWS;
+		
+		IntStream.range(0, numTiles).parallel().forEach(tile -> {
+			for (int row = tile * TILE_ROWS; row < Math.min((tile + 1) * TILE_ROWS, numRows); row++) {
+				// the matrix is stored mirrored, see SpatialGrid
+				double y = target.getYmin() + (numRows - 1 - row) * target.getResolution();
+				for (int col = 0; col < matrix[row].length; col++) {
+					double x = target.getXmin() + col * target.getResolution();
+					matrix[row][col] = interpolate(x, y);
+				}
+			}
+		});
+		return target;
+	}
+
 	public int getInterpolationMethod() {
 		return interpolationMethod;
 	}	
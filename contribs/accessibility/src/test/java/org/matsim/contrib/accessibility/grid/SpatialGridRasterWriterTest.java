@@ -0,0 +1,54 @@
+package org.matsim.contrib.accessibility.grid;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.contrib.accessibility.SpatialGrid;
+import org.matsim.contrib.accessibility.SpatialGridRasterWriter;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class SpatialGridRasterWriterTest {
+
+	@Rule public MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	public void testWrite() throws IOException {
+		// more rows than fit into one chunk
+		SpatialGrid grid = new SpatialGrid(0., 0., 20., 1000., 10., Double.NaN);
+		for (double y = grid.getYmin(); y <= grid.getYmax(); y += grid.getResolution()) {
+			for (double x = grid.getXmin(); x <= grid.getXmax(); x += grid.getResolution()) {
+				if (x != 10.) {
+					grid.setValue(x + 1000 * y, x, y);
+				}
+			}
+		}
+
+		String fileName = utils.getOutputDirectory() + "accessibility.bil";
+		new SpatialGridRasterWriter().write(grid, fileName);
+
+		List<String> header = Files.readAllLines(Paths.get(utils.getOutputDirectory() + "accessibility.hdr"));
+		Assert.assertTrue(header.contains("NROWS 101"));
+		Assert.assertTrue(header.contains("NCOLS 3"));
+		Assert.assertTrue(header.contains("ULXMAP 5.0"));
+		Assert.assertTrue(header.contains("ULYMAP 1005.0"));
+
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(Paths.get(fileName))).order(ByteOrder.LITTLE_ENDIAN);
+		Assert.assertEquals(101 * 3 * Float.BYTES, data.capacity());
+
+		// rows are written from north to south
+		for (int row = 0; row < 101; row++) {
+			double y = grid.getYmax() - row * grid.getResolution();
+			for (int col = 0; col < 3; col++) {
+				double x = grid.getXmin() + col * grid.getResolution();
+				Assert.assertEquals((float) grid.getValue(x, y), data.getFloat(), 0.f);
+			}
+		}
+	}
+}
@@ -0,0 +1,31 @@
+package org.matsim.contrib.accessibility.interpolation;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.contrib.accessibility.SpatialGrid;
+
+public class InterpolationTest {
+
+	@Test
+	public void testInterpolateGrid() {
+		// a linear function is reproduced exactly by bilinear interpolation
+		SpatialGrid sg = new SpatialGrid(0., 0., 100., 200., 10., Double.NaN);
+		for (double y = sg.getYmin(); y <= sg.getYmax(); y += sg.getResolution()) {
+			for (double x = sg.getXmin(); x <= sg.getXmax(); x += sg.getResolution()) {
+				sg.setValue(x + 2 * y, x, y);
+			}
+		}
+		Interpolation interpolation = new Interpolation(sg, Interpolation.BILINEAR);
+
+		// more rows than one tile, so that several tiles are interpolated
+		SpatialGrid target = interpolation.interpolate(new SpatialGrid(0., 0., 97.5, 197.5, 2.5, Double.NaN));
+		Assert.assertTrue(target.getNumRows() > Interpolation.TILE_ROWS);
+
+		for (double y = target.getYmin(); y <= target.getYmax(); y += target.getResolution()) {
+			for (double x = target.getXmin(); x <= target.getXmax(); x += target.getResolution()) {
+				Assert.assertEquals(x + 2 * y, target.getValue(x, y), 1e-9);
+				Assert.assertEquals(interpolation.interpolate(x, y), target.getValue(x, y), 0.);
+			}
+		}
+	}
+}
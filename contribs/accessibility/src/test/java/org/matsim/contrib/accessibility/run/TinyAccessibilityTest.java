@@ -19,6 +19,7 @@
 
 package org.matsim.contrib.accessibility.run;
 
+import java.io.File;
 import java.util.*;
 
 import org.apache.log4j.Logger;
@@ -113,6 +114,109 @@ public class TinyAccessibilityTest {
 	}
 
 
+	@Test
+	public void testWithBoundingBoxAndBlockResults() {
+		final Config config = createTestConfig();
+
+		double min = 0.; // Values for bounding box usually come from a config file
+		double max = 200.;
+
+		AccessibilityConfigGroup acg = ConfigUtils.addOrGetModule(config, AccessibilityConfigGroup.class) ;
+		acg.setAreaOfAccessibilityComputation(AreaOfAccesssibilityComputation.fromBoundingBox);
+		acg.setBoundingBoxBottom(min);
+		acg.setBoundingBoxTop(max);
+		acg.setBoundingBoxLeft(min);
+		acg.setBoundingBoxRight(max);
+		acg.setComputationBlockSize(1);
+		acg.setBlockResultsDirectory(utils.getOutputDirectory() + "blocks/");
+
+		// first run computes and writes all blocks
+		Map<String, Double> expected = new HashMap<>();
+		runWithResultsComparator(createTestScenario(config), expected);
+		// no activity type is set in this test, hence the "null" sub directories
+		File blocksDirectory = new File(utils.getOutputDirectory() + "blocks/null/");
+		Assert.assertEquals(1, blocksDirectory.list((dir, name) -> name.startsWith("freespeed_28800_0_1_")).length);
+		Assert.assertTrue(new File(utils.getOutputDirectory() + "null/" + CSVWriter.FILE_NAME).exists());
+
+		// second run (e.g. after an interruption) re-uses the blocks written before
+		config.controler().setOverwriteFileSetting(OverwriteFileSetting.overwriteExistingFiles);
+		int numberOfBlockFiles = blocksDirectory.list().length;
+		Map<String, Double> reused = new HashMap<>();
+		runWithResultsComparator(createTestScenario(config), reused);
+		Assert.assertEquals(numberOfBlockFiles, blocksDirectory.list().length);
+		Assert.assertEquals(expected, reused);
+
+		// the blocks of another block size must not be re-used, but computed again
+		acg.setComputationBlockSize(2);
+		Map<String, Double> recomputed = new HashMap<>();
+		runWithResultsComparator(createTestScenario(config), recomputed);
+		Assert.assertEquals(1, blocksDirectory.list((dir, name) -> name.startsWith("freespeed_28800_0_2_")).length);
+		Assert.assertEquals(expected.keySet(), recomputed.keySet());
+		for (Map.Entry<String, Double> entry : expected.entrySet()) {
+			Assert.assertEquals(entry.getKey(), entry.getValue(), recomputed.get(entry.getKey()), MatsimTestUtils.EPSILON);
+		}
+	}
+
+
+	@Test
+	public void testWithBoundingBoxAndAllModesPerOrigin() {
+		final Config config = createTestConfig();
+
+		double min = 0.; // Values for bounding box usually come from a config file
+		double max = 200.;
+
+		AccessibilityConfigGroup acg = ConfigUtils.addOrGetModule(config, AccessibilityConfigGroup.class) ;
+		acg.setAreaOfAccessibilityComputation(AreaOfAccesssibilityComputation.fromBoundingBox);
+		acg.setBoundingBoxBottom(min);
+		acg.setBoundingBoxTop(max);
+		acg.setBoundingBoxLeft(min);
+		acg.setBoundingBoxRight(max);
+		acg.setComputingAccessibilityForMode(Modes4Accessibility.walk, true);
+		acg.setComputingAccessibilityForMode(Modes4Accessibility.bike, true);
+
+		// one mode after the other
+		Map<String, Double> expected = new HashMap<>();
+		runWithResultsComparator(createTestScenario(config), expected);
+
+		// all modes per origin node, sharing the distance tree between walk and bike
+		acg.setComputeAllModesPerOrigin(true);
+		config.controler().setOverwriteFileSetting(OverwriteFileSetting.deleteDirectoryIfExists);
+		Map<String, Double> actual = new HashMap<>();
+		runWithResultsComparator(createTestScenario(config), actual);
+
+		Assert.assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<String, Double> entry : expected.entrySet()) {
+			Assert.assertEquals(entry.getKey(), entry.getValue(), actual.get(entry.getKey()), MatsimTestUtils.EPSILON);
+		}
+	}
+
+
+	private static void runWithResultsComparator(Scenario sc) {
+		runWithResultsComparator(sc, new HashMap<>());
+	}
+
+
+	private static void runWithResultsComparator(Scenario sc, Map<String, Double> accessibilities) {
+		Controler controler = new Controler(sc);
+
+		final AccessibilityModule module = new AccessibilityModule();
+		module.addFacilityDataExchangeListener(new ResultsComparator());
+		module.addFacilityDataExchangeListener(new FacilityDataExchangeInterface() {
+			@Override
+			public synchronized void setFacilityAccessibilities(ActivityFacility measurePoint, Double timeOfDay, String mode, double accessibility) {
+				accessibilities.put(measurePoint.getCoord() + "_" + timeOfDay + "_" + mode, accessibility);
+			}
+
+			@Override
+			public void finish() {
+			}
+		});
+		controler.addOverridingModule(module);
+
+		controler.run();
+	}
+
+
 	private Config createTestConfig() {
 		final Config config = ConfigUtils.createConfig();
 
@@ -257,6 +361,7 @@ public class TinyAccessibilityTest {
 
 		@Override
 		public void finish() {
+			Assert.assertFalse("No accessibilities received.", accessibilitiesMap.isEmpty());
 			for (Tuple<ActivityFacility, Double> tuple : accessibilitiesMap.keySet()) {
 				LOG.warn("CHECK X = " + tuple.getFirst().getCoord().getX() + " -- Y = " + tuple.getFirst().getCoord().getY() + " -- freespeed value = " + accessibilitiesMap.get(tuple).get("freespeed"));
 				LOG.warn("CHECK X = " + tuple.getFirst().getCoord().getX() + " -- Y = " + tuple.getFirst().getCoord().getY() + " -- car value = " + accessibilitiesMap.get(tuple).get(TransportMode.car));
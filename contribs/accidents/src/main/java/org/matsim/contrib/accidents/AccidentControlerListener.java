@@ -20,8 +20,10 @@
 package org.matsim.contrib.accidents;
 
 import java.util.ArrayList;
+import java.util.Map;
 
 import org.apache.log4j.Logger;
+import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.Scenario;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.contrib.accidents.AccidentsConfigGroup.AccidentsComputationMethod;
@@ -50,6 +52,10 @@ import com.google.inject.Inject;
 	@Inject
 	private AccidentsContext accidentsContext;
 
+	// indexed by link index
+	private double[] costRates;
+	private double[] linkLengths;
+
 	@Inject AccidentControlerListener(){}
 		
 	@Override
@@ -62,59 +68,42 @@ import com.google.inject.Inject;
 	public void notifyAfterMobsim(AfterMobsimEvent event) {
 		
 		log.info("Computing accident costs per link and time bin...");
-		AccidentsConfigGroup accidentsCfg = (AccidentsConfigGroup) scenario.getConfig().getModules().get(AccidentsConfigGroup.GROUP_NAME);
+		final AccidentsConfigGroup accidentSettings = (AccidentsConfigGroup) scenario.getConfig().getModules().get(AccidentsConfigGroup.GROUP_NAME);
 		
-		double totalAccidentCostsPerDay = 0.;
-		
-		final double timeBinSize = this.scenario.getConfig().travelTimeCalculator().getTraveltimeBinSize();	
+		final double timeBinSize = this.scenario.getConfig().travelTimeCalculator().getTraveltimeBinSize();
+		final int numberOfTimeBins = (int) (this.scenario.getConfig().travelTimeCalculator().getMaxTime() / timeBinSize);
 		
 		for (AccidentLinkInfo linkInfo : this.accidentsContext.getLinkId2info().values()) {
-					
-			Link link = this.scenario.getNetwork().getLinks().get(linkInfo.getLinkId());			
-
-			for (double endTime = timeBinSize ; endTime <= this.scenario.getConfig().travelTimeCalculator().getMaxTime(); endTime = endTime + timeBinSize ) {
-				
-				final double time = (endTime - timeBinSize/2.);
-				final int timeBinNr = (int) (time / timeBinSize);
-				
-				final AccidentsConfigGroup accidentSettings = (AccidentsConfigGroup) scenario.getConfig().getModules().get(AccidentsConfigGroup.GROUP_NAME);
-				final double demand = accidentSettings.getScaleFactor() * analzyer.getDemand(linkInfo.getLinkId(), timeBinNr);
-				
-				double accidentCosts = 0.;
-								
-				String linkAccidentsComputationMethod = (String) this.scenario.getNetwork().getLinks().get(linkInfo.getLinkId()).getAttributes().getAttribute(accidentsCfg.getAccidentsComputationMethodAttributeName());
+			linkInfo.getTimeSpecificInfo().clear();
+		}
+		
+		// links without demand have no accident costs, hence only consider the links and time bins with demand
+		final double totalAccidentCostsPerDay = analzyer.getLinkId2time2leavingAgents().entrySet().parallelStream().mapToDouble(entry -> {
+			
+			AccidentLinkInfo linkInfo = this.accidentsContext.getLinkId2info().get(entry.getKey());
+			if (linkInfo == null) {
+				return 0.;
+			}
+			final int linkIndex = entry.getKey().index();
+			
+			double accidentCosts = 0.;
+			for (Map.Entry<Integer, Integer> timeBin2leavingAgents : entry.getValue().entrySet()) {
 				
-				if (linkAccidentsComputationMethod == null) {
-					throw new RuntimeException("Required link attribute " + accidentsCfg.getAccidentsComputationMethodAttributeName() + " is null."
-							+ " Please pre-process your network and specify the link attributes that are required to compute accident costs. Aborting...");
+				final int timeBinNr = timeBin2leavingAgents.getKey();
+				if (timeBinNr >= numberOfTimeBins) {
+					continue;
 				}
+				final double demand = accidentSettings.getScaleFactor() * timeBin2leavingAgents.getValue();
 				
-				if (linkAccidentsComputationMethod.equals( AccidentsComputationMethod.BVWP.toString() )) {
-					String bvwpRoadTypeString = (String) link.getAttributes().getAttribute( AccidentsConfigGroup.BVWP_ROAD_TYPE_ATTRIBUTE_NAME );
-
-					if (bvwpRoadTypeString == null) {
-						throw new RuntimeException("Required link attribute " + AccidentsConfigGroup.BVWP_ROAD_TYPE_ATTRIBUTE_NAME + " is null."
-								+ " Please pre-process your network and specify the link attributes that are required to compute accident costs. Aborting...");
-					}
-					
-					ArrayList<Integer> bvwpRoadType = new ArrayList<>();
-					bvwpRoadType.add(0, Integer.valueOf(bvwpRoadTypeString.split(",")[0]));
-					bvwpRoadType.add(1, Integer.valueOf(bvwpRoadTypeString.split(",")[1]));
-					bvwpRoadType.add(2, Integer.valueOf(bvwpRoadTypeString.split(",")[2]));
-					accidentCosts = AccidentCostComputationBVWP.computeAccidentCosts(demand, link, bvwpRoadType);
-				
-				} else {
-					throw new RuntimeException("Unknown accident computation approach or value not set. Aborting...");
-				}
-								
 				TimeBinInfo timeBinInfo = new TimeBinInfo(timeBinNr);
-				timeBinInfo.setAccidentCosts(accidentCosts);
-				
+				timeBinInfo.setAccidentCosts(AccidentCostComputationBVWP.computeAccidentCosts(demand, this.linkLengths[linkIndex], this.costRates[linkIndex]));
 				linkInfo.getTimeSpecificInfo().put(timeBinNr, timeBinInfo);
 				
-				totalAccidentCostsPerDay += accidentCosts;
+				accidentCosts += timeBinInfo.getAccidentCosts();
 			}
-		}
+			return accidentCosts;
+		}).sum();
+		
 		log.info("Computing accident costs per link and time bin... Done.");
 		
 		log.info("+++ Total accident costs per day [EUR] (upscaled to full population size): " + totalAccidentCostsPerDay);		
@@ -128,6 +117,49 @@ import com.google.inject.Inject;
 			this.accidentsContext.getLinkId2info().put(link.getId(), info);
 		}
 		log.info("Initializing all link-specific information... Done.");
+		
+		initializeCostRates();
+	}
 
+	/**
+	 * The road types and hence the cost rates do not change during the simulation. They are looked up once and stored by link index,
+	 * so that the computation after each mobsim only needs to multiply them with the demand.
+	 */
+	private void initializeCostRates() {
+		
+		AccidentsConfigGroup accidentsCfg = (AccidentsConfigGroup) scenario.getConfig().getModules().get(AccidentsConfigGroup.GROUP_NAME);
+		
+		this.costRates = new double[Id.getNumberOfIds(Link.class)];
+		this.linkLengths = new double[Id.getNumberOfIds(Link.class)];
+		
+		for (Link link : this.scenario.getNetwork().getLinks().values()) {
+			
+			String linkAccidentsComputationMethod = (String) link.getAttributes().getAttribute(accidentsCfg.getAccidentsComputationMethodAttributeName());
+			
+			if (linkAccidentsComputationMethod == null) {
+				throw new RuntimeException("Required link attribute " + accidentsCfg.getAccidentsComputationMethodAttributeName() + " is null."
+						+ " Please pre-process your network and specify the link attributes that are required to compute accident costs. Aborting...");
+			}
+			
+			if (linkAccidentsComputationMethod.equals( AccidentsComputationMethod.BVWP.toString() )) {
+				String bvwpRoadTypeString = (String) link.getAttributes().getAttribute( AccidentsConfigGroup.BVWP_ROAD_TYPE_ATTRIBUTE_NAME );
+
+				if (bvwpRoadTypeString == null) {
+					throw new RuntimeException("Required link attribute " + AccidentsConfigGroup.BVWP_ROAD_TYPE_ATTRIBUTE_NAME + " is null."
+							+ " Please pre-process your network and specify the link attributes that are required to compute accident costs. Aborting...");
+				}
+				
+				ArrayList<Integer> bvwpRoadType = new ArrayList<>();
+				bvwpRoadType.add(0, Integer.valueOf(bvwpRoadTypeString.split(",")[0]));
+				bvwpRoadType.add(1, Integer.valueOf(bvwpRoadTypeString.split(",")[1]));
+				bvwpRoadType.add(2, Integer.valueOf(bvwpRoadTypeString.split(",")[2]));
+				this.costRates[link.getId().index()] = AccidentCostComputationBVWP.getCostRate(link, bvwpRoadType);
+				this.linkLengths[link.getId().index()] = link.getLength();
+			
+			} else {
+				throw new RuntimeException("Unknown accident computation approach or value not set. Aborting...");
+			}
+		}
+		log.info("Initializing the accident cost rates of all links... Done.");
 	}
 }
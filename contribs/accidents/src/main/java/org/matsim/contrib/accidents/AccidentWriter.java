@@ -124,9 +124,12 @@ class AccidentWriter {
 				int timeBinNr = (int) (time / timeBinSize);
 				
 				if (linkComputationMethod.toString().equals( AccidentsConfigGroup.AccidentsComputationMethod.BVWP.toString() )){
-					accidentCostsPerDay_BVWP += info.getTimeSpecificInfo().get(timeBinNr).getAccidentCosts();
+					// there is no time bin info if there was no demand
+					TimeBinInfo timeBinInfo = info.getTimeSpecificInfo().get(timeBinNr);
+					double accidentCosts = timeBinInfo == null ? 0. : timeBinInfo.getAccidentCosts();
+					accidentCostsPerDay_BVWP += accidentCosts;
 					try {
-						accidentCostsBVWP.write(Double.toString(info.getTimeSpecificInfo().get(timeBinNr).getAccidentCosts()));
+						accidentCostsBVWP.write(Double.toString(accidentCosts));
 						accidentCostsBVWP.write(";");
 					} catch (IOException e) {
 						e.printStackTrace();
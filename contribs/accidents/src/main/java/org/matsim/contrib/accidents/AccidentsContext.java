@@ -42,5 +42,18 @@ public final class AccidentsContext {
 		return linkId2info;
 	}
 
+	/**
+	 * @return the accident costs in EUR of the last iteration on the given link and time bin, e.g. to be used for pricing.
+	 * The time bins are those of the travel time calculator.
+	 */
+	public double getAccidentCosts(Id<Link> linkId, int timeBinNr) {
+		AccidentLinkInfo info = linkId2info.get(linkId);
+		if (info == null) {
+			return 0.;
+		}
+		TimeBinInfo timeBinInfo = info.getTimeSpecificInfo().get(timeBinNr);
+		return timeBinInfo == null ? 0. : timeBinInfo.getAccidentCosts();
+	}
+
 }
 
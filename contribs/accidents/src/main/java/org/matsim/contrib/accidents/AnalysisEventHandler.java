@@ -116,6 +116,13 @@ public final class AnalysisEventHandler implements EventHandler, LinkLeaveEventH
 		return demand;
 	}
 
+	/**
+	 * @return the number of leaving agents per time bin of all links which were left by at least one agent
+	 */
+	Map<Id<Link>, Map<Integer, Integer>> getLinkId2time2leavingAgents() {
+		return linkId2time2leavingAgents;
+	}
+
 	public Map<Id<Link>, Map<Integer, List<Id<Person>>>> getLinkId2time2personIds() {
 		return linkId2time2personIds;
 	}
@@ -86,4 +86,29 @@ public class BvwpAccidentsCostComputationTest {
 		double costs = AccidentCostComputationBVWP.computeAccidentCosts(1000, link1, list);
 		Assert.assertEquals("wrong cost", 101.53, costs, MatsimTestUtils.EPSILON);
 	}
+	
+	@Test
+	public void testPrecomputedCostRate() {
+		Network network = NetworkUtils.createNetwork();
+		NetworkFactory factory = network.getFactory();
+		
+		Node n0 = factory.createNode(Id.createNodeId(0), new Coord(0, 1));
+		network.addNode(n0);
+		Node n1 = factory.createNode(Id.createNodeId(1), new Coord(1, 0));
+		network.addNode(n1);
+		
+		Link link1 = factory.createLink(Id.createLinkId("link_1"), n0, n1);
+		link1.setLength(15871.5137629840428417082875967025757);
+		
+		ArrayList<Integer> list = new ArrayList<>();
+		list.add(0, 0); //Planfrei
+		list.add(1, 0); //KFZ, außerhalb
+		list.add(2, 2); //2 Lanes	
+		
+		double costRate = AccidentCostComputationBVWP.getCostRate(link1, list);
+		Assert.assertEquals("wrong cost rate", 23.165, costRate, MatsimTestUtils.EPSILON);
+		
+		double costs = AccidentCostComputationBVWP.computeAccidentCosts(4820, link1.getLength(), costRate);
+		Assert.assertEquals("wrong cost", AccidentCostComputationBVWP.computeAccidentCosts(4820, link1, list), costs, 0.);
+	}
 }
@@ -0,0 +1,132 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.analysis.spatial;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Writes rasters as binary files, so that large rasters don't have to be serialized into text formats.
+ * <p>
+ * The format is the ESRI band interleaved by line (BIL) format, which can be read by GDAL and therefore by most GIS
+ * tools, e.g. QGIS. The values are stored as 32 bit floats in little endian byte order, row by row starting with the
+ * northern most row. The geo referencing is written into a header file next to the raster file. The header file has the
+ * same name as the raster file but the extension '.hdr'. Since every row has a fixed offset, the rows are converted in
+ * chunks of {@link #CHUNK_ROWS} rows in parallel and written to their position in the file.
+ */
+public final class BilRasterWriter {
+
+    static final int CHUNK_ROWS = 64;
+
+    /**
+     * Provides the values of the cells, row 0 being the northern most row and column 0 the western most column.
+     */
+    @FunctionalInterface
+    public interface CellValues {
+        double getValue(int row, int col);
+    }
+
+    private BilRasterWriter() {
+    }
+
+    /**
+     * Writes the raster into the given file and the header into the corresponding '.hdr' file.
+     *
+     * @param file     path to the raster file e.g. '/path/to/NOx_28800.bil'
+     * @param minX     the center of the western most cells is at minX + cellSize / 2
+     * @param minY     the center of the southern most cells is at minY + cellSize / 2
+     * @param cellSize width and height of the cells
+     * @param values   the values of the cells, which may be requested from several threads
+     */
+    public static void write(final Path file, final int numRows, final int numCols, final double minX, final double minY,
+                             final double cellSize, final CellValues values) throws IOException {
+
+        writeHeader(getHeaderFile(file), numRows, numCols, minX, minY, cellSize);
+        writeData(file, numRows, numCols, values);
+    }
+
+    public static Path getHeaderFile(final Path file) {
+
+        var fileName = file.getFileName().toString();
+        var extensionIndex = fileName.lastIndexOf('.');
+        var baseName = extensionIndex > 0 ? fileName.substring(0, extensionIndex) : fileName;
+        return file.resolveSibling(baseName + ".hdr");
+    }
+
+    private static void writeHeader(final Path headerFile, final int numRows, final int numCols, final double minX,
+                                    final double minY, final double cellSize) throws IOException {
+
+        // ULXMAP and ULYMAP are the center of the upper left cell
+        var lines = List.of(
+                "BYTEORDER I",
+                "LAYOUT BIL",
+                "NROWS " + numRows,
+                "NCOLS " + numCols,
+                "NBANDS 1",
+                "NBITS 32",
+                "PIXELTYPE FLOAT",
+                "ULXMAP " + (minX + cellSize / 2),
+                "ULYMAP " + (minY + (numRows - 1) * cellSize + cellSize / 2),
+                "XDIM " + cellSize,
+                "YDIM " + cellSize
+        );
+        Files.write(headerFile, lines, StandardCharsets.US_ASCII);
+    }
+
+    private static void writeData(final Path file, final int numRows, final int numCols, final CellValues values) throws IOException {
+
+        var numChunks = (numRows + CHUNK_ROWS - 1) / CHUNK_ROWS;
+
+        try (var channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            IntStream.range(0, numChunks).parallel().forEach(chunk -> {
+                var firstRow = chunk * CHUNK_ROWS;
+                var lastRow = Math.min(firstRow + CHUNK_ROWS, numRows);
+
+                var buffer = ByteBuffer.allocate((lastRow - firstRow) * numCols * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                for (var row = firstRow; row < lastRow; row++) {
+                    for (var col = 0; col < numCols; col++) {
+                        buffer.putFloat((float) values.getValue(row, col));
+                    }
+                }
+                buffer.flip();
+
+                var position = (long) firstRow * numCols * Float.BYTES;
+                try {
+                    while (buffer.hasRemaining()) {
+                        position += channel.write(buffer, position);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+}
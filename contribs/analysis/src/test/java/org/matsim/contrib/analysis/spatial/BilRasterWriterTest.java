@@ -0,0 +1,45 @@
+package org.matsim.contrib.analysis.spatial;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class BilRasterWriterTest {
+
+    @Rule
+    public MatsimTestUtils utils = new MatsimTestUtils();
+
+    @Test
+    public void write() throws IOException {
+
+        // more rows than fit into one chunk
+        var numRows = BilRasterWriter.CHUNK_ROWS * 2 + 3;
+        var numCols = 4;
+        var file = Paths.get(utils.getOutputDirectory()).resolve("raster.bil");
+        BilRasterWriter.write(file, numRows, numCols, 100, 200, 10, (row, col) -> row * 10 + col);
+
+        var header = Files.readAllLines(Paths.get(utils.getOutputDirectory()).resolve("raster.hdr"));
+        assertEquals(11, header.size());
+        assertEquals("NROWS " + numRows, header.get(2));
+        assertEquals("NCOLS 4", header.get(3));
+        assertEquals("ULXMAP 105.0", header.get(7));
+        assertEquals("ULYMAP " + (200 + (numRows - 1) * 10 + 5.0), header.get(8));
+        assertEquals("XDIM 10.0", header.get(9));
+
+        var data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(numRows * numCols * Float.BYTES, data.capacity());
+        for (var row = 0; row < numRows; row++) {
+            for (var col = 0; col < numCols; col++) {
+                assertEquals(row * 10 + col, data.getFloat(), 0.);
+            }
+        }
+    }
+}
@@ -24,8 +24,6 @@
 
 package org.matsim.contrib.decongestion;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.SortedMap;
 import java.util.TreeMap;
 
@@ -143,16 +141,17 @@ public class DecongestionControlerListener implements StartupListener, AfterMobs
 	private void computeDelays(AfterMobsimEvent event) {		
 		TravelTime travelTime = event.getServices().getLinkTravelTimes();
 		int timeBinSize = this.congestionInfo.getScenario().getConfig().travelTimeCalculator().getTraveltimeBinSize();
+		int numberOfTimeBins = (int) (this.congestionInfo.getScenario().getConfig().travelTimeCalculator().getMaxTime() / timeBinSize);
+		
+		// re-used for all links, copied into the link info
+		double[] time2avgDelay = new double[numberOfTimeBins];
 		
 		for (Link link : this.congestionInfo.getScenario().getNetwork().getLinks().values()) {
 			
-			Map<Integer, Double> time2avgDelay = new HashMap<>();
-			
-			int timeBinCounter = 0;
 			boolean linkHasAtLeastOneTimeBinWithNonZeroAvgDelay = false;
 			
-			for (int endTime = timeBinSize ; endTime <= this.congestionInfo.getScenario().getConfig().travelTimeCalculator().getMaxTime(); endTime = endTime + timeBinSize ) {
-				final double probedTime = endTime - timeBinSize / 2.;
+			for (int timeBinCounter = 0; timeBinCounter < numberOfTimeBins; timeBinCounter++) {
+				final double probedTime = (timeBinCounter + 1) * timeBinSize - timeBinSize / 2.;
 				double freespeedTravelTime = link.getLength() / link.getFreespeed( probedTime ) ;
 				final double congestedTravelTime = travelTime.getLinkTravelTime(link, probedTime, null, null);
 				double avgDelay = congestedTravelTime - freespeedTravelTime;
@@ -161,19 +160,19 @@ public class DecongestionControlerListener implements StartupListener, AfterMobs
 					linkHasAtLeastOneTimeBinWithNonZeroAvgDelay = true;
 				}
 				
-				time2avgDelay.put(timeBinCounter, avgDelay);				
-				timeBinCounter++;
+				time2avgDelay[timeBinCounter] = avgDelay;
 			}
 			
-			if (this.congestionInfo.getlinkInfos().get(link.getId()) != null) {
-				this.congestionInfo.getlinkInfos().get(link.getId()).setTime2avgDelay(time2avgDelay);
+			LinkInfo linkInfo = this.congestionInfo.getLinkInfo(link.getId());
+			if (linkInfo != null) {
+				linkInfo.setTime2avgDelay(time2avgDelay);
 			} else {
 				
 				// only store the linkInfo for links with at least one time bin with a non-zero delay
 				if (linkHasAtLeastOneTimeBinWithNonZeroAvgDelay) {
-					LinkInfo linkInfo = new LinkInfo(link);
+					linkInfo = new LinkInfo(link, numberOfTimeBins);
 					linkInfo.setTime2avgDelay(time2avgDelay);
-					this.congestionInfo.getlinkInfos().put(link.getId(), linkInfo);
+					this.congestionInfo.addLinkInfo(linkInfo);
 				}
 			}
 		}
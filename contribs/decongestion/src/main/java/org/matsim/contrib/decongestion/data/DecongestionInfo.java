@@ -19,8 +19,12 @@
 
 package org.matsim.contrib.decongestion.data;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 
@@ -45,6 +49,9 @@ public class DecongestionInfo {
 	@Inject private DecongestionConfigGroup decongestionConfigGroup ;
 	
 	private final Map<Id<Link>, LinkInfo> linkId2info = new HashMap<>();
+	// the same link infos by link index, for the lookups on every link event and in the router
+	private LinkInfo[] linkIndex2info = new LinkInfo[0];
+	private final Map<Id<Link>, LinkInfo> linkInfos = new LinkInfos();
 	private final Map<Id<Vehicle>, Id<Person>> vehicleId2personId = new HashMap<>();
 	private final Set<Id<Vehicle>> transitVehicleIDs = new HashSet<>();
 
@@ -57,7 +64,19 @@ public class DecongestionInfo {
 	}
 	
 	public Map<Id<Link>, LinkInfo> getlinkInfos() {
-		return linkId2info;
+		return linkInfos;
+	}
+
+	/**
+	 * @return the link info of the given link or null if there is none
+	 */
+	public LinkInfo getLinkInfo(Id<Link> linkId) {
+		int index = linkId.index();
+		return index < linkIndex2info.length ? linkIndex2info[index] : null;
+	}
+
+	public void addLinkInfo(LinkInfo linkInfo) {
+		linkInfos.put(linkInfo.getLink().getId(), linkInfo);
 	}
 
 	public DecongestionConfigGroup getDecongestionConfigGroup() {
@@ -67,6 +86,93 @@ public class DecongestionInfo {
 	public Set<Id<Vehicle>> getTransitVehicleIDs() {
 		return transitVehicleIDs;
 	}
-	
+
+	/**
+	 * The link infos by link id, which keeps the link infos by link index up to date when it is modified.
+	 */
+	private final class LinkInfos extends AbstractMap<Id<Link>, LinkInfo> {
+
+		@Override
+		public LinkInfo get(Object key) {
+			return linkId2info.get(key);
+		}
+
+		@Override
+		public boolean containsKey(Object key) {
+			return linkId2info.containsKey(key);
+		}
+
+		@Override
+		public LinkInfo put(Id<Link> linkId, LinkInfo linkInfo) {
+			if (linkId.index() >= linkIndex2info.length) {
+				linkIndex2info = Arrays.copyOf(linkIndex2info, Math.max(linkId.index() + 1, Id.getNumberOfIds(Link.class)));
+			}
+			linkIndex2info[linkId.index()] = linkInfo;
+			return linkId2info.put(linkId, linkInfo);
+		}
+
+		@Override
+		public LinkInfo remove(Object key) {
+			LinkInfo previous = linkId2info.remove(key);
+			if (previous != null) {
+				linkIndex2info[((Id<?>) key).index()] = null;
+			}
+			return previous;
+		}
+
+		@Override
+		public void clear() {
+			linkId2info.clear();
+			Arrays.fill(linkIndex2info, null);
+		}
+
+		@Override
+		public int size() {
+			return linkId2info.size();
+		}
+
+		@Override
+		public Set<Entry<Id<Link>, LinkInfo>> entrySet() {
+			return new AbstractSet<Entry<Id<Link>, LinkInfo>>() {
+				@Override
+				public Iterator<Entry<Id<Link>, LinkInfo>> iterator() {
+					Iterator<Entry<Id<Link>, LinkInfo>> iterator = linkId2info.entrySet().iterator();
+					return new Iterator<Entry<Id<Link>, LinkInfo>>() {
+						private Entry<Id<Link>, LinkInfo> current = null;
+
+						@Override
+						public boolean hasNext() {
+							return iterator.hasNext();
+						}
+
+						@Override
+						public Entry<Id<Link>, LinkInfo> next() {
+							Entry<Id<Link>, LinkInfo> entry = iterator.next();
+							current = entry;
+							return new SimpleEntry<Id<Link>, LinkInfo>(entry) {
+								@Override
+								public LinkInfo setValue(LinkInfo value) {
+									super.setValue(value);
+									return put(entry.getKey(), value);
+								}
+							};
+						}
+
+						@Override
+						public void remove() {
+							iterator.remove();
+							linkIndex2info[current.getKey().index()] = null;
+						}
+					};
+				}
+
+				@Override
+				public int size() {
+					return linkId2info.size();
+				}
+			};
+		}
+	}
+
 }
 
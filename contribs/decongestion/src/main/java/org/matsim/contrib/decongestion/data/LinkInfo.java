@@ -19,10 +19,8 @@
 
 package org.matsim.contrib.decongestion.data;
 
-import java.util.HashMap;
 import java.util.Map;
 
-import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
 
 /**
@@ -34,27 +32,53 @@ public class LinkInfo {
 	
 	private final Link link;
 	
-	private final Map<Integer, Double> time2toll = new HashMap<>();
-	private Map<Integer, Double> time2avgDelay = new HashMap<>();
+	private final TimeBinValues time2toll;
+	private TimeBinValues time2avgDelay;
 	
 	public LinkInfo(Link link) {
+		this(link, 0);
+	}
+	
+	/**
+	 * @param numberOfTimeBins expected number of time bins, the storage grows if values are set for later time bins
+	 */
+	public LinkInfo(Link link, int numberOfTimeBins) {
 		this.link = link;
+		this.time2toll = new TimeBinValues(numberOfTimeBins);
+		this.time2avgDelay = new TimeBinValues(numberOfTimeBins);
 	}
 
 	public Link getLink() {
 		return link;
 	}
 
-	public Map<Integer, Double> getTime2toll() {
+	public TimeBinValues getTime2toll() {
 		return time2toll;
 	}
 
-	public Map<Integer, Double> getTime2avgDelay() {
+	public TimeBinValues getTime2avgDelay() {
 		return time2avgDelay;
 	}
 
 	public void setTime2avgDelay(Map<Integer, Double> time2avgDelay) {
-		this.time2avgDelay = time2avgDelay;
+		TimeBinValues values = new TimeBinValues(this.time2avgDelay.getNumberOfTimeBins());
+		values.putAll(time2avgDelay);
+		this.time2avgDelay = values;
+	}
+
+	/**
+	 * Replaces the average delays by the given ones. The array is copied.
+	 * 
+	 * @param avgDelays average delay per time bin, NaN for time bins without value
+	 */
+	public void setTime2avgDelay(double[] avgDelays) {
+		TimeBinValues values = new TimeBinValues(avgDelays.length);
+		for (int timeBin = 0; timeBin < avgDelays.length; timeBin++) {
+			if (!Double.isNaN(avgDelays[timeBin])) {
+				values.setValue(timeBin, avgDelays[timeBin]);
+			}
+		}
+		this.time2avgDelay = values;
 	}
 
 }
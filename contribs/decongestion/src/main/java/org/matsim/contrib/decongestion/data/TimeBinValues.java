@@ -0,0 +1,177 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.decongestion.data;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Stores one value per time bin in a primitive array, e.g. the tolls or average delays of a link. Time bins without value
+ * are stored as NaN, hence NaN can not be stored as value.
+ * 
+ * The class can be used as {@code Map<Integer, Double>} from time bin to value, but the primitive methods
+ * {@link #getValue(int)} and {@link #setValue(int, double)} avoid boxing and hashing in frequently called code.
+ */
+public final class TimeBinValues extends AbstractMap<Integer, Double> {
+
+	private double[] values;
+	private int size = 0;
+
+	public TimeBinValues() {
+		this(0);
+	}
+
+	public TimeBinValues(int numberOfTimeBins) {
+		this.values = new double[numberOfTimeBins];
+		Arrays.fill(this.values, Double.NaN);
+	}
+
+	/**
+	 * @return the number of time bins which may currently be stored without growing the underlying array. All time bins
+	 * with a value are smaller than this number.
+	 */
+	public int getNumberOfTimeBins() {
+		return values.length;
+	}
+
+	public boolean isSet(int timeBin) {
+		return timeBin >= 0 && timeBin < values.length && !Double.isNaN(values[timeBin]);
+	}
+
+	/**
+	 * @return the value of the time bin or NaN if there is no value
+	 */
+	public double getValue(int timeBin) {
+		if (timeBin < 0 || timeBin >= values.length) {
+			return Double.NaN;
+		}
+		return values[timeBin];
+	}
+
+	public void setValue(int timeBin, double value) {
+		if (Double.isNaN(value)) {
+			throw new IllegalArgumentException("NaN can not be stored for time bin " + timeBin + ".");
+		}
+		if (timeBin >= values.length) {
+			int oldLength = values.length;
+			values = Arrays.copyOf(values, Math.max(timeBin + 1, oldLength * 2));
+			Arrays.fill(values, oldLength, values.length, Double.NaN);
+		}
+		if (Double.isNaN(values[timeBin])) {
+			size++;
+		}
+		values[timeBin] = value;
+	}
+
+	@Override
+	public Double get(Object key) {
+		if (key instanceof Integer && isSet((Integer) key)) {
+			return values[(Integer) key];
+		}
+		return null;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Integer && isSet((Integer) key);
+	}
+
+	@Override
+	public Double put(Integer key, Double value) {
+		Double previous = get(key);
+		setValue(key, value);
+		return previous;
+	}
+
+	@Override
+	public Double remove(Object key) {
+		Double previous = get(key);
+		if (previous != null) {
+			values[(Integer) key] = Double.NaN;
+			size--;
+		}
+		return previous;
+	}
+
+	@Override
+	public void clear() {
+		Arrays.fill(values, Double.NaN);
+		size = 0;
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public Set<Entry<Integer, Double>> entrySet() {
+		return new AbstractSet<Entry<Integer, Double>>() {
+			@Override
+			public Iterator<Entry<Integer, Double>> iterator() {
+				return new Iterator<Entry<Integer, Double>>() {
+					private int next = findNext(0);
+					private int current = -1;
+
+					@Override
+					public boolean hasNext() {
+						return next < values.length;
+					}
+
+					@Override
+					public Entry<Integer, Double> next() {
+						if (!hasNext()) {
+							throw new NoSuchElementException();
+						}
+						current = next;
+						next = findNext(next + 1);
+						return new SimpleImmutableEntry<>(current, values[current]);
+					}
+
+					@Override
+					public void remove() {
+						if (current < 0) {
+							throw new IllegalStateException();
+						}
+						TimeBinValues.this.remove(current);
+						current = -1;
+					}
+				};
+			}
+
+			@Override
+			public int size() {
+				return size;
+			}
+		};
+	}
+
+	private int findNext(int timeBin) {
+		while (timeBin < values.length && Double.isNaN(values[timeBin])) {
+			timeBin++;
+		}
+		return timeBin;
+	}
+
+}
@@ -27,6 +27,7 @@ import org.matsim.core.api.experimental.events.EventsManager;
 import com.google.inject.Inject;
 
 import org.matsim.contrib.decongestion.data.DecongestionInfo;
+import org.matsim.contrib.decongestion.data.LinkInfo;
 
 /**
  * Throws agent money events for the tolled links and time bins.
@@ -51,12 +52,13 @@ public class IntervalBasedTollingAll implements LinkLeaveEventHandler, IntervalB
 
 	@Override
 	public void handleEvent(LinkLeaveEvent event) {
-		if (!decongestionInfo.getTransitVehicleIDs().contains(event.getVehicleId()) && decongestionInfo.getlinkInfos().get(event.getLinkId()) != null) {
+		LinkInfo linkInfo = decongestionInfo.getLinkInfo(event.getLinkId());
+		if (linkInfo != null && !decongestionInfo.getTransitVehicleIDs().contains(event.getVehicleId())) {
 						
 			int currentTimeBin = (int) (event.getTime() / this.decongestionInfo.getScenario().getConfig().travelTimeCalculator().getTraveltimeBinSize());
 			
-			if (decongestionInfo.getlinkInfos().get(event.getLinkId()).getTime2toll().get(currentTimeBin) != null) {
-				double toll = decongestionInfo.getlinkInfos().get(event.getLinkId()).getTime2toll().get(currentTimeBin);
+			double toll = linkInfo.getTime2toll().getValue(currentTimeBin);
+			if (!Double.isNaN(toll)) {
 				this.eventsManager.processEvent(new PersonMoneyEvent(event.getTime(), this.decongestionInfo.getVehicleId2personId().get(event.getVehicleId()), -1. * toll, "congestionPricing", null));
 //				this.eventsManager.processEvent(new PersonLinkMoneyEvent(event.getTime(), this.decongestionInfo.getVehicleId2personId().get(event.getVehicleId()), event.getLinkId(), -1. * toll, event.getTime(), "congestion"));
 				this.totalTollPayments = this.totalTollPayments + toll;
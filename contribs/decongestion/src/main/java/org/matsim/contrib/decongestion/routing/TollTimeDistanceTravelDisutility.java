@@ -75,11 +75,11 @@ public final class TollTimeDistanceTravelDisutility implements TravelDisutility
 		// adjust the travel disutility for the toll
 		double toll = 0.;
 		
-		LinkInfo linkInfo = info.getlinkInfos().get(link.getId());
+		LinkInfo linkInfo = info.getLinkInfo(link.getId());
 		if (linkInfo != null) {
 			
-			Double linkInfoTimeBinToll = linkInfo.getTime2toll().get(timeBin);	
-			if (linkInfoTimeBinToll != null) {
+			double linkInfoTimeBinToll = linkInfo.getTime2toll().getValue(timeBin);	
+			if (!Double.isNaN(linkInfoTimeBinToll)) {
 				toll = linkInfoTimeBinToll;
 			}
 		}
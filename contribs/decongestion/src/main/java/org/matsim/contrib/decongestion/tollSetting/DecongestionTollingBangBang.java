@@ -24,7 +24,7 @@ import org.apache.log4j.Logger;
 import com.google.inject.Inject;
 
 import org.matsim.contrib.decongestion.data.DecongestionInfo;
-import org.matsim.contrib.decongestion.data.LinkInfo;
+import org.matsim.contrib.decongestion.data.TimeBinValues;
 
 /**
  * 
@@ -53,21 +53,27 @@ public class DecongestionTollingBangBang implements DecongestionTollSetting {
 		final boolean msa = this.congestionInfo.getDecongestionConfigGroup().isMsa();
 		final double blendFactorFromConfig = this.congestionInfo.getDecongestionConfigGroup().getTollBlendFactor();
 		
-		for (LinkInfo linkInfo : this.congestionInfo.getlinkInfos().values()) {
-			for (Integer intervalNr : linkInfo.getTime2avgDelay().keySet()) {
+		// the links are independent of each other, hence their tolls are updated in parallel
+		this.congestionInfo.getlinkInfos().values().parallelStream().forEach(linkInfo -> {
+			final TimeBinValues time2avgDelay = linkInfo.getTime2avgDelay();
+			for (int intervalNr = 0; intervalNr < time2avgDelay.getNumberOfTimeBins(); intervalNr++) {
+				if (!time2avgDelay.isSet(intervalNr)) {
+					continue;
+				}
 
-				Double previousToll = linkInfo.getTime2toll().get(intervalNr);
+				final boolean hasPreviousToll = linkInfo.getTime2toll().isSet(intervalNr);
+				final double previousToll = linkInfo.getTime2toll().getValue(intervalNr);
 				double toll = 0.;
 				
 				// 1) increase / decrease the toll per link and time bin
 				
-				if (linkInfo.getTime2avgDelay().get(intervalNr) <= toleratedAverageDelay ) {	
-					if (previousToll != null) {
+				if (time2avgDelay.getValue(intervalNr) <= toleratedAverageDelay ) {	
+					if (hasPreviousToll) {
 						toll = previousToll - tollAdjustment * linkInfo.getLink().getLength()/1000. ;
 					}		
 					
 				} else {
-					if (previousToll != null) {
+					if (hasPreviousToll) {
 						toll = previousToll + tollAdjustment;
 					} else {
 						toll = initialToll * linkInfo.getLink().getLength()/1000. ;
@@ -94,7 +100,7 @@ public class DecongestionTollingBangBang implements DecongestionTollSetting {
 				}
 				
 				double smoothedToll;
-				if (previousToll != null) {
+				if (hasPreviousToll) {
 					smoothedToll = toll * blendFactor + previousToll * (1 - blendFactor);
 				} else {
 					smoothedToll = toll;
@@ -102,9 +108,9 @@ public class DecongestionTollingBangBang implements DecongestionTollSetting {
 				
 				// 4) store the updated toll
 				
-				linkInfo.getTime2toll().put(intervalNr, smoothedToll);
+				linkInfo.getTime2toll().setValue(intervalNr, smoothedToll);
 			}
-		}
+		});
 		
 		log.info("Updating tolls completed.");
 		this.tollUpdateCounter++;
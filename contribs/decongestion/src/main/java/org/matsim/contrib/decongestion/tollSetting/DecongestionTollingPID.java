@@ -21,6 +21,7 @@ package org.matsim.contrib.decongestion.tollSetting;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.Id;
@@ -33,6 +34,7 @@ import com.google.inject.Inject;
 import org.matsim.contrib.decongestion.DecongestionConfigGroup.IntegralApproach;
 import org.matsim.contrib.decongestion.data.DecongestionInfo;
 import org.matsim.contrib.decongestion.data.LinkInfo;
+import org.matsim.contrib.decongestion.data.TimeBinValues;
 import org.matsim.core.utils.misc.Counter;
 
 /**
@@ -50,10 +52,11 @@ public class DecongestionTollingPID implements DecongestionTollSetting, LinkLeav
 	
 	private Map<Id<Link>, LinkInfo> linkId2infoPreviousTollComputation = new HashMap<>();	
 	private int tollUpdateCounter = 0;
-	private final Map<Id<Link>, Map<Integer, Double>> linkId2time2totalDelayAllIterations = new HashMap<>();	
+	// written by the parallel toll update, one entry per link
+	private final Map<Id<Link>, Map<Integer, Double>> linkId2time2totalDelayAllIterations = new ConcurrentHashMap<>();	
 	
-	private final Map<Id<Link>, Map<Integer, Double>> linkId2time2avgDelayAllIterations = new HashMap<>();	
-	private final Map<Id<Link>, Map<Integer, Integer>> linkId2time2leavingAgents = new HashMap<>();
+	private final Map<Id<Link>, Map<Integer, Double>> linkId2time2avgDelayAllIterations = new ConcurrentHashMap<>();	
+	private final LeavingAgentsCounter leavingAgentsCounter = new LeavingAgentsCounter();
 
 	@Override
 	public void updateTolls() {
@@ -73,21 +76,26 @@ public class DecongestionTollingPID implements DecongestionTollSetting, LinkLeav
 		
 		Counter counter = new Counter( "link # ", "" ) ;
 
-		for (Id<Link> linkId : this.congestionInfo.getlinkInfos().keySet()) {
+		// the links are independent of each other, hence their tolls are updated in parallel
+		this.congestionInfo.getlinkInfos().values().parallelStream().forEach(linkInfo -> {
 
 			counter.incCounter();
+			final Id<Link> linkId = linkInfo.getLink().getId();
 			
 			double flowCapacityHeadwaySec = Double.NEGATIVE_INFINITY;
 			if (K_i != 0. && integralApproach.equals(IntegralApproach.UnusedHeadway.toString())) {
 				flowCapacityHeadwaySec = capacityPeriod / ( this.congestionInfo.getScenario().getNetwork().getLinks().get(linkId).getCapacity() * flowCapacityFactor);
 			}
 
-			LinkInfo linkInfo = this.congestionInfo.getlinkInfos().get(linkId);
-			for (Integer intervalNr : linkInfo.getTime2avgDelay().keySet()) {
+			final TimeBinValues time2avgDelay = linkInfo.getTime2avgDelay();
+			for (int intervalNr = 0; intervalNr < time2avgDelay.getNumberOfTimeBins(); intervalNr++) {
+				if (!time2avgDelay.isSet(intervalNr)) {
+					continue;
+				}
 				
 				// 0) average delay
 				
-				double averageDelay = linkInfo.getTime2avgDelay().get(intervalNr);	
+				double averageDelay = time2avgDelay.getValue(intervalNr);	
 				if (averageDelay <= toleratedAvgDelay) {
 					averageDelay = 0.0;
 				}
@@ -134,8 +142,9 @@ public class DecongestionTollingPID implements DecongestionTollSetting, LinkLeav
 					double unusedHeadway = 0.;
 					if (integralApproach.equals(IntegralApproach.UnusedHeadway.toString())) {
 						double flowHeadwaySec = timeBinSize;
-						if (this.linkId2time2leavingAgents.get(linkId) != null && this.linkId2time2leavingAgents.get(linkId).get(intervalNr) != null) {
-							flowHeadwaySec = timeBinSize / this.linkId2time2leavingAgents.get(linkId).get(intervalNr);
+						int leavingAgents = this.leavingAgentsCounter.getLeavingAgents(linkId, intervalNr);
+						if (leavingAgents > 0) {
+							flowHeadwaySec = timeBinSize / leavingAgents;
 						}
 						unusedHeadway = flowHeadwaySec - flowCapacityHeadwaySec;
 						if (unusedHeadway < 0.) unusedHeadway = 0.; // there is no unused Headway
@@ -183,8 +192,8 @@ public class DecongestionTollingPID implements DecongestionTollSetting, LinkLeav
 				if (K_d != 0.) {
 					double previousDelay = 0.;
 					if (this.linkId2infoPreviousTollComputation.get(linkId) != null 
-							&& this.linkId2infoPreviousTollComputation.get(linkId).getTime2avgDelay().get(intervalNr) != null) {
-						previousDelay = this.linkId2infoPreviousTollComputation.get(linkId).getTime2avgDelay().get(intervalNr);
+							&& this.linkId2infoPreviousTollComputation.get(linkId).getTime2avgDelay().isSet(intervalNr)) {
+						previousDelay = this.linkId2infoPreviousTollComputation.get(linkId).getTime2avgDelay().getValue(intervalNr);
 					}
 				
 					double deltaDelay = averageDelay - previousDelay;
@@ -199,7 +208,7 @@ public class DecongestionTollingPID implements DecongestionTollSetting, LinkLeav
 				
 				// 5) smoothen the tolls
 				
-				Double previousToll = linkInfo.getTime2toll().get(intervalNr);
+				double previousToll = linkInfo.getTime2toll().getValue(intervalNr);
 
 				double blendFactor;
 				if (msa) {
@@ -213,7 +222,7 @@ public class DecongestionTollingPID implements DecongestionTollSetting, LinkLeav
 				}
 				
 				double smoothedToll;
-				if (previousToll != null && previousToll >= 0.) {
+				if (!Double.isNaN(previousToll) && previousToll >= 0.) {
 					smoothedToll = toll * blendFactor + previousToll * (1 - blendFactor);
 				} else {
 					smoothedToll = toll;
@@ -221,10 +230,10 @@ public class DecongestionTollingPID implements DecongestionTollSetting, LinkLeav
 								
 				// 6) store the updated toll
 				
-				linkInfo.getTime2toll().put(intervalNr, smoothedToll);
+				linkInfo.getTime2toll().setValue(intervalNr, smoothedToll);
 
 			}	
-		}
+		});
 		
 		log.info("Updating tolls completed.");
 		this.tollUpdateCounter++;
@@ -235,44 +244,21 @@ public class DecongestionTollingPID implements DecongestionTollSetting, LinkLeav
 		for ( Map.Entry<Id<Link>,LinkInfo> entry : this.congestionInfo.getlinkInfos().entrySet()) {
 			LinkInfo linkInfo = entry.getValue();;
 			
-			Map<Integer, Double> time2previousDelay = new HashMap<>();
-			for (Integer intervalNr : linkInfo.getTime2avgDelay().keySet()) {
-				time2previousDelay.put(intervalNr, linkInfo.getTime2avgDelay().get(intervalNr));
-			}
-			
 			LinkInfo linkInfoPreviousTollComputation = new LinkInfo(linkInfo.getLink());
-			linkInfoPreviousTollComputation.setTime2avgDelay(time2previousDelay);
+			linkInfoPreviousTollComputation.setTime2avgDelay(linkInfo.getTime2avgDelay());
 			linkId2infoPreviousTollComputation.put(linkInfo.getLink().getId(), linkInfoPreviousTollComputation);
 		}
 	}
 
 	@Override
 	public void reset(int iteration) {
-		this.linkId2time2leavingAgents.clear();
+		this.leavingAgentsCounter.clear();
 	}
 
 	@Override
 	public void handleEvent(LinkLeaveEvent event) {
 		int timeBinNr = getIntervalNr(event.getTime());
-
-		Id<Link> linkId = event.getLinkId();
-		
-		if (linkId2time2leavingAgents.get(linkId) != null) {
-			
-			if (linkId2time2leavingAgents.get(linkId).get(timeBinNr) != null) {
-				int leavingAgents = linkId2time2leavingAgents.get(linkId).get(timeBinNr) + 1;
-				linkId2time2leavingAgents.get(linkId).put(timeBinNr, leavingAgents);
-				
-			} else {
-				linkId2time2leavingAgents.get(linkId).put(timeBinNr, 1);
-			}
-			
-		} else {
-			Map<Integer, Integer> time2leavingAgents = new HashMap<>();
-			time2leavingAgents.put(timeBinNr, 1);
-			linkId2time2leavingAgents.put(linkId, time2leavingAgents);
-			
-		}
+		this.leavingAgentsCounter.increment(event.getLinkId(), timeBinNr);
 	}
 	
 	private int getIntervalNr(double time) {
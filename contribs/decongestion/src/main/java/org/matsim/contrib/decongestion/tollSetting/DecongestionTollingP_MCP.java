@@ -33,6 +33,7 @@ import com.google.inject.Inject;
 
 import org.matsim.contrib.decongestion.data.DecongestionInfo;
 import org.matsim.contrib.decongestion.data.LinkInfo;
+import org.matsim.contrib.decongestion.data.TimeBinValues;
 
 /**
  * 
@@ -49,7 +50,7 @@ public class DecongestionTollingP_MCP implements DecongestionTollSetting, LinkLe
 	
 	private Map<Id<Link>, LinkInfo> linkId2infoPreviousTollComputation = new HashMap<>();	
 	private int tollUpdateCounter = 0;
-	private final Map<Id<Link>, Map<Integer, Integer>> linkId2time2leavingAgents = new HashMap<>();
+	private final LeavingAgentsCounter leavingAgentsCounter = new LeavingAgentsCounter();
 
 	@Override
 	public void updateTolls() {
@@ -63,14 +64,19 @@ public class DecongestionTollingP_MCP implements DecongestionTollSetting, LinkLe
 		final boolean msa = this.congestionInfo.getDecongestionConfigGroup().isMsa();
 		final double blendFactorFromConfig = this.congestionInfo.getDecongestionConfigGroup().getTollBlendFactor();
 		
-		for (Id<Link> linkId : this.congestionInfo.getlinkInfos().keySet()) {
+		// the links are independent of each other, hence their tolls are updated in parallel
+		this.congestionInfo.getlinkInfos().values().parallelStream().forEach(linkInfo -> {
 			
-			LinkInfo linkInfo = this.congestionInfo.getlinkInfos().get(linkId);
-			for (Integer intervalNr : linkInfo.getTime2avgDelay().keySet()) {
+			final Id<Link> linkId = linkInfo.getLink().getId();
+			final TimeBinValues time2avgDelay = linkInfo.getTime2avgDelay();
+			for (int intervalNr = 0; intervalNr < time2avgDelay.getNumberOfTimeBins(); intervalNr++) {
+				if (!time2avgDelay.isSet(intervalNr)) {
+					continue;
+				}
 				
 				// average delay
 				
-				double averageDelay = linkInfo.getTime2avgDelay().get(intervalNr);	
+				double averageDelay = time2avgDelay.getValue(intervalNr);	
 				if (averageDelay <= toleratedAvgDelay) {
 					averageDelay = 0.0;
 				}
@@ -78,8 +84,9 @@ public class DecongestionTollingP_MCP implements DecongestionTollSetting, LinkLe
 				// toll
 				
 				double demand = 1.0;
-				if (this.linkId2time2leavingAgents.get(linkId) != null && this.linkId2time2leavingAgents.get(linkId).get(intervalNr) != null) {
-					demand = this.linkId2time2leavingAgents.get(linkId).get(intervalNr);
+				int leavingAgents = this.leavingAgentsCounter.getLeavingAgents(linkId, intervalNr);
+				if (leavingAgents > 0) {
+					demand = leavingAgents;
 				}
 				
 				double toll = vtts * demand * averageDelay / 3600.;
@@ -93,7 +100,7 @@ public class DecongestionTollingP_MCP implements DecongestionTollSetting, LinkLe
 				
 				// smoothen the tolls
 				
-				Double previousToll = linkInfo.getTime2toll().get(intervalNr);
+				double previousToll = linkInfo.getTime2toll().getValue(intervalNr);
 
 				double blendFactor;
 				if (msa) {
@@ -107,7 +114,7 @@ public class DecongestionTollingP_MCP implements DecongestionTollSetting, LinkLe
 				}
 				
 				double smoothedToll;
-				if (previousToll != null && previousToll >= 0.) {
+				if (!Double.isNaN(previousToll) && previousToll >= 0.) {
 					smoothedToll = toll * blendFactor + previousToll * (1 - blendFactor);
 				} else {
 					smoothedToll = toll;
@@ -115,10 +122,10 @@ public class DecongestionTollingP_MCP implements DecongestionTollSetting, LinkLe
 								
 				// store the updated toll
 				
-				linkInfo.getTime2toll().put(intervalNr, smoothedToll);
+				linkInfo.getTime2toll().setValue(intervalNr, smoothedToll);
 
 			}	
-		}
+		});
 		
 		log.info("Updating tolls completed.");
 		this.tollUpdateCounter++;
@@ -129,44 +136,21 @@ public class DecongestionTollingP_MCP implements DecongestionTollSetting, LinkLe
 		for ( Map.Entry< Id<Link>,LinkInfo> entry : this.congestionInfo.getlinkInfos().entrySet() ) {
 			LinkInfo linkInfo = entry.getValue() ;
 			
-			Map<Integer, Double> time2previousDelay = new HashMap<>();
-			for (Integer intervalNr : linkInfo.getTime2avgDelay().keySet()) {
-				time2previousDelay.put(intervalNr, linkInfo.getTime2avgDelay().get(intervalNr));
-			}
-			
 			LinkInfo linkInfoPreviousTollComputation = new LinkInfo(linkInfo.getLink());
-			linkInfoPreviousTollComputation.setTime2avgDelay(time2previousDelay);
+			linkInfoPreviousTollComputation.setTime2avgDelay(linkInfo.getTime2avgDelay());
 			linkId2infoPreviousTollComputation.put(linkInfo.getLink().getId(), linkInfoPreviousTollComputation);
 		}
 	}
 
 	@Override
 	public void reset(int iteration) {
-		this.linkId2time2leavingAgents.clear();
+		this.leavingAgentsCounter.clear();
 	}
 
 	@Override
 	public void handleEvent(LinkLeaveEvent event) {
 		int timeBinNr = getIntervalNr(event.getTime());
-
-		Id<Link> linkId = event.getLinkId();
-		
-		if (linkId2time2leavingAgents.get(linkId) != null) {
-			
-			if (linkId2time2leavingAgents.get(linkId).get(timeBinNr) != null) {
-				int leavingAgents = linkId2time2leavingAgents.get(linkId).get(timeBinNr) + 1;
-				linkId2time2leavingAgents.get(linkId).put(timeBinNr, leavingAgents);
-				
-			} else {
-				linkId2time2leavingAgents.get(linkId).put(timeBinNr, 1);
-			}
-			
-		} else {
-			Map<Integer, Integer> time2leavingAgents = new HashMap<>();
-			time2leavingAgents.put(timeBinNr, 1);
-			linkId2time2leavingAgents.put(linkId, time2leavingAgents);
-			
-		}
+		this.leavingAgentsCounter.increment(event.getLinkId(), timeBinNr);
 	}
 	
 	private int getIntervalNr(double time) {
@@ -0,0 +1,69 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+
+package org.matsim.contrib.decongestion.tollSetting;
+
+import java.util.Arrays;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+
+/**
+ * Counts the agents leaving a link per time bin, stored by link index and time bin.
+ */
+final class LeavingAgentsCounter {
+
+	private int[][] linkIndex2time2leavingAgents = new int[0][];
+
+	void increment(Id<Link> linkId, int timeBin) {
+		int index = linkId.index();
+		if (index >= linkIndex2time2leavingAgents.length) {
+			linkIndex2time2leavingAgents = Arrays.copyOf(linkIndex2time2leavingAgents, Math.max(index + 1, Id.getNumberOfIds(Link.class)));
+		}
+		int[] time2leavingAgents = linkIndex2time2leavingAgents[index];
+		if (time2leavingAgents == null) {
+			time2leavingAgents = new int[timeBin + 1];
+			linkIndex2time2leavingAgents[index] = time2leavingAgents;
+		} else if (timeBin >= time2leavingAgents.length) {
+			time2leavingAgents = Arrays.copyOf(time2leavingAgents, Math.max(timeBin + 1, time2leavingAgents.length * 2));
+			linkIndex2time2leavingAgents[index] = time2leavingAgents;
+		}
+		time2leavingAgents[timeBin]++;
+	}
+
+	/**
+	 * @return the number of agents which left the link in the time bin, 0 if there were none
+	 */
+	int getLeavingAgents(Id<Link> linkId, int timeBin) {
+		int index = linkId.index();
+		if (index >= linkIndex2time2leavingAgents.length) {
+			return 0;
+		}
+		int[] time2leavingAgents = linkIndex2time2leavingAgents[index];
+		if (time2leavingAgents == null || timeBin >= time2leavingAgents.length) {
+			return 0;
+		}
+		return time2leavingAgents[timeBin];
+	}
+
+	void clear() {
+		Arrays.fill(linkIndex2time2leavingAgents, null);
+	}
+}
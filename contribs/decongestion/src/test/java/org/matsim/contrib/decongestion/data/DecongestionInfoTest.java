@@ -0,0 +1,74 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.decongestion.data;
+
+import java.util.Iterator;
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.core.network.NetworkUtils;
+
+public class DecongestionInfoTest {
+
+	@Test
+	public void testModifyLinkInfos() {
+		Network network = NetworkUtils.createNetwork();
+		Node node1 = NetworkUtils.createAndAddNode(network, Id.createNodeId(1), new Coord(0, 0));
+		Node node2 = NetworkUtils.createAndAddNode(network, Id.createNodeId(2), new Coord(100, 0));
+		Link link1 = NetworkUtils.createAndAddLink(network, Id.createLinkId("decongestionInfo_1"), node1, node2, 100, 10, 1000, 1);
+		Link link2 = NetworkUtils.createAndAddLink(network, Id.createLinkId("decongestionInfo_2"), node2, node1, 100, 10, 1000, 1);
+
+		DecongestionInfo info = new DecongestionInfo();
+		info.addLinkInfo(new LinkInfo(link1));
+		LinkInfo linkInfo2 = new LinkInfo(link2);
+		Assert.assertNull(info.getlinkInfos().put(link2.getId(), linkInfo2));
+		Assert.assertEquals(2, info.getlinkInfos().size());
+		Assert.assertSame("link infos put into the map are expected to be found by link index", linkInfo2, info.getLinkInfo(link2.getId()));
+
+		LinkInfo replacement = new LinkInfo(link2);
+		for (Map.Entry<Id<Link>, LinkInfo> entry : info.getlinkInfos().entrySet()) {
+			if (entry.getKey().equals(link2.getId())) {
+				Assert.assertSame(linkInfo2, entry.setValue(replacement));
+			}
+		}
+		Assert.assertSame(replacement, info.getlinkInfos().get(link2.getId()));
+		Assert.assertSame(replacement, info.getLinkInfo(link2.getId()));
+
+		Iterator<LinkInfo> iterator = info.getlinkInfos().values().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().getLink() == link1) {
+				iterator.remove();
+			}
+		}
+		Assert.assertNull(info.getLinkInfo(link1.getId()));
+		Assert.assertFalse(info.getlinkInfos().containsKey(link1.getId()));
+
+		Assert.assertSame(replacement, info.getlinkInfos().remove(link2.getId()));
+		Assert.assertNull(info.getLinkInfo(link2.getId()));
+		Assert.assertTrue(info.getlinkInfos().isEmpty());
+	}
+
+}
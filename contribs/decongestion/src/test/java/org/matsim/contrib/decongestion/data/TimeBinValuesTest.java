@@ -0,0 +1,125 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.decongestion.data;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TimeBinValuesTest {
+
+	@Test
+	public void testSize() {
+		TimeBinValues values = new TimeBinValues(10);
+		Assert.assertEquals(0, values.size());
+		Assert.assertTrue(values.isEmpty());
+
+		values.setValue(3, 1.5);
+		values.setValue(3, 2.5);
+		Assert.assertEquals("replacing a value is not expected to change the size", 1, values.size());
+		Assert.assertEquals(2.5, values.put(3, 0.0), 0.0);
+		Assert.assertNull(values.put(7, 4.0));
+		Assert.assertEquals(2, values.size());
+
+		Assert.assertNull(values.remove(5));
+		Assert.assertNull(values.remove("3"));
+		Assert.assertEquals(2, values.size());
+		Assert.assertEquals(0.0, values.remove(3), 0.0);
+		Assert.assertNull(values.remove(3));
+		Assert.assertEquals(1, values.size());
+		Assert.assertFalse(values.containsKey(3));
+		Assert.assertTrue(Double.isNaN(values.getValue(3)));
+
+		values.clear();
+		Assert.assertEquals(0, values.size());
+		Assert.assertNull(values.get(7));
+		Assert.assertEquals(10, values.getNumberOfTimeBins());
+	}
+
+	@Test
+	public void testGrowth() {
+		TimeBinValues values = new TimeBinValues();
+		Assert.assertEquals(0, values.getNumberOfTimeBins());
+		Assert.assertNull(values.get(0));
+		Assert.assertTrue(Double.isNaN(values.getValue(-1)));
+
+		values.setValue(5, 1.0);
+		Assert.assertEquals(6, values.getNumberOfTimeBins());
+		values.setValue(6, 2.0);
+		Assert.assertEquals("the array is expected to grow by at least its length", 12, values.getNumberOfTimeBins());
+		values.setValue(100, 3.0);
+		Assert.assertEquals(101, values.getNumberOfTimeBins());
+
+		Assert.assertEquals(3, values.size());
+		for (int timeBin = 0; timeBin < values.getNumberOfTimeBins(); timeBin++) {
+			Assert.assertEquals("only the time bins with values are expected to be set", timeBin == 5 || timeBin == 6 || timeBin == 100,
+					values.isSet(timeBin));
+		}
+		Assert.assertEquals(1.0, values.get(5), 0.0);
+		Assert.assertEquals(2.0, values.get(6), 0.0);
+		Assert.assertEquals(3.0, values.get(100), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNaNIsRejected() {
+		new TimeBinValues(2).setValue(1, Double.NaN);
+	}
+
+	@Test
+	public void testIteration() {
+		TimeBinValues values = new TimeBinValues(4);
+		Map<Integer, Double> expected = new TreeMap<>();
+		for (int timeBin : new int[] { 0, 2, 3, 9 }) {
+			values.setValue(timeBin, timeBin * 10.0);
+			expected.put(timeBin, timeBin * 10.0);
+		}
+		Assert.assertEquals(expected, values);
+		Assert.assertEquals(expected.hashCode(), values.hashCode());
+		Assert.assertEquals(expected.toString(), values.toString());
+
+		Iterator<Map.Entry<Integer, Double>> iterator = values.entrySet().iterator();
+		while (iterator.hasNext()) {
+			if (iterator.next().getKey() % 2 == 0) {
+				iterator.remove();
+			}
+		}
+		Assert.assertEquals(2, values.size());
+		Assert.assertFalse(values.containsKey(0));
+		Assert.assertFalse(values.containsKey(2));
+		Assert.assertEquals(30.0, values.get(3), 0.0);
+		Assert.assertEquals(90.0, values.get(9), 0.0);
+		Assert.assertEquals(2, values.entrySet().size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testIteratorRemoveTwice() {
+		TimeBinValues values = new TimeBinValues(4);
+		values.setValue(1, 1.0);
+		values.setValue(2, 2.0);
+		Iterator<Map.Entry<Integer, Double>> iterator = values.entrySet().iterator();
+		iterator.next();
+		iterator.remove();
+		iterator.remove();
+	}
+
+}
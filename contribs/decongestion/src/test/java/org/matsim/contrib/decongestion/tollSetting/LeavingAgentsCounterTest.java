@@ -0,0 +1,99 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.decongestion.tollSetting;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+
+public class LeavingAgentsCounterTest {
+
+	@Test
+	public void testCounting() {
+		LeavingAgentsCounter counter = new LeavingAgentsCounter();
+		Id<Link> link1 = Id.createLinkId("leavingAgentsCounter_1");
+		Id<Link> link2 = Id.createLinkId("leavingAgentsCounter_2");
+		Id<Link> unknown = Id.createLinkId("leavingAgentsCounter_unknown");
+
+		counter.increment(link1, 3);
+		counter.increment(link1, 3);
+		counter.increment(link1, 0);
+		counter.increment(link2, 100);
+		// grows the array of the link
+		counter.increment(link1, 50);
+
+		Assert.assertEquals(2, counter.getLeavingAgents(link1, 3));
+		Assert.assertEquals(1, counter.getLeavingAgents(link1, 0));
+		Assert.assertEquals(1, counter.getLeavingAgents(link1, 50));
+		Assert.assertEquals(0, counter.getLeavingAgents(link1, 4));
+		Assert.assertEquals(0, counter.getLeavingAgents(link1, 1000));
+		Assert.assertEquals(1, counter.getLeavingAgents(link2, 100));
+		Assert.assertEquals(0, counter.getLeavingAgents(link2, 3));
+		Assert.assertEquals(0, counter.getLeavingAgents(unknown, 3));
+
+		counter.clear();
+		Assert.assertEquals(0, counter.getLeavingAgents(link1, 3));
+		Assert.assertEquals(0, counter.getLeavingAgents(link2, 100));
+		counter.increment(link2, 1);
+		Assert.assertEquals(1, counter.getLeavingAgents(link2, 1));
+	}
+
+	/**
+	 * The counts are collected by the events handler and then read by the toll setting, which updates the links in parallel.
+	 */
+	@Test
+	public void testParallelReading() {
+		final int numberOfLinks = 200;
+		final int numberOfTimeBins = 30;
+		LeavingAgentsCounter counter = new LeavingAgentsCounter();
+		List<Id<Link>> linkIds = new ArrayList<>();
+		for (int i = 0; i < numberOfLinks; i++) {
+			linkIds.add(Id.createLinkId("leavingAgentsCounter_parallel_" + i));
+		}
+		for (int i = 0; i < numberOfLinks; i++) {
+			for (int timeBin = 0; timeBin < numberOfTimeBins; timeBin++) {
+				for (int agent = 0; agent < expectedLeavingAgents(i, timeBin); agent++) {
+					counter.increment(linkIds.get(i), timeBin);
+				}
+			}
+		}
+
+		AtomicInteger wrongCounts = new AtomicInteger();
+		IntStream.range(0, numberOfLinks).parallel().forEach(i -> {
+			for (int timeBin = 0; timeBin < numberOfTimeBins; timeBin++) {
+				if (counter.getLeavingAgents(linkIds.get(i), timeBin) != expectedLeavingAgents(i, timeBin)) {
+					wrongCounts.incrementAndGet();
+				}
+			}
+		});
+		Assert.assertEquals(0, wrongCounts.get());
+	}
+
+	private static int expectedLeavingAgents(int link, int timeBin) {
+		return (link * 7 + timeBin * 3) % 5;
+	}
+
+}
@@ -29,8 +29,10 @@ import java.text.DecimalFormatSymbols;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -39,19 +41,28 @@ import org.jfree.chart.ChartUtils;
 import org.jfree.chart.JFreeChart;
 import org.jfree.data.xy.XYSeries;
 import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.drt.analysis.DrtRequestAnalyzer.PerformedRequestEventSequence;
+import org.matsim.contrib.drt.analysis.DrtRequestAnalyzer.RejectedRequestEventSequence;
 import org.matsim.contrib.drt.passenger.events.DrtRequestSubmittedEvent;
 import org.matsim.contrib.drt.run.DrtConfigGroup;
 import org.matsim.contrib.dvrp.fleet.FleetSpecification;
+import org.matsim.contrib.dvrp.optimizer.Request;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.QSimConfigGroup;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.MatsimServices;
 import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.listener.IterationEndsListener;
 import org.matsim.core.utils.io.IOUtils;
+import org.matsim.vehicles.Vehicle;
 
 /**
+ * The summary stats (appended to the files in the output directory) are written at the end of each iteration. All
+ * other (iteration-specific) files are written in the background by the {@link IterationOutputExecutor}, using copies
+ * of the collected data. The executor writes all pending output at shutdown.
+ *
  * @author jbischoff
  */
 public class DrtAnalysisControlerListener implements IterationEndsListener {
@@ -65,12 +76,14 @@ public class DrtAnalysisControlerListener implements IterationEndsListener {
 	private boolean headerWritten = false;
 	private boolean vheaderWritten = false;
 	private final String runId;
-	private final DecimalFormat format = new DecimalFormat();
+	private final DecimalFormat format = createFormat();
 	private final int maxcap;
 
+	private final IterationOutputExecutor outputExecutor;
+
 	public DrtAnalysisControlerListener(Config config, DrtConfigGroup drtCfg, FleetSpecification fleet,
 			DrtVehicleDistanceStats drtVehicleStats, MatsimServices matsimServices, Network network,
-			DrtRequestAnalyzer drtRequestAnalyzer) {
+			DrtRequestAnalyzer drtRequestAnalyzer, IterationOutputExecutor outputExecutor) {
 		this.drtVehicleStats = drtVehicleStats;
 		this.matsimServices = matsimServices;
 		this.network = network;
@@ -79,30 +92,43 @@ public class DrtAnalysisControlerListener implements IterationEndsListener {
 		this.qSimCfg = config.qsim();
 		runId = Optional.ofNullable(config.controler().getRunId()).orElse("N/A");
 		maxcap = DrtTripsAnalyser.findMaxVehicleCapacity(fleet);
+		this.outputExecutor = outputExecutor;
+	}
 
+	// DecimalFormat is not thread-safe, so each output task needs its own
+	private static DecimalFormat createFormat() {
+		DecimalFormat format = new DecimalFormat();
 		format.setDecimalFormatSymbols(new DecimalFormatSymbols(Locale.US));
 		format.setMinimumIntegerDigits(1);
 		format.setMaximumFractionDigits(2);
 		format.setGroupingUsed(false);
+		return format;
 	}
 
 	@Override
 	public void notifyIterationEnds(IterationEndsEvent event) {
 		boolean createGraphs = event.getServices().getConfig().controler().isCreateGraphs();
 
-		writeAndPlotWaitTimeEstimateComparison(drtRequestAnalyzer.getPerformedRequestSequences().values(),
+		// the analysers are reset at the beginning of the next iteration, so the output tasks work on copies
+		List<PerformedRequestEventSequence> performedRequestSequences = List.copyOf(
+				drtRequestAnalyzer.getPerformedRequestSequences().values());
+		List<RejectedRequestEventSequence> rejectedRequestSequences = List.copyOf(
+				drtRequestAnalyzer.getRejectedRequestSequences().values());
+		Map<Id<Vehicle>, DrtVehicleDistanceStats.VehicleState> vehicleStates = new HashMap<>(
+				drtVehicleStats.getVehicleStates());
+		Map<Id<Request>, Double> travelDistances = new HashMap<>(drtVehicleStats.getTravelDistances());
+
+		submitOutputTask("waitTimeComparison", () -> writeAndPlotWaitTimeEstimateComparison(performedRequestSequences,
 				filename(event, "waitTimeComparison", ".png"), filename(event, "waitTimeComparison", ".csv"),
-				createGraphs);
+				createGraphs));
 
-		List<DrtTrip> trips = drtRequestAnalyzer.getPerformedRequestSequences()
-				.values()
-				.stream()
+		List<DrtTrip> trips = performedRequestSequences.stream()
 				.filter(PerformedRequestEventSequence::isCompleted)
 				.map(sequence -> new DrtTrip(sequence, network.getLinks()::get))
 				.sorted(Comparator.comparing(trip -> trip.departureTime))
 				.collect(toList());
 
-		DrtTripsAnalyser.collection2Text(drtRequestAnalyzer.getRejectedRequestSequences().values(),
+		submitOutputTask("drt_rejections", () -> DrtTripsAnalyser.collection2Text(rejectedRequestSequences,
 				filename(event, "drt_rejections", ".csv"),
 				String.join(";", "time", "personId", "fromLinkId", "toLinkId", "fromX", "fromY", "toX", "toY"), seq -> {
 					DrtRequestSubmittedEvent submission = seq.getSubmitted();
@@ -116,22 +142,18 @@ public class DrtAnalysisControlerListener implements IterationEndsListener {
 							fromCoord.getY() + "",//
 							toCoord.getX() + "",//
 							toCoord.getY() + "");
-				});
+				}));
 
-		double rejectionRate = (double)drtRequestAnalyzer.getRejectedRequestSequences().size()
+		double rejectionRate = (double)rejectedRequestSequences.size()
 				/ drtRequestAnalyzer.getRequestSubmissions().size();
-		String tripsSummarize = DrtTripsAnalyser.summarizeTrips(trips, drtVehicleStats.getTravelDistances(), ";");
+		String tripsSummarize = DrtTripsAnalyser.summarizeTrips(trips, travelDistances, ";");
 		double directDistanceMean = DrtTripsAnalyser.getDirectDistanceMean(trips);
 		writeIterationPassengerStats(
-				tripsSummarize + ";" + drtRequestAnalyzer.getRejectedRequestSequences().size() + ";" + format.format(
-						rejectionRate), event.getIteration());
-		double l_d = DrtTripsAnalyser.getTotalDistance(drtVehicleStats.getVehicleStates()) / (trips.size()
-				* directDistanceMean);
-		String vehStats = DrtTripsAnalyser.summarizeVehicles(drtVehicleStats.getVehicleStates(), ";")
-				+ ";"
-				+ format.format(l_d);
-		String occStats = DrtTripsAnalyser.summarizeDetailedOccupancyStats(drtVehicleStats.getVehicleStates(), ";",
-				maxcap);
+				tripsSummarize + ";" + rejectedRequestSequences.size() + ";" + format.format(rejectionRate),
+				event.getIteration());
+		double l_d = DrtTripsAnalyser.getTotalDistance(vehicleStates) / (trips.size() * directDistanceMean);
+		String vehStats = DrtTripsAnalyser.summarizeVehicles(vehicleStates, ";") + ";" + format.format(l_d);
+		String occStats = DrtTripsAnalyser.summarizeDetailedOccupancyStats(vehicleStates, ";", maxcap);
 		writeIterationVehicleStats(vehStats, occStats, event.getIteration());
 		if (drtCfg.isPlotDetailedCustomerStats()) {
 			String header = String.join(";", "departureTime",//
@@ -149,36 +171,45 @@ public class DrtAnalysisControlerListener implements IterationEndsListener {
 					"travelDistance_m",//
 					"direcTravelDistance_m");
 
-			DrtTripsAnalyser.collection2Text(trips, filename(event, "drt_trips", ".csv"), header,
-					trip -> String.join(";",//
-							(Double)trip.departureTime + "",//
-							trip.person + "",//
-							trip.vehicle + "",//
-							trip.fromLinkId + "",//
-							format.format(trip.fromCoord.getX()),//
-							format.format(trip.fromCoord.getY()),//
-							trip.toLink + "",//
-							format.format(trip.toCoord.getX()),//
-							format.format(trip.toCoord.getY()),//
-							trip.waitTime + "",//
-							trip.arrivalTime + "",//
-							(trip.arrivalTime - trip.departureTime - trip.waitTime) + "",//
-							format.format(drtVehicleStats.getTravelDistances().get(trip.request)),//
-							format.format(trip.unsharedDistanceEstimate_m)));
+			submitOutputTask("drt_trips", () -> {
+				DecimalFormat format = createFormat();
+				DrtTripsAnalyser.collection2Text(trips, filename(event, "drt_trips", ".csv"), header,
+						trip -> String.join(";",//
+								(Double)trip.departureTime + "",//
+								trip.person + "",//
+								trip.vehicle + "",//
+								trip.fromLinkId + "",//
+								format.format(trip.fromCoord.getX()),//
+								format.format(trip.fromCoord.getY()),//
+								trip.toLink + "",//
+								format.format(trip.toCoord.getX()),//
+								format.format(trip.toCoord.getY()),//
+								trip.waitTime + "",//
+								trip.arrivalTime + "",//
+								(trip.arrivalTime - trip.departureTime - trip.waitTime) + "",//
+								format.format(travelDistances.get(trip.request)),//
+								format.format(trip.unsharedDistanceEstimate_m)));
+			});
 		}
-		DrtTripsAnalyser.writeVehicleDistances(drtVehicleStats.getVehicleStates(),
-				filename(event, "vehicleDistanceStats", ".csv"));
-		DrtTripsAnalyser.analyseDetours(network, trips, drtVehicleStats.getTravelDistances(), drtCfg,
-				filename(event, "drt_detours"), createGraphs);
-		DrtTripsAnalyser.analyseWaitTimes(filename(event, "waitStats"), trips, 1800, createGraphs);
+		submitOutputTask("vehicleDistanceStats", () -> DrtTripsAnalyser.writeVehicleDistances(vehicleStates,
+				filename(event, "vehicleDistanceStats", ".csv")));
+		submitOutputTask("drt_detours", () -> DrtTripsAnalyser.analyseDetours(network, trips, travelDistances, drtCfg,
+				filename(event, "drt_detours"), createGraphs));
+		submitOutputTask("waitStats", () -> DrtTripsAnalyser.analyseWaitTimes(filename(event, "waitStats"), trips, 1800,
+				createGraphs));
 
 		double endTime = qSimCfg.getEndTime()
 				.orElseGet(() -> trips.isEmpty() ?
 						qSimCfg.getStartTime().orElse(0) :
 						trips.get(trips.size() - 1).departureTime);
 
-		DrtTripsAnalyser.analyzeBoardingsAndDeboardings(trips, ";", qSimCfg.getStartTime().orElse(0), endTime, 3600,
-				filename(event, "drt_boardings", ".csv"), filename(event, "drt_alightments", ".csv"), network);
+		submitOutputTask("drt_boardings", () -> DrtTripsAnalyser.analyzeBoardingsAndDeboardings(trips, ";",
+				qSimCfg.getStartTime().orElse(0), endTime, 3600, filename(event, "drt_boardings", ".csv"),
+				filename(event, "drt_alightments", ".csv"), network));
+	}
+
+	private void submitOutputTask(String prefix, Runnable task) {
+		outputExecutor.execute(prefix + "_" + drtCfg.getMode(), task);
 	}
 
 	private String filename(IterationEndsEvent event, String prefix) {
@@ -34,6 +34,7 @@ import org.matsim.contrib.dvrp.run.AbstractDvrpModeModule;
 import org.matsim.contrib.dvrp.schedule.Task;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.QSimConfigGroup;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.MatsimServices;
 
 import com.google.common.collect.ImmutableSet;
@@ -70,7 +71,8 @@ public class DrtModeAnalysisModule extends AbstractDvrpModeModule {
 				getter -> new DrtAnalysisControlerListener(getter.get(Config.class), drtCfg,
 						getter.getModal(FleetSpecification.class), getter.getModal(DrtVehicleDistanceStats.class),
 						getter.get(MatsimServices.class), getter.get(Network.class),
-						getter.getModal(DrtRequestAnalyzer.class)))).asEagerSingleton();
+						getter.getModal(DrtRequestAnalyzer.class), getter.get(IterationOutputExecutor.class))))
+				.asEagerSingleton();
 
 		bindModal(DrtVehicleOccupancyProfileCalculator.class).toProvider(modalProvider(
 				getter -> new DrtVehicleOccupancyProfileCalculator(getMode(), getter.getModal(FleetSpecification.class),
@@ -20,6 +20,7 @@
 package org.matsim.contrib.drt.optimizer;
 
 import java.util.List;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.apache.log4j.Logger;
@@ -84,6 +85,14 @@ public class DefaultDrtOptimizer implements DrtOptimizer {
 	public void notifyMobsimBeforeSimStep(@SuppressWarnings("rawtypes") MobsimBeforeSimStepEvent e) {
 		unplannedRequests.updateQueuesOnNextTimeSteps(e.getSimulationTime());
 
+		if (rebalancingInterval != null) {
+			// relocations calculated in the background since the previous step (vehicles may not be idle any more)
+			relocateVehicles(rebalancingStrategy.collectPendingRelocations()
+					.stream()
+					.filter(r -> scheduleInquiry.isIdle(r.vehicle))
+					.collect(Collectors.toList()));
+		}
+
 		if (!unplannedRequests.getSchedulableRequests().isEmpty()) {
 			for (DvrpVehicle v : fleet.getVehicles().values()) {
 				scheduleTimingUpdater.updateTimings(v);
@@ -103,9 +112,10 @@ public class DefaultDrtOptimizer implements DrtOptimizer {
 				.values()
 				.stream()
 				.filter(scheduleInquiry::isIdle);
-		List<Relocation> relocations = rebalancingStrategy.calcRelocations(rebalancableVehicles,
-				mobsimTimer.getTimeOfDay());
+		relocateVehicles(rebalancingStrategy.calcRelocations(rebalancableVehicles, mobsimTimer.getTimeOfDay()));
+	}
 
+	private void relocateVehicles(List<Relocation> relocations) {
 		if (!relocations.isEmpty()) {
 			log.debug("Fleet rebalancing: #relocations=" + relocations.size());
 			for (Relocation r : relocations) {
@@ -49,11 +49,29 @@ public class VehicleData {
 		public final ImmutableList<Stop> stops;
 		private final End end;//TODO keep it private until it is used in insertion cost calculation etc.
 
+		// slackTimes[i] == min slack time of stops i, i+1, ..., stops.size() - 1
+		private final double[] slackTimes;
+
 		public Entry(DvrpVehicle vehicle, Start start, ImmutableList<Stop> stops) {
 			this.vehicle = vehicle;
 			this.start = start;
 			this.stops = stops;
 			this.end = End.OPEN_END;
+
+			slackTimes = new double[stops.size() + 1];
+			slackTimes[stops.size()] = Double.POSITIVE_INFINITY;
+			for (int i = stops.size() - 1; i >= 0; i--) {
+				slackTimes[i] = Math.min(stops.get(i).calcSlackTime(), slackTimes[i + 1]);
+			}
+		}
+
+		/**
+		 * @param stopIdx index in {@code stops} (or {@code stops.size()})
+		 * @return max delay of stops starting from {@code stopIdx} that does not violate their time constraints
+		 * (positive infinity if {@code stopIdx == stops.size()})
+		 */
+		public double getSlackTime(int stopIdx) {
+			return slackTimes[stopIdx];
 		}
 
 		//TODO allow index == stops.size() ==> return end ???
@@ -173,6 +191,13 @@ public class VehicleData {
 			return outgoingOccupancy;
 		}
 
+		/**
+		 * @return max delay of this stop that does not violate its latestArrivalTime and latestDepartureTime
+		 */
+		public double calcSlackTime() {
+			return Math.min(latestArrivalTime - task.getBeginTime(), latestDepartureTime - task.getEndTime());
+		}
+
 		private double calcLatestArrivalTime() {
 			return getMaxTimeConstraint(
 					task.getDropoffRequests().values().stream().mapToDouble(DrtRequest::getLatestArrivalTime),
@@ -26,7 +26,6 @@ import java.util.function.ToDoubleFunction;
 
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.contrib.drt.optimizer.VehicleData;
-import org.matsim.contrib.drt.optimizer.VehicleData.Stop;
 import org.matsim.contrib.drt.passenger.DrtRequest;
 import org.matsim.contrib.drt.passenger.DrtRequestCreator;
 import org.matsim.contrib.drt.routing.DefaultDrtRouteUpdater;
@@ -191,29 +190,23 @@ public class InsertionCostCalculator<D> {
 		final int dropoffIdx = insertion.getDropoff().index;
 
 		// this is what we cannot violate
-		for (int s = pickupIdx; s < dropoffIdx; s++) {
-			Stop stop = vEntry.stops.get(s);
-			// all stops after pickup but still before dropoff are delayed by pickupDetourTimeLoss
-			if (stop.task.getBeginTime() + pickupDetourTimeLoss > stop.latestArrivalTime //
-					// (stop.latestArrivalTime is the latest arrival time according to alpha*t_direct + beta
-					// So we are checking if we are now larger than that.)
-					|| stop.task.getEndTime() + pickupDetourTimeLoss > stop.latestDepartureTime
-				// (this is the same except for the departure. Relates to the maximum waiting. kai, nov'18)
-			) {
-				return true;
+		// all stops after pickup but still before dropoff are delayed by pickupDetourTimeLoss
+		// (slack time: how much a stop can be delayed without exceeding its latestArrivalTime (alpha*t_direct + beta)
+		// or latestDepartureTime (max waiting))
+		if (vEntry.getSlackTime(pickupIdx) < pickupDetourTimeLoss) {// otherwise none of them is violated
+			for (int s = pickupIdx; s < dropoffIdx; s++) {
+				if (vEntry.stops.get(s).calcSlackTime() < pickupDetourTimeLoss) {
+					return true;
+				}
 			}
 		}
 
 		// ... now the same for everything after the considered dropoff:
 
 		// this is what we cannot violate
-		for (int s = dropoffIdx; s < vEntry.stops.size(); s++) {
-			Stop stop = vEntry.stops.get(s);
-			// all stops after dropoff are delayed by totalTimeLoss
-			if (stop.task.getBeginTime() + totalTimeLoss > stop.latestArrivalTime //
-					|| stop.task.getEndTime() + totalTimeLoss > stop.latestDepartureTime) {
-				return true;
-			}
+		// all stops after dropoff are delayed by totalTimeLoss
+		if (vEntry.getSlackTime(dropoffIdx) < totalTimeLoss) {
+			return true;
 		}
 
 		// vehicle's time window cannot be violated
@@ -46,4 +46,14 @@ public interface RebalancingStrategy {
 	 *
 	 */
 	List<Relocation> calcRelocations(Stream<? extends DvrpVehicle> rebalancableVehicles, double time);
+
+	/**
+	 * This method is called at each simulation step (before scheduling new requests). Strategies that calculate
+	 * relocations in the background return here the relocations started at the previous re-balancing step.
+	 *
+	 * @return relocations to be applied (vehicles that are not idle any more should be skipped)
+	 */
+	default List<Relocation> collectPendingRelocations() {
+		return List.of();
+	}
 }
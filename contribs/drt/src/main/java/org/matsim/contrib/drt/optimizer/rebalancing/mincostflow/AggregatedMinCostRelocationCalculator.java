@@ -20,6 +20,7 @@ package org.matsim.contrib.drt.optimizer.rebalancing.mincostflow;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -50,6 +51,10 @@ public class AggregatedMinCostRelocationCalculator implements ZonalRelocationCal
 
 	private final DrtZoneTargetLinkSelector targetLinkSelector;
 
+	// the previous solution is reused as long as the (non-zero) zonal surpluses do not change
+	private Map<DrtZone, Integer> previousSurpluses = Map.of();
+	private List<TransportProblem.Flow<DrtZone, DrtZone>> previousFlows = List.of();
+
 	public AggregatedMinCostRelocationCalculator(DrtZoneTargetLinkSelector targetLinkSelector) {
 		this.targetLinkSelector = targetLinkSelector;
 	}
@@ -57,7 +62,23 @@ public class AggregatedMinCostRelocationCalculator implements ZonalRelocationCal
 	@Override
 	public List<Relocation> calcRelocations(List<DrtZoneVehicleSurplus> vehicleSurplus,
 			Map<DrtZone, List<DvrpVehicle>> rebalancableVehiclesPerZone) {
-		return calcRelocations(rebalancableVehiclesPerZone, TransportProblem.solveForVehicleSurplus(vehicleSurplus));
+		return calcRelocations(rebalancableVehiclesPerZone, solveTransportProblem(vehicleSurplus));
+	}
+
+	private List<TransportProblem.Flow<DrtZone, DrtZone>> solveTransportProblem(
+			List<DrtZoneVehicleSurplus> vehicleSurplus) {
+		Map<DrtZone, Integer> surpluses = new HashMap<>();
+		for (DrtZoneVehicleSurplus s : vehicleSurplus) {
+			if (s.surplus != 0) {
+				surpluses.merge(s.zone, s.surplus, Integer::sum);
+			}
+		}
+
+		if (!surpluses.equals(previousSurpluses)) {
+			previousFlows = TransportProblem.solveForVehicleSurplus(vehicleSurplus);
+			previousSurpluses = surpluses;
+		}
+		return previousFlows;
 	}
 
 	private List<Relocation> calcRelocations(Map<DrtZone, List<DvrpVehicle>> rebalancableVehiclesPerZone,
@@ -57,10 +57,11 @@ public class DrtModeMinCostFlowRebalancingModule extends AbstractDvrpModeModule
 		installQSimModule(new AbstractDvrpModeQSimModule(getMode()) {
 			@Override
 			protected void configureQSim() {
-				bindModal(RebalancingStrategy.class).toProvider(modalProvider(
+				addModalComponent(MinCostFlowRebalancingStrategy.class, modalProvider(
 						getter -> new MinCostFlowRebalancingStrategy(getter.getModal(RebalancingTargetCalculator.class),
 								getter.getModal(DrtZonalSystem.class), getter.getModal(Fleet.class),
-								getter.getModal(ZonalRelocationCalculator.class), params))).asEagerSingleton();
+								getter.getModal(ZonalRelocationCalculator.class), params)));
+				bindModal(RebalancingStrategy.class).to(modalKey(MinCostFlowRebalancingStrategy.class));
 
 				switch (strategyParams.getRebalancingTargetCalculatorType()) {
 					case EstimatedDemand:
@@ -22,6 +22,10 @@ import static java.util.stream.Collectors.toList;
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.function.ToDoubleFunction;
 import java.util.stream.Stream;
 
@@ -34,11 +38,13 @@ import org.matsim.contrib.drt.optimizer.rebalancing.mincostflow.AggregatedMinCos
 import org.matsim.contrib.drt.optimizer.rebalancing.targetcalculator.RebalancingTargetCalculator;
 import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
 import org.matsim.contrib.dvrp.fleet.Fleet;
+import org.matsim.core.mobsim.framework.events.MobsimBeforeCleanupEvent;
+import org.matsim.core.mobsim.framework.listeners.MobsimBeforeCleanupListener;
 
 /**
  * @author michalm
  */
-public class MinCostFlowRebalancingStrategy implements RebalancingStrategy {
+public class MinCostFlowRebalancingStrategy implements RebalancingStrategy, MobsimBeforeCleanupListener {
 
 	private final RebalancingTargetCalculator rebalancingTargetCalculator;
 	private final DrtZonalSystem zonalSystem;
@@ -46,6 +52,10 @@ public class MinCostFlowRebalancingStrategy implements RebalancingStrategy {
 	private final ZonalRelocationCalculator relocationCalculator;
 	private final RebalancingParams params;
 
+	// null if relocations are calculated synchronously
+	private final ExecutorService executorService;
+	private Future<List<Relocation>> pendingRelocations;
+
 	public MinCostFlowRebalancingStrategy(RebalancingTargetCalculator rebalancingTargetCalculator,
 			DrtZonalSystem zonalSystem, Fleet fleet, ZonalRelocationCalculator relocationCalculator,
 			RebalancingParams params) {
@@ -54,6 +64,9 @@ public class MinCostFlowRebalancingStrategy implements RebalancingStrategy {
 		this.fleet = fleet;
 		this.relocationCalculator = relocationCalculator;
 		this.params = params;
+
+		var strategyParams = (MinCostFlowRebalancingStrategyParams)params.getRebalancingStrategyParams();
+		executorService = strategyParams.isAsyncRelocationCalculation() ? Executors.newSingleThreadExecutor() : null;
 	}
 
 	@Override
@@ -65,10 +78,43 @@ public class MinCostFlowRebalancingStrategy implements RebalancingStrategy {
 		}
 		Map<DrtZone, List<DvrpVehicle>> soonIdleVehiclesPerZone = RebalancingUtils.groupSoonIdleVehicles(zonalSystem,
 				params, fleet, time);
-		return calculateMinCostRelocations(time, rebalancableVehiclesPerZone, soonIdleVehiclesPerZone);
+		List<DrtZoneVehicleSurplus> vehicleSurpluses = calculateVehicleSurpluses(time, rebalancableVehiclesPerZone,
+				soonIdleVehiclesPerZone);
+
+		if (executorService == null) {
+			return relocationCalculator.calcRelocations(vehicleSurpluses, rebalancableVehiclesPerZone);
+		}
+
+		// The background task reads only the rebalancable (i.e. idle) vehicles. They are not re-scheduled before
+		// the relocations are collected at the beginning of the next step (see DefaultDrtOptimizer)
+		pendingRelocations = executorService.submit(
+				() -> relocationCalculator.calcRelocations(vehicleSurpluses, rebalancableVehiclesPerZone));
+		return List.of();
 	}
 
-	private List<Relocation> calculateMinCostRelocations(double time,
+	@Override
+	public List<Relocation> collectPendingRelocations() {
+		if (pendingRelocations == null) {
+			return List.of();
+		}
+
+		try {
+			return pendingRelocations.get();
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e);
+		} finally {
+			pendingRelocations = null;
+		}
+	}
+
+	@Override
+	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent e) {
+		if (executorService != null) {
+			executorService.shutdown();
+		}
+	}
+
+	private List<DrtZoneVehicleSurplus> calculateVehicleSurpluses(double time,
 			Map<DrtZone, List<DvrpVehicle>> rebalancableVehiclesPerZone,
 			Map<DrtZone, List<DvrpVehicle>> soonIdleVehiclesPerZone) {
 		ToDoubleFunction<DrtZone> targetFunction = rebalancingTargetCalculator.calculate(time,
@@ -77,14 +123,12 @@ public class MinCostFlowRebalancingStrategy implements RebalancingStrategy {
 		double alpha = minCostFlowRebalancingStrategyParams.getTargetAlpha();
 		double beta = minCostFlowRebalancingStrategyParams.getTargetBeta();
 
-		List<DrtZoneVehicleSurplus> vehicleSurpluses = zonalSystem.getZones().values().stream().map(z -> {
+		return zonalSystem.getZones().values().stream().map(z -> {
 			int rebalancable = rebalancableVehiclesPerZone.getOrDefault(z, List.of()).size();
 			int soonIdle = soonIdleVehiclesPerZone.getOrDefault(z, List.of()).size();
 			int target = (int)Math.floor(alpha * targetFunction.applyAsDouble(z) + beta);
 			int surplus = Math.min(rebalancable + soonIdle - target, rebalancable);
 			return new DrtZoneVehicleSurplus(z, surplus);
 		}).collect(toList());
-
-		return relocationCalculator.calcRelocations(vehicleSurpluses, rebalancableVehiclesPerZone);
 	}
 }
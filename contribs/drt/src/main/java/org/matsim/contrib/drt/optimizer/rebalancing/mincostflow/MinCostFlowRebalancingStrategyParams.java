@@ -66,6 +66,12 @@ public final class MinCostFlowRebalancingStrategyParams extends ReflectiveConfig
 			+ " Used when 'zonalDemandEstimatorType' is not set to 'None'."
 			+ " Default value is 1800 s.";
 
+	public static final String ASYNC_RELOCATION_CALCULATION = "asyncRelocationCalculation";
+	static final String ASYNC_RELOCATION_CALCULATION_EXP =
+			"If true, relocations are calculated in the background (off the mobsim thread)"
+					+ " and applied at the next simulation step."
+					+ " Vehicles that are no longer idle at that time are not relocated. Default is false.";
+
 	@NotNull
 	private RebalancingTargetCalculatorType rebalancingTargetCalculatorType = RebalancingTargetCalculatorType.EstimatedDemand;
 
@@ -81,6 +87,8 @@ public final class MinCostFlowRebalancingStrategyParams extends ReflectiveConfig
 	@NotNull
 	private ZonalDemandEstimatorType zonalDemandEstimatorType = ZonalDemandEstimatorType.PreviousIterationDemand;
 
+	private boolean asyncRelocationCalculation = false;
+
 	public MinCostFlowRebalancingStrategyParams() {
 		super(SET_NAME);
 	}
@@ -92,6 +100,7 @@ public final class MinCostFlowRebalancingStrategyParams extends ReflectiveConfig
 		map.put(TARGET_BETA, TARGET_BETA_EXP);
 		map.put(ZONAL_DEMAND_ESTIMATOR_TYPE, ZONAL_DEMAND_ESTIMATOR_TYPE_EXP);
 		map.put(DEMAND_ESTIMATION_PERIOD, DEMAND_ESTIMATION_PERIOD_EXP);
+		map.put(ASYNC_RELOCATION_CALCULATION, ASYNC_RELOCATION_CALCULATION_EXP);
 		return map;
 	}
 
@@ -174,4 +183,20 @@ public final class MinCostFlowRebalancingStrategyParams extends ReflectiveConfig
 	public void setZonalDemandEstimatorType(ZonalDemandEstimatorType estimatorType) {
 		this.zonalDemandEstimatorType = estimatorType;
 	}
+
+	/**
+	 * @return -- {@value #ASYNC_RELOCATION_CALCULATION_EXP}
+	 */
+	@StringGetter(ASYNC_RELOCATION_CALCULATION)
+	public boolean isAsyncRelocationCalculation() {
+		return asyncRelocationCalculation;
+	}
+
+	/**
+	 * @param asyncRelocationCalculation -- {@value #ASYNC_RELOCATION_CALCULATION_EXP}
+	 */
+	@StringSetter(ASYNC_RELOCATION_CALCULATION)
+	public void setAsyncRelocationCalculation(boolean asyncRelocationCalculation) {
+		this.asyncRelocationCalculation = asyncRelocationCalculation;
+	}
 }
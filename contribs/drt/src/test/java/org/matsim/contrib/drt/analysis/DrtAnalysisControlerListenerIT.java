@@ -0,0 +1,247 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.drt.analysis;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.VehicleEntersTrafficEvent;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.contrib.drt.passenger.events.DrtRequestSubmittedEvent;
+import org.matsim.contrib.drt.run.DrtConfigGroup;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.FleetSpecification;
+import org.matsim.contrib.dvrp.fleet.FleetSpecificationImpl;
+import org.matsim.contrib.dvrp.fleet.ImmutableDvrpVehicleSpecification;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.contrib.dvrp.passenger.PassengerDroppedOffEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerPickedUpEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestRejectedEvent;
+import org.matsim.contrib.dvrp.passenger.PassengerRequestScheduledEvent;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.controler.AbstractModule;
+import org.matsim.core.controler.Controler;
+import org.matsim.core.controler.IterationOutputExecutor;
+import org.matsim.core.controler.MatsimServices;
+import org.matsim.core.controler.OutputDirectoryHierarchy.OverwriteFileSetting;
+import org.matsim.core.mobsim.framework.Mobsim;
+import org.matsim.core.network.NetworkUtils;
+import org.matsim.core.replanning.ReplanningContext;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.misc.CRCChecksum;
+import org.matsim.testcases.MatsimTestUtils;
+
+/**
+ * The iteration output of {@link DrtAnalysisControlerListener} is written in the background by the
+ * {@link IterationOutputExecutor}. Tests that all of it is complete once the run has been shut down, and that it does not
+ * depend on the number of output writing threads. The drt
+ * simulation is replaced by generated passenger events, so that there is enough output for the background tasks to
+ * still be running at shutdown.
+ */
+public class DrtAnalysisControlerListenerIT {
+
+	private static final String MODE = "drt";
+	private static final int LAST_ITERATION = 2;
+	private static final int NUMBER_OF_LINKS = 10;
+	private static final int NUMBER_OF_VEHICLES = 5;
+	private static final int NUMBER_OF_REQUESTS = 20000;
+
+	@Rule
+	public final MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	public void testBackgroundOutputIsCompleteAfterShutdown() throws IOException {
+		String singleThreadOutput = runScenario("singleThread/", 1);
+		String multiThreadOutput = runScenario("multiThread/", 4);
+
+		int rejectedRequests = NUMBER_OF_REQUESTS / 10;
+		int performedRequests = NUMBER_OF_REQUESTS - rejectedRequests;
+		for (int it = 0; it <= LAST_ITERATION; it++) {
+			String iterationDirectory = "ITERS/it." + it + "/";
+			String prefix = singleThreadOutput + iterationDirectory + it + ".";
+			Assert.assertEquals(performedRequests + 1, countLines(prefix + "drt_trips_drt.csv"));
+			Assert.assertEquals(rejectedRequests + 1, countLines(prefix + "drt_rejections_drt.csv"));
+			Assert.assertEquals(performedRequests + 1, countLines(prefix + "waitTimeComparison_drt.csv"));
+			Assert.assertEquals(NUMBER_OF_VEHICLES + 1, countLines(prefix + "vehicleDistanceStats_drt.csv"));
+			Assert.assertTrue(new File(prefix + "drt_boardings_drt.csv").length() > 0);
+			Assert.assertTrue(new File(prefix + "drt_alightments_drt.csv").length() > 0);
+
+			Set<String> files = listDrtOutputFiles(singleThreadOutput + iterationDirectory);
+			Assert.assertEquals(files, listDrtOutputFiles(multiThreadOutput + iterationDirectory));
+			for (String file : files) {
+				Assert.assertEquals(file + " is expected not to depend on the number of output threads",
+						CRCChecksum.getCRCFromFile(singleThreadOutput + iterationDirectory + file),
+						CRCChecksum.getCRCFromFile(multiThreadOutput + iterationDirectory + file));
+			}
+		}
+	}
+
+	private String runScenario(String outputSubdirectory, int numberOfOutputWritingThreads) {
+		Config config = ConfigUtils.createConfig();
+		String outputDirectory = utils.getOutputDirectory() + outputSubdirectory;
+		config.controler().setOutputDirectory(outputDirectory);
+		config.controler().setLastIteration(LAST_ITERATION);
+		config.controler().setCreateGraphs(false);
+		config.controler().setDumpDataAtEnd(false);
+		config.controler().setOverwriteFileSetting(OverwriteFileSetting.deleteDirectoryIfExists);
+		config.controler().setNumberOfOutputWritingThreads(numberOfOutputWritingThreads);
+
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		Network network = scenario.getNetwork();
+		Node previousNode = NetworkUtils.createAndAddNode(network, Id.createNodeId(0), new Coord(0, 0));
+		for (int i = 1; i <= NUMBER_OF_LINKS; i++) {
+			Node node = NetworkUtils.createAndAddNode(network, Id.createNodeId(i), new Coord(i * 500, i % 2 * 200));
+			NetworkUtils.createAndAddLink(network, Id.createLinkId(i), previousNode, node, 500 + i * 10, 10, 1000, 1);
+			previousNode = node;
+		}
+
+		DrtConfigGroup drtCfg = new DrtConfigGroup().setMode(MODE);
+		FleetSpecification fleet = new FleetSpecificationImpl();
+		for (int v = 0; v < NUMBER_OF_VEHICLES; v++) {
+			fleet.addVehicleSpecification(ImmutableDvrpVehicleSpecification.newBuilder()
+					.id(Id.create(v, DvrpVehicle.class))
+					.startLinkId(Id.createLinkId(1))
+					.capacity(4)
+					.serviceBeginTime(0)
+					.serviceEndTime(30 * 3600)
+					.build());
+		}
+		DrtRequestAnalyzer requestAnalyzer = new DrtRequestAnalyzer(MODE);
+		DrtVehicleDistanceStats vehicleStats = new DrtVehicleDistanceStats(network, drtCfg, fleet);
+
+		Controler controler = new Controler(scenario);
+		controler.addOverridingModule(new AbstractModule() {
+			@Override
+			public void install() {
+				bindMobsim().toProvider(DrtEventsMobsim.class);
+				addEventHandlerBinding().toInstance(requestAnalyzer);
+				addEventHandlerBinding().toInstance(vehicleStats);
+				addControlerListenerBinding().toProvider(new Provider<DrtAnalysisControlerListener>() {
+					@Inject
+					private MatsimServices matsimServices;
+					@Inject
+					private IterationOutputExecutor outputExecutor;
+
+					@Override
+					public DrtAnalysisControlerListener get() {
+						return new DrtAnalysisControlerListener(config, drtCfg, fleet, vehicleStats, matsimServices,
+								network, requestAnalyzer, outputExecutor);
+					}
+				});
+			}
+		});
+		controler.run();
+		return outputDirectory;
+	}
+
+	/**
+	 * Replaces the drt simulation by the passenger events of a fixed set of requests, every tenth of which is rejected.
+	 * The pick-up times depend on the iteration, so that the output of each iteration is different.
+	 */
+	private static class DrtEventsMobsim implements Provider<Mobsim> {
+		@Inject
+		private EventsManager events;
+
+		@Inject
+		private ReplanningContext replanningContext;
+
+		@Override
+		public Mobsim get() {
+			int iteration = replanningContext.getIteration();
+			return () -> {
+				List<Event> drtEvents = new ArrayList<>();
+				// the vehicles need drivers, otherwise the link events cannot be scored
+				for (int v = 0; v < NUMBER_OF_VEHICLES; v++) {
+					drtEvents.add(new VehicleEntersTrafficEvent(0, Id.createPersonId("driver_" + v), Id.createLinkId(1),
+							Id.createVehicleId(v), MODE, 1.0));
+				}
+				for (int i = 0; i < NUMBER_OF_REQUESTS; i++) {
+					double time = i * 60;
+					Id<Request> requestId = Id.create(i, Request.class);
+					Id<Person> personId = Id.createPersonId(i);
+					Id<DvrpVehicle> vehicleId = Id.create(i % NUMBER_OF_VEHICLES, DvrpVehicle.class);
+					Id<Link> fromLinkId = Id.createLinkId(1 + i % NUMBER_OF_LINKS);
+					Id<Link> toLinkId = Id.createLinkId(1 + (i * 3 + 1) % NUMBER_OF_LINKS);
+
+					drtEvents.add(new DrtRequestSubmittedEvent(time, MODE, requestId, personId, fromLinkId, toLinkId, 300,
+							1000 + i));
+					if (i % 10 == 9) {
+						drtEvents.add(
+								new PassengerRequestRejectedEvent(time, MODE, requestId, personId, "no_insertion_found"));
+						continue;
+					}
+					double pickupTime = time + 100 + iteration * 10 + i % 7;
+					drtEvents.add(new PassengerRequestScheduledEvent(time, MODE, requestId, personId, vehicleId,
+							time + 120, time + 900));
+					drtEvents.add(new PassengerPickedUpEvent(pickupTime, MODE, requestId, personId, vehicleId));
+					drtEvents.add(new LinkEnterEvent(pickupTime + 60, Id.createVehicleId(vehicleId), toLinkId));
+					drtEvents.add(new PassengerDroppedOffEvent(pickupTime + 600 + i % 13, MODE, requestId, personId,
+							vehicleId));
+				}
+				// the events manager expects the events in chronological order
+				drtEvents.sort(Comparator.comparingDouble(Event::getTime));
+
+				events.initProcessing();
+				drtEvents.forEach(events::processEvent);
+				events.finishProcessing();
+			};
+		}
+	}
+
+	private static Set<String> listDrtOutputFiles(String iterationDirectory) {
+		String[] files = new File(iterationDirectory).list((dir, name) -> name.contains("_" + MODE));
+		Assert.assertNotNull(iterationDirectory + " is expected to exist", files);
+		return new TreeSet<>(Arrays.asList(files));
+	}
+
+	private static int countLines(String file) throws IOException {
+		int lines = 0;
+		try (BufferedReader reader = IOUtils.getBufferedReader(file)) {
+			while (reader.readLine() != null) {
+				lines++;
+			}
+		}
+		return lines;
+	}
+}
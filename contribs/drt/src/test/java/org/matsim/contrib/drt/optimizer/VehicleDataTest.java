@@ -0,0 +1,76 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.drt.passenger.DrtRequest;
+import org.matsim.contrib.drt.schedule.DrtStopTask;
+import org.matsim.contrib.dvrp.optimizer.Request;
+import org.matsim.testcases.fakes.FakeLink;
+
+import com.google.common.collect.ImmutableList;
+
+public class VehicleDataTest {
+	private final Link link = new FakeLink(Id.createLinkId("link"));
+
+	@Test
+	public void getSlackTime() {
+		DrtStopTask stopTask0 = new DrtStopTask(100, 160, link);
+		stopTask0.addPickupRequest(request("r0", 200, 1000));// slack: 200 - 160 = 40
+		DrtStopTask stopTask1 = new DrtStopTask(300, 360, link);
+		stopTask1.addDropoffRequest(request("r1", 0, 400));// slack: 400 - 300 = 100
+		DrtStopTask stopTask2 = new DrtStopTask(500, 560, link);
+		stopTask2.addDropoffRequest(request("r0", 200, 1000));// slack: 1000 - 500 = 500
+
+		VehicleData.Entry entry = new VehicleData.Entry(null, new VehicleData.Start(null, link, 0, 0),
+				ImmutableList.of(new VehicleData.Stop(stopTask0, 1), new VehicleData.Stop(stopTask1, 0),
+						new VehicleData.Stop(stopTask2, 0)));
+
+		assertThat(entry.stops.get(0).calcSlackTime()).isEqualTo(40);
+		assertThat(entry.getSlackTime(0)).isEqualTo(40);
+		assertThat(entry.getSlackTime(1)).isEqualTo(100);
+		assertThat(entry.getSlackTime(2)).isEqualTo(500);
+		assertThat(entry.getSlackTime(3)).isEqualTo(Double.POSITIVE_INFINITY);
+	}
+
+	@Test
+	public void getSlackTime_delayedStop() {
+		// already delayed beyond the latest departure time ==> no further delays allowed
+		DrtStopTask stopTask = new DrtStopTask(100, 160, link);
+		stopTask.addPickupRequest(request("r0", 150, 1000));
+
+		VehicleData.Entry entry = new VehicleData.Entry(null, new VehicleData.Start(null, link, 0, 0),
+				ImmutableList.of(new VehicleData.Stop(stopTask, 1)));
+		assertThat(entry.getSlackTime(0)).isEqualTo(0);
+	}
+
+	private DrtRequest request(String id, double latestStartTime, double latestArrivalTime) {
+		return DrtRequest.newBuilder()
+				.id(Id.create(id, Request.class))
+				.latestStartTime(latestStartTime)
+				.latestArrivalTime(latestArrivalTime)
+				.build();
+	}
+}
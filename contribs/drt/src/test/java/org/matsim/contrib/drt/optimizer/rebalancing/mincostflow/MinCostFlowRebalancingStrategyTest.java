@@ -0,0 +1,100 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.drt.optimizer.rebalancing.mincostflow;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.drt.analysis.zonal.DrtZonalSystem;
+import org.matsim.contrib.drt.analysis.zonal.DrtZone;
+import org.matsim.contrib.drt.optimizer.rebalancing.RebalancingParams;
+import org.matsim.contrib.drt.optimizer.rebalancing.RebalancingStrategy.Relocation;
+import org.matsim.contrib.drt.schedule.DrtStayTask;
+import org.matsim.contrib.dvrp.fleet.DvrpVehicle;
+import org.matsim.contrib.dvrp.fleet.Fleet;
+import org.matsim.contrib.dvrp.schedule.Schedule;
+import org.matsim.testcases.fakes.FakeLink;
+
+import com.google.common.collect.ImmutableMap;
+
+public class MinCostFlowRebalancingStrategyTest {
+	private final Link link1 = new FakeLink(Id.createLinkId("1"));
+	private final Link link2 = new FakeLink(Id.createLinkId("2"));
+
+	private final DrtZonalSystem zonalSystem = new DrtZonalSystem(
+			List.of(DrtZone.createDummyZone("1", List.of(link1), new Coord(0, 0)),
+					DrtZone.createDummyZone("2", List.of(link2), new Coord(1000, 0))));
+
+	private final DvrpVehicle vehicle = mockIdleVehicle(link1);
+	private final Relocation relocation = new Relocation(vehicle, link2);
+
+	@Test
+	public void calcRelocations_sync() {
+		MinCostFlowRebalancingStrategy strategy = createStrategy(false);
+
+		assertThat(strategy.calcRelocations(Stream.of(vehicle), 0)).containsExactly(relocation);
+		assertThat(strategy.collectPendingRelocations()).isEmpty();
+	}
+
+	@Test
+	public void calcRelocations_async_collectedAtNextStep() {
+		MinCostFlowRebalancingStrategy strategy = createStrategy(true);
+
+		assertThat(strategy.collectPendingRelocations()).isEmpty();
+		assertThat(strategy.calcRelocations(Stream.of(vehicle), 0)).isEmpty();
+		assertThat(strategy.collectPendingRelocations()).containsExactly(relocation);
+		assertThat(strategy.collectPendingRelocations()).isEmpty();
+
+		strategy.notifyMobsimBeforeCleanup(null);
+	}
+
+	private MinCostFlowRebalancingStrategy createStrategy(boolean async) {
+		MinCostFlowRebalancingStrategyParams strategyParams = new MinCostFlowRebalancingStrategyParams();
+		strategyParams.setTargetAlpha(1);
+		strategyParams.setTargetBeta(0);
+		strategyParams.setAsyncRelocationCalculation(async);
+		RebalancingParams params = new RebalancingParams();
+		params.addParameterSet(strategyParams);
+
+		Fleet fleet = mock(Fleet.class);
+		when(fleet.getVehicles()).thenReturn(ImmutableMap.of());
+
+		return new MinCostFlowRebalancingStrategy((time, vehiclesPerZone) -> zone -> 0, zonalSystem, fleet,
+				(vehicleSurplus, vehiclesPerZone) -> List.of(relocation), params);
+	}
+
+	private DvrpVehicle mockIdleVehicle(Link link) {
+		Schedule schedule = mock(Schedule.class);
+		when(schedule.getCurrentTask()).thenReturn(new DrtStayTask(0, 24 * 3600, link));
+		DvrpVehicle vehicle = mock(DvrpVehicle.class);
+		when(vehicle.getSchedule()).thenReturn(schedule);
+		when(vehicle.getServiceEndTime()).thenReturn(24 * 3600.);
+		return vehicle;
+	}
+}
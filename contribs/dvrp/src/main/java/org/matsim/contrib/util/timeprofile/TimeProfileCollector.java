@@ -57,6 +57,9 @@ public class TimeProfileCollector implements MobsimBeforeSimStepListener, Mobsim
 	private BiConsumer<JFreeChart, ChartType> chartCustomizer;
 	private ChartType[] chartTypes = { ChartType.Line };
 
+	private boolean streamed = false;
+	private CompactCSVWriter streamWriter;
+
 	public TimeProfileCollector(ProfileCalculator calculator, int interval, String outputFile,
 			MatsimServices matsimServices) {
 		this.calculator = calculator;
@@ -68,9 +71,35 @@ public class TimeProfileCollector implements MobsimBeforeSimStepListener, Mobsim
 	@Override
 	public void notifyMobsimBeforeSimStep(@SuppressWarnings("rawtypes") MobsimBeforeSimStepEvent e) {
 		if (e.getSimulationTime() % interval == 0) {
-			times.add(e.getSimulationTime());
-			timeProfile.add(calculator.calcValues());
+			if (streamed) {
+				writeStreamedValues(e.getSimulationTime(), calculator.calcValues());
+			} else {
+				times.add(e.getSimulationTime());
+				timeProfile.add(calculator.calcValues());
+			}
+		}
+	}
+
+	private void writeStreamedValues(double time, ImmutableMap<String, Double> values) {
+		if (streamWriter == null) {
+			streamWriter = new CompactCSVWriter(IOUtils.getBufferedWriter(getOutputFilename() + ".txt"));
+			streamWriter.writeNext(new CSVLineBuilder().add("time").addAll(calculator.getHeader()));
+		}
+
+		CSVLineBuilder builder = new CSVLineBuilder().add(Time.writeTime(time, getTimeFormat()));
+		for (String column : calculator.getHeader()) {
+			builder.add(values.getOrDefault(column, 0.) + "");
 		}
+		streamWriter.writeNext(builder);
+	}
+
+	/**
+	 * If true, each row of the time profile is written to file right after being calculated, instead of keeping the
+	 * whole profile in memory until the end of simulation. Only the columns of the calculator's header are written
+	 * and no charts are created.
+	 */
+	public void setStreamed(boolean streamed) {
+		this.streamed = streamed;
 	}
 
 	public void setChartCustomizer(BiConsumer<JFreeChart, ChartType> chartCustomizer) {
@@ -83,9 +112,15 @@ public class TimeProfileCollector implements MobsimBeforeSimStepListener, Mobsim
 
 	@Override
 	public void notifyMobsimBeforeCleanup(@SuppressWarnings("rawtypes") MobsimBeforeCleanupEvent e) {
-		String file = matsimServices.getControlerIO()
-				.getIterationFilename(matsimServices.getIterationNumber(), outputFile);
-		String timeFormat = interval % 60 == 0 ? Time.TIMEFORMAT_HHMM : Time.TIMEFORMAT_HHMMSS;
+		if (streamed) {
+			if (streamWriter != null) {
+				streamWriter.close();
+			}
+			return;
+		}
+
+		String file = getOutputFilename();
+		String timeFormat = getTimeFormat();
 
 		ImmutableList<String> extendedHeader = TimeProfiles.createExtendedHeader(calculator.getHeader(),
 				timeProfile.stream().flatMap(map -> map.keySet().stream()), String::compareTo);
@@ -107,6 +142,14 @@ public class TimeProfileCollector implements MobsimBeforeSimStepListener, Mobsim
 		}
 	}
 
+	private String getOutputFilename() {
+		return matsimServices.getControlerIO().getIterationFilename(matsimServices.getIterationNumber(), outputFile);
+	}
+
+	private String getTimeFormat() {
+		return interval % 60 == 0 ? Time.TIMEFORMAT_HHMM : Time.TIMEFORMAT_HHMMSS;
+	}
+
 	private void generateImage(ImmutableList<String> extendedHeader, ChartType chartType) {
 		JFreeChart chart = TimeProfileCharts.chartProfile(extendedHeader, times, timeProfile, chartType);
 		if (chartCustomizer != null) {
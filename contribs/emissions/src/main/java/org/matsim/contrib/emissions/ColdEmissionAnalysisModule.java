@@ -74,6 +74,13 @@ final class ColdEmissionAnalysisModule {
 
 	private final Set<Pollutant> coldPollutants;
 
+	// The lookups (including all fallbacks) only depend on the vehicle type, the parking time class, the distance class and the pollutant.  Their
+	// results are memorized in dense arrays, so that the same lookup does not construct and hash new keys on every cold emission event.
+	private static final int N_POLLUTANTS = Pollutant.values().length;
+	private static final int N_PARKING_TIME_CLASSES = 13;
+	private static final int N_DISTANCE_CLASSES = 2;
+	private final Map<VehicleType, VehicleTypeEntry> vehicleTypeEntries = new IdentityHashMap<>();
+
 	private int detailedReadingInfoCnt = 0;
 	private int detailedTransformToHbefa4Cnt = 0;
 	private int detailedFallbackTechAverageWarnCnt = 0;
@@ -100,6 +107,20 @@ final class ColdEmissionAnalysisModule {
 			VehicleType vehicleType, Id<Vehicle> vehicleId, Id<Link> coldEmissionEventLinkId,
 			double eventTime, double parkingDuration, int distance_km) {
 
+		VehicleTypeEntry vehicleTypeEntry = getVehicleTypeEntry( vehicleType );
+
+		Map<Pollutant, Double> coldEmissions = calculateColdEmissions( vehicleId, parkingDuration, vehicleTypeEntry, distance_km );
+
+		throwColdEmissionEvent(vehicleId, coldEmissionEventLinkId, eventTime, coldEmissions);
+
+		return coldEmissions;
+	}
+
+	private VehicleTypeEntry getVehicleTypeEntry( VehicleType vehicleType ) {
+		VehicleTypeEntry vehicleTypeEntry = this.vehicleTypeEntries.get( vehicleType );
+		if ( vehicleTypeEntry != null ) {
+			return vehicleTypeEntry;
+		}
 		{
 			String hbefaVehicleTypeDescription = EmissionUtils.getHbefaVehicleDescription( vehicleType, this.ecg );
 			// (this will, importantly, repair the hbefa description in the vehicle type. kai/kai, jan'20)
@@ -114,11 +135,9 @@ final class ColdEmissionAnalysisModule {
 					EmissionsConfigGroup.GROUP_NAME + " config group are met. Aborting...");
 		}
 
-		Map<Pollutant, Double> coldEmissions = calculateColdEmissions( vehicleId, parkingDuration, vehicleInformationTuple, distance_km );
-
-		throwColdEmissionEvent(vehicleId, coldEmissionEventLinkId, eventTime, coldEmissions);
-
-		return coldEmissions;
+		vehicleTypeEntry = new VehicleTypeEntry( vehicleInformationTuple );
+		this.vehicleTypeEntries.put( vehicleType, vehicleTypeEntry );
+		return vehicleTypeEntry;
 	}
 
 	/*package-private*/ void throwColdEmissionEvent(Id<Vehicle> vehicleId, Id<Link> coldEmissionEventLinkId, double eventTime, Map<Pollutant, Double> coldEmissions) {
@@ -127,7 +146,8 @@ final class ColdEmissionAnalysisModule {
 	}
 
 	private static int cnt =10;
-	private Map<Pollutant, Double> calculateColdEmissions(Id<Vehicle> vehicleId, double parkingDuration, Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple, int distance_km ) {
+	private Map<Pollutant, Double> calculateColdEmissions(Id<Vehicle> vehicleId, double parkingDuration, VehicleTypeEntry vehicleTypeEntry, int distance_km ) {
+		Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple = vehicleTypeEntry.vehicleInformationTuple;
 
 		final Map<Pollutant, Double> coldEmissionsOfEvent = new EnumMap<>( Pollutant.class );
 
@@ -149,9 +169,7 @@ final class ColdEmissionAnalysisModule {
 			return coldEmissionsOfEvent;
 		}
 
-		// translate vehicle information type into factor key.  yyyy maybe combine these two? kai, jan'20
-		HbefaColdEmissionFactorKey key = new HbefaColdEmissionFactorKey();
-		key.setHbefaVehicleCategory( vehicleInformationTuple.getFirst() );
+		HbefaVehicleCategory vehicleCategory = vehicleInformationTuple.getFirst();
 
 		//HBEFA 3 provide cold start emissions for "pass. car" and Light_Commercial_Vehicles (LCV) only.
 		//HBEFA 4.1 provide cold start emissions for "pass. car" and Light_Commercial_Vehicles (LCV) only.
@@ -159,7 +177,7 @@ final class ColdEmissionAnalysisModule {
 		//Mapping everything except "motorcycle" to "pass.car", since this was done in the last years for HGV.
 		//This may can be improved: What should be better set to LGV or zero???? kturner, may'20
 		if (vehicleInformationTuple.getFirst().equals(HbefaVehicleCategory.HEAVY_GOODS_VEHICLE)){
-			key.setHbefaVehicleCategory(HbefaVehicleCategory.PASSENGER_CAR);
+			vehicleCategory = HbefaVehicleCategory.PASSENGER_CAR;
 			if(vehInfoWarnHDVCnt < maxWarnCnt) {
 				vehInfoWarnHDVCnt++;
 				logger.warn("HBEFA does not provide cold start emission factors for " +
@@ -169,7 +187,7 @@ final class ColdEmissionAnalysisModule {
 			}
 		}
 		if (vehicleInformationTuple.getFirst().equals(HbefaVehicleCategory.URBAN_BUS)){
-			key.setHbefaVehicleCategory(HbefaVehicleCategory.PASSENGER_CAR);
+			vehicleCategory = HbefaVehicleCategory.PASSENGER_CAR;
 			if(vehInfoWarnHDVCnt < maxWarnCnt) {
 				vehInfoWarnHDVCnt++;
 				logger.warn("HBEFA does not provide cold start emission factors for " +
@@ -179,7 +197,7 @@ final class ColdEmissionAnalysisModule {
 			}
 		}
 		if (vehicleInformationTuple.getFirst().equals(HbefaVehicleCategory.COACH)){
-			key.setHbefaVehicleCategory(HbefaVehicleCategory.PASSENGER_CAR);
+			vehicleCategory = HbefaVehicleCategory.PASSENGER_CAR;
 			if(vehInfoWarnHDVCnt < maxWarnCnt) {
 				vehInfoWarnHDVCnt++;
 				logger.warn("HBEFA does not provide cold start emission factors for " +
@@ -205,31 +223,45 @@ final class ColdEmissionAnalysisModule {
 			return coldEmissionsOfEvent;
 		}
 
-		if(this.detailedHbefaColdTable != null){
-			HbefaVehicleAttributes hbefaVehicleAttributes = new HbefaVehicleAttributes();
-			hbefaVehicleAttributes.setHbefaTechnology(vehicleInformationTuple.getSecond().getHbefaTechnology());
-			hbefaVehicleAttributes.setHbefaSizeClass(vehicleInformationTuple.getSecond().getHbefaSizeClass());
-			hbefaVehicleAttributes.setHbefaEmConcept(vehicleInformationTuple.getSecond().getHbefaEmConcept());
-			key.setHbefaVehicleAttributes(hbefaVehicleAttributes);
-		}
-
 		int parkingDuration_h = Math.max(1, (int) (parkingDuration / 3600));
 		if (parkingDuration_h >= 12) parkingDuration_h = 13;
 
-		key.setHbefaParkingTime(parkingDuration_h);
-
 		for ( Pollutant coldPollutant : coldPollutants) {
 			double generatedEmissions;
 			if (distance_km == 1) {
-				generatedEmissions = getEmissionsFactor(vehicleInformationTuple, 1, key, coldPollutant).getColdEmissionFactor();
+				generatedEmissions = getEmissionsFactor(vehicleTypeEntry, vehicleCategory, parkingDuration_h, 1, coldPollutant).getColdEmissionFactor();
 			} else {
-				generatedEmissions = getEmissionsFactor(vehicleInformationTuple, 2, key, coldPollutant).getColdEmissionFactor() - getEmissionsFactor(vehicleInformationTuple, 1, key, coldPollutant).getColdEmissionFactor();
+				generatedEmissions = getEmissionsFactor(vehicleTypeEntry, vehicleCategory, parkingDuration_h, 2, coldPollutant).getColdEmissionFactor() - getEmissionsFactor(vehicleTypeEntry, vehicleCategory, parkingDuration_h, 1, coldPollutant).getColdEmissionFactor();
 			}
 			coldEmissionsOfEvent.put(coldPollutant, generatedEmissions);
 		}
 		return coldEmissionsOfEvent;
 	}
 
+	private HbefaColdEmissionFactor getEmissionsFactor(VehicleTypeEntry vehicleTypeEntry, HbefaVehicleCategory vehicleCategory, int parkingDuration_h,
+							   int distance_km, Pollutant coldPollutant) {
+		int idx = ((parkingDuration_h - 1) * N_DISTANCE_CLASSES + distance_km - 1) * N_POLLUTANTS + coldPollutant.ordinal();
+		HbefaColdEmissionFactor ef = vehicleTypeEntry.emissionFactors[idx];
+		if (ef == null) {
+			// translate vehicle information type into factor key.  yyyy maybe combine these two? kai, jan'20
+			Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple = vehicleTypeEntry.vehicleInformationTuple;
+			HbefaColdEmissionFactorKey key = new HbefaColdEmissionFactorKey();
+			key.setHbefaVehicleCategory( vehicleCategory );
+			if(this.detailedHbefaColdTable != null){
+				HbefaVehicleAttributes hbefaVehicleAttributes = new HbefaVehicleAttributes();
+				hbefaVehicleAttributes.setHbefaTechnology(vehicleInformationTuple.getSecond().getHbefaTechnology());
+				hbefaVehicleAttributes.setHbefaSizeClass(vehicleInformationTuple.getSecond().getHbefaSizeClass());
+				hbefaVehicleAttributes.setHbefaEmConcept(vehicleInformationTuple.getSecond().getHbefaEmConcept());
+				key.setHbefaVehicleAttributes(hbefaVehicleAttributes);
+			}
+			key.setHbefaParkingTime(parkingDuration_h);
+
+			ef = getEmissionsFactor(vehicleInformationTuple, distance_km, key, coldPollutant);
+			vehicleTypeEntry.emissionFactors[idx] = ef;
+		}
+		return ef;
+	}
+
 	private HbefaColdEmissionFactor getEmissionsFactor(Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple, int distance_km, HbefaColdEmissionFactorKey efkey, Pollutant coldPollutant) {
 
 		efkey.setHbefaDistance(distance_km);
@@ -417,6 +449,15 @@ final class ColdEmissionAnalysisModule {
 				"values ar missing in your emissions table(s) either average or detailed OR... ? efkey: " + efkey.toString());
 	}
 
+	private static final class VehicleTypeEntry {
+		private final Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple;
+		private final HbefaColdEmissionFactor[] emissionFactors = new HbefaColdEmissionFactor[N_PARKING_TIME_CLASSES * N_DISTANCE_CLASSES * N_POLLUTANTS];
+
+		private VehicleTypeEntry( Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple ) {
+			this.vehicleInformationTuple = vehicleInformationTuple;
+		}
+	}
+
 	static HbefaVehicleAttributes createHbefaVehicleAttributes( final String hbefaTechnology, final String hbefaSizeClass, final String hbefaEmConcept ) {
 		HbefaVehicleAttributes vehAtt = new HbefaVehicleAttributes();
 		vehAtt.setHbefaTechnology( hbefaTechnology );
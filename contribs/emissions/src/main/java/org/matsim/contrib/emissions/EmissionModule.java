@@ -178,14 +178,29 @@ public final class EmissionModule {
 		
 		loadRoadTypeMappings();
 
-		warmEmissionHandler = new WarmEmissionHandler(scenario, avgHbefaWarmTable, detailedHbefaWarmTable, hbefaRoadTrafficSpeeds, warmPollutants, eventsManager);
+		warmEmissionHandler = createWarmEmissionHandler( eventsManager );
 
-		coldEmissionHandler = new ColdEmissionHandler( scenario, avgHbefaColdTable, detailedHbefaColdTable, coldPollutants, eventsManager );
+		coldEmissionHandler = createColdEmissionHandler( eventsManager );
 		// this initiates all cold emissions processing!
 
 		logger.info("leaving createEmissionHandler");
 	}
 
+	/**
+	 * Creates an additional warm emission handler on the already loaded tables, e.g. for one of several threads that process disjoint sets of vehicles.
+	 * The handler adds itself to the given events manager.
+	 */
+	/*package-private*/ WarmEmissionHandler createWarmEmissionHandler( EventsManager eventsManager ) {
+		return new WarmEmissionHandler(scenario, avgHbefaWarmTable, detailedHbefaWarmTable, hbefaRoadTrafficSpeeds, warmPollutants, eventsManager);
+	}
+
+	/**
+	 * Creates an additional cold emission handler on the already loaded tables.  The handler adds itself to the given events manager.
+	 */
+	/*package-private*/ ColdEmissionHandler createColdEmissionHandler( EventsManager eventsManager ) {
+		return new ColdEmissionHandler( scenario, avgHbefaColdTable, detailedHbefaColdTable, coldPollutants, eventsManager );
+	}
+
 	private void loadRoadTypeMappings() {
 		HbefaRoadTypeMapping roadTypeMapping;
 
@@ -249,6 +249,11 @@ public final class EmissionUtils {
 			case usingVehicleTypeId:
 				// (v1, hbefa vehicle description is in vehicle type id.  Copy to where it is expected now)
 
+				if ( isHbefaVehicleDescriptionCopiedFromId( vehicleType ) ) {
+					// already copied, e.g. by OfflineEmissionsCalculator before its threads share the vehicle type; only read it then
+					break;
+				}
+
 				//VehicleTypeId can contain ; to provide more specific information, e.g. for HbefaTechnology, HbefaSizeClass, HbefaEmissionsConcept
 				if (vehicleType.getId().toString().contains(";")) {
 					String[] vehicleInformationArray = vehicleType.getId().toString().split(";");
@@ -314,6 +319,18 @@ public final class EmissionUtils {
 		return getHbefaVehicleDescription( vehicleType ) ;
 	}
 
+	private static boolean isHbefaVehicleDescriptionCopiedFromId( VehicleType vehicleType ) {
+		String[] vehicleInformationArray = vehicleType.getId().toString().split(";");
+		EngineInformation engineInfo = vehicleType.getEngineInformation();
+		if ( !vehicleInformationArray[0].equals( VehicleUtils.getHbefaVehicleCategory( engineInfo ) ) ) {
+			return false;
+		}
+		return vehicleInformationArray.length != 4
+				|| ( vehicleInformationArray[1].equals( VehicleUtils.getHbefaTechnology( engineInfo ) )
+				&& vehicleInformationArray[2].equals( VehicleUtils.getHbefaSizeClass( engineInfo ) )
+				&& vehicleInformationArray[3].equals( VehicleUtils.getHbefaEmissionsConcept( engineInfo ) ) );
+	}
+
 	private static String getHbefaVehicleDescription( VehicleType vehicleType ) {
 		// not yet clear if this can be public (without access to config). kai/kai, sep'19
 		EngineInformation engineInfo = vehicleType.getEngineInformation();;
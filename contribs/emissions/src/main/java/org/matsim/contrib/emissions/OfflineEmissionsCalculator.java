@@ -0,0 +1,353 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.emissions;
+
+import org.apache.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.events.Event;
+import org.matsim.api.core.v01.events.LinkEnterEvent;
+import org.matsim.api.core.v01.events.LinkLeaveEvent;
+import org.matsim.api.core.v01.events.VehicleEntersTrafficEvent;
+import org.matsim.api.core.v01.events.VehicleLeavesTrafficEvent;
+import org.matsim.api.core.v01.events.handler.LinkEnterEventHandler;
+import org.matsim.api.core.v01.events.handler.LinkLeaveEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleEntersTrafficEventHandler;
+import org.matsim.api.core.v01.events.handler.VehicleLeavesTrafficEventHandler;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.analysis.time.TimeBinMap;
+import org.matsim.contrib.emissions.events.ColdEmissionEvent;
+import org.matsim.contrib.emissions.events.ColdEmissionEventHandler;
+import org.matsim.contrib.emissions.events.WarmEmissionEvent;
+import org.matsim.contrib.emissions.events.WarmEmissionEventHandler;
+import org.matsim.contrib.emissions.utils.EmissionsConfigGroup;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.events.EventsManagerImpl;
+import org.matsim.core.events.MatsimEventsReader;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.io.UncheckedIOException;
+import org.matsim.vehicles.Vehicle;
+import org.matsim.vehicles.VehicleType;
+import org.matsim.vehicles.VehicleUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Calculates emissions offline, i.e. from an events file, and aggregates them per time bin and link.
+ * <p>
+ * The warm and cold emission handlers only keep state per vehicle.  The events of the file are therefore partitioned by vehicle onto
+ * several threads, each of them with its own handlers and its own aggregation.  The partial aggregations are summed up at the end, so the
+ * emission events never have to be written to (and re-read from) an events file.
+ */
+public final class OfflineEmissionsCalculator {
+	private static final Logger log = Logger.getLogger(OfflineEmissionsCalculator.class);
+
+	private static final int BATCH_SIZE = 1000;
+	private static final int QUEUE_CAPACITY = 16;
+
+	private final Scenario scenario;
+	private final EmissionModule emissionModule;
+	private final double timeBinSize;
+	private final int numberOfThreads;
+
+	public OfflineEmissionsCalculator(Scenario scenario, double timeBinSize) {
+		this(scenario, timeBinSize, scenario.getConfig().global().getNumberOfThreads());
+	}
+
+	public OfflineEmissionsCalculator(Scenario scenario, double timeBinSize, int numberOfThreads) {
+		this.scenario = scenario;
+		this.timeBinSize = timeBinSize;
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+		// loads the hbefa tables and the road type mappings; the handlers it creates itself are not used.
+		this.emissionModule = new EmissionModule(scenario, new EventsManagerImpl());
+	}
+
+	/**
+	 * @return the warm and cold emissions of all vehicles in the events file, summed up per time bin and link.
+	 */
+	public TimeBinMap<Map<Id<Link>, Map<Pollutant, Double>>> calculateLinkEmissions(String eventsFile) {
+		prepareVehiclesForConcurrentAccess();
+
+		List<Worker> workers = new ArrayList<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int i = 0; i < numberOfThreads; i++) {
+			Worker worker = new Worker();
+			Thread thread = new Thread(worker, "OfflineEmissions." + i);
+			thread.setDaemon(true);
+			thread.start();
+			workers.add(worker);
+			threads.add(thread);
+		}
+
+		try {
+			EventsManager events = new EventsManagerImpl();
+			events.addHandler(new VehicleEventsDispatcher(workers));
+			events.initProcessing();
+			new MatsimEventsReader(events).readFile(eventsFile);
+			events.finishProcessing();
+
+			for (Worker worker : workers) {
+				worker.flush();
+			}
+		} finally {
+			// the workers are also stopped if reading the events fails
+			for (Worker worker : workers) {
+				worker.put(Collections.emptyList()); // end of stream
+			}
+			for (Thread thread : threads) {
+				try {
+					thread.join();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		}
+
+		TimeBinMap<Map<Id<Link>, Map<Pollutant, Double>>> linkEmissions = new TimeBinMap<>(timeBinSize);
+		for (Worker worker : workers) {
+			if (worker.exception != null) {
+				throw new RuntimeException("Emission calculation failed", worker.exception);
+			}
+			worker.aggregator.addTo(linkEmissions);
+		}
+		return linkEmissions;
+	}
+
+	/**
+	 * Writes one line per time bin and link, with one column per pollutant (in g).
+	 */
+	public static void writeLinkEmissions(TimeBinMap<Map<Id<Link>, Map<Pollutant, Double>>> linkEmissions, String filename) {
+		Set<Pollutant> pollutants = EnumSet.noneOf(Pollutant.class);
+		for (TimeBinMap.TimeBin<Map<Id<Link>, Map<Pollutant, Double>>> timeBin : linkEmissions.getTimeBins()) {
+			if (timeBin.hasValue()) {
+				timeBin.getValue().values().forEach(emissions -> pollutants.addAll(emissions.keySet()));
+			}
+		}
+
+		try (BufferedWriter writer = IOUtils.getBufferedWriter(filename)) {
+			writer.write("timeBinStart;linkId");
+			for (Pollutant pollutant : pollutants) {
+				writer.write(";" + pollutant);
+			}
+			writer.newLine();
+
+			for (TimeBinMap.TimeBin<Map<Id<Link>, Map<Pollutant, Double>>> timeBin : linkEmissions.getTimeBins()) {
+				if (!timeBin.hasValue()) {
+					continue;
+				}
+				for (Map.Entry<Id<Link>, Map<Pollutant, Double>> entry : timeBin.getValue().entrySet()) {
+					writer.write(timeBin.getStartTime() + ";" + entry.getKey());
+					for (Pollutant pollutant : pollutants) {
+						writer.write(";" + entry.getValue().getOrDefault(pollutant, 0.));
+					}
+					writer.newLine();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * The emission analysis modules repair the hbefa description of each vehicle type (i.e. write it into the engine information) when they
+	 * see the type for the first time.  This is done here once for all vehicle types, before the worker threads are started, so that the
+	 * attributes of the vehicle types are not added concurrently.  The modules of the workers then only read them.
+	 */
+	private void prepareVehiclesForConcurrentAccess() {
+		EmissionsConfigGroup ecg = ConfigUtils.addOrGetModule(scenario.getConfig(), EmissionsConfigGroup.class);
+		Set<VehicleType> vehicleTypes = Collections.newSetFromMap(new IdentityHashMap<>());
+		vehicleTypes.addAll(scenario.getVehicles().getVehicleTypes().values());
+		vehicleTypes.addAll(scenario.getTransitVehicles().getVehicleTypes().values());
+		for (Vehicle vehicle : VehicleUtils.getOrCreateAllvehicles(scenario).getVehicles().values()) {
+			vehicleTypes.add(vehicle.getType());
+		}
+		for (VehicleType vehicleType : vehicleTypes) {
+			try {
+				EmissionUtils.getHbefaVehicleDescription(vehicleType, ecg);
+			} catch (RuntimeException e) {
+				// not a valid emissions vehicle type; fails (without modifying the type) again if it is used
+				log.debug("could not resolve hbefa description of vehicle type " + vehicleType.getId(), e);
+			}
+		}
+	}
+
+	private final class Worker implements Runnable {
+		private final BlockingQueue<List<Event>> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+		private final LinkEmissionsAggregator aggregator = new LinkEmissionsAggregator(timeBinSize);
+		private final EventsManager events = new EventsManagerImpl();
+		private List<Event> batch = new ArrayList<>(BATCH_SIZE);
+		private volatile Throwable exception;
+
+		private Worker() {
+			// the handlers add themselves to the events manager:
+			emissionModule.createWarmEmissionHandler(events);
+			emissionModule.createColdEmissionHandler(events);
+			events.addHandler(aggregator);
+		}
+
+		// called by the reader thread
+		private void add(Event event) {
+			batch.add(event);
+			if (batch.size() == BATCH_SIZE) {
+				flush();
+			}
+		}
+
+		// called by the reader thread
+		private void flush() {
+			if (!batch.isEmpty()) {
+				put(batch);
+				batch = new ArrayList<>(BATCH_SIZE);
+			}
+		}
+
+		private void put(List<Event> eventBatch) {
+			try {
+				queue.put(eventBatch);
+			} catch (InterruptedException e) {
+				throw new RuntimeException(e);
+			}
+		}
+
+		@Override
+		public void run() {
+			try {
+				List<Event> eventBatch;
+				while (!(eventBatch = queue.take()).isEmpty()) {
+					if (exception == null) {
+						process(eventBatch);
+					} // else: keep on draining, so that the reader thread is not blocked
+				}
+			} catch (InterruptedException e) {
+				exception = e;
+			}
+		}
+
+		private void process(List<Event> eventBatch) {
+			try {
+				for (Event event : eventBatch) {
+					events.processEvent(event);
+				}
+			} catch (Throwable t) {
+				exception = t;
+			}
+		}
+	}
+
+	/**
+	 * Forwards the events that are relevant for the emission handlers to the worker responsible for the vehicle.  All events of a vehicle go
+	 * to the same worker, in the order of the events file.
+	 */
+	private static final class VehicleEventsDispatcher implements LinkEnterEventHandler, LinkLeaveEventHandler,
+			VehicleEntersTrafficEventHandler, VehicleLeavesTrafficEventHandler {
+		private final List<Worker> workers;
+
+		private VehicleEventsDispatcher(List<Worker> workers) {
+			this.workers = workers;
+		}
+
+		private void dispatch(Id<Vehicle> vehicleId, Event event) {
+			workers.get(Math.floorMod(vehicleId.index(), workers.size())).add(event);
+		}
+
+		@Override
+		public void handleEvent(LinkEnterEvent event) {
+			dispatch(event.getVehicleId(), event);
+		}
+
+		@Override
+		public void handleEvent(LinkLeaveEvent event) {
+			dispatch(event.getVehicleId(), event);
+		}
+
+		@Override
+		public void handleEvent(VehicleEntersTrafficEvent event) {
+			dispatch(event.getVehicleId(), event);
+		}
+
+		@Override
+		public void handleEvent(VehicleLeavesTrafficEvent event) {
+			dispatch(event.getVehicleId(), event);
+		}
+	}
+
+	private static final class LinkEmissionsAggregator implements WarmEmissionEventHandler, ColdEmissionEventHandler {
+		private final TimeBinMap<Map<Id<Link>, double[]>> timeBins;
+
+		private LinkEmissionsAggregator(double timeBinSize) {
+			this.timeBins = new TimeBinMap<>(timeBinSize);
+		}
+
+		@Override
+		public void handleEvent(WarmEmissionEvent event) {
+			add(event.getTime(), event.getLinkId(), event.getWarmEmissions());
+		}
+
+		@Override
+		public void handleEvent(ColdEmissionEvent event) {
+			add(event.getTime(), event.getLinkId(), event.getColdEmissions());
+		}
+
+		private void add(double time, Id<Link> linkId, Map<Pollutant, Double> emissions) {
+			TimeBinMap.TimeBin<Map<Id<Link>, double[]>> timeBin = timeBins.getTimeBin(time);
+			if (!timeBin.hasValue()) {
+				timeBin.setValue(new HashMap<>());
+			}
+			double[] sums = timeBin.getValue().computeIfAbsent(linkId, id -> createEmptySums());
+			for (Map.Entry<Pollutant, Double> entry : emissions.entrySet()) {
+				double sum = sums[entry.getKey().ordinal()];
+				sums[entry.getKey().ordinal()] = Double.isNaN(sum) ? entry.getValue() : sum + entry.getValue();
+			}
+		}
+
+		private void addTo(TimeBinMap<Map<Id<Link>, Map<Pollutant, Double>>> linkEmissions) {
+			for (TimeBinMap.TimeBin<Map<Id<Link>, double[]>> timeBin : timeBins.getTimeBins()) {
+				if (!timeBin.hasValue()) {
+					continue;
+				}
+				TimeBinMap.TimeBin<Map<Id<Link>, Map<Pollutant, Double>>> target = linkEmissions.getTimeBin(timeBin.getStartTime());
+				if (!target.hasValue()) {
+					target.setValue(new HashMap<>());
+				}
+				for (Map.Entry<Id<Link>, double[]> entry : timeBin.getValue().entrySet()) {
+					Map<Pollutant, Double> emissions = target.getValue().computeIfAbsent(entry.getKey(), id -> new EnumMap<>(Pollutant.class));
+					double[] sums = entry.getValue();
+					for (Pollutant pollutant : Pollutant.values()) {
+						if (!Double.isNaN(sums[pollutant.ordinal()])) {
+							emissions.merge(pollutant, sums[pollutant.ordinal()], Double::sum);
+						}
+					}
+				}
+			}
+		}
+
+		private static double[] createEmptySums() {
+			double[] sums = new double[Pollutant.values().length];
+			Arrays.fill(sums, Double.NaN); // NaN: pollutant not emitted at all
+			return sums;
+		}
+	}
+}
@@ -56,6 +56,19 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 	private final EventsManager eventsManager;
 	private final EmissionsConfigGroup ecg;
 
+	// The lookups (including all fallbacks) only depend on the vehicle type, the road category, the traffic situation and the pollutant.  Their
+	// results are memorized in dense arrays, so that the same lookup does not construct and hash new keys on every link leave event.
+	private static final int N_POLLUTANTS = Pollutant.values().length;
+	private static final int N_TRAFFIC_SITUATIONS = HbefaTrafficSituation.values().length;
+	private final Map<VehicleType, VehicleTypeEntry> vehicleTypeEntries = new IdentityHashMap<>();
+	private final Map<String, Integer> roadCategoryIndices = new HashMap<>();
+	private final List<String> roadCategories = new ArrayList<>();
+	// the road category index of each link, by link index.  The road type of a link is only read once from its attributes; the link is kept
+	// to detect a different link with the same id.
+	private Link[] roadCategoryLinks = new Link[0];
+	private int[] linkRoadCategoryIndices = new int[0];
+	private final double[][][] trafficSpeeds = new double[HbefaVehicleCategory.values().length][][]; // [vehicleCategory][roadCategory][trafficSituation]
+
 	private int detailedReadingInfoCnt = 0;
 	private int detailedTransformToHbefa4Cnt = 0;
 	private int detailedFallbackTechAverageWarnCnt = 0;
@@ -211,6 +224,21 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 
 	/*package-private*/ Map<Pollutant, Double> checkVehicleInfoAndCalculateWarmEmissions( VehicleType vehicleType, Id<Vehicle> vehicleId,
 																						  Link link, double travelTime ) {
+		VehicleTypeEntry vehicleTypeEntry = getVehicleTypeEntry( vehicleType );
+
+		double freeVelocity = link.getFreespeed(); //TODO: what about time dependence
+
+		Map<Pollutant, Double> warmEmissions
+				= calculateWarmEmissions( vehicleId, travelTime, getRoadCategoryIndex( link ), freeVelocity, link.getLength(), vehicleTypeEntry );
+
+		return warmEmissions;
+	}
+
+	private VehicleTypeEntry getVehicleTypeEntry( VehicleType vehicleType ) {
+		VehicleTypeEntry vehicleTypeEntry = this.vehicleTypeEntries.get( vehicleType );
+		if ( vehicleTypeEntry != null ) {
+			return vehicleTypeEntry;
+		}
 		{
 			String hbefaVehicleTypeDescription = EmissionUtils.getHbefaVehicleDescription( vehicleType, this.ecg );
 			// (this will, importantly, repair the hbefa description in the vehicle type. kai/kai, jan'20)
@@ -225,23 +253,46 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 					EmissionsConfigGroup.GROUP_NAME + " config group are met. Aborting...");
 		}
 
-		double freeVelocity = link.getFreespeed(); //TODO: what about time dependence
+		vehicleTypeEntry = new VehicleTypeEntry( vehicleInformationTuple );
+		this.vehicleTypeEntries.put( vehicleType, vehicleTypeEntry );
+		return vehicleTypeEntry;
+	}
 
-		Map<Pollutant, Double> warmEmissions
-				= calculateWarmEmissions( vehicleId, travelTime, EmissionUtils.getHbefaRoadType( link ), freeVelocity, link.getLength(), vehicleInformationTuple );
+	private int getRoadCategoryIndex( Link link ) {
+		int linkIdx = link.getId().index();
+		if ( linkIdx < this.roadCategoryLinks.length && this.roadCategoryLinks[linkIdx] == link ) {
+			return this.linkRoadCategoryIndices[linkIdx];
+		}
+		int roadCategoryIdx = getRoadCategoryIndex( EmissionUtils.getHbefaRoadType( link ) );
+		if ( linkIdx >= this.roadCategoryLinks.length ) {
+			int length = Math.max( linkIdx + 1, Id.getNumberOfIds( Link.class ) );
+			this.roadCategoryLinks = Arrays.copyOf( this.roadCategoryLinks, length );
+			this.linkRoadCategoryIndices = Arrays.copyOf( this.linkRoadCategoryIndices, length );
+		}
+		this.roadCategoryLinks[linkIdx] = link;
+		this.linkRoadCategoryIndices[linkIdx] = roadCategoryIdx;
+		return roadCategoryIdx;
+	}
 
-		return warmEmissions;
+	private int getRoadCategoryIndex( String roadType ) {
+		Integer roadCategoryIdx = this.roadCategoryIndices.get( roadType );
+		if ( roadCategoryIdx == null ) {
+			roadCategoryIdx = this.roadCategories.size();
+			this.roadCategoryIndices.put( roadType, roadCategoryIdx );
+			this.roadCategories.add( roadType );
+		}
+		return roadCategoryIdx;
 	}
 
 
 	private static int cnt =10;
-	private Map<Pollutant, Double> calculateWarmEmissions( Id<Vehicle> vehicleId, double travelTime_sec, String roadType, double freeVelocity_ms,
-														   double linkLength_m, Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple ) {
+	private Map<Pollutant, Double> calculateWarmEmissions( Id<Vehicle> vehicleId, double travelTime_sec, int roadCategoryIdx, double freeVelocity_ms,
+									double linkLength_m, VehicleTypeEntry vehicleTypeEntry ) {
 
 		Map<Pollutant, Double> warmEmissionsOfEvent = new EnumMap<>( Pollutant.class );
 
 		// fallback vehicle types that we cannot or do not want to map onto a hbefa vehicle type:
-		if ( vehicleInformationTuple.getFirst()==HbefaVehicleCategory.NON_HBEFA_VEHICLE ) {
+		if ( vehicleTypeEntry.vehicleInformationTuple.getFirst()==HbefaVehicleCategory.NON_HBEFA_VEHICLE ) {
 			for ( Pollutant warmPollutant : warmPollutants) {
 				warmEmissionsOfEvent.put( warmPollutant, 0.0 );
 				// yyyyyy todo replace by something more meaningful. kai, jan'20
@@ -257,18 +308,7 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 			return warmEmissionsOfEvent;
 		}
 
-		// translate vehicle information type into factor key.  yyyy maybe combine these two? kai, jan'20
-		HbefaWarmEmissionFactorKey efkey = new HbefaWarmEmissionFactorKey();
-		efkey.setHbefaVehicleCategory( vehicleInformationTuple.getFirst() );
-		efkey.setHbefaRoadCategory( roadType );
-		if(this.detailedHbefaWarmTable != null){
-			HbefaVehicleAttributes hbefaVehicleAttributes = new HbefaVehicleAttributes();
-			hbefaVehicleAttributes.setHbefaTechnology(vehicleInformationTuple.getSecond().getHbefaTechnology());
-			hbefaVehicleAttributes.setHbefaSizeClass(vehicleInformationTuple.getSecond().getHbefaSizeClass());
-			hbefaVehicleAttributes.setHbefaEmConcept(vehicleInformationTuple.getSecond().getHbefaEmConcept());
-			efkey.setHbefaVehicleAttributes(hbefaVehicleAttributes);
-		}
-
+		String roadType = this.roadCategories.get( roadCategoryIdx );
 
 		double averageSpeed_kmh = (linkLength_m / 1000) / (travelTime_sec / 3600);
 
@@ -286,10 +326,9 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 		}
 
 		// for the average speed method, the traffic situation is already known here:
+		HbefaTrafficSituation trafficSituation = null;
 		if (ecg.getEmissionsComputationMethod() == AverageSpeed) {
-			final HbefaTrafficSituation trafficSituation = getTrafficSituation( efkey, averageSpeed_kmh, freeVelocity_ms * 3.6 );
-//			logger.warn( "trafficSituation=" + trafficSituation );
-			efkey.setHbefaTrafficSituation( trafficSituation );
+			trafficSituation = getTrafficSituation( vehicleTypeEntry, roadType, roadCategoryIdx, averageSpeed_kmh, freeVelocity_ms * 3.6 );
 		}
 
 		double fractionStopGo = 0;
@@ -298,29 +337,25 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 		for ( Pollutant warmPollutant : warmPollutants) {
 			double generatedEmissions;
 
-			efkey.setHbefaComponent(warmPollutant);
-
 			double ef_gpkm;
 			if (ecg.getEmissionsComputationMethod() == StopAndGoFraction) {
 
-				// compute faction.  This cannot be done earlier since efkey.component is needed.
-				fractionStopGo = getFractionStopAndGo(freeVelocity_ms * 3.6, averageSpeed_kmh, vehicleInformationTuple, efkey );
-				logger.info("fractionStopGo is: " + fractionStopGo);
+				// compute faction.  This cannot be done earlier since the pollutant is needed.
+				fractionStopGo = getFractionStopAndGo(freeVelocity_ms * 3.6, averageSpeed_kmh, vehicleTypeEntry, roadType, roadCategoryIdx, warmPollutant );
+				logger.debug("fractionStopGo is: " + fractionStopGo);
 
 				double efStopGo_gpkm = 0. ;
 				if ( fractionStopGo>0 ){
 					// compute emissions from stop-go fraction:
-					efkey.setHbefaTrafficSituation( STOPANDGO );
-					efStopGo_gpkm = getEf(vehicleInformationTuple, efkey ).getWarmEmissionFactor();
-					logger.warn( "pollutant=" + warmPollutant + "; efStopGo=" + efStopGo_gpkm );
+					efStopGo_gpkm = getEf(vehicleTypeEntry, roadType, roadCategoryIdx, STOPANDGO, warmPollutant ).getWarmEmissionFactor();
+					logger.debug( "pollutant=" + warmPollutant + "; efStopGo=" + efStopGo_gpkm );
 				}
 
 				double efFreeFlow_gpkm = 0. ;
 				if ( fractionStopGo<1.){
 					// compute emissions for free-flow fraction:
-					efkey.setHbefaTrafficSituation( FREEFLOW );
-					efFreeFlow_gpkm = getEf(vehicleInformationTuple, efkey ).getWarmEmissionFactor();
-					logger.warn( "pollutant=" + warmPollutant + "; efFreeFlow=" + efFreeFlow_gpkm );
+					efFreeFlow_gpkm = getEf(vehicleTypeEntry, roadType, roadCategoryIdx, FREEFLOW, warmPollutant ).getWarmEmissionFactor();
+					logger.debug( "pollutant=" + warmPollutant + "; efFreeFlow=" + efFreeFlow_gpkm );
 				}
 
 				// sum them up:
@@ -328,7 +363,7 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 				ef_gpkm = (fractionFreeFlow * efFreeFlow_gpkm) + (fractionStopGo * efStopGo_gpkm);
 
 			} else if (ecg.getEmissionsComputationMethod() == AverageSpeed){
-				ef_gpkm = getEf(vehicleInformationTuple, efkey).getWarmEmissionFactor();
+				ef_gpkm = getEf(vehicleTypeEntry, roadType, roadCategoryIdx, trafficSituation, warmPollutant ).getWarmEmissionFactor();
 			} else {
 				throw new RuntimeException( Gbl.NOT_IMPLEMENTED );
 			}
@@ -343,7 +378,7 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 			incrementCountersFractional( linkLength_m / 1000, fractionStopGo );
 		}
 		else if (ecg.getEmissionsComputationMethod() == AverageSpeed) {
-			incrementCountersAverage(efkey.getHbefaTrafficSituation(), linkLength_m / 1000 );
+			incrementCountersAverage(trafficSituation, linkLength_m / 1000 );
 		} else {
 			throw new RuntimeException( Gbl.NOT_IMPLEMENTED );
 		}
@@ -351,12 +386,10 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 		return warmEmissionsOfEvent;
 	}
 
-	private double getFractionStopAndGo(double freeFlowSpeed_kmh, double averageSpeed_kmh,
-										Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple,
-										HbefaWarmEmissionFactorKey efkey) {
+	private double getFractionStopAndGo(double freeFlowSpeed_kmh, double averageSpeed_kmh, VehicleTypeEntry vehicleTypeEntry, String roadType,
+					    int roadCategoryIdx, Pollutant warmPollutant) {
 
-		efkey.setHbefaTrafficSituation(STOPANDGO);
-		double stopGoSpeedFromTable_kmh = getEf(vehicleInformationTuple, efkey).getSpeed();
+		double stopGoSpeedFromTable_kmh = getEf(vehicleTypeEntry, roadType, roadCategoryIdx, STOPANDGO, warmPollutant).getSpeed();
 
 		double fractionStopGo;
 
@@ -371,6 +404,33 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 		return fractionStopGo;
 	}
 
+	private HbefaWarmEmissionFactor getEf(VehicleTypeEntry vehicleTypeEntry, String roadType, int roadCategoryIdx,
+					      HbefaTrafficSituation trafficSituation, Pollutant warmPollutant) {
+		HbefaWarmEmissionFactor[] emissionFactors = vehicleTypeEntry.getEmissionFactors( roadCategoryIdx );
+		int idx = trafficSituation.ordinal() * N_POLLUTANTS + warmPollutant.ordinal();
+		HbefaWarmEmissionFactor ef = emissionFactors[idx];
+		if ( ef == null ) {
+			// translate vehicle information type into factor key.  yyyy maybe combine these two?  kai, jan'20
+			Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple = vehicleTypeEntry.vehicleInformationTuple;
+			HbefaWarmEmissionFactorKey efkey = new HbefaWarmEmissionFactorKey();
+			efkey.setHbefaVehicleCategory( vehicleInformationTuple.getFirst() );
+			efkey.setHbefaRoadCategory( roadType );
+			if(this.detailedHbefaWarmTable != null){
+				HbefaVehicleAttributes hbefaVehicleAttributes = new HbefaVehicleAttributes();
+				hbefaVehicleAttributes.setHbefaTechnology(vehicleInformationTuple.getSecond().getHbefaTechnology());
+				hbefaVehicleAttributes.setHbefaSizeClass(vehicleInformationTuple.getSecond().getHbefaSizeClass());
+				hbefaVehicleAttributes.setHbefaEmConcept(vehicleInformationTuple.getSecond().getHbefaEmConcept());
+				efkey.setHbefaVehicleAttributes(hbefaVehicleAttributes);
+			}
+			efkey.setHbefaTrafficSituation( trafficSituation );
+			efkey.setHbefaComponent( warmPollutant );
+
+			ef = getEf( vehicleInformationTuple, efkey );
+			emissionFactors[idx] = ef;
+		}
+		return ef;
+	}
+
 	private HbefaWarmEmissionFactor getEf(Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple, HbefaWarmEmissionFactorKey efkey) {
 
 		switch (ecg.getDetailedVsAverageLookupBehavior()) {
@@ -555,31 +615,59 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 
 
 	//TODO: this is based on looking at the speeds in the HBEFA files, using an MFP, maybe from A.Loder would be nicer, jm  oct'18
-	private HbefaTrafficSituation getTrafficSituation(HbefaWarmEmissionFactorKey efkey, double averageSpeed_kmh, double freeFlowSpeed_kmh) {
-		//TODO: should this be generated only once much earlier?
-		HbefaRoadVehicleCategoryKey roadTrafficKey = new HbefaRoadVehicleCategoryKey(efkey);
-		Map<HbefaTrafficSituation, Double> trafficSpeeds = this.hbefaRoadTrafficSpeeds.get(roadTrafficKey);
-
-		if (trafficSpeeds == null || !trafficSpeeds.containsKey(FREEFLOW)) {
-			throw new RuntimeException("At least the FREEFLOW condition must be specifed for all emission factor keys. " +
-					"It was not found for " + efkey);
-		}
+	private HbefaTrafficSituation getTrafficSituation(VehicleTypeEntry vehicleTypeEntry, String roadType, int roadCategoryIdx,
+							  double averageSpeed_kmh, double freeFlowSpeed_kmh) {
+		double[] trafficSpeeds = getTrafficSpeeds( vehicleTypeEntry.vehicleInformationTuple.getFirst(), roadType, roadCategoryIdx );
 
 		HbefaTrafficSituation trafficSituation  = FREEFLOW;
-		if (trafficSpeeds.containsKey(HEAVY) && averageSpeed_kmh <= trafficSpeeds.get(HEAVY)) {
+		if (!Double.isNaN(trafficSpeeds[HEAVY.ordinal()]) && averageSpeed_kmh <= trafficSpeeds[HEAVY.ordinal()]) {
 			trafficSituation = HEAVY;
 		}
-		if (trafficSpeeds.containsKey(SATURATED) && averageSpeed_kmh <= trafficSpeeds.get(SATURATED)) {
+		if (!Double.isNaN(trafficSpeeds[SATURATED.ordinal()]) && averageSpeed_kmh <= trafficSpeeds[SATURATED.ordinal()]) {
 			trafficSituation = SATURATED;
 		}
-		if (trafficSpeeds.containsKey(STOPANDGO) && averageSpeed_kmh <= trafficSpeeds.get(STOPANDGO)) {
-			if (averageSpeed_kmh != trafficSpeeds.get(FREEFLOW)) { //handle case testCheckVehicleInfoAndCalculateWarmEmissions_and_throwWarmEmissionEvent6
+		if (!Double.isNaN(trafficSpeeds[STOPANDGO.ordinal()]) && averageSpeed_kmh <= trafficSpeeds[STOPANDGO.ordinal()]) {
+			if (averageSpeed_kmh != trafficSpeeds[FREEFLOW.ordinal()]) { //handle case testCheckVehicleInfoAndCalculateWarmEmissions_and_throwWarmEmissionEvent6
 				trafficSituation = STOPANDGO;
 			}
 		}
 		return trafficSituation;
 	}
 
+	/**
+	 * @return the hbefa speeds of the given vehicle and road category, indexed by traffic situation (NaN if the situation is not in the table)
+	 */
+	private double[] getTrafficSpeeds(HbefaVehicleCategory vehicleCategory, String roadType, int roadCategoryIdx) {
+		double[][] speedsByRoadCategory = this.trafficSpeeds[vehicleCategory.ordinal()];
+		if (speedsByRoadCategory == null || speedsByRoadCategory.length <= roadCategoryIdx) {
+			speedsByRoadCategory = speedsByRoadCategory == null ?
+					new double[roadCategoryIdx + 1][] :
+					Arrays.copyOf(speedsByRoadCategory, Math.max(roadCategoryIdx + 1, 2 * speedsByRoadCategory.length));
+			this.trafficSpeeds[vehicleCategory.ordinal()] = speedsByRoadCategory;
+		}
+
+		double[] speeds = speedsByRoadCategory[roadCategoryIdx];
+		if (speeds == null) {
+			HbefaWarmEmissionFactorKey efkey = new HbefaWarmEmissionFactorKey();
+			efkey.setHbefaVehicleCategory(vehicleCategory);
+			efkey.setHbefaRoadCategory(roadType);
+			Map<HbefaTrafficSituation, Double> trafficSpeedsFromTable = this.hbefaRoadTrafficSpeeds.get(new HbefaRoadVehicleCategoryKey(efkey));
+
+			if (trafficSpeedsFromTable == null || !trafficSpeedsFromTable.containsKey(FREEFLOW)) {
+				throw new RuntimeException("At least the FREEFLOW condition must be specifed for all emission factor keys. " +
+						"It was not found for " + efkey);
+			}
+
+			speeds = new double[N_TRAFFIC_SITUATIONS];
+			Arrays.fill(speeds, Double.NaN);
+			for (Map.Entry<HbefaTrafficSituation, Double> entry : trafficSpeedsFromTable.entrySet()) {
+				speeds[entry.getKey().ordinal()] = entry.getValue();
+			}
+			speedsByRoadCategory[roadCategoryIdx] = speeds;
+		}
+		return speeds;
+	}
+
 	private void incrementCountersFractional(double linkLength_km, double fractionStopGo) {
 
 		kmCounter = kmCounter + linkLength_km;
@@ -657,4 +745,25 @@ public final class WarmEmissionAnalysisModule implements LinkEmissionsCalculator
 		return ecg;
 	}
 
+	private static final class VehicleTypeEntry {
+		private final Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple;
+		private HbefaWarmEmissionFactor[][] emissionFactors = new HbefaWarmEmissionFactor[0][]; // [roadCategory][trafficSituation * N_POLLUTANTS + pollutant]
+
+		private VehicleTypeEntry( Tuple<HbefaVehicleCategory, HbefaVehicleAttributes> vehicleInformationTuple ) {
+			this.vehicleInformationTuple = vehicleInformationTuple;
+		}
+
+		private HbefaWarmEmissionFactor[] getEmissionFactors( int roadCategoryIdx ) {
+			if ( roadCategoryIdx >= emissionFactors.length ) {
+				emissionFactors = Arrays.copyOf( emissionFactors, Math.max( roadCategoryIdx + 1, 2 * emissionFactors.length ) );
+			}
+			HbefaWarmEmissionFactor[] factors = emissionFactors[roadCategoryIdx];
+			if ( factors == null ) {
+				factors = new HbefaWarmEmissionFactor[N_TRAFFIC_SITUATIONS * N_POLLUTANTS];
+				emissionFactors[roadCategoryIdx] = factors;
+			}
+			return factors;
+		}
+	}
+
 }
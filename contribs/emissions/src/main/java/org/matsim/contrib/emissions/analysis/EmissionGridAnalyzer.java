@@ -36,6 +36,10 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * This class may be used to collect emission events of some events file and assign those emissions to a grid structure.
  * Additionally those emissions are divided into time bins
+ * <p>
+ * This class keeps all time bins and all grid cells as objects in memory. For fine grids or large events files use
+ * {@link FastEmissionGridAnalyzer#processEventsFileToRasterFiles(String, Network, double, int, double, java.nio.file.Path)}
+ * which rasters the emissions into plain arrays and writes one time bin after the other into binary raster files.
  */
 public class EmissionGridAnalyzer {
 
@@ -11,6 +11,9 @@ import org.matsim.api.core.v01.network.Network;
 import org.matsim.contrib.emissions.Pollutant;
 import org.matsim.core.utils.collections.Tuple;
 
+import java.io.File;
+import java.nio.file.Path;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -19,6 +22,9 @@ import java.util.stream.Collectors;
  * This class provides functions for blurring emissions. It does the same thing as {@link EmissionGridAnalyzer} but is much faster
  * The most convenient way to use it is the {@link FastEmissionGridAnalyzer#processEventsFile(String, Network, double, int)} method. If an emissions
  * Events file is already parsed, one may also use the {@link FastEmissionGridAnalyzer#processLinkEmissions(Map, Network, double, int)} method
+ * To analyze large events files by time bins use {@link FastEmissionGridAnalyzer#processEventsFile(String, Network, double, int, double, TimeBinRasterConsumer)}
+ * or {@link FastEmissionGridAnalyzer#processEventsFileToRasterFiles(String, Network, double, int, double, Path)} which only
+ * keep the emissions of one time bin in memory.
  */
 public abstract class FastEmissionGridAnalyzer {
 
@@ -75,6 +81,42 @@ public abstract class FastEmissionGridAnalyzer {
                 .collect(Collectors.toMap(Tuple::getFirst, Tuple::getSecond));
     }
 
+    /**
+     * Works as {@link FastEmissionGridAnalyzer#processEventsFile(String, Network, double, int)} but divides the emissions
+     * into time bins. As soon as all emissions of a time bin are read, the blurred raster of each pollutant is passed to the
+     * consumer and the time bin is discarded. This way only the emissions of the current time bin are held in memory which
+     * allows to process events files of a full day and a large region.
+     * <p>
+     * The emission events must be sorted by time, as they are in events files written by MATSim.
+     *
+     * @param timeBinSize duration of a time bin
+     * @param consumer    receives the start time of the time bin, the pollutant and the blurred raster for each pollutant
+     *                    which was emitted within a time bin. Time bins without emissions are skipped.
+     */
+    public static void processEventsFile(final String eventsFile, final Network network, final double cellSize, final int radius,
+                                         final double timeBinSize, final TimeBinRasterConsumer consumer) {
+
+        logger.info("Start parsing events file.");
+
+        var aggregator = new TimeBinAggregator(network, cellSize, radius, timeBinSize, consumer);
+        new RawEmissionEventsReader(aggregator).readFile(eventsFile);
+        aggregator.finishTimeBin();
+    }
+
+    /**
+     * Works as {@link FastEmissionGridAnalyzer#processEventsFile(String, Network, double, int, double, TimeBinRasterConsumer)}
+     * and writes each raster as binary raster file into the output directory. The files are named
+     * '&lt;pollutant&gt;_&lt;start time of the time bin&gt;.bil', see {@link RasterWriter#writeBil(Raster, Path)}
+     */
+    public static void processEventsFileToRasterFiles(final String eventsFile, final Network network, final double cellSize, final int radius,
+                                                      final double timeBinSize, final Path outputDirectory) {
+
+        new File(outputDirectory.toString()).mkdirs();
+        processEventsFile(eventsFile, network, cellSize, radius, timeBinSize, (startTime, pollutant, raster) ->
+                RasterWriter.writeBil(raster, outputDirectory.resolve(pollutant + "_" + (long) startTime + ".bil"))
+        );
+    }
+
     /**
      * Works as {@link FastEmissionGridAnalyzer#processEventsFile(String, Network, double, int)} but without events parsing
      * The emissions per link have to be supplied.
@@ -134,11 +176,7 @@ public abstract class FastEmissionGridAnalyzer {
 
     static Raster rasterizeNetwork(final Network network, final TObjectDoubleMap<Id<Link>> emissions, final double cellSize) {
 
-        var coords = network.getNodes().values().stream()
-                .map(BasicLocation::getCoord)
-                .collect(Collectors.toSet());
-
-        var bounds = new Raster.Bounds(coords);
+        var bounds = createBounds(network);
         var raster = new Raster(bounds, cellSize);
         var cellArea = cellSize * cellSize; // assume square cells at the moment
 
@@ -153,11 +191,7 @@ public abstract class FastEmissionGridAnalyzer {
 
     static Raster rasterizeNetwork(Network network, Map<Id<Link>, Double> emissions, double cellSize) {
 
-        var coords = network.getNodes().values().stream()
-                .map(BasicLocation::getCoord)
-                .collect(Collectors.toSet());
-
-        var bounds = new Raster.Bounds(coords);
+        var bounds = createBounds(network);
         var raster = new Raster(bounds, cellSize);
         var cellArea = cellSize * cellSize; // assume square cells at the moment
 
@@ -174,6 +208,33 @@ public abstract class FastEmissionGridAnalyzer {
         return raster;
     }
 
+    /**
+     * Works like the other rasterizeNetwork methods but takes the emissions in an array indexed by {@link Id#index()} of
+     * the links. Links without emissions are skipped.
+     */
+    static Raster rasterizeNetwork(final Network network, final Raster.Bounds bounds, final double[] emissionsByLinkIndex, final double cellSize) {
+
+        var raster = new Raster(bounds, cellSize);
+        var cellArea = cellSize * cellSize; // assume square cells at the moment
+
+        for (var link : network.getLinks().values()) {
+            var value = emissionsByLinkIndex[link.getId().index()];
+            if (value != 0) {
+                var numberOfCells = rasterizeLink(link, 0, raster);
+                rasterizeLink(link, value / numberOfCells / cellArea, raster);
+            }
+        }
+        return raster;
+    }
+
+    private static Raster.Bounds createBounds(Network network) {
+
+        var coords = network.getNodes().values().stream()
+                .map(BasicLocation::getCoord)
+                .collect(Collectors.toSet());
+        return new Raster.Bounds(coords);
+    }
+
     /**
      * Rasterizes links into squares. Uses Bresenham's line drawing algorithm, which is supposed to be fast
      * Maybe the result is too chunky, but it'll do as a first try
@@ -253,4 +314,64 @@ public abstract class FastEmissionGridAnalyzer {
     private interface GetValue {
         double forIndex(int fixedIndex, int volatileIndex);
     }
+
+    @FunctionalInterface
+    public interface TimeBinRasterConsumer {
+        void accept(double startTime, Pollutant pollutant, Raster raster);
+    }
+
+    /**
+     * Sums up the emissions of the current time bin in plain arrays indexed by link index and rasters them once the next
+     * time bin starts.
+     */
+    private static class TimeBinAggregator implements RawEmissionEventsReader.HandleEmissionEvent {
+
+        private final Network network;
+        private final Raster.Bounds bounds;
+        private final double cellSize;
+        private final int radius;
+        private final double timeBinSize;
+        private final TimeBinRasterConsumer consumer;
+        private final int numberOfLinkIds = Id.getNumberOfIds(Link.class);
+        private final Map<Pollutant, double[]> emissionsByPollutant = new EnumMap<>(Pollutant.class);
+        private int currentTimeBin = -1;
+
+        private TimeBinAggregator(Network network, double cellSize, int radius, double timeBinSize, TimeBinRasterConsumer consumer) {
+            this.network = network;
+            this.bounds = createBounds(network);
+            this.cellSize = cellSize;
+            this.radius = radius;
+            this.timeBinSize = timeBinSize;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void accept(double time, String linkId, String vehicleId, Pollutant pollutant, double value) {
+
+            var id = Id.createLinkId(linkId);
+            if (!network.getLinks().containsKey(id)) return;
+
+            var timeBin = (int) (time / timeBinSize);
+            if (timeBin < currentTimeBin) {
+                throw new IllegalArgumentException("Emission events must be sorted by time. Found event at time " + time
+                        + " after events of the time bin starting at " + currentTimeBin * timeBinSize);
+            }
+            if (timeBin > currentTimeBin) {
+                finishTimeBin();
+                currentTimeBin = timeBin;
+            }
+            emissionsByPollutant.computeIfAbsent(pollutant, key -> new double[numberOfLinkIds])[id.index()] += value;
+        }
+
+        private void finishTimeBin() {
+
+            var startTime = currentTimeBin * timeBinSize;
+            for (var entry : emissionsByPollutant.entrySet()) {
+                logger.info("Smoothing of: " + entry.getKey() + " for time bin with start time: " + startTime);
+                var raster = rasterizeNetwork(network, bounds, entry.getValue(), cellSize);
+                consumer.accept(startTime, entry.getKey(), blur(raster, radius));
+            }
+            emissionsByPollutant.clear();
+        }
+    }
 }
@@ -0,0 +1,32 @@
+package org.matsim.contrib.emissions.analysis;
+
+import org.matsim.contrib.analysis.spatial.BilRasterWriter;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+
+/**
+ * Writes a {@link Raster} into a binary raster file in the ESRI band interleaved by line (BIL) format, see
+ * {@link BilRasterWriter}.
+ */
+public abstract class RasterWriter {
+
+    /**
+     * Writes the raster into the given file and the header into the corresponding '.hdr' file.
+     *
+     * @param raster the raster to write
+     * @param file   path to the raster file e.g. '/path/to/NOx_28800.bil'
+     */
+    public static void writeBil(final Raster raster, final Path file) {
+
+        var bounds = raster.getBounds();
+        var northernMostIndex = raster.getYLength() - 1;
+        try {
+            BilRasterWriter.write(file, raster.getYLength(), raster.getXLength(), bounds.getMinX(), bounds.getMinY(),
+                    raster.getCellSize(), (row, col) -> raster.getValueByIndex(col, northernMostIndex - row));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.emissions;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.contrib.analysis.time.TimeBinMap;
+import org.matsim.contrib.emissions.events.ColdEmissionEvent;
+import org.matsim.contrib.emissions.events.ColdEmissionEventHandler;
+import org.matsim.contrib.emissions.events.WarmEmissionEvent;
+import org.matsim.contrib.emissions.events.WarmEmissionEventHandler;
+import org.matsim.contrib.emissions.utils.EmissionsConfigGroup;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.events.EventsManagerImpl;
+import org.matsim.core.events.MatsimEventsReader;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class OfflineEmissionsCalculatorTest {
+	@Rule
+	public MatsimTestUtils utils = new MatsimTestUtils();
+
+	private static final String configFile = "./scenarios/sampleScenario/testv2_Vehv2/config_average.xml";
+	private static final String eventsFile = "./scenarios/sampleScenario/5.events.xml.gz";
+
+	@Test
+	public void testParallelCalculationEqualsSequentialEmissionModule() {
+		// sequential reference: emission module on the events file, emission events summed up per link
+		Map<Id<Link>, Map<Pollutant, Double>> expected = new HashMap<>();
+		{
+			EventsManager events = new EventsManagerImpl();
+			EmissionModule emissionModule = new EmissionModule(loadScenario(), events);
+			emissionModule.getEmissionEventsManager().addHandler(new PerLinkSums(expected));
+			new MatsimEventsReader(events).readFile(eventsFile);
+		}
+		Assert.assertFalse(expected.isEmpty());
+
+		OfflineEmissionsCalculator calculator = new OfflineEmissionsCalculator(loadScenario(), 3600., 4);
+		TimeBinMap<Map<Id<Link>, Map<Pollutant, Double>>> linkEmissions = calculator.calculateLinkEmissions(eventsFile);
+
+		Map<Id<Link>, Map<Pollutant, Double>> actual = new HashMap<>();
+		for (TimeBinMap.TimeBin<Map<Id<Link>, Map<Pollutant, Double>>> timeBin : linkEmissions.getTimeBins()) {
+			if (timeBin.hasValue()) {
+				timeBin.getValue().forEach((linkId, emissions) -> emissions.forEach(
+						(pollutant, value) -> actual.computeIfAbsent(linkId, id -> new HashMap<>()).merge(pollutant, value, Double::sum)));
+			}
+		}
+
+		Assert.assertEquals(expected.keySet(), actual.keySet());
+		for (Map.Entry<Id<Link>, Map<Pollutant, Double>> entry : expected.entrySet()) {
+			Map<Pollutant, Double> actualEmissions = actual.get(entry.getKey());
+			Assert.assertEquals(entry.getValue().keySet(), actualEmissions.keySet());
+			entry.getValue().forEach((pollutant, value) -> Assert.assertEquals(value, actualEmissions.get(pollutant), 1e-6 * Math.abs(value)));
+		}
+
+		OfflineEmissionsCalculator.writeLinkEmissions(linkEmissions, utils.getOutputDirectory() + "linkEmissions.csv.gz");
+	}
+
+	@Test
+	public void testWorkersAreStoppedWhenReadingFails() {
+		OfflineEmissionsCalculator calculator = new OfflineEmissionsCalculator(loadScenario(), 3600., 4);
+		try {
+			calculator.calculateLinkEmissions(utils.getOutputDirectory() + "doesNotExist.xml.gz");
+			Assert.fail("reading a missing events file is expected to fail");
+		} catch (RuntimeException e) {
+			// expected
+		}
+		for (Thread thread : Thread.getAllStackTraces().keySet()) {
+			Assert.assertFalse("worker thread is still running: " + thread.getName(), thread.getName().startsWith("OfflineEmissions."));
+		}
+	}
+
+	private static Scenario loadScenario() {
+		Config config = ConfigUtils.loadConfig(configFile, new EmissionsConfigGroup());
+		ConfigUtils.addOrGetModule(config, EmissionsConfigGroup.class)
+				.setHbefaVehicleDescriptionSource(EmissionsConfigGroup.HbefaVehicleDescriptionSource.asEngineInformationAttributes);
+		return ScenarioUtils.loadScenario(config);
+	}
+
+	private static final class PerLinkSums implements WarmEmissionEventHandler, ColdEmissionEventHandler {
+		private final Map<Id<Link>, Map<Pollutant, Double>> sums;
+
+		private PerLinkSums(Map<Id<Link>, Map<Pollutant, Double>> sums) {
+			this.sums = sums;
+		}
+
+		@Override
+		public void handleEvent(WarmEmissionEvent event) {
+			event.getWarmEmissions().forEach((pollutant, value) ->
+					sums.computeIfAbsent(event.getLinkId(), id -> new HashMap<>()).merge(pollutant, value, Double::sum));
+		}
+
+		@Override
+		public void handleEvent(ColdEmissionEvent event) {
+			event.getColdEmissions().forEach((pollutant, value) ->
+					sums.computeIfAbsent(event.getLinkId(), id -> new HashMap<>()).merge(pollutant, value, Double::sum));
+		}
+	}
+}
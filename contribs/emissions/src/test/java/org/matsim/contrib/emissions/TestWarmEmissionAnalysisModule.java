@@ -321,6 +321,35 @@ public class TestWarmEmissionAnalysisModule {
 	}
 
 
+	@Test
+	public void testRoadCategoryPerLink(){
+		setUp();
+
+		Id<VehicleType> sgffVehicleTypeId = Id.create( PASSENGER_CAR + ";" + sgffTechnology + ";"+ sgffSizeClass + ";"+sgffConcept, VehicleType.class );
+		VehiclesFactory vehFac = VehicleUtils.getFactory();
+		Vehicle sgffVehicle = vehFac.createVehicle(Id.create("vehicle road category", Vehicle.class), vehFac.createVehicleType(sgffVehicleTypeId));
+		double linkLength = 1000.;
+		double travelTime = linkLength/sgffDetailedFfSpeed*3.6;
+
+		// detailed table for the sgff road category, average table for URB
+		Link sgffLink = createMockLink("link road category sgff", linkLength, sgffDetailedFfSpeed / 3.6);
+		EmissionUtils.setHbefaRoadType(sgffLink, sgffRoadCatgory);
+		Link urbLink = createMockLink("link road category urb", linkLength, sgffDetailedFfSpeed / 3.6);
+
+		for (int i = 0; i < 2; i++) {
+			warmEmissions = emissionsModule.checkVehicleInfoAndCalculateWarmEmissions(sgffVehicle, sgffLink, travelTime );
+			Assert.assertEquals( DETAILED_SGFF_FACTOR_FF *linkLength/1000., warmEmissions.get(NO2 ), MatsimTestUtils.EPSILON );
+			warmEmissions = emissionsModule.checkVehicleInfoAndCalculateWarmEmissions(sgffVehicle, urbLink, travelTime );
+			Assert.assertEquals( AVG_PC_FACTOR_FF *linkLength/1000., warmEmissions.get(NO2 ), MatsimTestUtils.EPSILON );
+		}
+
+		// a different link with the same id has its own road category
+		Link otherUrbLink = createMockLink("link road category urb", linkLength, sgffDetailedFfSpeed / 3.6);
+		EmissionUtils.setHbefaRoadType(otherUrbLink, sgffRoadCatgory);
+		warmEmissions = emissionsModule.checkVehicleInfoAndCalculateWarmEmissions(sgffVehicle, otherUrbLink, travelTime );
+		Assert.assertEquals( DETAILED_SGFF_FACTOR_FF *linkLength/1000., warmEmissions.get(NO2 ), MatsimTestUtils.EPSILON );
+	}
+
 	private void setUp() {
 
 		Map<HbefaWarmEmissionFactorKey, HbefaWarmEmissionFactor> avgHbefaWarmTable = new HashMap<>();
@@ -4,17 +4,25 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
 import org.matsim.contrib.emissions.Pollutant;
 import org.matsim.contrib.emissions.utils.TestUtils;
+import org.matsim.core.api.experimental.events.EventsManager;
+import org.matsim.core.events.EventsUtils;
+import org.matsim.core.events.algorithms.EventWriterXML;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.core.utils.io.IOUtils;
 import org.matsim.examples.ExamplesUtils;
 import org.matsim.testcases.MatsimTestUtils;
 
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
 public class FastEmissionGridAnalyzerTest {
@@ -198,4 +206,43 @@ public class FastEmissionGridAnalyzerTest {
         // if we reach here, it means nothing has crashed, all the logic is tested elsewhere
         raster.forEachIndex((xi, yi, value) -> assertTrue(biggestExpectedValue >= value));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void processEventsFile_timeBins() {
+
+        final var networkUrl = IOUtils.extendUrl(ExamplesUtils.getTestScenarioURL("equil"), "network.xml");
+        final var emissionEvents = Paths.get(utils.getOutputDirectory()).resolve("emission.events.xml.gz");
+
+        var network = NetworkUtils.readNetwork(networkUrl.toString());
+
+        // events of two time bins, sorted by time
+        EventsManager eventsManager = EventsUtils.createEventsManager();
+        EventWriterXML writer = new EventWriterXML(emissionEvents.toString());
+        eventsManager.addHandler(writer);
+        eventsManager.initProcessing();
+        network.getLinks().values().forEach(link -> eventsManager.processEvent(TestUtils.createWarmEmissionEvent(10, link, Pollutant.NOx, 10)));
+        network.getLinks().values().forEach(link -> eventsManager.processEvent(TestUtils.createWarmEmissionEvent(4000, link, Pollutant.NOx, 20)));
+        eventsManager.finishProcessing();
+        writer.closeFile();
+
+        List<Double> startTimes = new ArrayList<>();
+        Map<Double, Raster> rasters = new HashMap<>();
+        FastEmissionGridAnalyzer.processEventsFile(emissionEvents.toString(), network, 1000, 1, 3600, (startTime, pollutant, raster) -> {
+            assertEquals(Pollutant.NOx, pollutant);
+            startTimes.add(startTime);
+            rasters.put(startTime, raster);
+        });
+
+        assertEquals(List.of(0., 3600.), startTimes);
+
+        // each time bin must be the same as processing the emissions of that time bin on their own
+        for (var entry : Map.of(0., 10., 3600., 20.).entrySet()) {
+            Map<Id<Link>, Double> linkEmissions = new HashMap<>();
+            network.getLinks().keySet().forEach(linkId -> linkEmissions.put(linkId, entry.getValue()));
+            var expected = FastEmissionGridAnalyzer.processLinkEmissions(linkEmissions, network, 1000, 1);
+            var actual = rasters.get(entry.getKey());
+            assertNotNull(actual);
+            expected.forEachIndex((xi, yi, value) -> assertEquals(value, actual.getValueByIndex(xi, yi), 1E-15));
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package org.matsim.contrib.emissions.analysis;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class RasterWriterTest {
+
+    @Rule
+    public MatsimTestUtils utils = new MatsimTestUtils();
+
+    @Test
+    public void writeBil() throws IOException {
+
+        var bounds = new Raster.Bounds(0, 0, 29, 19);
+        var raster = new Raster(bounds, 10);
+        raster.setValueForEachIndex((xi, yi) -> xi + 10 * yi);
+
+        var file = Paths.get(utils.getOutputDirectory()).resolve("NOx_0.bil");
+        RasterWriter.writeBil(raster, file);
+
+        var header = Files.readAllLines(Paths.get(utils.getOutputDirectory()).resolve("NOx_0.hdr"));
+        assertTrue(header.contains("NROWS 2"));
+        assertTrue(header.contains("NCOLS 3"));
+        assertTrue(header.contains("ULXMAP 5.0"));
+        assertTrue(header.contains("ULYMAP 15.0"));
+
+        var data = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(2 * 3 * Float.BYTES, data.capacity());
+
+        // rows are written from north to south
+        for (var yi = 1; yi >= 0; yi--) {
+            for (var xi = 0; xi < 3; xi++) {
+                assertEquals(raster.getValueByIndex(xi, yi), data.getFloat(), 0.);
+            }
+        }
+    }
+}
@@ -37,6 +37,13 @@ public final class EvConfigGroup extends ReflectiveConfigGroup {
 	public static final String CHARGE_TIME_STEP = "chargeTimeStep";
 	static final String CHARGE_TIME_STEP_EXP = "charging will be simulated every 'chargeTimeStep'-th time step";
 
+	public static final String EVENT_DRIVEN_CHARGING = "eventDrivenCharging";
+	static final String EVENT_DRIVEN_CHARGING_EXP = "If true, the charging completion time of each plugged vehicle is"
+			+ " calculated when the vehicle gets plugged and chargers are processed only when charging ends,"
+			+ " instead of charging all vehicles every 'chargeTimeStep'-th time step. SOC of plugged vehicles is then"
+			+ " updated only at the end of charging. Requires a ChargingStrategy that can calculate the remaining"
+			+ " charging time (e.g. ChargeUpToMaxSocStrategy with BatteryCharging). Default is false";
+
 	public static final String AUX_DISCHARGE_TIME_STEP = "auxDischargeTimeStep";
 	static final String AUX_DISCHARGE_TIME_STEP_EXP = "AUX discharging will be simulated every 'auxDischargeTimeStep'-th time step";
 
@@ -54,11 +61,18 @@ public final class EvConfigGroup extends ReflectiveConfigGroup {
 	public static final String TIME_PROFILES = "timeProfiles";
 	static final String TIME_PROFILES_EXP = "If true, SOC time profile plots will be created";
 
+	public static final String STREAMED_TIME_PROFILES = "streamedTimeProfiles";
+	static final String STREAMED_TIME_PROFILES_EXP = "If true (and timeProfiles is true), SOC time profiles are written"
+			+ " to file while being collected instead of being kept in memory until the end of simulation."
+			+ " Individual SOC profiles then cover all vehicles. No plots are created. Default is false";
+
 
 	// no need to simulate with 1-second time step
 	@Positive
 	private int chargeTimeStep = 5; // 5 s ==> 0.35% SOC (fast charging, 50 kW)
 
+	private boolean eventDrivenCharging = false;
+
 	private int minimumChargeTime = 1200;
 
 	// only used if SeparateAuxDischargingHandler is used, otherwise ignored
@@ -73,6 +87,8 @@ public final class EvConfigGroup extends ReflectiveConfigGroup {
 
 	private boolean timeProfiles = false;
 
+	private boolean streamedTimeProfiles = false;
+
 	public EvConfigGroup() {
 		super(GROUP_NAME);
 	}
@@ -81,10 +97,12 @@ public final class EvConfigGroup extends ReflectiveConfigGroup {
 	public Map<String, String> getComments() {
 		Map<String, String> map = super.getComments();
 		map.put(CHARGE_TIME_STEP, CHARGE_TIME_STEP_EXP);
+		map.put(EVENT_DRIVEN_CHARGING, EVENT_DRIVEN_CHARGING_EXP);
 		map.put(AUX_DISCHARGE_TIME_STEP, AUX_DISCHARGE_TIME_STEP_EXP);
 		map.put(CHARGERS_FILE, CHARGERS_FILE_EXP);
 		map.put(VEHICLES_FILE, VEHICLES_FILE_EXP);
 		map.put(TIME_PROFILES, TIME_PROFILES_EXP);
+		map.put(STREAMED_TIME_PROFILES, STREAMED_TIME_PROFILES_EXP);
 		map.put(MINCHARGETIME, MINCHARGETIME_EXP);
 		return map;
 	}
@@ -99,6 +117,16 @@ public final class EvConfigGroup extends ReflectiveConfigGroup {
 		this.chargeTimeStep = chargeTimeStep;
 	}
 
+	@StringGetter(EVENT_DRIVEN_CHARGING)
+	public boolean isEventDrivenCharging() {
+		return eventDrivenCharging;
+	}
+
+	@StringSetter(EVENT_DRIVEN_CHARGING)
+	public void setEventDrivenCharging(boolean eventDrivenCharging) {
+		this.eventDrivenCharging = eventDrivenCharging;
+	}
+
 	@StringGetter(AUX_DISCHARGE_TIME_STEP)
 	public int getAuxDischargeTimeStep() {
 		return auxDischargeTimeStep;
@@ -139,6 +167,16 @@ public final class EvConfigGroup extends ReflectiveConfigGroup {
 		this.timeProfiles = timeProfiles;
 	}
 
+	@StringGetter(STREAMED_TIME_PROFILES)
+	public boolean isStreamedTimeProfiles() {
+		return streamedTimeProfiles;
+	}
+
+	@StringSetter(STREAMED_TIME_PROFILES)
+	public void setStreamedTimeProfiles(boolean streamedTimeProfiles) {
+		this.streamedTimeProfiles = streamedTimeProfiles;
+	}
+
 	@StringSetter(MINCHARGETIME)
 	public void setMinimumChargeTime(int minimumChargeTime) {
 		this.minimumChargeTime = minimumChargeTime;
@@ -19,6 +19,9 @@
 
 package org.matsim.contrib.ev.charging;
 
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
 import org.matsim.contrib.ev.EvConfigGroup;
 import org.matsim.contrib.ev.infrastructure.Charger;
 import org.matsim.contrib.ev.infrastructure.ChargingInfrastructure;
@@ -27,19 +30,61 @@ import org.matsim.core.mobsim.framework.listeners.MobsimAfterSimStepListener;
 
 import com.google.inject.Inject;
 
-public class ChargingHandler implements MobsimAfterSimStepListener {
+/**
+ * By default, all chargers are processed every 'chargeTimeStep'-th time step. With event-driven charging
+ * (see {@link EvConfigGroup#isEventDrivenCharging()}), only the chargers at which some vehicle completes charging
+ * are processed.
+ */
+public class ChargingHandler
+		implements MobsimAfterSimStepListener, ChargingWithQueueingLogic.ChargingCompletionScheduler {
+	private static class ScheduledCompletion {
+		private final ChargingWithQueueingLogic logic;
+		private final double time;
+
+		private ScheduledCompletion(ChargingWithQueueingLogic logic, double time) {
+			this.logic = logic;
+			this.time = time;
+		}
+	}
+
 	private final Iterable<Charger> chargers;
 	private final int chargeTimeStep;
+	private final boolean eventDrivenCharging;
+	private final PriorityQueue<ScheduledCompletion> scheduledCompletions = new PriorityQueue<>(
+			Comparator.comparingDouble(sc -> sc.time));
 
 	@Inject
 	public ChargingHandler(ChargingInfrastructure chargingInfrastructure, EvConfigGroup evConfig) {
 		this.chargers = chargingInfrastructure.getChargers().values();
 		this.chargeTimeStep = evConfig.getChargeTimeStep();
+		this.eventDrivenCharging = evConfig.isEventDrivenCharging();
+
+		if (eventDrivenCharging) {
+			for (Charger c : chargers) {
+				if (!(c.getLogic() instanceof ChargingWithQueueingLogic)) {
+					throw new IllegalStateException("Event-driven charging requires ChargingWithQueueingLogic at charger: "
+							+ c.getId());
+				}
+				((ChargingWithQueueingLogic)c.getLogic()).enableEventDrivenCharging(this, chargeTimeStep);
+			}
+		}
+	}
+
+	@Override
+	public void scheduleChargingCompletion(ChargingWithQueueingLogic logic, double completionTime) {
+		scheduledCompletions.add(new ScheduledCompletion(logic, completionTime));
 	}
 
 	@Override
 	public void notifyMobsimAfterSimStep(@SuppressWarnings("rawtypes") MobsimAfterSimStepEvent e) {
-		if ((e.getSimulationTime() + 1) % chargeTimeStep == 0) {
+		if (eventDrivenCharging) {
+			// completions of vehicles removed earlier are outdated (the logic ignores them);
+			// vehicles plugged in while ending charging may already complete within the current time step
+			double now = e.getSimulationTime();
+			while (!scheduledCompletions.isEmpty() && scheduledCompletions.peek().time <= now + 1) {
+				scheduledCompletions.poll().logic.endCompletedCharging(now);
+			}
+		} else if ((e.getSimulationTime() + 1) % chargeTimeStep == 0) {
 			for (Charger c : chargers) {
 				c.getLogic().chargeVehicles(chargeTimeStep, e.getSimulationTime());
 			}
@@ -34,6 +34,26 @@ import org.matsim.contrib.ev.infrastructure.Charger;
 import org.matsim.core.api.experimental.events.EventsManager;
 
 public class ChargingWithQueueingLogic implements ChargingLogic {
+	/**
+	 * Receives the (analytically calculated) times at which charging of plugged vehicles ends, so that
+	 * {@link #endCompletedCharging(double)} is called only when needed.
+	 */
+	public interface ChargingCompletionScheduler {
+		void scheduleChargingCompletion(ChargingWithQueueingLogic logic, double completionTime);
+	}
+
+	private static class ChargingProgress {
+		private final ElectricVehicle ev;
+		private final double startTime;
+		private final double completionTime;
+
+		private ChargingProgress(ElectricVehicle ev, double startTime, double completionTime) {
+			this.ev = ev;
+			this.startTime = startTime;
+			this.completionTime = completionTime;
+		}
+	}
+
 	private final Charger charger;
 	private final ChargingStrategy chargingStrategy;
 	private final EventsManager eventsManager;
@@ -42,14 +62,40 @@ public class ChargingWithQueueingLogic implements ChargingLogic {
 	private final Queue<ElectricVehicle> queuedVehicles = new LinkedList<>();
 	private final Map<Id<ElectricVehicle>, ChargingListener> listeners = new LinkedHashMap<>();
 
+	// only used with event-driven charging (otherwise, vehicles are charged every chargeTimeStep)
+	private ChargingCompletionScheduler completionScheduler;
+	private int chargeTimeStep;
+	private final Map<Id<ElectricVehicle>, ChargingProgress> chargingProgresses = new LinkedHashMap<>();
+
 	public ChargingWithQueueingLogic(Charger charger, ChargingStrategy chargingStrategy, EventsManager eventsManager) {
 		this.chargingStrategy = Objects.requireNonNull(chargingStrategy);
 		this.charger = Objects.requireNonNull(charger);
 		this.eventsManager = Objects.requireNonNull(eventsManager);
 	}
 
+	/**
+	 * Switches to event-driven charging: instead of calling {@link #chargeVehicles(double, double)} every charge time
+	 * step, the charging completion time of each vehicle is calculated (using
+	 * {@link ChargingStrategy#calcRemainingTimeToCharge(ElectricVehicle)}) when the vehicle gets plugged and passed to
+	 * the scheduler, which is then responsible for calling {@link #endCompletedCharging(double)} at that time.
+	 * SOC of a plugged vehicle is updated only when its charging ends (or when it gets removed from the charger).
+	 *
+	 * @param chargeTimeStep used for calculating the charged energy if a vehicle is removed before charging completes
+	 */
+	public void enableEventDrivenCharging(ChargingCompletionScheduler completionScheduler, int chargeTimeStep) {
+		if (!pluggedVehicles.isEmpty()) {
+			throw new IllegalStateException("Vehicles already plugged at charger: " + charger.getId());
+		}
+		this.completionScheduler = Objects.requireNonNull(completionScheduler);
+		this.chargeTimeStep = chargeTimeStep;
+	}
+
 	@Override
 	public void chargeVehicles(double chargePeriod, double now) {
+		if (completionScheduler != null) {
+			throw new IllegalStateException("Event-driven charging enabled at charger: " + charger.getId());
+		}
+
 		Iterator<ElectricVehicle> evIter = pluggedVehicles.values().iterator();
 		while (evIter.hasNext()) {
 			ElectricVehicle ev = evIter.next();
@@ -64,6 +110,45 @@ public class ChargingWithQueueingLogic implements ChargingLogic {
 			}
 		}
 
+		plugQueuedVehicles(now);
+	}
+
+	/**
+	 * Ends charging of all vehicles that complete charging within the current time step (i.e. by {@code now + 1},
+	 * which corresponds to the end of the charge period in {@link #chargeVehicles(double, double)}) and plugs in the
+	 * queued vehicles. Used only with event-driven charging.
+	 */
+	public void endCompletedCharging(double now) {
+		Iterator<ChargingProgress> progressIter = chargingProgresses.values().iterator();
+		while (progressIter.hasNext()) {
+			ChargingProgress progress = progressIter.next();
+			if (progress.completionTime <= now + 1) {
+				ElectricVehicle ev = progress.ev;
+				double energy = chargingStrategy.calcRemainingEnergyToCharge(ev);
+				if (energy > 0) {
+					ev.getBattery().changeSoc(energy);
+				}
+
+				progressIter.remove();
+				pluggedVehicles.remove(ev.getId());
+				eventsManager.processEvent(new ChargingEndEvent(now, charger.getId(), ev.getId()));
+				listeners.remove(ev.getId()).notifyChargingEnded(ev, now);
+			}
+		}
+
+		plugQueuedVehicles(now);
+	}
+
+	// charges the vehicle removed before the (scheduled) charging completion, in the same way as chargeVehicles()
+	private void chargeUntilRemoval(ChargingProgress progress, double now) {
+		ElectricVehicle ev = progress.ev;
+		for (double t = progress.startTime; t < now && !chargingStrategy.isChargingCompleted(ev); t += chargeTimeStep) {
+			double energy = ev.getChargingPower().calcChargingPower(charger) * Math.min(chargeTimeStep, now - t);
+			ev.getBattery().changeSoc(Math.min(energy, chargingStrategy.calcRemainingEnergyToCharge(ev)));
+		}
+	}
+
+	private void plugQueuedVehicles(double now) {
 		int queuedToPluggedCount = Math.min(queuedVehicles.size(), charger.getPlugCount() - pluggedVehicles.size());
 		for (int i = 0; i < queuedToPluggedCount; i++) {
 			plugVehicle(queuedVehicles.poll(), now);
@@ -88,6 +173,9 @@ public class ChargingWithQueueingLogic implements ChargingLogic {
 	@Override
 	public void removeVehicle(ElectricVehicle ev, double now) {
 		if (pluggedVehicles.remove(ev.getId()) != null) {// successfully removed
+			if (completionScheduler != null) {
+				chargeUntilRemoval(chargingProgresses.remove(ev.getId()), now);
+			}
 			eventsManager.processEvent(new ChargingEndEvent(now, charger.getId(), ev.getId()));
 			listeners.remove(ev.getId()).notifyChargingEnded(ev, now);
 
@@ -112,6 +200,12 @@ public class ChargingWithQueueingLogic implements ChargingLogic {
 		}
 		eventsManager.processEvent(new ChargingStartEvent(now, charger.getId(), ev.getId(), charger.getChargerType()));
 		listeners.get(ev.getId()).notifyChargingStarted(ev, now);
+
+		if (completionScheduler != null) {
+			double completionTime = now + Math.max(chargingStrategy.calcRemainingTimeToCharge(ev), 0);
+			chargingProgresses.put(ev.getId(), new ChargingProgress(ev, now, completionTime));
+			completionScheduler.scheduleChargingCompletion(this, completionTime);
+		}
 	}
 
 	private final Collection<ElectricVehicle> unmodifiablePluggedVehicles = Collections.unmodifiableCollection(
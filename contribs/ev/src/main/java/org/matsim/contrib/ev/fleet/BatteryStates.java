@@ -0,0 +1,92 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.ev.fleet;
+
+import com.google.common.base.MoreObjects;
+import com.google.common.base.Preconditions;
+
+/**
+ * Battery states (capacity and SOC) of all vehicles of an ElectricFleet stored in primitive arrays. The batteries of
+ * the vehicles created by {@link ElectricFleets#createDefaultFleet} are views of this store, so the states of the whole
+ * fleet can be read (e.g. by the stats collectors) without traversing the vehicle objects.
+ * <p>
+ * Vehicles are indexed in the iteration order of {@link ElectricFleet#getElectricVehicles()}.
+ */
+public final class BatteryStates {
+	private final double[] capacities;
+	private final double[] socs;
+
+	BatteryStates(int vehicleCount) {
+		capacities = new double[vehicleCount];
+		socs = new double[vehicleCount];
+	}
+
+	Battery createBattery(int vehicleIdx, double capacity, double soc) {
+		capacities[vehicleIdx] = capacity;
+		socs[vehicleIdx] = soc;
+		return new StoredBattery(vehicleIdx);
+	}
+
+	public int getVehicleCount() {
+		return socs.length;
+	}
+
+	public double getCapacity(int vehicleIdx) {
+		return capacities[vehicleIdx];
+	}
+
+	public double getSoc(int vehicleIdx) {
+		return socs[vehicleIdx];
+	}
+
+	public double getRelativeSoc(int vehicleIdx) {
+		return socs[vehicleIdx] / capacities[vehicleIdx];
+	}
+
+	private class StoredBattery implements Battery {
+		private final int idx;
+
+		private StoredBattery(int idx) {
+			this.idx = idx;
+		}
+
+		@Override
+		public double getCapacity() {
+			return capacities[idx];
+		}
+
+		@Override
+		public double getSoc() {
+			return socs[idx];
+		}
+
+		@Override
+		public void setSoc(double soc) {
+			Preconditions.checkArgument(soc >= 0 && soc <= capacities[idx], "SoC outside allowed range: %s", soc);
+			socs[idx] = soc;
+		}
+
+		@Override
+		public String toString() {
+			return MoreObjects.toStringHelper(this).add("capacity", capacities[idx]).add("soc", socs[idx]).toString();
+		}
+	}
+}
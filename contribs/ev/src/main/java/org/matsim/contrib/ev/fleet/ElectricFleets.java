@@ -20,6 +20,8 @@
 
 package org.matsim.contrib.ev.fleet;
 
+import java.util.Collection;
+
 import org.matsim.api.core.v01.Id;
 import org.matsim.contrib.ev.charging.ChargingPower;
 import org.matsim.contrib.ev.discharging.AuxEnergyConsumption;
@@ -31,12 +33,32 @@ public class ElectricFleets {
 	public static ElectricFleet createDefaultFleet(ElectricFleetSpecification fleetSpecification,
 			DriveEnergyConsumption.Factory driveConsumptionFactory, AuxEnergyConsumption.Factory auxConsumptionFactory,
 			ChargingPower.Factory chargingFactory) {
-		ImmutableMap<Id<ElectricVehicle>, ElectricVehicle> vehicles = fleetSpecification.getVehicleSpecifications()
-				.values()
-				.stream()
-				.map(s -> ElectricVehicleImpl.create(s, driveConsumptionFactory, auxConsumptionFactory,
-						chargingFactory))
-				.collect(ImmutableMap.toImmutableMap(ElectricVehicle::getId, v -> v));
-		return () -> vehicles;
+		Collection<ElectricVehicleSpecification> specifications = fleetSpecification.getVehicleSpecifications()
+				.values();
+		BatteryStates batteryStates = new BatteryStates(specifications.size());
+		ImmutableMap.Builder<Id<ElectricVehicle>, ElectricVehicle> vehicles = ImmutableMap.builder();
+		int idx = 0;
+		for (ElectricVehicleSpecification s : specifications) {
+			Battery battery = batteryStates.createBattery(idx++, s.getBatteryCapacity(), s.getInitialSoc());
+			vehicles.put(s.getId(),
+					ElectricVehicleImpl.create(s, battery, driveConsumptionFactory, auxConsumptionFactory,
+							chargingFactory));
+		}
+		return createFleet(vehicles.build(), batteryStates);
+	}
+
+	private static ElectricFleet createFleet(ImmutableMap<Id<ElectricVehicle>, ElectricVehicle> vehicles,
+			BatteryStates batteryStates) {
+		return new ElectricFleet() {
+			@Override
+			public ImmutableMap<Id<ElectricVehicle>, ElectricVehicle> getElectricVehicles() {
+				return vehicles;
+			}
+
+			@Override
+			public BatteryStates getBatteryStates() {
+				return batteryStates;
+			}
+		};
 	}
 }
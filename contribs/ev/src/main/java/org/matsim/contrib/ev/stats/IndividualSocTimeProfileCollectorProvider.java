@@ -20,15 +20,11 @@
 package org.matsim.contrib.ev.stats;
 
 import static com.google.common.collect.ImmutableList.toImmutableList;
-import static com.google.common.collect.ImmutableMap.toImmutableMap;
-
-import java.util.ArrayList;
-import java.util.List;
-import java.util.stream.Collectors;
 
+import org.matsim.contrib.ev.EvConfigGroup;
 import org.matsim.contrib.ev.EvUnits;
+import org.matsim.contrib.ev.fleet.BatteryStates;
 import org.matsim.contrib.ev.fleet.ElectricFleet;
-import org.matsim.contrib.ev.fleet.ElectricVehicle;
 import org.matsim.contrib.util.timeprofile.TimeProfileCollector;
 import org.matsim.contrib.util.timeprofile.TimeProfileCollector.ProfileCalculator;
 import org.matsim.contrib.util.timeprofile.TimeProfiles;
@@ -36,37 +32,58 @@ import org.matsim.core.controler.MatsimServices;
 import org.matsim.core.mobsim.framework.listeners.MobsimListener;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 
 public class IndividualSocTimeProfileCollectorProvider implements Provider<MobsimListener> {
 	private final ElectricFleet evFleet;
 	private final MatsimServices matsimServices;
+	private final EvConfigGroup evCfg;
 
 	@Inject
-	public IndividualSocTimeProfileCollectorProvider(ElectricFleet evFleet, MatsimServices matsimServices) {
+	public IndividualSocTimeProfileCollectorProvider(ElectricFleet evFleet, MatsimServices matsimServices,
+			EvConfigGroup evCfg) {
 		this.evFleet = evFleet;
 		this.matsimServices = matsimServices;
+		this.evCfg = evCfg;
 	}
 
 	@Override
 	public MobsimListener get() {
-		ProfileCalculator calc = createIndividualSocCalculator(evFleet);
-		return new TimeProfileCollector(calc, 300, "individual_soc_time_profiles", matsimServices);
+		// without plots, there is no need to limit the number of vehicles in the streamed profiles
+		ProfileCalculator calc = evCfg.isStreamedTimeProfiles() ?
+				createIndividualSocCalculator(evFleet, Integer.MAX_VALUE) :
+				createIndividualSocCalculator(evFleet);
+		TimeProfileCollector collector = new TimeProfileCollector(calc, 300, "individual_soc_time_profiles",
+				matsimServices);
+		collector.setStreamed(evCfg.isStreamedTimeProfiles());
+		return collector;
 	}
 
 	private static final int MAX_VEHICLE_COLUMNS = 50;
 
 	public static ProfileCalculator createIndividualSocCalculator(final ElectricFleet evFleet) {
-		int columns = Math.min(evFleet.getElectricVehicles().size(), MAX_VEHICLE_COLUMNS);
-		List<ElectricVehicle> allEvs = new ArrayList<>(evFleet.getElectricVehicles().values());
-		List<ElectricVehicle> selectedEvs = allEvs.stream().limit(columns).collect(Collectors.toList());
+		return createIndividualSocCalculator(evFleet, MAX_VEHICLE_COLUMNS);
+	}
 
-		ImmutableList<String> header = selectedEvs.stream().map(ev -> ev.getId() + "").collect(toImmutableList());
+	public static ProfileCalculator createIndividualSocCalculator(final ElectricFleet evFleet, int maxColumns) {
+		int columns = Math.min(evFleet.getElectricVehicles().size(), maxColumns);
+		ImmutableList<String> header = evFleet.getElectricVehicles()
+				.keySet()
+				.stream()
+				.limit(columns)
+				.map(id -> id + "")
+				.collect(toImmutableList());
 
-		return TimeProfiles.createProfileCalculator(header, () -> selectedEvs.stream()
-				.collect(toImmutableMap(ev -> ev.getId() + "",
-						ev -> EvUnits.J_to_kWh(ev.getBattery().getSoc()))));/*in [kWh]*/
+		BatteryStates batteryStates = evFleet.getBatteryStates();
+		return TimeProfiles.createProfileCalculator(header, () -> {
+			ImmutableMap.Builder<String, Double> builder = ImmutableMap.builderWithExpectedSize(columns);
+			for (int i = 0; i < columns; i++) {
+				builder.put(header.get(i), EvUnits.J_to_kWh(batteryStates.getSoc(i)));/*in [kWh]*/
+			}
+			return builder.build();
+		});
 	}
 
 }
@@ -21,8 +21,9 @@ package org.matsim.contrib.ev.stats;
 
 import java.awt.Color;
 
+import org.matsim.contrib.ev.EvConfigGroup;
+import org.matsim.contrib.ev.fleet.BatteryStates;
 import org.matsim.contrib.ev.fleet.ElectricFleet;
-import org.matsim.contrib.ev.fleet.ElectricVehicle;
 import org.matsim.contrib.util.histogram.UniformHistogram;
 import org.matsim.contrib.util.timeprofile.TimeProfileCharts;
 import org.matsim.contrib.util.timeprofile.TimeProfileCharts.ChartType;
@@ -40,11 +41,14 @@ import com.google.inject.Provider;
 public class SocHistogramTimeProfileCollectorProvider implements Provider<MobsimListener> {
 	private final ElectricFleet evFleet;
 	private final MatsimServices matsimServices;
+	private final EvConfigGroup evCfg;
 
 	@Inject
-	public SocHistogramTimeProfileCollectorProvider(ElectricFleet evFleet, MatsimServices matsimServices) {
+	public SocHistogramTimeProfileCollectorProvider(ElectricFleet evFleet, MatsimServices matsimServices,
+			EvConfigGroup evCfg) {
 		this.evFleet = evFleet;
 		this.matsimServices = matsimServices;
+		this.evCfg = evCfg;
 	}
 
 	@Override
@@ -52,6 +56,7 @@ public class SocHistogramTimeProfileCollectorProvider implements Provider<Mobsim
 		ProfileCalculator calc = createSocHistogramCalculator(evFleet);
 		TimeProfileCollector collector = new TimeProfileCollector(calc, 300, "soc_histogram_time_profiles",
 				matsimServices);
+		collector.setStreamed(evCfg.isStreamedTimeProfiles());
 		collector.setChartTypes(ChartType.StackedArea);
 		collector.setChartCustomizer(
 				(chart, chartType) -> TimeProfileCharts.changeSeriesColors(chart, new Color(0, 0f, 0), // 0+
@@ -71,10 +76,11 @@ public class SocHistogramTimeProfileCollectorProvider implements Provider<Mobsim
 	public static ProfileCalculator createSocHistogramCalculator(final ElectricFleet evFleet) {
 		ImmutableList<String> header = ImmutableList.of("0+", "0.1+", "0.2+", "0.3+", "0.4+", "0.5+", "0.6+", "0.7+",
 				"0.8+", "0.9+");
+		BatteryStates batteryStates = evFleet.getBatteryStates();
 		return TimeProfiles.createProfileCalculator(header, () -> {
 			UniformHistogram histogram = new UniformHistogram(0.1, header.size());
-			for (ElectricVehicle ev : evFleet.getElectricVehicles().values()) {
-				histogram.addValue(ev.getBattery().getSoc() / ev.getBattery().getCapacity());
+			for (int i = 0; i < batteryStates.getVehicleCount(); i++) {
+				histogram.addValue(batteryStates.getRelativeSoc(i));
 			}
 
 			ImmutableMap.Builder<String, Double> builder = ImmutableMap.builder();
@@ -19,16 +19,13 @@
 
 package org.matsim.contrib.ev.stats;
 
-import static java.util.stream.Collectors.*;
-
-import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
+import org.matsim.contrib.ev.EvConfigGroup;
 import org.matsim.contrib.ev.EvUnits;
+import org.matsim.contrib.ev.fleet.BatteryStates;
 import org.matsim.contrib.ev.fleet.ElectricFleet;
-import org.matsim.contrib.ev.fleet.ElectricVehicle;
 import org.matsim.contrib.util.timeprofile.TimeProfileCollector;
 import org.matsim.contrib.util.timeprofile.TimeProfileCollector.ProfileCalculator;
 import org.matsim.contrib.util.timeprofile.TimeProfiles;
@@ -43,44 +40,57 @@ import com.google.inject.Provider;
 public class VehicleTypeAggregatedSocTimeProfileCollectorProvider implements Provider<MobsimListener> {
 	private final ElectricFleet evFleet;
 	private final MatsimServices matsimServices;
+	private final EvConfigGroup evCfg;
 
 	@Inject
-	public VehicleTypeAggregatedSocTimeProfileCollectorProvider(ElectricFleet evFleet, MatsimServices matsimServices) {
+	public VehicleTypeAggregatedSocTimeProfileCollectorProvider(ElectricFleet evFleet, MatsimServices matsimServices,
+			EvConfigGroup evCfg) {
 		this.evFleet = evFleet;
 		this.matsimServices = matsimServices;
+		this.evCfg = evCfg;
 	}
 
 	@Override
 	public MobsimListener get() {
 		ProfileCalculator calc = createIndividualSocCalculator(evFleet);
-		return new TimeProfileCollector(calc, 300, "average_soc_time_profiles", matsimServices);
+		TimeProfileCollector collector = new TimeProfileCollector(calc, 300, "average_soc_time_profiles",
+				matsimServices);
+		collector.setStreamed(evCfg.isStreamedTimeProfiles());
+		return collector;
 	}
 
 	private static final String ALL_VEHICLES_ID = "all vehicles";
 
 	public static ProfileCalculator createIndividualSocCalculator(final ElectricFleet evFleet) {
-
-		Set<String> vehicleTypes = evFleet.getElectricVehicles()
+		// vehicle type index of each vehicle (vehicles are indexed as in BatteryStates)
+		Map<String, Integer> typeIndices = new LinkedHashMap<>();
+		int[] vehicleTypeIndices = evFleet.getElectricVehicles()
 				.values()
 				.stream()
-				.map(ElectricVehicle::getVehicleType)
-				.collect(Collectors.toCollection(LinkedHashSet::new));
-		vehicleTypes.add(ALL_VEHICLES_ID);
-		ImmutableList<String> header = ImmutableList.copyOf(vehicleTypes);
+				.mapToInt(ev -> typeIndices.computeIfAbsent(ev.getVehicleType(), t -> typeIndices.size()))
+				.toArray();
+		ImmutableList<String> vehicleTypes = ImmutableList.copyOf(typeIndices.keySet());
+		ImmutableList<String> header = ImmutableList.<String>builder().addAll(vehicleTypes)
+				.add(ALL_VEHICLES_ID)
+				.build();
+
+		BatteryStates batteryStates = evFleet.getBatteryStates();
 		return TimeProfiles.createProfileCalculator(header, () -> {
-			Map<String, Double> averageSocByType = evFleet.getElectricVehicles()
-					.values()
-					.stream()
-					.collect(groupingBy(ElectricVehicle::getVehicleType,
-							mapping(ev -> EvUnits.J_to_kWh(ev.getBattery().getSoc()), averagingDouble(soc -> soc))));
-			double averageSoc = evFleet.getElectricVehicles()
-					.values()
-					.stream()
-					.mapToDouble(ev -> EvUnits.J_to_kWh(ev.getBattery().getSoc()))
-					.average()
-					.getAsDouble();
-			averageSocByType.put(ALL_VEHICLES_ID, averageSoc);
-			return ImmutableMap.copyOf(averageSocByType);
+			double[] socSums = new double[vehicleTypes.size()];
+			int[] counts = new int[vehicleTypes.size()];
+			for (int i = 0; i < vehicleTypeIndices.length; i++) {
+				socSums[vehicleTypeIndices[i]] += batteryStates.getSoc(i);
+				counts[vehicleTypeIndices[i]]++;
+			}
+
+			ImmutableMap.Builder<String, Double> builder = ImmutableMap.builder();
+			double socSum = 0;
+			for (int t = 0; t < vehicleTypes.size(); t++) {
+				builder.put(vehicleTypes.get(t), EvUnits.J_to_kWh(socSums[t] / counts[t]));
+				socSum += socSums[t];
+			}
+			builder.put(ALL_VEHICLES_ID, EvUnits.J_to_kWh(socSum / vehicleTypeIndices.length));
+			return builder.build();
 		});
 	}
 
@@ -0,0 +1,126 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.contrib.ev.charging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.ev.EvUnits;
+import org.matsim.contrib.ev.fleet.ElectricVehicle;
+import org.matsim.contrib.ev.fleet.ElectricVehicleImpl;
+import org.matsim.contrib.ev.fleet.ElectricVehicleSpecification;
+import org.matsim.contrib.ev.fleet.ImmutableElectricVehicleSpecification;
+import org.matsim.contrib.ev.infrastructure.Charger;
+import org.matsim.contrib.ev.infrastructure.ChargerImpl;
+import org.matsim.contrib.ev.infrastructure.ChargerSpecification;
+import org.matsim.contrib.ev.infrastructure.ImmutableChargerSpecification;
+import org.matsim.core.events.EventsManagerImpl;
+import org.matsim.testcases.fakes.FakeLink;
+
+import com.google.common.collect.ImmutableList;
+
+public class ChargingWithQueueingLogicTest {
+	private final List<Double> scheduledCompletionTimes = new ArrayList<>();
+	private final List<String> chargingEnds = new ArrayList<>();
+
+	private final ChargingListener listener = new ChargingListener() {
+		@Override
+		public void notifyChargingEnded(ElectricVehicle ev, double now) {
+			chargingEnds.add(ev.getId() + "@" + now);
+		}
+	};
+
+	@Test
+	public void eventDrivenCharging_completion() {
+		ChargingWithQueueingLogic logic = createEventDrivenLogic();
+		ElectricVehicle ev1 = createElectricVehicle("ev1", 50);
+		ElectricVehicle ev2 = createElectricVehicle("ev2", 75);
+
+		logic.addVehicle(ev1, listener, 0);
+		logic.addVehicle(ev2, listener, 0);// queued
+		assertThat(scheduledCompletionTimes).containsExactly(1800.);// 50 kWh at 100 kW
+
+		logic.endCompletedCharging(1798);
+		assertThat(chargingEnds).isEmpty();
+		assertThat(ev1.getBattery().getSoc()).isEqualTo(EvUnits.kWh_to_J(50));// updated only at the end
+
+		// charging (at 100 kW) completes in the time step from 1799 to 1800
+		logic.endCompletedCharging(1799);
+		assertThat(chargingEnds).containsExactly("ev1@1799.0");
+		assertThat(ev1.getBattery().getSoc()).isEqualTo(EvUnits.kWh_to_J(100));
+		assertThat(logic.getPluggedVehicles()).containsExactly(ev2);
+		assertThat(scheduledCompletionTimes).containsExactly(1800., 1799. + 900);
+	}
+
+	@Test
+	public void eventDrivenCharging_removalBeforeCompletion() {
+		ChargingWithQueueingLogic logic = createEventDrivenLogic();
+		ElectricVehicle ev = createElectricVehicle("ev", 50);
+
+		logic.addVehicle(ev, listener, 0);
+		logic.removeVehicle(ev, 601);
+		assertThat(chargingEnds).containsExactly("ev@601.0");
+		assertThat(ev.getBattery().getSoc()).isCloseTo(EvUnits.kWh_to_J(50 + 100 * 601. / 3600), within(1e-6));
+
+		// the outdated completion is ignored
+		logic.endCompletedCharging(1799);
+		assertThat(chargingEnds).containsExactly("ev@601.0");
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void eventDrivenCharging_timeSteppedChargingNotAllowed() {
+		createEventDrivenLogic().chargeVehicles(5, 4);
+	}
+
+	private ChargingWithQueueingLogic createEventDrivenLogic() {
+		ChargerSpecification chargerSpecification = ImmutableChargerSpecification.newBuilder()
+				.id(Id.create("charger_id", Charger.class))
+				.chargerType(ChargerSpecification.DEFAULT_CHARGER_TYPE)
+				.linkId(Id.createLinkId("link_id"))
+				.plugPower(EvUnits.kW_to_W(100))
+				.plugCount(1)
+				.build();
+		Charger charger = ChargerImpl.create(chargerSpecification, new FakeLink(Id.createLinkId("link_id")),
+				ch -> new ChargingWithQueueingLogic(ch, new ChargeUpToMaxSocStrategy(ch, 1), new EventsManagerImpl()));
+		ChargingWithQueueingLogic logic = (ChargingWithQueueingLogic)charger.getLogic();
+		logic.enableEventDrivenCharging((l, time) -> scheduledCompletionTimes.add(time), 5);
+		return logic;
+	}
+
+	private ElectricVehicle createElectricVehicle(String id, double soc_kWh) {
+		ElectricVehicleSpecification specification = ImmutableElectricVehicleSpecification.newBuilder()
+				.id(Id.create(id, ElectricVehicle.class))
+				.vehicleType("vt")
+				.chargerTypes(ImmutableList.of("ct"))
+				.batteryCapacity(EvUnits.kWh_to_J(100))
+				.initialSoc(EvUnits.kWh_to_J(soc_kWh))
+				.build();
+		return ElectricVehicleImpl.create(specification, ev -> (link, travelTime, linkEnterTime) -> {
+			throw new UnsupportedOperationException();
+		}, ev -> (beginTime, duration, linkId) -> {
+			throw new UnsupportedOperationException();
+		}, ev -> new FixedSpeedCharging(ev, 1));
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.ev.fleet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.matsim.api.core.v01.Id;
+import org.matsim.contrib.ev.charging.FixedSpeedCharging;
+
+import com.google.common.collect.ImmutableList;
+
+public class ElectricFleetsTest {
+	@Test
+	public void createDefaultFleet_batteriesBackedByBatteryStates() {
+		ElectricFleetSpecification fleetSpecification = new ElectricFleetSpecificationImpl();
+		fleetSpecification.addVehicleSpecification(createSpecification("a", 100, 50));
+		fleetSpecification.addVehicleSpecification(createSpecification("b", 200, 20));
+
+		ElectricFleet fleet = ElectricFleets.createDefaultFleet(fleetSpecification,
+				ev -> (link, travelTime, linkEnterTime) -> 0, ev -> (beginTime, duration, linkId) -> 0,
+				ev -> new FixedSpeedCharging(ev, 1));
+		BatteryStates batteryStates = fleet.getBatteryStates();
+		assertThat(batteryStates.getVehicleCount()).isEqualTo(2);
+		assertThat(fleet.getElectricVehicles().keySet()).extracting(Object::toString).containsExactly("a", "b");
+
+		assertThat(batteryStates.getCapacity(1)).isEqualTo(200);
+		assertThat(batteryStates.getSoc(1)).isEqualTo(20);
+
+		fleet.getElectricVehicles().get(Id.create("b", ElectricVehicle.class)).getBattery().changeSoc(30);
+		assertThat(batteryStates.getSoc(0)).isEqualTo(50);
+		assertThat(batteryStates.getSoc(1)).isEqualTo(50);
+		assertThat(batteryStates.getRelativeSoc(1)).isEqualTo(0.25);
+	}
+
+	private ElectricVehicleSpecification createSpecification(String id, double capacity, double soc) {
+		return ImmutableElectricVehicleSpecification.newBuilder()
+				.id(Id.create(id, ElectricVehicle.class))
+				.vehicleType("vt")
+				.chargerTypes(ImmutableList.of("ct"))
+				.batteryCapacity(capacity)
+				.initialSoc(soc)
+				.build();
+	}
+}
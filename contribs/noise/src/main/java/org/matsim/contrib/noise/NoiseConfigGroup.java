@@ -64,6 +64,8 @@ public final class NoiseConfigGroup extends ReflectiveConfigGroup {
 	private static final String TIME_BIN_SIZE_NOISE_COMPUTATION = "timeBinSizeNoiseComputation";
 	private static final String SCALE_FACTOR = "scaleFactor";
 	private static final String RELEVANT_RADIUS = "relevantRadius";
+	private static final String RECEIVER_POINT_LINK_CORRECTIONS_FILE = "receiverPointLinkCorrectionsFile";
+	private static final String IMMISSION_UPDATE_EMISSION_THRESHOLD = "immissionUpdateEmissionThreshold";
 	private static final String TUNNEL_LINK_ID_FILE = "tunnelLinkIdFile";
 	private static final String TUNNEL_LINK_IDS = "tunnelLinkIDs";
 	private static final String WRITE_OUTPUT_ITERATION = "writeOutputIteration";
@@ -115,6 +117,8 @@ public final class NoiseConfigGroup extends ReflectiveConfigGroup {
 	private double timeBinSizeNoiseComputation = 3600.0;
 	private double scaleFactor = 1.;
 	private double relevantRadius = 500.;
+	private String receiverPointLinkCorrectionsFile = null;
+	private double immissionUpdateEmissionThreshold = -1.;
 	private String tunnelLinkIdFile = null;
 	private int writeOutputIteration = 10;
 	private boolean useActualSpeedLevel = true;
@@ -178,6 +182,15 @@ public final class NoiseConfigGroup extends ReflectiveConfigGroup {
 		comments.put(TIME_BIN_SIZE_NOISE_COMPUTATION, "Specifies the temporal resolution, i.e. the time bin size [in seconds] to compute noise levels." ) ;
 		comments.put(SCALE_FACTOR, "Set to '1.' for a 100 percent sample size. Set to '10.' for a 10 percent sample size. Set to '100.' for a 1 percent sample size." ) ;
 		comments.put(RELEVANT_RADIUS, "Specifies the radius [in coordinate units] around each receiver point links are taken into account." ) ;
+		comments.put(RECEIVER_POINT_LINK_CORRECTIONS_FILE, "A (gzipped) csv file which stores the relevant links and correction terms of each receiver point "
+				+ "(columns: receiverPointId;linkId;correction). If the file exists, the correction terms are read from it instead of being recomputed. "
+				+ "Otherwise, they are computed and written to this file so that subsequent runs can re-use them. "
+				+ "Delete the file whenever the receiver points, the network, the relevant radius or the noise barriers change." ) ;
+		comments.put(IMMISSION_UPDATE_EMISSION_THRESHOLD, "Specifies the change of a link's noise emission [in dB(A)] compared to the last time interval "
+				+ "in which the immissions of the surrounding receiver points were computed. Receiver points are only recomputed if at least one of "
+				+ "their relevant links changed by more than this value; otherwise the immissions of the previous time interval are re-used. "
+				+ "Set to '0.' to only re-use immissions if the emissions did not change at all. "
+				+ "A negative value (default) recomputes the immissions of all receiver points in every time interval." ) ;
 		comments.put(TUNNEL_LINK_ID_FILE, "Specifies a csv file which contains all tunnel link IDs." ) ;
 		comments.put(TUNNEL_LINK_IDS, "Specifies the tunnel link IDs. Will be ignored in case a the tunnel link IDs are provided as file (see parameter 'tunnelLinkIdFile')." ) ;
 
@@ -730,6 +743,30 @@ public final class NoiseConfigGroup extends ReflectiveConfigGroup {
 		this.computeAvgNoiseCostPerLinkAndTime = computeAvgNoiseCostPerLinkAndTime;
 	}
 
+	@StringGetter( RECEIVER_POINT_LINK_CORRECTIONS_FILE )
+	public String getReceiverPointLinkCorrectionsFile() {
+		return receiverPointLinkCorrectionsFile;
+	}
+
+	@StringSetter( RECEIVER_POINT_LINK_CORRECTIONS_FILE )
+	public void setReceiverPointLinkCorrectionsFile(String receiverPointLinkCorrectionsFile) {
+		this.receiverPointLinkCorrectionsFile = receiverPointLinkCorrectionsFile;
+	}
+
+	@StringGetter( IMMISSION_UPDATE_EMISSION_THRESHOLD )
+	public double getImmissionUpdateEmissionThreshold() {
+		return immissionUpdateEmissionThreshold;
+	}
+
+	@StringSetter( IMMISSION_UPDATE_EMISSION_THRESHOLD )
+	public void setImmissionUpdateEmissionThreshold(double immissionUpdateEmissionThreshold) {
+		this.immissionUpdateEmissionThreshold = immissionUpdateEmissionThreshold;
+	}
+
+	public URL getReceiverPointLinkCorrectionsFileURL(URL context) {
+		return ConfigGroup.getInputFileURL(context, this.getReceiverPointLinkCorrectionsFile());
+	}
+
 	public URL getTunnelLinkIDsFileURL(URL context) {
 		return ConfigGroup.getInputFileURL(context, this.getTunnelLinkIdFile());
 	}
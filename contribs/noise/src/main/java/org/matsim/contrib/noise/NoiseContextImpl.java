@@ -112,7 +112,8 @@ final class NoiseContextImpl implements NoiseContext {
 		if(noiseParams.getTunnelLinkIdFile() != null) {
 			final URL tunnelUrl = this.noiseParams.getTunnelLinkIDsFileURL(this.scenario.getConfig().getContext());
 			try {
-				if (Files.exists(Paths.get(tunnelUrl.toURI()))) {
+				// only files can be checked for existence, other urls (e.g. resources in a jar) are read directly
+				if (!"file".equals(tunnelUrl.getProtocol()) || Files.exists(Paths.get(tunnelUrl.toURI()))) {
 
 					if (this.noiseParams.getTunnelLinkIDsSet().size() > 0) {
 						log.warn("Loading the tunnel link IDs from a file. Deleting the existing tunnel link IDs that are added manually.");
@@ -120,7 +121,7 @@ final class NoiseContextImpl implements NoiseContext {
 					}
 
 					// loading tunnel link IDs from file
-					BufferedReader br = IOUtils.getBufferedReader(tunnelUrl.getFile());
+					BufferedReader br = IOUtils.getBufferedReader(tunnelUrl);
 
 					String line = null;
 					try {
@@ -198,6 +198,14 @@ public class NoiseReceiverPoint extends ReceiverPoint {
 		this.currentImmission = 0;
 		this.linkId2IsolatedImmission = null;
 		this.linkId2IsolatedImmissionPlusOneVehicle = null;
+		resetTimeIntervalDamages();
+	}
+
+	/**
+	 * Resets the damage information of the current time interval but keeps the immissions so that they can be re-used
+	 * in the next time interval.
+	 */
+	void resetTimeIntervalDamages() {
 		this.setAffectedAgentUnits(0.);
 		this.setDamageCosts(0.);
 		this.setDamageCostsPerAffectedAgentUnit(0.);
@@ -40,8 +40,12 @@ import org.matsim.core.utils.misc.Counter;
 import org.matsim.core.utils.misc.Time;
 import org.matsim.vehicles.Vehicle;
 
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * A handler which computes noise emissions, immisions, affected agent units and damages for each receiver point and time interval.
@@ -72,6 +76,16 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
 	private final Set<NoiseVehicleType> vehicleTypes;
 	private String networkModesToIgnore;
 
+	/*
+	 * Delta-driven immission computation, see NoiseConfigGroup#getImmissionUpdateEmissionThreshold()
+	 */
+	private final double immissionUpdateThreshold;
+	private final NoiseVehicleType[] vehicleTypeArray;
+	private final Map<Id<Link>, List<NoiseReceiverPoint>> linkId2ReceiverPoints = new HashMap<>();
+	private final Map<Id<Link>, double[]> linkId2LastEmissions = new HashMap<>();
+	private final Set<Id<ReceiverPoint>> outdatedReceiverPoints = new HashSet<>();
+	private boolean recomputeAllImmissions = true;
+
 	@Inject
 	NoiseTimeTracker(NoiseContext context, NoiseEmission emission, NoiseImmission immissionModule,
 					 NoiseDamageCalculation damageCalculation, NoiseVehicleIdentifier vehicleIdentifier,
@@ -83,37 +97,74 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
         this.vehicleIdentifier = vehicleIdentifier;
 		this.vehicleTypes = vehicleTypes;
 		networkModesToIgnore = this.noiseContext.getNoiseParams().getNetworkModesToIgnore();
+		this.immissionUpdateThreshold = this.noiseContext.getNoiseParams().getImmissionUpdateEmissionThreshold();
+		this.vehicleTypeArray = vehicleTypes.toArray(new NoiseVehicleType[0]);
 		setRelevantLinkInfo();
+		if (isReuseImmissions()) {
+			setReceiverPointsPerLink();
+		}
 	}
 
 	private void setRelevantLinkInfo() {
-		Counter cnt = new Counter("set relevant link-info # ");
 		final NoiseConfigGroup noiseParams = noiseContext.getNoiseParams();
-		for(NoiseReceiverPoint nrp: noiseContext.getGrid().getReceiverPoints().values()) {
-			if(!nrp.isInitialized()) {
-				// get the zone grid cell around the receiver point
-				Set<Id<Link>> potentialLinks = noiseContext.getPotentialLinks(nrp);
-
-				// go through these potential relevant link Ids
-				Set<Id<Link>> relevantLinkIds = ConcurrentHashMap.newKeySet();
-				potentialLinks.parallelStream().forEach(linkId -> {
-					if (!(relevantLinkIds.contains(linkId))) {
-						Link candidateLink = noiseContext.getScenario().getNetwork().getLinks().get(linkId);
-						double projectedDistance = CoordUtils.distancePointLinesegment(candidateLink.getFromNode().getCoord(), candidateLink.getToNode().getCoord(), nrp.getCoord());
-						if (projectedDistance < noiseParams.getRelevantRadius()) {
-							relevantLinkIds.add(linkId);
-							double correction = immissionModule.calculateCorrection(projectedDistance, nrp, candidateLink);
-							nrp.setLinkId2Correction(linkId, correction);
-						}
-					}
-				});
-				nrp.setInitialized();
+		final Map<Id<ReceiverPoint>, NoiseReceiverPoint> gridReceiverPoints = noiseContext.getGrid().getReceiverPoints();
+
+		Path correctionsFileToWrite = null;
+		if (noiseParams.getReceiverPointLinkCorrectionsFile() != null) {
+			URL url = noiseParams.getReceiverPointLinkCorrectionsFileURL(noiseContext.getScenario().getConfig().getContext());
+			Path correctionsFile = null;
+			if ("file".equals(url.getProtocol())) {
+				try {
+					correctionsFile = Paths.get(url.toURI());
+				} catch (URISyntaxException e) {
+					throw new RuntimeException(e);
+				}
 			}
+			if (correctionsFile != null && !Files.exists(correctionsFile)) {
+				correctionsFileToWrite = correctionsFile;
+			} else {
+				// other urls, e.g. resources in a jar, can only be read
+				ReceiverPointLinkCorrections.read(url, gridReceiverPoints);
+			}
+		}
 
-			noiseContext.getReceiverPoints().put(nrp.getId(), nrp);
+		// receiver points are independent of each other, hence compute them in parallel. The potential links of each
+		// receiver point are already restricted to the surrounding zones of the spatial link index in the noise context.
+		Counter cnt = new Counter("set relevant link-info # ");
+		final double relevantRadius = noiseParams.getRelevantRadius();
+		gridReceiverPoints.values().parallelStream().filter(nrp -> !nrp.isInitialized()).forEach(nrp -> {
+			for (Id<Link> linkId : noiseContext.getPotentialLinks(nrp)) {
+				Link candidateLink = noiseContext.getScenario().getNetwork().getLinks().get(linkId);
+				double projectedDistance = CoordUtils.distancePointLinesegment(candidateLink.getFromNode().getCoord(), candidateLink.getToNode().getCoord(), nrp.getCoord());
+				if (projectedDistance < relevantRadius) {
+					double correction = immissionModule.calculateCorrection(projectedDistance, nrp, candidateLink);
+					nrp.setLinkId2Correction(linkId, correction);
+				}
+			}
+			nrp.setInitialized();
 			cnt.incCounter();
-		}
+		});
 		cnt.printCounter();
+
+		for (NoiseReceiverPoint nrp : gridReceiverPoints.values()) {
+			noiseContext.getReceiverPoints().put(nrp.getId(), nrp);
+		}
+
+		if (correctionsFileToWrite != null) {
+			ReceiverPointLinkCorrections.write(correctionsFileToWrite.toString(), gridReceiverPoints.values());
+		}
+	}
+
+	private void setReceiverPointsPerLink() {
+		for (NoiseReceiverPoint nrp : noiseContext.getReceiverPoints().values()) {
+			for (Id<Link> linkId : nrp.getRelevantLinks()) {
+				linkId2ReceiverPoints.computeIfAbsent(linkId, id -> new ArrayList<>()).add(nrp);
+			}
+		}
+	}
+
+	private boolean isReuseImmissions() {
+		return immissionUpdateThreshold >= 0.;
 	}
 
 
@@ -131,8 +182,13 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
 		
 		this.iteration = iteration;
 		this.damageCalculation.reset(iteration);
+		this.damageCalculation.setOutputFilePath(this.outputDirectory);
 		this.noiseContext.reset();
 
+		this.linkId2LastEmissions.clear();
+		this.outdatedReceiverPoints.clear();
+		this.recomputeAllImmissions = true;
+
 		for (NoiseReceiverPoint rp : this.noiseContext.getReceiverPoints().values()) {
 			rp.reset();
 		}
@@ -141,7 +197,11 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
 	private void resetCurrentTimeIntervalInfo() {
 		this.noiseContext.getNoiseLinks().clear();
 		for (NoiseReceiverPoint rp : this.noiseContext.getReceiverPoints().values()) {
-			rp.resetTimeInterval();
+			if (isReuseImmissions()) {
+				rp.resetTimeIntervalDamages();
+			} else {
+				rp.resetTimeInterval();
+			}
 		}
 	}
 	
@@ -235,26 +295,73 @@ class NoiseTimeTracker implements VehicleEntersTrafficEventHandler, PersonEnters
                 this.noiseContext.getNoiseLinks().put(linkId, noiseLink );
             }
 			emission.calculateEmission(noiseLink);
+			if (isReuseImmissions()) {
+				checkEmissionChange(noiseLink);
+			}
 			cnt.incCounter();
 		}
 		cnt.printCounter();
 	}
 
+	/**
+	 * Marks the receiver points around the link as outdated if the link's emission changed by more than the threshold
+	 * compared to the emission the receiver points' immissions were last computed with.
+	 */
+	private void checkEmissionChange(NoiseLink noiseLink) {
+		final boolean considerPlusOneVehicle = noiseContext.getNoiseParams().isComputeCausingAgents();
+		double[] lastEmissions = linkId2LastEmissions.get(noiseLink.getId());
+		boolean changed = lastEmissions == null || Math.abs(noiseLink.getEmission() - lastEmissions[0]) > immissionUpdateThreshold;
+		for (int i = 0; !changed && considerPlusOneVehicle && i < vehicleTypeArray.length; i++) {
+			changed = Math.abs(noiseLink.getEmissionPlusOneVehicle(vehicleTypeArray[i]) - lastEmissions[i + 1]) > immissionUpdateThreshold;
+		}
+		if (changed) {
+			if (lastEmissions == null) {
+				lastEmissions = new double[vehicleTypeArray.length + 1];
+				linkId2LastEmissions.put(noiseLink.getId(), lastEmissions);
+			}
+			lastEmissions[0] = noiseLink.getEmission();
+			for (int i = 0; i < vehicleTypeArray.length; i++) {
+				lastEmissions[i + 1] = noiseLink.getEmissionPlusOneVehicle(vehicleTypeArray[i]);
+			}
+			List<NoiseReceiverPoint> receiverPoints = linkId2ReceiverPoints.get(noiseLink.getId());
+			if (receiverPoints != null) {
+				for (NoiseReceiverPoint rp : receiverPoints) {
+					outdatedReceiverPoints.add(rp.getId());
+				}
+			}
+		}
+	}
+
 	/**
 	 * Immissions and damages
 	 */
 	private void calculateNoiseImmissionsAndDamages() {
 		Counter cnt = new Counter("process noise receiver point # ");
+		final double currentTimeBinEndTime = this.noiseContext.getCurrentTimeBinEndTime();
+		final boolean reuseImmissions = isReuseImmissions() && !recomputeAllImmissions;
+		// the isolated immissions are only required again if the immissions of the next time interval may be re-used
+		final boolean keepIsolatedImmissions = isReuseImmissions() && this.noiseContext.getNoiseParams().isComputeCausingAgents();
 		this.noiseContext.getReceiverPoints().values().parallelStream().forEach( rp -> {
-			immissionModule.calculateImmission(rp, this.noiseContext.getCurrentTimeBinEndTime());
+			if (reuseImmissions && !outdatedReceiverPoints.contains(rp.getId())) {
+				rp.setCurrentImmission(rp.getCurrentImmission(), currentTimeBinEndTime);
+			} else {
+				immissionModule.calculateImmission(rp, currentTimeBinEndTime);
+			}
 			damageCalculation.calculateDamages(rp);
             cnt.incCounter();
 
-            //free up memory
-            rp.setLinkId2IsolatedImmission(null);
-            rp.setLinkId2IsolatedImmissionPlusOneVehicle(null);
+            if (!keepIsolatedImmissions) {
+	            //free up memory
+	            rp.setLinkId2IsolatedImmission(null);
+	            rp.setLinkId2IsolatedImmissionPlusOneVehicle(null);
+            }
 		});
 		cnt.printCounter();
+		if (reuseImmissions) {
+			log.info("Recomputed the immissions of " + outdatedReceiverPoints.size() + " receiver points, re-used the immissions of the remaining ones.");
+		}
+		outdatedReceiverPoints.clear();
+		recomputeAllImmissions = false;
 		log.info("Done processing receiver points.");
 		damageCalculation.finishNoiseDamageCosts();
 	}
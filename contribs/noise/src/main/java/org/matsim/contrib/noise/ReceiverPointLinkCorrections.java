@@ -0,0 +1,116 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.noise;
+
+import org.apache.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.io.UncheckedIOException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.net.URL;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Reads and writes the sparse receiver point / link correction matrix, i.e. the relevant links of each receiver point
+ * together with their correction terms. Computing the correction terms is the most expensive part of setting up the noise
+ * computation for large receiver point grids, so the matrix can be stored once and re-used by subsequent runs.
+ * <p>
+ * One line is written per receiver point and relevant link ({@code receiverPointId;linkId;correction}). Receiver points
+ * without any relevant link are written with empty link id and correction so that they are not recomputed either.
+ */
+final class ReceiverPointLinkCorrections {
+
+	private static final Logger log = Logger.getLogger(ReceiverPointLinkCorrections.class);
+
+	private static final String SEPARATOR = ";";
+
+	private ReceiverPointLinkCorrections() {
+	}
+
+	/**
+	 * Sets the correction terms of all receiver points contained in the file and marks them as initialized.
+	 * Receiver points which are not part of the given map are skipped.
+	 *
+	 * @return the number of receiver points which were initialized from the file
+	 */
+	static int read(URL url, Map<Id<ReceiverPoint>, NoiseReceiverPoint> receiverPoints) {
+		log.info("Reading receiver point link corrections from " + url);
+		int initialized = 0;
+		int unknown = 0;
+		try (BufferedReader br = IOUtils.getBufferedReader(url)) {
+			String line = br.readLine(); // header
+			NoiseReceiverPoint current = null;
+			while ((line = br.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				String[] columns = line.split(SEPARATOR, -1);
+				if (current == null || !current.getId().toString().equals(columns[0])) {
+					current = receiverPoints.get(Id.create(columns[0], ReceiverPoint.class));
+					if (current == null) {
+						unknown++;
+						continue;
+					}
+					if (!current.isInitialized()) {
+						current.setInitialized();
+						initialized++;
+					}
+				}
+				if (!columns[1].isEmpty()) {
+					current.setLinkId2Correction(Id.createLinkId(columns[1]), Double.parseDouble(columns[2]));
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		if (unknown > 0) {
+			log.warn(unknown + " lines refer to receiver points which do not exist and were skipped.");
+		}
+		log.info("Initialized " + initialized + " of " + receiverPoints.size() + " receiver points from file.");
+		return initialized;
+	}
+
+	static void write(String file, Collection<NoiseReceiverPoint> receiverPoints) {
+		log.info("Writing receiver point link corrections to " + file);
+		try (BufferedWriter bw = IOUtils.getBufferedWriter(file)) {
+			bw.write("receiverPointId" + SEPARATOR + "linkId" + SEPARATOR + "correction");
+			bw.newLine();
+			for (NoiseReceiverPoint rp : receiverPoints) {
+				Collection<Id<Link>> relevantLinks = rp.getRelevantLinks();
+				if (relevantLinks.isEmpty()) {
+					bw.write(rp.getId() + SEPARATOR + SEPARATOR);
+					bw.newLine();
+				}
+				for (Id<Link> linkId : relevantLinks) {
+					bw.write(rp.getId() + SEPARATOR + linkId + SEPARATOR + rp.getLinkCorrection(linkId));
+					bw.newLine();
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+}
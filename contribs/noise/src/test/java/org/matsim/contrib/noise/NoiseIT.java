@@ -155,7 +155,16 @@ public class NoiseIT {
 		Config config = ConfigUtils.loadConfig(configFile ) ;
 		config.controler().setOutputDirectory(testUtils.getOutputDirectory());
 		config.plansCalcRoute().setAccessEgressType(PlansCalcRouteConfigGroup.AccessEgressType.none);
-		runTest2a( config ) ;
+		runTest2a( config, -1. ) ;
+	}
+	// same as test2a, but only recomputing the immissions of receiver points next to links with changed emissions
+	@Test
+	public final void test2aReuseImmissions(){
+		String configFile = testUtils.getPackageInputDirectory() + "NoiseTest/config2.xml";
+		Config config = ConfigUtils.loadConfig(configFile ) ;
+		config.controler().setOutputDirectory(testUtils.getOutputDirectory());
+		config.plansCalcRoute().setAccessEgressType(PlansCalcRouteConfigGroup.AccessEgressType.none);
+		runTest2a( config, 0. ) ;
 	}
 	@Test
 	public final void test2aWAccessEgress(){
@@ -170,10 +179,10 @@ public class NoiseIT {
 //			params.setBeelineDistanceFactor( 1.3 );
 //			config.plansCalcRoute().addModeRoutingParams( params );
 //		}
-		runTest2a( config ) ;
+		runTest2a( config, -1. ) ;
 	}
 		
-	private static void runTest2a( Config runConfig ) {
+	private static void runTest2a( Config runConfig, double immissionUpdateEmissionThreshold ) {
 		Controler controler = new Controler(runConfig);
 		controler.getConfig().controler().setOverwriteFileSetting(OutputDirectoryHierarchy.OverwriteFileSetting.deleteDirectoryIfExists );
 		controler.run();
@@ -199,6 +208,7 @@ public class NoiseIT {
 		noiseParameters.setScaleFactor(1.);
 		noiseParameters.setUseActualSpeedLevel(false);
 		noiseParameters.setAllowForSpeedsOutsideTheValidRange(true);
+		noiseParameters.setImmissionUpdateEmissionThreshold(immissionUpdateEmissionThreshold);
 		
 		Scenario scenario = ScenarioUtils.loadScenario(config);
 		
@@ -0,0 +1,99 @@
+/*
+ * *********************************************************************** *
+ * project: org.matsim.*
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** *
+ */
+
+package org.matsim.contrib.noise;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+public class ReceiverPointLinkCorrectionsTest {
+
+	@Rule
+	public MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	public void testWriteAndRead() {
+		NoiseReceiverPoint rp1 = new NoiseReceiverPoint(Id.create("1", ReceiverPoint.class), new Coord(0, 0));
+		rp1.setLinkId2Correction(Id.createLinkId("a"), 1.2345678901234);
+		rp1.setLinkId2Correction(Id.createLinkId("b"), -3.5);
+		NoiseReceiverPoint rp2 = new NoiseReceiverPoint(Id.create("2", ReceiverPoint.class), new Coord(100, 0));
+
+		String file = utils.getOutputDirectory() + "receiverPointLinkCorrections.csv.gz";
+		ReceiverPointLinkCorrections.write(file, Arrays.asList(rp1, rp2));
+
+		Map<Id<ReceiverPoint>, NoiseReceiverPoint> receiverPoints = new HashMap<>();
+		NoiseReceiverPoint read1 = new NoiseReceiverPoint(rp1.getId(), rp1.getCoord());
+		NoiseReceiverPoint read2 = new NoiseReceiverPoint(rp2.getId(), rp2.getCoord());
+		NoiseReceiverPoint read3 = new NoiseReceiverPoint(Id.create("3", ReceiverPoint.class), new Coord(200, 0));
+		receiverPoints.put(read1.getId(), read1);
+		receiverPoints.put(read2.getId(), read2);
+		receiverPoints.put(read3.getId(), read3);
+
+		Assert.assertEquals(2, ReceiverPointLinkCorrections.read(IOUtils.getFileUrl(file), receiverPoints));
+
+		Assert.assertTrue(read1.isInitialized());
+		Assert.assertEquals(2, read1.getRelevantLinks().size());
+		Assert.assertEquals(1.2345678901234, read1.getLinkCorrection(Id.createLinkId("a")), 0.);
+		Assert.assertEquals(-3.5, read1.getLinkCorrection(Id.createLinkId("b")), 0.);
+
+		// points without relevant links are initialized as well, unknown points are not touched
+		Assert.assertTrue(read2.isInitialized());
+		Assert.assertTrue(read2.getRelevantLinks().isEmpty());
+		Assert.assertFalse(read3.isInitialized());
+	}
+
+	@Test
+	public void testReadFromJar() throws IOException {
+		NoiseReceiverPoint rp1 = new NoiseReceiverPoint(Id.create("1", ReceiverPoint.class), new Coord(0, 0));
+		rp1.setLinkId2Correction(Id.createLinkId("a"), 2.5);
+		String file = utils.getOutputDirectory() + "receiverPointLinkCorrections.csv";
+		ReceiverPointLinkCorrections.write(file, Arrays.asList(rp1));
+
+		File jar = new File(utils.getOutputDirectory() + "corrections.jar");
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(jar))) {
+			out.putNextEntry(new ZipEntry("receiverPointLinkCorrections.csv"));
+			out.write(Files.readAllBytes(new File(file).toPath()));
+			out.closeEntry();
+		}
+
+		Map<Id<ReceiverPoint>, NoiseReceiverPoint> receiverPoints = new HashMap<>();
+		NoiseReceiverPoint read1 = new NoiseReceiverPoint(rp1.getId(), rp1.getCoord());
+		receiverPoints.put(read1.getId(), read1);
+		URL url = new URL("jar:" + jar.toURI().toURL() + "!/receiverPointLinkCorrections.csv");
+		Assert.assertEquals(1, ReceiverPointLinkCorrections.read(url, receiverPoints));
+		Assert.assertEquals(2.5, read1.getLinkCorrection(Id.createLinkId("a")), 0.);
+	}
+}
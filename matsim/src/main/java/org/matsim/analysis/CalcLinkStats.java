@@ -22,7 +22,6 @@ package org.matsim.analysis;
 
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.Id;
-import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.router.util.TravelTime;
@@ -33,10 +32,13 @@ import javax.inject.Inject;
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.Map;
+import java.util.Arrays;
 
 /**
  * Calculates the average link volumes and travel times over any number of iterations.
+ * <p>
+ * The statistics of all links are kept in a few large arrays, with the values of a link at a position given by
+ * the {@link Id#index() index} of its id.
  *
  * @author mrieser
  */
@@ -44,20 +46,14 @@ public class CalcLinkStats {
 
 	private final static Logger log = Logger.getLogger(CalcLinkStats.class);
 
-	private static class LinkData {
-		public final double[][] volumes;
-		public final double[][] ttimes;
-
-		public LinkData(final double[][] linksVolumes, final double[][] linksTTimes) {
-			this.volumes = linksVolumes.clone();
-			this.ttimes = linksTTimes.clone();
-		}
-	}
-
 	private double volScaleFactor = 1.0;
 
 	private int count = 0;
-	private final IdMap<Link, LinkData> linkData;
+	// links of the network at the index of their id, null for indices of ids which are not part of the network
+	private Link[] links = new Link[0];
+	// per statistic, the values of a link start at index * (nofHours + 1) for volumes, and at index * nofHours for travel times
+	private double[][] volumes = new double[NOF_STATS][0];
+	private double[][] ttimes = new double[NOF_STATS][0];
 	private final int nofHours;
 	private final Network network;
 
@@ -69,7 +65,6 @@ public class CalcLinkStats {
 	@Inject
 	public CalcLinkStats(final Network network) {
 		this.network = network;
-		this.linkData = new IdMap<>(Link.class);
 		this.nofHours = 24;
 		reset();
 	}
@@ -89,17 +84,19 @@ public class CalcLinkStats {
 		this.count++;
 		// TODO verify ttimes has hourly timeBin-Settings
 
+		double[] linkVolumes = new double[this.nofHours];
+
 		// go through all links
-		for (Id<Link> linkId : this.linkData.keySet()) {
-			
-			// retrieve link from link ID
-			Link link = this.network.getLinks().get(linkId);
+		for (int index = 0; index < this.links.length; index++) {
+			Link link = this.links[index];
+			if (link == null) continue;
 			
-			// get the volumes for the link ID from the analyzier
-			double[] volumes = analyzer.getVolumesPerHourForLink(linkId);
+			// get the volumes for the link ID from the analyzer
+			analyzer.getVolumesPerHourForLink(link.getId(), linkVolumes);
 			
-			// get the destination container for the data from link data (could have gotten this through iterator right away)
-			LinkData data = this.linkData.get(linkId);
+			// the positions of the link's values in the data arrays
+			int v = index * (this.nofHours + 1);
+			int t = index * this.nofHours;
 			
 			// prepare the sum variables (for volumes);
 			long sumVolumes = 0; // daily (0-24) sum
@@ -111,55 +108,70 @@ public class CalcLinkStats {
 				double ttime = ttimes.getLinkTravelTime(link, hour*3600, null, null);
 				
 				// add for daily sum:
-				sumVolumes += volumes[hour];
+				sumVolumes += linkVolumes[hour];
 
 				// the following has something to do with the fact that we are doing this for multiple iterations.  So there are variations.
 				// this collects min and max.  There is, however, no good control over how many iterations this is collected.
 				if (this.count == 1) {
-					data.volumes[MIN][hour] = volumes[hour];
-					data.volumes[MAX][hour] = volumes[hour];
-					data.ttimes[MIN][hour] = ttime;
-					data.ttimes[MAX][hour] = ttime;
+					this.volumes[MIN][v + hour] = linkVolumes[hour];
+					this.volumes[MAX][v + hour] = linkVolumes[hour];
+					this.ttimes[MIN][t + hour] = ttime;
+					this.ttimes[MAX][t + hour] = ttime;
 				} else {
-					if (volumes[hour] < data.volumes[MIN][hour]) data.volumes[MIN][hour] = volumes[hour];
-					if (volumes[hour] > data.volumes[MAX][hour]) data.volumes[MAX][hour] = volumes[hour];
-					if (ttime < data.ttimes[MIN][hour]) data.ttimes[MIN][hour] = ttime;
-					if (ttime > data.ttimes[MAX][hour]) data.ttimes[MAX][hour] = ttime;
+					if (linkVolumes[hour] < this.volumes[MIN][v + hour]) this.volumes[MIN][v + hour] = linkVolumes[hour];
+					if (linkVolumes[hour] > this.volumes[MAX][v + hour]) this.volumes[MAX][v + hour] = linkVolumes[hour];
+					if (ttime < this.ttimes[MIN][t + hour]) this.ttimes[MIN][t + hour] = ttime;
+					if (ttime > this.ttimes[MAX][t + hour]) this.ttimes[MAX][t + hour] = ttime;
 				}
 				
 				// this is the regular summing up for each hour
-				data.volumes[SUM][hour] += volumes[hour];
-				data.ttimes[SUM][hour] += volumes[hour] * ttime;
+				this.volumes[SUM][v + hour] += linkVolumes[hour];
+				this.ttimes[SUM][t + hour] += linkVolumes[hour] * ttime;
 			}
 			// dataVolumes[.][nofHours] are daily (0-24) values
 			if (this.count == 1) {
-				data.volumes[MIN][this.nofHours] = sumVolumes;
-				data.volumes[SUM][this.nofHours] = sumVolumes;
-				data.volumes[MAX][this.nofHours] = sumVolumes;
+				this.volumes[MIN][v + this.nofHours] = sumVolumes;
+				this.volumes[SUM][v + this.nofHours] = sumVolumes;
+				this.volumes[MAX][v + this.nofHours] = sumVolumes;
 			} else {
-				if (sumVolumes < data.volumes[MIN][this.nofHours]) data.volumes[MIN][this.nofHours] = sumVolumes;
-				data.volumes[SUM][this.nofHours] += sumVolumes;
-				if (sumVolumes > data.volumes[MAX][this.nofHours]) data.volumes[MAX][this.nofHours] = sumVolumes;
+				if (sumVolumes < this.volumes[MIN][v + this.nofHours]) this.volumes[MIN][v + this.nofHours] = sumVolumes;
+				this.volumes[SUM][v + this.nofHours] += sumVolumes;
+				if (sumVolumes > this.volumes[MAX][v + this.nofHours]) this.volumes[MAX][v + this.nofHours] = sumVolumes;
 			}
 		}
 	}
 
 	public void reset() {
-		this.linkData.clear();
 		this.count = 0;
 		log.info( " resetting `count' to zero.  This info is here since we want to check when this" +
 				" is happening during normal simulation runs.  kai, jan'11") ;
 
 		// initialize our data-table
+		int maxIndex = -1;
+		for (Id<Link> linkId : this.network.getLinks().keySet()) {
+			maxIndex = Math.max(maxIndex, linkId.index());
+		}
+		if (this.links.length != maxIndex + 1) {
+			this.links = new Link[maxIndex + 1];
+			this.volumes = new double[NOF_STATS][this.links.length * (this.nofHours + 1)];
+			this.ttimes = new double[NOF_STATS][this.links.length * this.nofHours];
+		} else {
+			Arrays.fill(this.links, null);
+			for (int stat = 0; stat < NOF_STATS; stat++) {
+				Arrays.fill(this.volumes[stat], 0.0);
+				Arrays.fill(this.ttimes[stat], 0.0);
+			}
+		}
 		for (Link link : this.network.getLinks().values()) {
-			LinkData data = new LinkData(new double[NOF_STATS][this.nofHours + 1], new double[NOF_STATS][this.nofHours]);
-			this.linkData.put(link.getId(), data);
+			this.links[link.getId().index()] = link;
 		}
 
 	}
 
 	public void writeFile(final String filename) {
 		BufferedWriter out = null;
+		// every line is assembled here and written at once, instead of concatenating strings for every value
+		StringBuilder line = new StringBuilder(4096);
 		try {
 			out = IOUtils.getBufferedWriter(filename);
 
@@ -181,59 +193,62 @@ public class CalcLinkStats {
 			out.write("\n");
 
 			// write data
-			for (Map.Entry<Id<Link>, LinkData> entry : this.linkData.entrySet()) {
-				Id<Link> linkId = entry.getKey();
-				LinkData data = entry.getValue();
-				Link link = this.network.getLinks().get(linkId);
-
-				out.write(linkId.toString());
-				out.write("\t"); // origId, no longer supported
-				out.write("\t" + link.getFromNode().getId().toString());
-				out.write("\t" + link.getToNode().getId().toString());
-				out.write("\t" + Double.toString(link.getLength()));
-				out.write("\t" + Double.toString(link.getFreespeed()));
-				out.write("\t" + Double.toString(link.getCapacity()));
+			for (int index = 0; index < this.links.length; index++) {
+				Link link = this.links[index];
+				if (link == null) continue;
+				int v = index * (this.nofHours + 1);
+				int t = index * this.nofHours;
+
+				line.setLength(0);
+				line.append(link.getId().toString());
+				line.append('\t'); // origId, no longer supported
+				line.append('\t').append(link.getFromNode().getId().toString());
+				line.append('\t').append(link.getToNode().getId().toString());
+				line.append('\t').append(link.getLength());
+				line.append('\t').append(link.getFreespeed());
+				line.append('\t').append(link.getCapacity());
 
 				// HRS0-1, HRS1-2, ... HRS23-24
 //				int[] sum = {0, 0, 0};
 				for (int i = 0; i < this.nofHours; i++) {
-					out.write("\t" + Double.toString(data.volumes[MIN][i]));
-//					sum[MIN] = sum[MIN] + data.volumes[MIN][i];
-					out.write("\t" + Double.toString((data.volumes[SUM][i]) / this.count));
-//					sum[SUM] = sum[SUM] + data.volumes[SUM][i];
-					out.write("\t" + Double.toString(data.volumes[MAX][i]));
-//					sum[MAX] = sum[MAX] + data.volumes[MAX][i];
+					line.append('\t').append(this.volumes[MIN][v + i]);
+//					sum[MIN] = sum[MIN] + this.volumes[MIN][v + i];
+					line.append('\t').append((this.volumes[SUM][v + i]) / this.count);
+//					sum[SUM] = sum[SUM] + this.volumes[SUM][v + i];
+					line.append('\t').append(this.volumes[MAX][v + i]);
+//					sum[MAX] = sum[MAX] + this.volumes[MAX][v + i];
 				}
 
 				// HRS0-nofHours
-				out.write("\t" + Double.toString(data.volumes[MIN][this.nofHours]));
-				out.write("\t" + Double.toString((data.volumes[SUM][this.nofHours]) / this.count));
-				out.write("\t" + Double.toString(data.volumes[MAX][this.nofHours]));
+				line.append('\t').append(this.volumes[MIN][v + this.nofHours]);
+				line.append('\t').append((this.volumes[SUM][v + this.nofHours]) / this.count);
+				line.append('\t').append(this.volumes[MAX][v + this.nofHours]);
 
 				// TRAVELTIME0-1, TRAVELTIME1-2, ... TRAVELTIME23-24
 				for (int i = 0; i < this.nofHours; i++) {
-					String ttimesMin = Double.toString(data.ttimes[MIN][i]);
-					out.write("\t" + ttimesMin);
-					if (data.volumes[SUM][i] == 0) {
+					double ttimesMin = this.ttimes[MIN][t + i];
+					line.append('\t').append(ttimesMin);
+					if (this.volumes[SUM][v + i] == 0) {
 						// nobody traveled along the link in this hour, so we cannot calculate an average
 						// use the value available or the minimum instead (min and max should be the same, =freespeed)
-						double ttsum = data.ttimes[SUM][i];
+						double ttsum = this.ttimes[SUM][t + i];
 						if (ttsum != 0.0) {
-							out.write("\t" + Double.toString(ttsum));
+							line.append('\t').append(ttsum);
 						} else {
-							out.write("\t" + ttimesMin);
+							line.append('\t').append(ttimesMin);
 						}
 					} else {
-						double ttsum = data.ttimes[SUM][i];
+						double ttsum = this.ttimes[SUM][t + i];
 						if (ttsum == 0) {
-							out.write("\t" + ttimesMin);
+							line.append('\t').append(ttimesMin);
 						} else {
-							out.write("\t" + Double.toString(ttsum / data.volumes[SUM][i]));
+							line.append('\t').append(ttsum / this.volumes[SUM][v + i]);
 						}
 					}
-					out.write("\t" + Double.toString(data.ttimes[MAX][i]));
+					line.append('\t').append(this.ttimes[MAX][t + i]);
 				}
-				out.write("\n");
+				line.append('\n');
+				out.append(line);
 			}
 
 		} catch (IOException e) {
@@ -273,64 +288,68 @@ public class CalcLinkStats {
 				String[] parts = StringUtils.explode(line, '\t');
 				if (parts.length == 154) {
 					Id<Link> linkId = Id.create(parts[0], Link.class);
-					LinkData data = this.linkData.get(linkId);
-					if (data == null) {
+					int index = linkId.index();
+					if (!isNetworkLink(index)) {
 						System.err.println("CalcLinkStats.readFile(); unknown link: " + linkId.toString());
 					} else {
+						int v = index * (this.nofHours + 1);
+						int t = index * this.nofHours;
 						int baseTTimes;
 						for (int i = 0; i < this.nofHours; i++) {
-							data.volumes[MIN][i] = Double.parseDouble(parts[7 + i*3]);
-							data.volumes[MIN][i] *= this.volScaleFactor;
-							data.volumes[SUM][i] = Double.parseDouble(parts[8 + i*3]);
-							data.volumes[SUM][i] *= this.volScaleFactor;
-							data.volumes[MAX][i] = Double.parseDouble(parts[9 + i*3]);
-							data.volumes[MAX][i] *= this.volScaleFactor;
+							this.volumes[MIN][v + i] = Double.parseDouble(parts[7 + i*3]);
+							this.volumes[MIN][v + i] *= this.volScaleFactor;
+							this.volumes[SUM][v + i] = Double.parseDouble(parts[8 + i*3]);
+							this.volumes[SUM][v + i] *= this.volScaleFactor;
+							this.volumes[MAX][v + i] = Double.parseDouble(parts[9 + i*3]);
+							this.volumes[MAX][v + i] *= this.volScaleFactor;
 							baseTTimes = 7 + (this.nofHours+1)*3;
-							data.ttimes[MIN][i] = Double.parseDouble(parts[baseTTimes + i*3]);
-							if (data.volumes[SUM][i] == 0) {
-								data.ttimes[SUM][i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]);
+							this.ttimes[MIN][t + i] = Double.parseDouble(parts[baseTTimes + i*3]);
+							if (this.volumes[SUM][v + i] == 0) {
+								this.ttimes[SUM][t + i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]);
 							} else {
-								data.ttimes[SUM][i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]) * data.volumes[SUM][i];
+								this.ttimes[SUM][t + i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]) * this.volumes[SUM][v + i];
 							}
-							data.ttimes[MAX][i] = Double.parseDouble(parts[baseTTimes + i*3 + 2]);
+							this.ttimes[MAX][t + i] = Double.parseDouble(parts[baseTTimes + i*3 + 2]);
 						}
-						data.volumes[MIN][this.nofHours] = Double.parseDouble(parts[7 + this.nofHours*3]);
-						data.volumes[MIN][this.nofHours] *= this.volScaleFactor;
-						data.volumes[SUM][this.nofHours] = Double.parseDouble(parts[8 + this.nofHours*3]);
-						data.volumes[SUM][this.nofHours] *= this.volScaleFactor;
-						data.volumes[MAX][this.nofHours] = Double.parseDouble(parts[9 + this.nofHours*3]);
-						data.volumes[MAX][this.nofHours] *= this.volScaleFactor;
+						this.volumes[MIN][v + this.nofHours] = Double.parseDouble(parts[7 + this.nofHours*3]);
+						this.volumes[MIN][v + this.nofHours] *= this.volScaleFactor;
+						this.volumes[SUM][v + this.nofHours] = Double.parseDouble(parts[8 + this.nofHours*3]);
+						this.volumes[SUM][v + this.nofHours] *= this.volScaleFactor;
+						this.volumes[MAX][v + this.nofHours] = Double.parseDouble(parts[9 + this.nofHours*3]);
+						this.volumes[MAX][v + this.nofHours] *= this.volScaleFactor;
 					}
 				}
 				else if (parts.length == 153) {
 					String linkId = parts[0];
-					LinkData data = this.linkData.get(Id.create(linkId, Link.class));
-					if (data == null) {
+					int index = Id.create(linkId, Link.class).index();
+					if (!isNetworkLink(index)) {
 						System.err.println("CalcLinkStats.readFile(); unknown link: " + linkId);
 					} else {
+						int v = index * (this.nofHours + 1);
+						int t = index * this.nofHours;
 						int baseTTimes;
 						for (int i = 0; i < this.nofHours; i++) {
-							data.volumes[MIN][i] = Double.parseDouble(parts[6 + i*3]);
-							data.volumes[MIN][i] *= this.volScaleFactor;
-							data.volumes[SUM][i] = Integer.parseInt(parts[7 + i*3]);
-							data.volumes[SUM][i] *= this.volScaleFactor;
-							data.volumes[MAX][i] = Double.parseDouble(parts[8 + i*3]);
-							data.volumes[MAX][i] *= this.volScaleFactor;
+							this.volumes[MIN][v + i] = Double.parseDouble(parts[6 + i*3]);
+							this.volumes[MIN][v + i] *= this.volScaleFactor;
+							this.volumes[SUM][v + i] = Integer.parseInt(parts[7 + i*3]);
+							this.volumes[SUM][v + i] *= this.volScaleFactor;
+							this.volumes[MAX][v + i] = Double.parseDouble(parts[8 + i*3]);
+							this.volumes[MAX][v + i] *= this.volScaleFactor;
 							baseTTimes = 6 + (this.nofHours+1)*3;
-							data.ttimes[MIN][i] = Double.parseDouble(parts[baseTTimes + i*3]);
-							if (data.volumes[SUM][i] == 0) {
-								data.ttimes[SUM][i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]);
+							this.ttimes[MIN][t + i] = Double.parseDouble(parts[baseTTimes + i*3]);
+							if (this.volumes[SUM][v + i] == 0) {
+								this.ttimes[SUM][t + i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]);
 							} else {
-								data.ttimes[SUM][i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]) * data.volumes[SUM][i];
+								this.ttimes[SUM][t + i] = Double.parseDouble(parts[baseTTimes + i*3 + 1]) * this.volumes[SUM][v + i];
 							}
-							data.ttimes[MAX][i] = Double.parseDouble(parts[baseTTimes + i*3 + 2]);
+							this.ttimes[MAX][t + i] = Double.parseDouble(parts[baseTTimes + i*3 + 2]);
 						}
-						data.volumes[MIN][this.nofHours] = Double.parseDouble(parts[6 + this.nofHours*3]);
-						data.volumes[MIN][this.nofHours] *= this.volScaleFactor;
-						data.volumes[SUM][this.nofHours] = Double.parseDouble(parts[7 + this.nofHours*3]);
-						data.volumes[SUM][this.nofHours] *= this.volScaleFactor;
-						data.volumes[MAX][this.nofHours] = Double.parseDouble(parts[8 + this.nofHours*3]);
-						data.volumes[MAX][this.nofHours] *= this.volScaleFactor;
+						this.volumes[MIN][v + this.nofHours] = Double.parseDouble(parts[6 + this.nofHours*3]);
+						this.volumes[MIN][v + this.nofHours] *= this.volScaleFactor;
+						this.volumes[SUM][v + this.nofHours] = Double.parseDouble(parts[7 + this.nofHours*3]);
+						this.volumes[SUM][v + this.nofHours] *= this.volScaleFactor;
+						this.volumes[MAX][v + this.nofHours] = Double.parseDouble(parts[8 + this.nofHours*3]);
+						this.volumes[MAX][v + this.nofHours] *= this.volScaleFactor;
 					}
 				}
 				else {
@@ -352,21 +371,26 @@ public class CalcLinkStats {
 		}
 	}
 
+	private boolean isNetworkLink(final int index) {
+		return index < this.links.length && this.links[index] != null;
+	}
+
 	/**
 	 * @param linkId
 	 * @return if no data is available, an array with length 0 is returned.
 	 */
 	public double[] getAvgLinkVolumes(final Id<Link> linkId) {
-		LinkData data = this.linkData.get(linkId);
-		if (data == null) {
+		int index = linkId.index();
+		if (!isNetworkLink(index)) {
 			return new double[0];
 		}
 		if (this.count == 0) {
 			return new double[0];
 		}
+		int v = index * (this.nofHours + 1);
 		double[] volumes = new double[this.nofHours];
 		for (int i = 0; i < this.nofHours; i++) {
-			volumes[i] = (data.volumes[SUM][i]) / (this.count);
+			volumes[i] = (this.volumes[SUM][v + i]) / (this.count);
 		}
 		return volumes;
 	}
@@ -380,13 +404,15 @@ public class CalcLinkStats {
 	 */
 	@Deprecated
 	protected double[] getAvgTravelTimes(final Id<Link> linkId) {
-		LinkData data = this.linkData.get(linkId);
-		if (data == null) {
+		int index = linkId.index();
+		if (!isNetworkLink(index)) {
 			return new double[0];
 		}
 		if (this.count == 0) {
 			return new double[0];
 		}
+		int v = index * (this.nofHours + 1);
+		int t = index * this.nofHours;
 		double[] ttimesMin = new double[this.nofHours];
 		double[] ttimesSum = new double[this.nofHours];
 		double[] volumes = new double[this.nofHours];
@@ -394,9 +420,9 @@ public class CalcLinkStats {
 		double[] avgTTimes = new double[this.nofHours];
 		
 		for (int i = 0; i < this.nofHours; i++) {
-			volumes[i] = (data.volumes[SUM][i]) / (this.count);
-			ttimesMin[i] = (data.ttimes[MIN][i]) / (this.count);
-			ttimesSum[i] = (data.ttimes[SUM][i]) / (this.count);
+			volumes[i] = (this.volumes[SUM][v + i]) / (this.count);
+			ttimesMin[i] = (this.ttimes[MIN][t + i]) / (this.count);
+			ttimesSum[i] = (this.ttimes[SUM][t + i]) / (this.count);
 
 			if (volumes[i] == 0.) {
 				avgTTimes[i] = ttimesMin[i];
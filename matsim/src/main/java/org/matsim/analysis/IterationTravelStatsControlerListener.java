@@ -29,11 +29,14 @@ import javax.inject.Inject;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import org.apache.log4j.Logger;
+import org.matsim.api.core.v01.IdMap;
 import org.matsim.api.core.v01.Scenario;
 import org.matsim.api.core.v01.population.Activity;
 import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
 import org.matsim.core.config.Config;
 import org.matsim.core.controler.Controler;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.events.ShutdownEvent;
@@ -63,6 +66,8 @@ class IterationTravelStatsControlerListener implements IterationEndsListener, Sh
     private PKMbyModeCalculator pkMbyModeCalculator;
     @Inject
     OutputDirectoryHierarchy outputDirectoryHierarchy;
+    @Inject
+    IterationOutputExecutor outputExecutor;
 
     @Inject
     TripsAndLegsCSVWriter.CustomTripsWriterExtension customTripsWriterExtension;
@@ -84,9 +89,15 @@ class IterationTravelStatsControlerListener implements IterationEndsListener, Sh
         final boolean writingTripsAtAll = config.controler().getWriteTripsInterval() > 0;
         final boolean regularWriteEvents = writingTripsAtAll && ((event.getIteration() > 0 && event.getIteration() % config.controler().getWriteTripsInterval() == 0) || event.isLastIteration());
         if (regularWriteEvents || (writingTripsAtAll && event.getIteration() == 0)) {
-            new TripsAndLegsCSVWriter(scenario, customTripsWriterExtension, customLegsWriterExtension, mainModeIdentifier).write(experiencedPlansService.getExperiencedPlans()
-                    , outputDirectoryHierarchy.getIterationFilename(event.getIteration(), Controler.DefaultFiles.tripscsv)
-                    , outputDirectoryHierarchy.getIterationFilename(event.getIteration(), Controler.DefaultFiles.legscsv));
+            // the experienced plans are replaced by new ones in the next iteration, so a copy of the map is sufficient
+            final IdMap<Person, Plan> experiencedPlans = new IdMap<>(Person.class);
+            experiencedPlans.putAll(experiencedPlansService.getExperiencedPlans());
+            final String tripsFilename = outputDirectoryHierarchy.getIterationFilename(event.getIteration(), Controler.DefaultFiles.tripscsv);
+            final String legsFilename = outputDirectoryHierarchy.getIterationFilename(event.getIteration(), Controler.DefaultFiles.legscsv);
+            outputExecutor.execute(Controler.DefaultFiles.tripscsv.name(), () ->
+                    new TripsAndLegsCSVWriter(scenario, customTripsWriterExtension, customLegsWriterExtension, mainModeIdentifier).write(experiencedPlans
+                            , tripsFilename
+                            , legsFilename));
         }
     }
 
@@ -243,6 +243,23 @@ public class LegHistogram implements PersonDepartureEventHandler, PersonArrivalE
 		return this.iteration;
 	}
 
+	/**
+	 * @return a copy of the data gathered so far, which is not changed by further events
+	 */
+	LegHistogram copy() {
+		LegHistogram copy = new LegHistogram(this.binSize, this.nofBins);
+		copy.personIds = this.personIds;
+		copy.iteration = this.iteration;
+		for (Map.Entry<String, DataFrame> entry : this.data.entrySet()) {
+			DataFrame dataFrame = entry.getValue();
+			DataFrame frameCopy = copy.getDataForMode(entry.getKey());
+			System.arraycopy(dataFrame.countsDep, 0, frameCopy.countsDep, 0, dataFrame.countsDep.length);
+			System.arraycopy(dataFrame.countsArr, 0, frameCopy.countsArr, 0, dataFrame.countsArr.length);
+			System.arraycopy(dataFrame.countsStuck, 0, frameCopy.countsStuck, 0, dataFrame.countsStuck.length);
+		}
+		return copy;
+	}
+
 	DataFrame getAllModesData() {
 		DataFrame result = new DataFrame(this.binSize, this.nofBins + 1);
 		for (DataFrame byMode : this.data.values()) {
@@ -33,6 +33,7 @@ import org.matsim.api.core.v01.population.Plan;
 import org.matsim.api.core.v01.population.Population;
 import org.matsim.core.config.groups.ControlerConfigGroup;
 import org.matsim.core.config.groups.PlanCalcScoreConfigGroup;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.events.ShutdownEvent;
@@ -66,6 +67,7 @@ public final class ModeStatsControlerListener implements StartupListener, Iterat
 
 	private final boolean createPNG;
 	private final ControlerConfigGroup controlerConfigGroup;
+	private final IterationOutputExecutor outputExecutor;
 
 	Map<String,Map<Integer,Double>> modeHistories = new HashMap<>() ;
 	private int minIteration = 0;
@@ -80,8 +82,9 @@ public final class ModeStatsControlerListener implements StartupListener, Iterat
 
 	@Inject
 	ModeStatsControlerListener(ControlerConfigGroup controlerConfigGroup, Population population1, OutputDirectoryHierarchy controlerIO,
-			PlanCalcScoreConfigGroup scoreConfig, AnalysisMainModeIdentifier mainModeIdentifier) {
+			PlanCalcScoreConfigGroup scoreConfig, AnalysisMainModeIdentifier mainModeIdentifier, IterationOutputExecutor outputExecutor) {
 		this.controlerConfigGroup = controlerConfigGroup;
+		this.outputExecutor = outputExecutor;
 		this.population = population1;
 		this.modeFileName = controlerIO.getOutputFilename( FILENAME_MODESTATS ) ;
 		this.createPNG = controlerConfigGroup.isCreateGraphs();
@@ -147,45 +150,57 @@ public final class ModeStatsControlerListener implements StartupListener, Iterat
 			modeHistory.put( event.getIteration(), share ) ;
 		}
 
-		BufferedWriter modeOut = IOUtils.getBufferedWriter(this.modeFileName + ".txt");
-		try {
-			modeOut.write("Iteration");
-			for ( String mode : modes ) {
-				modeOut.write("\t" + mode);
-			}
-			modeOut.write("\n"); ;
-			for (int iter = firstIteration; iter <= event.getIteration(); iter++) {
-				modeOut.write( String.valueOf(iter) ) ;
+		// the output is written from copies of the histories, as they are extended by the next iteration
+		final int iteration = event.getIteration();
+		final int firstIteration = this.firstIteration;
+		final Set<String> modes = new TreeSet<>(this.modes);
+		final Map<String, Map<Integer, Double>> modeHistories = new LinkedHashMap<>();
+		for ( Entry<String, Map<Integer, Double>> entry : this.modeHistories.entrySet() ) {
+			modeHistories.put(entry.getKey(), new TreeMap<>(entry.getValue()));
+		}
+		final boolean createChart = this.createPNG && event.getIteration() > this.minIteration;
+
+		this.outputExecutor.execute(FILENAME_MODESTATS, () -> {
+			BufferedWriter modeOut = IOUtils.getBufferedWriter(this.modeFileName + ".txt");
+			try {
+				modeOut.write("Iteration");
 				for ( String mode : modes ) {
-					modeOut.write( "\t" + modeHistories.get(mode).get(iter)) ;
+					modeOut.write("\t" + mode);
+				}
+				modeOut.write("\n"); ;
+				for (int iter = firstIteration; iter <= iteration; iter++) {
+					modeOut.write( String.valueOf(iter) ) ;
+					for ( String mode : modes ) {
+						modeOut.write( "\t" + modeHistories.get(mode).get(iter)) ;
+					}
+					modeOut.write( "\n" ) ;
 				}
-				modeOut.write( "\n" ) ;
+				modeOut.flush();
+				modeOut.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+				throw new UncheckedIOException(e);
 			}
-			modeOut.flush();
-			modeOut.close();
-		} catch (IOException e) {
-			e.printStackTrace();
-			throw new UncheckedIOException(e);
-		}
 
 
-		// yyyy the following does not work!!
-		// Why? The charts seem to be useful (JB, April 2017)
-		if (this.createPNG && event.getIteration() > this.minIteration) {
-			// create chart when data of more than one iteration is available.
-			XYLineChart chart = new XYLineChart("Mode Statistics", "iteration", "mode");
-			for ( Entry<String, Map<Integer, Double>> entry : this.modeHistories.entrySet() ) {
-				String mode = entry.getKey() ;
-				Map<Integer, Double> history = entry.getValue() ;
-//				log.warn( "about to add the following series:" ) ;
-//				for ( Entry<Integer, Double> item : history.entrySet() ) {
-//					log.warn( item.getKey() + " -- " + item.getValue() );
-//				}
-				chart.addSeries(mode, history ) ;
+			// yyyy the following does not work!!
+			// Why? The charts seem to be useful (JB, April 2017)
+			if (createChart) {
+				// create chart when data of more than one iteration is available.
+				XYLineChart chart = new XYLineChart("Mode Statistics", "iteration", "mode");
+				for ( Entry<String, Map<Integer, Double>> entry : modeHistories.entrySet() ) {
+					String mode = entry.getKey() ;
+					Map<Integer, Double> history = entry.getValue() ;
+//					log.warn( "about to add the following series:" ) ;
+//					for ( Entry<Integer, Double> item : history.entrySet() ) {
+//						log.warn( item.getKey() + " -- " + item.getValue() );
+//					}
+					chart.addSeries(mode, history ) ;
+				}
+				chart.addMatsimLogo();
+				chart.saveAsPng(this.modeFileName + ".png", 800, 600);
 			}
-			chart.addMatsimLogo();
-			chart.saveAsPng(this.modeFileName + ".png", 800, 600);
-		}
+		});
 		modeCnt.clear();
 	}
 
@@ -36,6 +36,7 @@ import org.matsim.api.core.v01.population.Plan;
 import org.matsim.api.core.v01.population.Population;
 import org.matsim.core.config.groups.ControlerConfigGroup;
 import org.matsim.core.config.groups.PlanCalcScoreConfigGroup;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.IterationEndsEvent;
 import org.matsim.core.controler.events.ShutdownEvent;
@@ -75,6 +76,7 @@ public class ScoreStatsControlerListener implements StartupListener, IterationEn
 	
 	private final boolean createPNG;
 	private final ControlerConfigGroup controlerConfigGroup;
+	private final IterationOutputExecutor outputExecutor;
 
 	Map<ScoreItem,Map< Integer, Double>> scoreHistory = new HashMap<>() ;
 	private int minIteration = 0;
@@ -83,8 +85,9 @@ public class ScoreStatsControlerListener implements StartupListener, IterationEn
 
 	@Inject
 	ScoreStatsControlerListener(ControlerConfigGroup controlerConfigGroup, Population population1, OutputDirectoryHierarchy controlerIO,
-			PlanCalcScoreConfigGroup scoreConfig, Provider<TripRouter> tripRouterFactory ) {
+			PlanCalcScoreConfigGroup scoreConfig, Provider<TripRouter> tripRouterFactory, IterationOutputExecutor outputExecutor ) {
 		this.controlerConfigGroup = controlerConfigGroup;
+		this.outputExecutor = outputExecutor;
 		this.population = population1;
 		this.fileName = controlerIO.getOutputFilename(FILENAME_SCORESTATS);
 		this.createPNG = controlerConfigGroup.isCreateGraphs();
@@ -200,17 +203,24 @@ public class ScoreStatsControlerListener implements StartupListener, IterationEn
 
 		if (this.createPNG && event.getIteration() > this.minIteration) {
 			// create chart when data of more than one iteration is available.
-			XYLineChart chart = new XYLineChart("Score Statistics", "iteration", "score");
-//			double[] iterations = new double[index + 1];
-//			for (int i = 0; i <= index; i++) {
-//				iterations[i] = i + this.minIteration;
-//			}
-			chart.addSeries("avg. worst score", this.scoreHistory.get( ScoreItem.worst ) ) ;
-			chart.addSeries("avg. best score", this.scoreHistory.get( ScoreItem.best) );
-			chart.addSeries("avg. of plans' average score", this.scoreHistory.get( ScoreItem.average) );
-			chart.addSeries("avg. executed score", this.scoreHistory.get( ScoreItem.executed ) );
-			chart.addMatsimLogo();
-			chart.saveAsPng(this.fileName + ".png", 800, 600);
+			// The history is copied, as it is extended by the next iteration while the chart may still be drawn.
+			final Map<Integer, Double> worst = new TreeMap<>( this.scoreHistory.get( ScoreItem.worst ) ) ;
+			final Map<Integer, Double> best = new TreeMap<>( this.scoreHistory.get( ScoreItem.best ) ) ;
+			final Map<Integer, Double> average = new TreeMap<>( this.scoreHistory.get( ScoreItem.average ) ) ;
+			final Map<Integer, Double> executed = new TreeMap<>( this.scoreHistory.get( ScoreItem.executed ) ) ;
+			this.outputExecutor.execute(FILENAME_SCORESTATS, () -> {
+				XYLineChart chart = new XYLineChart("Score Statistics", "iteration", "score");
+//				double[] iterations = new double[index + 1];
+//				for (int i = 0; i <= index; i++) {
+//					iterations[i] = i + this.minIteration;
+//				}
+				chart.addSeries("avg. worst score", worst ) ;
+				chart.addSeries("avg. best score", best );
+				chart.addSeries("avg. of plans' average score", average );
+				chart.addSeries("avg. executed score", executed );
+				chart.addMatsimLogo();
+				chart.saveAsPng(this.fileName + ".png", 800, 600);
+			});
 		}
 	}
 
@@ -27,6 +27,7 @@ import org.matsim.api.core.v01.population.Person;
 import org.matsim.api.core.v01.population.Plan;
 import org.matsim.core.config.Config;
 import org.matsim.core.config.groups.ControlerConfigGroup;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.router.TripStructureUtils;
 import org.matsim.core.router.TripStructureUtils.Trip;
@@ -58,6 +59,7 @@ import java.util.stream.Collectors;
 public class TravelDistanceStats {
 
 	private final ControlerConfigGroup controlerConfigGroup;
+	private final IterationOutputExecutor outputExecutor;
 	final private BufferedWriter out;
 	final private String legStatsPngName;
 	final private String tripStatsPngName;
@@ -68,10 +70,10 @@ public class TravelDistanceStats {
 	private final static Logger log = Logger.getLogger(TravelDistanceStats.class);
 
 	@Inject
-	TravelDistanceStats(ControlerConfigGroup controlerConfigGroup, OutputDirectoryHierarchy controlerIO) {
+	TravelDistanceStats(ControlerConfigGroup controlerConfigGroup, OutputDirectoryHierarchy controlerIO, IterationOutputExecutor outputExecutor) {
 		this(controlerConfigGroup, controlerIO.getOutputFilename("traveldistancestats"),
 				controlerIO.getOutputFilename("traveldistancestats") + "legs", 
-				controlerIO.getOutputFilename("traveldistancestats") + "trips", controlerConfigGroup.isCreateGraphs());
+				controlerIO.getOutputFilename("traveldistancestats") + "trips", controlerConfigGroup.isCreateGraphs(), outputExecutor);
 	}
 
 	/**
@@ -80,12 +82,13 @@ public class TravelDistanceStats {
 	 * @throws UncheckedIOException
 	 */
 	public TravelDistanceStats(final Config config, final String filename, final boolean createPNG) throws UncheckedIOException {
-        this(config.controler(), filename, filename + "legs", filename + "trips", createPNG);
+        this(config.controler(), filename, filename + "legs", filename + "trips", createPNG, new IterationOutputExecutor(0));
     }
 
     private TravelDistanceStats(ControlerConfigGroup controlerConfigGroup, String travelDistanceStatsFileName, 
-    		String legStatsPngName, String tripStatsPngName, boolean createPNG) {
+    		String legStatsPngName, String tripStatsPngName, boolean createPNG, IterationOutputExecutor outputExecutor) {
 		this.controlerConfigGroup = controlerConfigGroup;
+		this.outputExecutor = outputExecutor;
 		this.legStatsPngName = legStatsPngName;
 		this.tripStatsPngName = tripStatsPngName;
 		if (createPNG) {
@@ -169,7 +172,7 @@ public class TravelDistanceStats {
 				System.arraycopy(this.legStatsHistory, 0, values, 0, index + 1);
 				chart.addSeries("executed plan", iterations, values);
 				chart.addMatsimLogo();
-				chart.saveAsPng(this.legStatsPngName + ".png", 800, 600);
+				this.outputExecutor.execute(this.legStatsPngName, () -> chart.saveAsPng(this.legStatsPngName + ".png", 800, 600));
 			}
 			if (index == (this.legStatsHistory.length - 1)) {
 				// we cannot store more information, so disable the graph feature.
@@ -192,7 +195,7 @@ public class TravelDistanceStats {
 				System.arraycopy(this.tripStatsHistory, 0, values, 0, index + 1);
 				chart.addSeries("executed plan", iterations, values);
 				chart.addMatsimLogo();
-				chart.saveAsPng(this.tripStatsPngName + ".png", 800, 600);
+				this.outputExecutor.execute(this.tripStatsPngName, () -> chart.saveAsPng(this.tripStatsPngName + ".png", 800, 600));
 			}
 			if (index == (this.tripStatsHistory.length - 1)) {
 				// we cannot store more information, so disable the graph feature.
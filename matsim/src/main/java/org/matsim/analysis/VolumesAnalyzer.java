@@ -23,6 +23,7 @@ package org.matsim.analysis;
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.IdMap;
+import org.matsim.api.core.v01.IdSet;
 import org.matsim.api.core.v01.events.LinkLeaveEvent;
 import org.matsim.api.core.v01.events.VehicleEntersTrafficEvent;
 import org.matsim.api.core.v01.events.handler.LinkLeaveEventHandler;
@@ -33,6 +34,7 @@ import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.vehicles.Vehicle;
 
 import javax.inject.Inject;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
@@ -40,6 +42,9 @@ import java.util.TreeSet;
 
 /**
  * Counts the number of vehicles leaving a link, aggregated into time bins of a specified size.
+ * <p>
+ * The volumes are stored in arrays indexed by the {@link Id#index() index} of the link ids, so that handling an
+ * event requires no hashing.
  *
  * @author mrieser
  */
@@ -49,12 +54,12 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 	private final int timeBinSize;
 	private final int maxTime;
 	private final int maxSlotIndex;
-	private final IdMap<Link, int[]> links;
+	private final LinkVolumes links;
 	
 	// for multi-modal support
 	private final boolean observeModes;
-	private final IdMap<Vehicle, String> enRouteModes;
-	private final IdMap<Link, Map<String, int[]>> linksPerMode;
+	private final IdMap<Vehicle, LinkVolumes> enRouteModes;
+	private final Map<String, LinkVolumes> linksPerMode;
 
 	@Inject
 	VolumesAnalyzer(Network network, EventsManager eventsManager) {
@@ -70,12 +75,12 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 		this.timeBinSize = timeBinSize;
 		this.maxTime = maxTime;
 		this.maxSlotIndex = (this.maxTime/this.timeBinSize) + 1;
-		this.links = new IdMap<>(Link.class);
+		this.links = new LinkVolumes(this.maxSlotIndex + 1, network == null ? 0 : network.getLinks().size());
 		
 		this.observeModes = observeModes;
 		if (this.observeModes) {
 			this.enRouteModes = new IdMap<>(Vehicle.class);
-			this.linksPerMode = new IdMap<>(Link.class);
+			this.linksPerMode = new HashMap<>();
 		} else {
 			this.enRouteModes = null;
 			this.linksPerMode = null;
@@ -85,33 +90,25 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 	@Override
 	public void handleEvent(VehicleEntersTrafficEvent event) {
 		if (this.observeModes) {
-			this.enRouteModes.put(event.getVehicleId(), event.getNetworkMode());
+			// the vehicle directly refers to the volumes of its mode, so that the mode needs not be looked up per link
+			LinkVolumes modeVolumes = this.linksPerMode.computeIfAbsent(event.getNetworkMode(), mode -> new LinkVolumes(this.links.slots, 0));
+			this.enRouteModes.put(event.getVehicleId(), modeVolumes);
 		}
 	}
 	
 	@Override
 	public void handleEvent(final LinkLeaveEvent event) {
-		int[] volumes = this.links.get(event.getLinkId());
-		if (volumes == null) {
-			volumes = new int[this.maxSlotIndex + 1]; // initialized to 0 by default, according to JVM specs
-			this.links.put(event.getLinkId(), volumes);
-		}
+		int linkIndex = event.getLinkId().index();
 		int timeslot = getTimeSlotIndex(event.getTime());
-		volumes[timeslot]++;
+		this.links.getOrCreate(linkIndex)[timeslot]++;
 		
 		if (this.observeModes) {
-			Map<String, int[]> modeVolumes = this.linksPerMode.get(event.getLinkId());
+			LinkVolumes modeVolumes = this.enRouteModes.get(event.getVehicleId());
 			if (modeVolumes == null) {
-				modeVolumes = new HashMap<>();
-				this.linksPerMode.put(event.getLinkId(), modeVolumes);
-			}
-			String mode = this.enRouteModes.get(event.getVehicleId());
-			volumes = modeVolumes.get(mode);
-			if (volumes == null) {
-				volumes = new int[this.maxSlotIndex + 1]; // initialized to 0 by default, according to JVM specs
-				modeVolumes.put(mode, volumes);
+				// vehicles which did not enter traffic are counted for mode null, as they have always been
+				modeVolumes = this.linksPerMode.computeIfAbsent(null, mode -> new LinkVolumes(this.links.slots, 0));
 			}
-			volumes[timeslot]++;
+			modeVolumes.getOrCreate(linkIndex)[timeslot]++;
 		}
 	}
 
@@ -128,7 +125,7 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 	 * 		starting with time bin 0 from 0 seconds to (timeBinSize-1)seconds.
 	 */
 	public int[] getVolumesForLink(final Id<Link> linkId) {
-		return this.links.get(linkId);
+		return this.links.get(linkId.index());
 	}
 	
 	/**
@@ -139,8 +136,8 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 	 */
 	public int[] getVolumesForLink(final Id<Link> linkId, String mode) {
 		if (observeModes) {
-			Map<String, int[]> modeVolumes = this.linksPerMode.get(linkId);
-			if (modeVolumes != null) return modeVolumes.get(mode);
+			LinkVolumes modeVolumes = this.linksPerMode.get(mode);
+			if (modeVolumes != null) return modeVolumes.get(linkId.index());
 		} 
 		return null;
 	}
@@ -178,9 +175,21 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 		if (3600.0 % this.timeBinSize != 0) log.error("Volumes per hour and per link probably not correct!");
 		
 		double[] volumes = new double[24];
-		
-		int[] volumesForLink = this.getVolumesForLink(linkId);
-		if (volumesForLink == null) return volumes;
+		addVolumesPerHour(this.getVolumesForLink(linkId), volumes);
+		return volumes;
+	}
+
+	/**
+	 * Same as {@link #getVolumesPerHourForLink(Id)}, but fills the given array of length 24 instead of creating a
+	 * new one, for callers going through all links.
+	 */
+	void getVolumesPerHourForLink(final Id<Link> linkId, final double[] volumes) {
+		Arrays.fill(volumes, 0.0);
+		addVolumesPerHour(this.getVolumesForLink(linkId), volumes);
+	}
+
+	private void addVolumesPerHour(final int[] volumesForLink, final double[] volumes) {
+		if (volumesForLink == null) return;
 
 		int slotsPerHour = (int)(3600.0 / this.timeBinSize);
 		for (int hour = 0; hour < 24; hour++) {
@@ -190,7 +199,6 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 				time += this.timeBinSize;
 			}
 		}
-		return volumes;
 	}
 
 	public double[] getVolumesPerHourForLink(final Id<Link> linkId, String mode) {
@@ -198,21 +206,7 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 			if (3600.0 % this.timeBinSize != 0) log.error("Volumes per hour and per link probably not correct!");
 			
 			double [] volumes = new double[24];
-			for (int hour = 0; hour < 24; hour++) {
-				volumes[hour] = 0.0;
-			}
-			
-			int[] volumesForLink = this.getVolumesForLink(linkId, mode);
-			if (volumesForLink == null) return volumes;
-	
-			int slotsPerHour = (int)(3600.0 / this.timeBinSize);
-			for (int hour = 0; hour < 24; hour++) {
-				double time = hour * 3600.0;
-				for (int i = 0; i < slotsPerHour; i++) {
-					volumes[hour] += volumesForLink[this.getTimeSlotIndex(time)];
-					time += this.timeBinSize;
-				}
-			}
+			addVolumesPerHour(this.getVolumesForLink(linkId, mode), volumes);
 			return volumes;
 		}
 		return null;
@@ -224,8 +218,10 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 	public Set<String> getModes() {
 		Set<String> modes = new TreeSet<>();
 		
-		for (Map<String, int[]> map : this.linksPerMode.values()) {
-			modes.addAll(map.keySet());
+		for (Map.Entry<String, LinkVolumes> entry : this.linksPerMode.entrySet()) {
+			if (entry.getValue().linkCount > 0) {
+				modes.add(entry.getKey());
+			}
 		}
 		
 		return modes;
@@ -235,7 +231,14 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 	 * @return Set of Strings containing all link ids for which counting-values are available.
 	 */
 	public Set<Id<Link>> getLinkIds() {
-		return this.links.keySet();
+		IdSet<Link> linkIds = new IdSet<>(Link.class, this.links.linkCount);
+		int[][] volumes = this.links.volumes;
+		for (int i = 0; i < volumes.length; i++) {
+			if (volumes[i] != null) {
+				linkIds.add(Id.get(i, Link.class));
+			}
+		}
+		return linkIds;
 	}
 
 	@Override
@@ -246,4 +249,42 @@ public class VolumesAnalyzer implements LinkLeaveEventHandler, VehicleEntersTraf
 			this.enRouteModes.clear();
 		}
 	}
+
+	/*
+	 * The volumes of all links, or of all links for one mode, with the volumes of a link at the index of its id.
+	 * The arrays of a link are only created once a vehicle leaves it.
+	 */
+	private static final class LinkVolumes {
+		private final int slots;
+		private int[][] volumes;
+		private int linkCount = 0;
+
+		LinkVolumes(final int slots, final int expectedLinkCount) {
+			this.slots = slots;
+			this.volumes = new int[expectedLinkCount][];
+		}
+
+		int[] get(final int linkIndex) {
+			return linkIndex < this.volumes.length ? this.volumes[linkIndex] : null;
+		}
+
+		int[] getOrCreate(final int linkIndex) {
+			if (linkIndex >= this.volumes.length) {
+				this.volumes = Arrays.copyOf(this.volumes, Math.max(linkIndex + 1, 2 * this.volumes.length));
+			}
+			int[] linkVolumes = this.volumes[linkIndex];
+			if (linkVolumes == null) {
+				linkVolumes = new int[this.slots]; // initialized to 0 by default, according to JVM specs
+				this.volumes[linkIndex] = linkVolumes;
+				this.linkCount++;
+			}
+			return linkVolumes;
+		}
+
+		void clear() {
+			// the arrays may still be referenced by users of the previous iteration's volumes, so they are not re-used
+			Arrays.fill(this.volumes, null);
+			this.linkCount = 0;
+		}
+	}
 }
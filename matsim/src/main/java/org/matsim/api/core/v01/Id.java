@@ -23,12 +23,9 @@ package org.matsim.api.core.v01;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Node;
 import org.matsim.api.core.v01.population.Person;
-import org.matsim.core.gbl.Gbl;
 import org.matsim.vehicles.Vehicle;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 
@@ -43,8 +40,7 @@ import java.util.concurrent.ConcurrentMap;
  */
 public abstract class Id<T> implements Comparable<Id<T>> {
 
-	private final static ConcurrentMap<Class<?>, ConcurrentMap<String, Id<?>>> cacheId = new ConcurrentHashMap<>();
-	private final static ConcurrentMap<Class<?>, List<Id<?>>> cacheIndex = new ConcurrentHashMap<>();
+	private final static ConcurrentMap<Class<?>, IdRegistry<?>> registries = new ConcurrentHashMap<>();
 
 	/** Resets all internal caches used by this class.
 	 * <em>This method must only be called from JUnit-Tests.</em>
@@ -61,8 +57,26 @@ public abstract class Id<T> implements Comparable<Id<T>> {
 		if (!fromJUnit) {
 			throw new RuntimeException("This method can only be called from JUnit-Tests, but not in normal code!");
 		}
-		cacheId.clear();
-		cacheIndex.clear();
+		// the registries are cleared instead of removed, as they may be referenced by readers or IdMaps
+		for (IdRegistry<?> registry : registries.values()) {
+			registry.clear();
+		}
+	}
+
+	/**
+	 * @return the registry holding all Ids of the given type
+	 */
+	@SuppressWarnings("unchecked")
+	public static <T> IdRegistry<T> getRegistry(final Class<T> type) {
+		IdRegistry<?> registry = registries.get(type);
+		if (registry == null) {
+			registry = registries.computeIfAbsent(type, k -> new IdRegistry<>());
+		}
+		return (IdRegistry<T>) registry;
+	}
+
+	/*package*/ static <T> Id<T> createIdImpl(final String key, final int index) {
+		return new IdImpl<>(key, index);
 	}
 
 	public static <T> Id<T> create(final long key, final Class<T> type) {
@@ -78,50 +92,34 @@ public abstract class Id<T> implements Comparable<Id<T>> {
 
 	/**
 	 * This method supports a cache where ids are stored and re-used per type.
+	 * When creating many Ids of the same type, consider using the {@link #getRegistry(Class) registry} of the type directly.
 	 */
 	public static <T> Id<T> create(final String key, final Class<T> type) {
-		Gbl.assertNotNull(key);
-
-		ConcurrentMap<String, Id<?>> mapId = cacheId.computeIfAbsent(type, k -> new ConcurrentHashMap<>(1000));
-
-		Id<?> id = mapId.get(key);
-		if (id == null) {
-			//Double-Checked Locking works: mapId is concurrent and IdImpl is immutable
-			synchronized (mapId) {
-				id = mapId.get(key);
-				if (id == null) {
-					// cannot use cacheIndex.computeIfAbsent():
-					// split into cacheIndex.get() and put() so that mapIndex.add() "happens-before" mapIndex.get()
-					// alternatives:
-					// (1) synchronise mapIndex.get() calls (on mapIndex)
-					// (2) use cacheIndex.compute() instead of get() and put() ==> less readable code...
-					List<Id<?>> mapIndex = mapId.isEmpty() ? new ArrayList<>(1000) : cacheIndex.get(type);
-					int index = mapIndex.size();
-					id = new IdImpl<T>(key, index);
-					mapIndex.add(id);
-					cacheIndex.put(type, mapIndex);
-					mapId.put(key, id);
-				}
-			}
-		}
-		return (Id<T>)id;
+		return getRegistry(type).create(key);
 	}
 
 	public abstract int index();
 
 	public static <T> Id<T> get(int index, final Class<T> type) {
-		List<Id<?>> mapIndex = cacheIndex.get(type);
-		return mapIndex == null ? null : (Id<T>)mapIndex.get(index);
+		IdRegistry<?> registry = registries.get(type);
+		return registry == null ? null : (Id<T>) registry.get(index);
+	}
+
+	/**
+	 * @return the Ids with the given indices, in the same order
+	 */
+	public static <T> List<Id<T>> get(final int[] indices, final Class<T> type) {
+		return getRegistry(type).get(indices, 0, indices.length);
 	}
 
 	public static <T> Id<T> get(String id, final Class<T> type) {
-		Map<String, Id<?>> mapId = cacheId.get(type);
-		return mapId == null ? null : (Id<T>)mapId.get(id);
+		IdRegistry<?> registry = registries.get(type);
+		return registry == null ? null : (Id<T>) registry.get(id);
 	}
 
 	public static <T> int getNumberOfIds(final Class<T> type) {
-		Map<String, Id<?>> mapId = cacheId.get(type);
-		return mapId == null ? 0 : mapId.size();
+		IdRegistry<?> registry = registries.get(type);
+		return registry == null ? 0 : registry.size();
 	}
 
 	/**
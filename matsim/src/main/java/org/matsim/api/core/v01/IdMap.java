@@ -17,7 +17,7 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 
 	private static final int INCREMENT = 100;
 	private static final float INCREMENT_FACTOR = 1.5f;
-	private Class<T> idClass;
+	private final IdRegistry<T> idRegistry;
 	private int size = 0;
 	private Object[] data;
 
@@ -26,7 +26,7 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 	}
 
 	public IdMap(Class<T> idClass, int size) {
-		this.idClass = idClass;
+		this.idRegistry = Id.getRegistry(idClass);
 		this.data = new Object[size];
 	}
 
@@ -191,7 +191,7 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 		for (int i = 0; i < this.data.length; i++) {
 			Object o = this.data[i];
 			if (o != null) {
-				action.accept(Id.get(i, this.idClass), (V) o);
+				action.accept(this.idRegistry.get(i), (V) o);
 			}
 		}
 	}
@@ -438,13 +438,13 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 	private static class IdIterator<T, D> implements Iterator<Id<T>> {
 
 		private final D[] data;
-		private final Class<T> idClass;
+		private final IdRegistry<T> idRegistry;
 		private int index = 0;
 		private Id<T> next;
 
-		IdIterator(D[] data, Class<T> idClass) {
+		IdIterator(D[] data, IdRegistry<T> idRegistry) {
 			this.data = data;
-			this.idClass = idClass;
+			this.idRegistry = idRegistry;
 			findNext();
 		}
 
@@ -452,7 +452,7 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 			this.next = null;
 			while (this.next == null && this.index < this.data.length) {
 				if (this.data[this.index] != null) {
-					this.next = Id.get(this.index, this.idClass);
+					this.next = this.idRegistry.get(this.index);
 				}
 				this.index++;
 			}
@@ -496,7 +496,7 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 
 		@Override
 		public Iterator<Id<T>> iterator() {
-			return new IdIterator<>(this.map.data, this.map.idClass);
+			return new IdIterator<>(this.map.data, this.map.idRegistry);
 		}
 
 		@Override
@@ -519,7 +519,7 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 			Object[] values = this.map.data;
 			for (int i = 0; i < values.length; i++) {
 				if (values[i] != null) {
-					keys[count] = Id.get(i, this.map.idClass);
+					keys[count] = this.map.idRegistry.get(i);
 					count++;
 				}
 			}
@@ -560,7 +560,7 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 			boolean changed = false;
 			for (int i = 0; i < this.map.data.length; i++) {
 				if (this.map.data[i] != null) {
-					Id<T> t = Id.get(i, this.map.idClass);
+					Id<T> t = this.map.idRegistry.get(i);
 					if (!ids.contains(t)) {
 						this.map.data[i] = null;
 						this.map.size--;
@@ -582,7 +582,7 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 			boolean changed = false;
 			for (int i = 0; i < this.map.data.length; i++) {
 				if (this.map.data[i] != null) {
-					Id<T> t = Id.get(i, this.map.idClass);
+					Id<T> t = this.map.idRegistry.get(i);
 					if (ids.contains(t)) {
 						this.map.data[i] = null;
 						this.map.size--;
@@ -787,7 +787,7 @@ public class IdMap<T, V> implements Map<Id<T>, V>, Iterable<V> {
 
 		@Override
 		public Id<T> getKey() {
-			return Id.get(this.index, this.map.idClass);
+			return this.map.idRegistry.get(this.index);
 		}
 
 		@Override
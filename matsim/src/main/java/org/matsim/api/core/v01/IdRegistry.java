@@ -0,0 +1,144 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * IdRegistry.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.api.core.v01;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.matsim.core.gbl.Gbl;
+
+/**
+ * Holds all {@link Id}s of one type, and assigns them their dense {@link Id#index() index}.
+ * <p>
+ * There is exactly one registry per type, see {@link Id#getRegistry(Class)}. Code that creates or looks
+ * up many Ids of the same type, like file readers, can keep a reference to the registry and thus avoids
+ * looking up the registry of the type for every Id.
+ * <p>
+ * The Ids are stored by their index in a table of fixed-size chunks, which only grows and is never copied
+ * except for the small array of chunks. Ids are only added while holding the lock of the registry, looking
+ * them up by their key or index does not lock.
+ */
+public final class IdRegistry<T> {
+
+	private static final int CHUNK_BITS = 12;
+	private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+	private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+	private volatile ConcurrentMap<String, Id<T>> ids = new ConcurrentHashMap<>(1000);
+	private volatile Id<?>[][] chunks = new Id<?>[16][];
+	private volatile int size = 0;
+
+	/*package*/ IdRegistry() {
+	}
+
+	/**
+	 * @return the Id with the given key, which is created if it does not yet exist.
+	 */
+	public Id<T> create(final String key) {
+		Gbl.assertNotNull(key);
+		Id<T> id = this.ids.get(key);
+		if (id == null) {
+			synchronized (this) {
+				id = this.ids.get(key);
+				if (id == null) {
+					id = add(key);
+				}
+			}
+		}
+		return id;
+	}
+
+	private Id<T> add(final String key) {
+		int index = this.size;
+		int chunk = index >>> CHUNK_BITS;
+		Id<?>[][] chunks = this.chunks;
+		if (chunk == chunks.length) {
+			chunks = Arrays.copyOf(chunks, 2 * chunks.length);
+		}
+		if (chunks[chunk] == null) {
+			chunks[chunk] = new Id<?>[CHUNK_SIZE];
+		}
+		Id<T> id = Id.createIdImpl(key, index);
+		chunks[chunk][index & CHUNK_MASK] = id;
+		// the writes to the volatile fields publish the id to readers of the table
+		this.chunks = chunks;
+		this.size = index + 1;
+		// an id can only be looked up by its index after it has been found by its key
+		this.ids.put(key, id);
+		return id;
+	}
+
+	/**
+	 * @return the Id with the given key, or <code>null</code> if it does not exist.
+	 */
+	public Id<T> get(final String key) {
+		return this.ids.get(key);
+	}
+
+	/**
+	 * @return the Id with the given index
+	 * @throws IndexOutOfBoundsException if there is no Id with the given index
+	 */
+	@SuppressWarnings("unchecked")
+	public Id<T> get(final int index) {
+		if (index < 0 || index >= this.size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+		}
+		return (Id<T>) this.chunks[index >>> CHUNK_BITS][index & CHUNK_MASK];
+	}
+
+	/**
+	 * Looks up the Ids with the given indices, e.g. all links of a route.
+	 *
+	 * @return the Ids in the order of their indices
+	 * @throws IndexOutOfBoundsException if there is no Id for one of the indices
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Id<T>> get(final int[] indices, final int from, final int to) {
+		int size = this.size;
+		Id<?>[][] chunks = this.chunks;
+		List<Id<T>> result = new ArrayList<>(to - from);
+		for (int i = from; i < to; i++) {
+			int index = indices[i];
+			if (index < 0 || index >= size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+			}
+			result.add((Id<T>) chunks[index >>> CHUNK_BITS][index & CHUNK_MASK]);
+		}
+		return result;
+	}
+
+	/**
+	 * @return the number of Ids of this type, which is also the smallest index not yet used.
+	 */
+	public int size() {
+		return this.size;
+	}
+
+	/*package*/ synchronized void clear() {
+		this.ids = new ConcurrentHashMap<>(1000);
+		this.chunks = new Id<?>[16][];
+		this.size = 0;
+	}
+}
@@ -8,6 +8,7 @@ import java.util.*;
 public class IdSet<T> implements Set<Id<T>> {
 
 	private Class<T> idClass;
+	private final IdRegistry<T> idRegistry;
 	private int size = 0;
 	private BitSet data;
 
@@ -17,6 +18,7 @@ public class IdSet<T> implements Set<Id<T>> {
 
 	public IdSet(Class<T> idClass, int size) {
 		this.idClass = idClass;
+		this.idRegistry = Id.getRegistry(idClass);
 		this.data = new BitSet(size);
 	}
 
@@ -57,7 +59,7 @@ public class IdSet<T> implements Set<Id<T>> {
 			if (index < 0) {
 				break;
 			}
-			array[count] = Id.get(index, this.idClass);
+			array[count] = this.idRegistry.get(index);
 			count++;
 			index++;
 		}
@@ -82,7 +84,7 @@ public class IdSet<T> implements Set<Id<T>> {
 			if (index < 0) {
 				break;
 			}
-			array[count] = Id.get(index, this.idClass);
+			array[count] = this.idRegistry.get(index);
 			count++;
 			index++;
 		}
@@ -164,7 +166,7 @@ public class IdSet<T> implements Set<Id<T>> {
 		while (true) {
 			index = this.data.nextSetBit(index);
 			if (index >= 0) {
-				Id<T> id = Id.get(index, this.idClass);
+				Id<T> id = this.idRegistry.get(index);
 				if (!c.contains(id)) {
 					this.data.clear(index);
 					this.size--;
@@ -267,7 +269,7 @@ public class IdSet<T> implements Set<Id<T>> {
 			int index = this.set.data.nextSetBit(this.currentIndex + 1);
 			if (index >= 0) {
 				this.currentIndex = index;
-				return Id.get(index, this.set.idClass);
+				return this.set.idRegistry.get(index);
 			}
 			throw new NoSuchElementException();
 		}
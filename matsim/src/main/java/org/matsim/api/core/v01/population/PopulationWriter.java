@@ -37,6 +37,7 @@ public final class PopulationWriter implements MatsimWriter {
 	private final Population population;
 	private final Network network;
 	private final Map<Class<?>,AttributeConverter<?>> attributeConverters = new HashMap<>();
+	private int numberOfThreads = 1;
 
 	public PopulationWriter(
 			final CoordinateTransformation transformation,
@@ -69,6 +70,14 @@ public final class PopulationWriter implements MatsimWriter {
 		this.attributeConverters.putAll( converters );
 	}
 
+	/**
+	 * Sets the number of threads used for formatting and compressing the population,
+	 * see {@link org.matsim.core.population.io.PopulationWriter#setNumberOfThreads(int)}.
+	 */
+	public void setNumberOfThreads( final int numberOfThreads ) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 	/**
 	 * Writes the population in the most current format (currently population_v6.dtd).
 	 */
@@ -87,7 +96,10 @@ public final class PopulationWriter implements MatsimWriter {
 	 * @param filename
 	 */
 	public void writeV4(final String filename) {
-		new org.matsim.core.population.io.PopulationWriter(transformation , this.population, this.network).writeV4(filename);
+		final org.matsim.core.population.io.PopulationWriter writer =
+				new org.matsim.core.population.io.PopulationWriter(transformation , this.population, this.network);
+		writer.setNumberOfThreads( numberOfThreads );
+		writer.writeV4(filename);
 	}
 
 	/**
@@ -96,7 +108,10 @@ public final class PopulationWriter implements MatsimWriter {
 	 * @param filename
 	 */
 	public void writeV5(final String filename) {
-		new org.matsim.core.population.io.PopulationWriter( transformation , this.population, this.network).writeV5(filename);
+		final org.matsim.core.population.io.PopulationWriter writer =
+				new org.matsim.core.population.io.PopulationWriter( transformation , this.population, this.network);
+		writer.setNumberOfThreads( numberOfThreads );
+		writer.writeV5(filename);
 	}
 
 	/**
@@ -108,6 +123,7 @@ public final class PopulationWriter implements MatsimWriter {
 		final org.matsim.core.population.io.PopulationWriter writer =
 				new org.matsim.core.population.io.PopulationWriter( transformation , this.population, this.network);
 		writer.putAttributeConverters( attributeConverters );
+		writer.setNumberOfThreads( numberOfThreads );
 		writer.writeV6(filename);
 	}
 
@@ -115,6 +131,7 @@ public final class PopulationWriter implements MatsimWriter {
 		final org.matsim.core.population.io.PopulationWriter writer =
 				new org.matsim.core.population.io.PopulationWriter( transformation , this.population, this.network);
 		writer.putAttributeConverters( attributeConverters );
+		writer.setNumberOfThreads( numberOfThreads );
 		writer.writeV6(stream);
 	}
 }
@@ -66,6 +66,9 @@ public final class ControlerConfigGroup extends ReflectiveConfigGroup {
 	private static final String OVERWRITE_FILE = "overwriteFiles";
 	private static final String CREATE_GRAPHS = "createGraphs";
 	private static final String DUMP_DATA_AT_END = "dumpDataAtEnd";
+	private static final String NUMBER_OF_OUTPUT_WRITING_THREADS = "numberOfOutputWritingThreads";
+	private static final String WRITE_CHECKPOINTS_INTERVAL = "writeCheckpointsInterval";
+	private static final String INPUT_CHECKPOINT_FILE = "inputCheckpointFile";
 	private static final String COMPRESSION_TYPE = "compressionType";
 
 	/*package*/ static final String MOBSIM = "mobsim";
@@ -92,6 +95,9 @@ public final class ControlerConfigGroup extends ReflectiveConfigGroup {
 	private int writeSnapshotsInterval = 1;
 	private boolean createGraphs = true;
 	private boolean dumpDataAtEnd = true;
+	private int numberOfOutputWritingThreads = 0;
+	private int writeCheckpointsInterval = 0;
+	private String inputCheckpointFile = null;
 	private CompressionType compressionType = CompressionType.gzip;
 	private OverwriteFileSetting overwriteFileSetting = OverwriteFileSetting.failIfDirectoryExists;
 
@@ -136,6 +142,15 @@ public final class ControlerConfigGroup extends ReflectiveConfigGroup {
 		map.put(WRITE_SNAPSHOTS_INTERVAL, "iterationNumber % " + WRITE_SNAPSHOTS_INTERVAL + " == 0 defines in which iterations snapshots are written " +
 				"to a file. `0' disables snapshots writing completely");
 		map.put(DUMP_DATA_AT_END, "true if at the end of a run, plans, network, config etc should be dumped to a file");
+		map.put(NUMBER_OF_OUTPUT_WRITING_THREADS, "Number of threads writing statistics files and charts in the background, while the " +
+				"next iteration already starts. All output is complete at the end of the run. `0' (the default) writes all output " +
+				"before the next iteration starts.");
+		map.put(WRITE_CHECKPOINTS_INTERVAL, "iterationNumber % writeCheckpointsInterval == 0 defines in which iterations a checkpoint is " +
+				"written at the end of the iteration, from which the run can be continued. `0' (the default) disables checkpoints.");
+		map.put(INPUT_CHECKPOINT_FILE, "A checkpoint to continue a run from. The population and the travel times are taken from the " +
+				"checkpoint, so the plans file is not needed. The firstIteration has to be the iteration after the checkpoint. " +
+				"Note that fractionOfIterationsToDisableInnovation refers to the iterations of the continued run; use disableAfter " +
+				"to get the same results as without interruption.");
 		return map;
 	}
 
@@ -382,6 +397,36 @@ public final class ControlerConfigGroup extends ReflectiveConfigGroup {
 	public void setDumpDataAtEnd(boolean dumpDataAtEnd) {
 		this.dumpDataAtEnd = dumpDataAtEnd;
 	}
+
+	@StringGetter(NUMBER_OF_OUTPUT_WRITING_THREADS)
+	public int getNumberOfOutputWritingThreads() {
+		return numberOfOutputWritingThreads;
+	}
+
+	@StringSetter(NUMBER_OF_OUTPUT_WRITING_THREADS)
+	public void setNumberOfOutputWritingThreads(int numberOfOutputWritingThreads) {
+		this.numberOfOutputWritingThreads = numberOfOutputWritingThreads;
+	}
+
+	@StringGetter(WRITE_CHECKPOINTS_INTERVAL)
+	public int getWriteCheckpointsInterval() {
+		return writeCheckpointsInterval;
+	}
+
+	@StringSetter(WRITE_CHECKPOINTS_INTERVAL)
+	public void setWriteCheckpointsInterval(int writeCheckpointsInterval) {
+		this.writeCheckpointsInterval = writeCheckpointsInterval;
+	}
+
+	@StringGetter(INPUT_CHECKPOINT_FILE)
+	public String getInputCheckpointFile() {
+		return inputCheckpointFile;
+	}
+
+	@StringSetter(INPUT_CHECKPOINT_FILE)
+	public void setInputCheckpointFile(String inputCheckpointFile) {
+		this.inputCheckpointFile = inputCheckpointFile;
+	}
 	// ---
 	int writePlansUntilIteration = 1 ;
 	public int getWritePlansUntilIteration() {
@@ -37,11 +37,13 @@ public final class FacilitiesConfigGroup extends ReflectiveConfigGroup {
 	private static final String INPUT_FACILITY_ATTRIBUTES_FILE = "inputFacilityAttributesFile";
 	private static final String INPUT_CRS = "inputCRS";
 	private static final String INSISTING_ON_USING_DEPRECATED_ATTRIBUTE_FILE = "insistingOnUsingDeprecatedFacilitiesAttributeFile" ;
+	private static final String CONVERTING_ATTRIBUTES_LAZILY = "convertingAttributesLazily";
 
 	private String inputFile = null;
 	private String inputFacilitiesAttributesFile = null;
 	private String inputCRS = null;
 	private boolean insistingOnUsingDeprecatedPersonAttributeFile = false ;
+	private boolean convertingAttributesLazily = false;
 
 	// following params are required only if activitiesFacilities are generated internally (e.g., FacilitiesSource.onePerActivityLocationInPlansFile). Amit Jan'18
 	private String idPrefix = "f_auto_";
@@ -89,6 +91,9 @@ public final class FacilitiesConfigGroup extends ReflectiveConfigGroup {
 
 		comments.put( ID_PREFIX, "A prefix to be used for auto-generated IDs.");
 
+		comments.put( CONVERTING_ATTRIBUTES_LAZILY, "If true, the values of the attributes in the facilities file are only " +
+				"converted when they are accessed the first time. default=false.");
+
 //		comments.put(ONE_FACILITY_PER_LINK, "Sets whether all activities on a link should be collected within one ActivityFacility." +
 //				" Default is 'true'. If set to 'false', for each coordinate found in the population's activities a separate ActivityFacility will be created.");
 
@@ -211,6 +216,15 @@ public final class FacilitiesConfigGroup extends ReflectiveConfigGroup {
 		return insistingOnUsingDeprecatedPersonAttributeFile;
 	}
 
+	@StringSetter(CONVERTING_ATTRIBUTES_LAZILY)
+	public void setConvertingAttributesLazily(final boolean convertingAttributesLazily) {
+		this.convertingAttributesLazily = convertingAttributesLazily;
+	}
+	@StringGetter(CONVERTING_ATTRIBUTES_LAZILY)
+	public boolean isConvertingAttributesLazily() {
+		return this.convertingAttributesLazily;
+	}
+
 ////	@StringGetter(ADD_EMPTY_ACTIVITY_OPTIONS)
 //	public boolean isAddEmptyActivityOption() {
 //		return addEmptyActivityOption;
@@ -91,6 +91,14 @@ public final class PlansConfigGroup extends ReflectiveConfigGroup {
 		comments.put(REMOVING_UNNECESSARY_PLAN_ATTRIBUTES, "(not tested) will remove plan attributes that are presumably not used, such as " +
                 "activityStartTime. default=false. Use with Caution!");
 
+		comments.put(COMPACTING_NON_SELECTED_PLANS, "If true, the plan elements of plans which are not selected are kept in a compact, " +
+				"serialized form at the end of every iteration, and are restored when they are accessed again. Reduces the memory " +
+				"needed by large populations with many plans per person. default=false.");
+
+		comments.put(CONVERTING_ATTRIBUTES_LAZILY, "If true, the values of the attributes in the population file are kept as " +
+				"they were read and are only converted when they are accessed the first time. Saves time and memory when reading " +
+				"populations with many attributes of which only few are used. default=false.");
+
 		comments.put( INPUT_CRS , "The Coordinates Reference System in which the coordinates are expressed in the input file." +
 				" At import, the coordinates will be converted to the coordinate system defined in \"global\", and will" +
 				"be converted back at export. If not specified, no conversion happens." );
@@ -218,6 +226,30 @@ public final class PlansConfigGroup extends ReflectiveConfigGroup {
 	}
 
 
+	private static final String COMPACTING_NON_SELECTED_PLANS = "compactingNonSelectedPlans";
+	private boolean compactingNonSelectedPlans = false;
+	@StringGetter(COMPACTING_NON_SELECTED_PLANS)
+	public boolean isCompactingNonSelectedPlans() {
+		return this.compactingNonSelectedPlans;
+	}
+	@StringSetter(COMPACTING_NON_SELECTED_PLANS)
+	public void setCompactingNonSelectedPlans(final boolean compactingNonSelectedPlans) {
+		this.compactingNonSelectedPlans = compactingNonSelectedPlans;
+	}
+
+
+	private static final String CONVERTING_ATTRIBUTES_LAZILY = "convertingAttributesLazily";
+	private boolean convertingAttributesLazily = false;
+	@StringGetter(CONVERTING_ATTRIBUTES_LAZILY)
+	public boolean isConvertingAttributesLazily() {
+		return this.convertingAttributesLazily;
+	}
+	@StringSetter(CONVERTING_ATTRIBUTES_LAZILY)
+	public void setConvertingAttributesLazily(final boolean convertingAttributesLazily) {
+		this.convertingAttributesLazily = convertingAttributesLazily;
+	}
+
+
 	@StringGetter( INPUT_CRS )
 	public String getInputCRS() {
 		return inputCRS;
@@ -142,7 +142,8 @@ import org.matsim.utils.MemoryObserver;
             }
         });
 
-        if (iteration > config.controler().getFirstIteration()) {
+        // when continuing from a checkpoint, the first iteration is replanned, as it would have been in the original run
+        if (iteration > config.controler().getFirstIteration() || config.controler().getInputCheckpointFile() != null) {
             iterationStep("replanning", new Runnable() {
                 @Override
                 public void run() {
@@ -93,6 +93,7 @@ public final class Controler implements ControlerI, MatsimServices, AllowsConfig
 		tripscsv("trips.csv"),
         personscsv("persons.csv"),
         legscsv("legs.csv"),
+		checkpoint("checkpoint.bin"),
         ;
 
 		final String filename;
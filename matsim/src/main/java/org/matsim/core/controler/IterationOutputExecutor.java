@@ -0,0 +1,164 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * IterationOutputExecutor.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.inject.Inject;
+
+import org.apache.log4j.Logger;
+import org.matsim.core.config.groups.ControlerConfigGroup;
+import org.matsim.core.controler.events.ShutdownEvent;
+import org.matsim.core.controler.listener.ShutdownListener;
+
+/**
+ * Writes output files in the background, so that the next iteration can start while the output of the previous
+ * one is still being written, see {@link ControlerConfigGroup#getNumberOfOutputWritingThreads()}.
+ * <p>
+ * Tasks handed over must only use data which is not modified anymore, i.e. the caller has to take a copy of
+ * everything that changes in later iterations. Tasks writing the same output are executed one after the other
+ * in the order they were handed over, so that e.g. a chart over all iterations is never overwritten by the chart
+ * of an earlier iteration. At most two tasks per thread are pending, handing over more tasks blocks until one has
+ * finished. If a task fails, the exception is re-thrown by the next call to {@link #execute(String, Runnable)} or
+ * {@link #flush()}.
+ * <p>
+ * All pending output is written at shutdown. Tasks handed over after shutdown, and all tasks if no threads are
+ * configured, are executed right away by the calling thread.
+ */
+public final class IterationOutputExecutor implements ShutdownListener {
+
+	private static final Logger log = Logger.getLogger(IterationOutputExecutor.class);
+
+	private ExecutorService executor;
+	private final int maxPendingTasks;
+	private final Semaphore pendingTasks;
+	private final Map<String, CompletableFuture<Void>> lastTasks = new HashMap<>();
+	private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+	@Inject
+	IterationOutputExecutor(ControlerConfigGroup controlerConfigGroup) {
+		this(controlerConfigGroup.getNumberOfOutputWritingThreads());
+	}
+
+	/**
+	 * @param numberOfThreads the number of threads writing output, <code>0</code> to write all output right away
+	 */
+	public IterationOutputExecutor(int numberOfThreads) {
+		if (numberOfThreads < 0) {
+			throw new IllegalArgumentException("numberOfThreads must not be negative, but is " + numberOfThreads);
+		}
+		if (numberOfThreads == 0) {
+			this.executor = null;
+			this.maxPendingTasks = 0;
+			this.pendingTasks = null;
+		} else {
+			this.executor = Executors.newFixedThreadPool(numberOfThreads, runnable -> {
+				Thread thread = new Thread(runnable, IterationOutputExecutor.class.getSimpleName());
+				thread.setDaemon(true);
+				return thread;
+			});
+			this.maxPendingTasks = 2 * numberOfThreads;
+			this.pendingTasks = new Semaphore(this.maxPendingTasks, true);
+		}
+	}
+
+	/**
+	 * @param output the name of the output written by the task, tasks with the same name are executed in order
+	 * @param task writes the output
+	 */
+	public synchronized void execute(final String output, final Runnable task) {
+		rethrowFailure();
+		if (this.executor == null) {
+			task.run();
+			return;
+		}
+		acquire(1);
+		CompletableFuture<Void> previous = this.lastTasks.getOrDefault(output, CompletableFuture.completedFuture(null));
+		CompletableFuture<Void> next = previous
+				.handle((result, exception) -> null) // the failure of the previous task has already been recorded
+				.thenRunAsync(task, this.executor)
+				.whenComplete((result, exception) -> {
+					if (exception != null) {
+						Throwable cause = exception instanceof CompletionException ? exception.getCause() : exception;
+						if (this.failure.compareAndSet(null, cause)) {
+							log.error("Writing " + output + " failed.", cause);
+						}
+					}
+					this.pendingTasks.release();
+				});
+		this.lastTasks.put(output, next);
+	}
+
+	/**
+	 * Waits until all output handed over so far has been written.
+	 */
+	public synchronized void flush() {
+		if (this.executor != null) {
+			acquire(this.maxPendingTasks);
+			this.pendingTasks.release(this.maxPendingTasks);
+			this.lastTasks.clear();
+		}
+		rethrowFailure();
+	}
+
+	@Override
+	public synchronized void notifyShutdown(ShutdownEvent event) {
+		if (this.executor == null) {
+			return;
+		}
+		log.info("waiting for the output still being written...");
+		try {
+			flush();
+		} finally {
+			this.executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	private void acquire(int permits) {
+		try {
+			this.pendingTasks.acquire(permits);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RuntimeException(e);
+		}
+	}
+
+	private void rethrowFailure() {
+		Throwable cause = this.failure.getAndSet(null);
+		if (cause instanceof RuntimeException) {
+			throw (RuntimeException) cause;
+		}
+		if (cause instanceof Error) {
+			throw (Error) cause;
+		}
+		if (cause != null) {
+			throw new RuntimeException(cause);
+		}
+	}
+}
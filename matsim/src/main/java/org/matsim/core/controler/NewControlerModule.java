@@ -32,6 +32,8 @@ public final class NewControlerModule extends AbstractModule {
 		
 		bind(IterationStopWatch.class).asEagerSingleton();
 		bind(OutputDirectoryHierarchy.class).asEagerSingleton();
+		bind(IterationOutputExecutor.class).asEagerSingleton();
+		addControlerListenerBinding().to(IterationOutputExecutor.class);
 		bind(TerminationCriterion.class).to(TerminateAtFixedIterationNumber.class);
 		bind(MatsimServices.class).to(MatsimServicesImpl.class);
 
@@ -0,0 +1,274 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * Checkpointing.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.corelisteners;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.log4j.Logger;
+import org.matsim.analysis.IterationStopWatch;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigGroup;
+import org.matsim.core.config.groups.ControlerConfigGroup;
+import org.matsim.core.controler.Controler;
+import org.matsim.core.controler.IterationOutputExecutor;
+import org.matsim.core.controler.OutputDirectoryHierarchy;
+import org.matsim.core.controler.events.IterationEndsEvent;
+import org.matsim.core.controler.events.StartupEvent;
+import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.controler.listener.StartupListener;
+import org.matsim.core.population.CompactPlanElementsCodec;
+import org.matsim.core.population.PopulationSnapshot;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.replanning.GenericPlanStrategy;
+import org.matsim.core.replanning.StrategyManager;
+import org.matsim.core.trafficmonitoring.TravelTimeCalculator;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.io.UncheckedIOException;
+import org.matsim.utils.objectattributes.AttributeConverter;
+import org.matsim.utils.objectattributes.ObjectAttributesConverter;
+
+import com.google.inject.Inject;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.Singleton;
+import com.google.inject.name.Names;
+
+/**
+ * {@link org.matsim.core.controler.listener.ControlerListener} that writes a binary checkpoint at the end of
+ * every {@link ControlerConfigGroup#getWriteCheckpointsInterval()}th iteration, and continues a run from the
+ * checkpoint given by {@link ControlerConfigGroup#getInputCheckpointFile()} at startup.
+ * <p>
+ * A checkpoint contains the population with all plans and scores, the travel times collected by the
+ * {@link TravelTimeCalculator}s and the weights of the replanning strategies. The random numbers need not be
+ * stored, as they are re-seeded at the start of every iteration. The data is copied at the end of the iteration,
+ * and written to the file by the {@link IterationOutputExecutor}.
+ */
+@Singleton
+final class Checkpointing implements StartupListener, IterationEndsListener {
+
+	static final private Logger log = Logger.getLogger(Checkpointing.class);
+
+	private static final int MAGIC = 0x4d415443; // "MATC"
+	private static final int VERSION = 1;
+
+	private final Config config;
+	private final Population population;
+	private final StrategyManager strategyManager;
+	private final Injector injector;
+	private final OutputDirectoryHierarchy controlerIO;
+	private final IterationOutputExecutor outputExecutor;
+	private final IterationStopWatch stopwatch;
+	private final CompactPlanElementsCodec codec;
+	private final ObjectAttributesConverter attributesConverter;
+
+	@Inject
+	Checkpointing(Config config, Population population, StrategyManager strategyManager, Injector injector,
+			OutputDirectoryHierarchy controlerIO, IterationOutputExecutor outputExecutor, IterationStopWatch stopwatch,
+			Map<Class<?>, AttributeConverter<?>> attributeConverters) {
+		this.config = config;
+		this.population = population;
+		this.strategyManager = strategyManager;
+		this.injector = injector;
+		this.controlerIO = controlerIO;
+		this.outputExecutor = outputExecutor;
+		this.stopwatch = stopwatch;
+		this.codec = new CompactPlanElementsCodec(population.getFactory().getRouteFactories());
+		this.codec.putAttributeConverters(attributeConverters);
+		this.attributesConverter = new ObjectAttributesConverter(attributeConverters);
+	}
+
+	@Override
+	public void notifyStartup(final StartupEvent event) {
+		String inputCheckpointFile = this.config.controler().getInputCheckpointFile();
+		if (inputCheckpointFile == null) {
+			return;
+		}
+		URL url = ConfigGroup.getInputFileURL(this.config.getContext(), inputCheckpointFile);
+		log.info("continuing from checkpoint " + url + " ...");
+		try (DataInputStream in = new DataInputStream(IOUtils.getInputStream(url))) {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				throw new RuntimeException(url + " is not a checkpoint written by this version of MATSim.");
+			}
+			int iteration = in.readInt();
+			if (iteration + 1 != this.config.controler().getFirstIteration()) {
+				throw new RuntimeException("The checkpoint was written at the end of iteration " + iteration
+						+ ", so the run has to continue with firstIteration=" + (iteration + 1) + ", but firstIteration is "
+						+ this.config.controler().getFirstIteration() + ".");
+			}
+
+			PopulationSnapshot.read(in, this.population, this.codec, this.attributesConverter);
+			log.info("restored " + this.population.getPersons().size() + " persons.");
+
+			Map<String, TravelTimeCalculator> travelTimeCalculators = getTravelTimeCalculators();
+			int numberOfCalculators = in.readInt();
+			for (int i = 0; i < numberOfCalculators; i++) {
+				String mode = in.readUTF();
+				byte[] state = new byte[in.readInt()];
+				in.readFully(state);
+				TravelTimeCalculator calculator = travelTimeCalculators.get(mode);
+				if (calculator == null) {
+					log.warn("there is no travel time calculator for the travel times of mode '" + mode + "', they are not restored.");
+				} else {
+					calculator.readState(new DataInputStream(new ByteArrayInputStream(state)));
+				}
+			}
+
+			int numberOfSubpopulations = in.readInt();
+			for (int i = 0; i < numberOfSubpopulations; i++) {
+				String subpopulation = in.readBoolean() ? in.readUTF() : null;
+				double[] weights = new double[in.readInt()];
+				for (int j = 0; j < weights.length; j++) {
+					weights[j] = in.readDouble();
+				}
+				restoreWeights(subpopulation, weights);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		log.info("continuing from checkpoint " + url + " ... done.");
+	}
+
+	@Override
+	public void notifyIterationEnds(final IterationEndsEvent event) {
+		final int interval = this.config.controler().getWriteCheckpointsInterval();
+		final int iteration = event.getIteration();
+		if (interval <= 0 || iteration == 0 || iteration % interval != 0) {
+			return;
+		}
+		this.stopwatch.beginOperation("write checkpoint");
+
+		// everything is copied right away, as it changes in the next iteration
+		final PopulationSnapshot populationSnapshot = PopulationSnapshot.create(this.population, this.codec, this.attributesConverter);
+		final Map<String, byte[]> travelTimes = new LinkedHashMap<>();
+		try {
+			for (Map.Entry<String, TravelTimeCalculator> entry : getTravelTimeCalculators().entrySet()) {
+				ByteArrayOutputStream state = new ByteArrayOutputStream();
+				try (DataOutputStream out = new DataOutputStream(state)) {
+					entry.getValue().writeState(out);
+				}
+				travelTimes.put(entry.getKey(), state.toByteArray());
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		final Map<String, double[]> weights = new LinkedHashMap<>();
+		for (String subpopulation : getSubpopulations()) {
+			List<Double> subpopulationWeights = this.strategyManager.getWeights(subpopulation);
+			if (!subpopulationWeights.isEmpty()) {
+				weights.put(subpopulation, subpopulationWeights.stream().mapToDouble(Double::doubleValue).toArray());
+			}
+		}
+
+		final String filename = this.controlerIO.getIterationFilename(iteration, Controler.DefaultFiles.checkpoint);
+		this.outputExecutor.execute(Controler.DefaultFiles.checkpoint.name(), () -> {
+			try (DataOutputStream out = new DataOutputStream(IOUtils.getOutputStream(IOUtils.getFileUrl(filename), false))) {
+				out.writeInt(MAGIC);
+				out.writeInt(VERSION);
+				out.writeInt(iteration);
+				populationSnapshot.write(out);
+				out.writeInt(travelTimes.size());
+				for (Map.Entry<String, byte[]> entry : travelTimes.entrySet()) {
+					out.writeUTF(entry.getKey());
+					out.writeInt(entry.getValue().length);
+					out.write(entry.getValue());
+				}
+				out.writeInt(weights.size());
+				for (Map.Entry<String, double[]> entry : weights.entrySet()) {
+					out.writeBoolean(entry.getKey() != null);
+					if (entry.getKey() != null) {
+						out.writeUTF(entry.getKey());
+					}
+					out.writeInt(entry.getValue().length);
+					for (double weight : entry.getValue()) {
+						out.writeDouble(weight);
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			log.info("wrote checkpoint with " + populationSnapshot.getNumberOfPersons() + " persons to " + filename);
+		});
+		this.stopwatch.endOperation("write checkpoint");
+	}
+
+	/*
+	 * The travel time calculators by mode, or a single one with an empty mode if the modes are not separated.
+	 * Calculators which are not bound, e.g. because the travel times are provided in another way, are left out.
+	 */
+	private Map<String, TravelTimeCalculator> getTravelTimeCalculators() {
+		Map<String, TravelTimeCalculator> calculators = new TreeMap<>();
+		if (this.config.travelTimeCalculator().getSeparateModes()) {
+			for (String mode : this.config.plansCalcRoute().getNetworkModes()) {
+				Key<TravelTimeCalculator> key = Key.get(TravelTimeCalculator.class, Names.named(mode));
+				if (this.injector.getExistingBinding(key) != null) {
+					calculators.put(mode, this.injector.getInstance(key));
+				}
+			}
+		} else {
+			Key<TravelTimeCalculator> key = Key.get(TravelTimeCalculator.class);
+			if (this.injector.getExistingBinding(key) != null) {
+				calculators.put("", this.injector.getInstance(key));
+			}
+		}
+		return calculators;
+	}
+
+	private Set<String> getSubpopulations() {
+		Set<String> subpopulations = new LinkedHashSet<>();
+		subpopulations.add(null);
+		for (Person person : this.population.getPersons().values()) {
+			subpopulations.add(PopulationUtils.getSubpopulation(person));
+		}
+		return subpopulations;
+	}
+
+	/*
+	 * Only weights which differ are changed, so that the sum of the weights is calculated in the same way as in
+	 * the original run when the changes scheduled for earlier iterations are applied again.
+	 */
+	private void restoreWeights(final String subpopulation, final double[] weights) {
+		List<GenericPlanStrategy<Plan, Person>> strategies = this.strategyManager.getStrategies(subpopulation);
+		if (strategies.size() != weights.length) {
+			throw new RuntimeException("The checkpoint contains " + weights.length + " replanning strategies for subpopulation "
+					+ subpopulation + ", but " + strategies.size() + " are configured.");
+		}
+		List<Double> currentWeights = this.strategyManager.getWeights(subpopulation);
+		for (int i = 0; i < weights.length; i++) {
+			if (Double.compare(currentWeights.get(i), weights[i]) != 0) {
+				this.strategyManager.changeWeightOfStrategy(strategies.get(i), subpopulation, weights[i]);
+			}
+		}
+	}
+}
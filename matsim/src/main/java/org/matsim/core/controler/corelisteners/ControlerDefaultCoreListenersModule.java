@@ -39,6 +39,12 @@ public class ControlerDefaultCoreListenersModule extends AbstractModule {
 		bind( PlansDumping.class ).to( PlansDumpingImpl.class );
 		bind( EventsHandling.class ).to( EventsHandlingImpl.class );
 		bind( DumpDataAtEnd.class ).to( DumpDataAtEndImpl.class );
+		if ( getConfig().plans().isCompactingNonSelectedPlans() ) {
+			addControlerListenerBinding().to( PlansCompacting.class );
+		}
+		if ( getConfig().controler().getWriteCheckpointsInterval() > 0 || getConfig().controler().getInputCheckpointFile() != null ) {
+			addControlerListenerBinding().to( Checkpointing.class );
+		}
 	}
 }
 
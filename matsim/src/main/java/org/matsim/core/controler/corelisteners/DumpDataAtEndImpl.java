@@ -32,6 +32,7 @@ import org.matsim.core.config.ConfigWriter;
 import org.matsim.core.config.groups.ControlerConfigGroup;
 import org.matsim.core.config.groups.VspExperimentalConfigGroup;
 import org.matsim.core.controler.Controler;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.ShutdownEvent;
 import org.matsim.core.controler.listener.ShutdownListener;
@@ -111,6 +112,9 @@ final class DumpDataAtEndImpl implements DumpDataAtEnd, ShutdownListener {
 	@Inject
 	private OutputDirectoryHierarchy controlerIO;
 
+	@Inject
+	private IterationOutputExecutor outputExecutor;
+
 	@Inject
 	private Map<Class<?>,AttributeConverter<?>> attributeConverters = Collections.emptyMap();
 
@@ -119,18 +123,22 @@ final class DumpDataAtEndImpl implements DumpDataAtEnd, ShutdownListener {
 		if ( event.isUnexpected() ) {
 			return ;
 		}
-		dumpPlans();
-		dumpNetwork();
-		dumpConfig();
-		dumpFacilities();
-		dumpNetworkChangeEvents();
-
-		dumpTransitSchedule();
-		dumpTransitVehicles();
-		dumpVehicles();
-		dumpHouseholds();
-		dumpLanes();
-		dumpCounts();
+		// the containers are written independently of each other, in the background if output threads are configured
+		outputExecutor.execute(Controler.DefaultFiles.population.name(), this::dumpPlans);
+		outputExecutor.execute(Controler.DefaultFiles.network.name(), this::dumpNetwork);
+		outputExecutor.execute(Controler.DefaultFiles.config.name(), this::dumpConfig);
+		outputExecutor.execute(Controler.DefaultFiles.facilities.name(), this::dumpFacilities);
+		outputExecutor.execute(Controler.DefaultFiles.changeEvents.name(), this::dumpNetworkChangeEvents);
+
+		outputExecutor.execute(Controler.DefaultFiles.transitSchedule.name(), this::dumpTransitSchedule);
+		outputExecutor.execute(Controler.DefaultFiles.transitVehicles.name(), this::dumpTransitVehicles);
+		outputExecutor.execute(Controler.DefaultFiles.vehicles.name(), this::dumpVehicles);
+		outputExecutor.execute(Controler.DefaultFiles.households.name(), this::dumpHouseholds);
+		outputExecutor.execute(Controler.DefaultFiles.lanes.name(), this::dumpLanes);
+		outputExecutor.execute(Controler.DefaultFiles.counts.name(), this::dumpCounts);
+
+		// the files of the last iteration copied below may still be written in the background
+		outputExecutor.flush();
 
 		if (!event.isUnexpected() && this.vspConfig.isWritingOutputEvents() && (this.controlerConfigGroup.getWriteEventsInterval()!=0)) {
 			dumpOutputEvents(event.getIteration());
@@ -334,6 +342,7 @@ final class DumpDataAtEndImpl implements DumpDataAtEnd, ShutdownListener {
 
 		final PopulationWriter writer = new PopulationWriter(this.population, this.network);
 		writer.putAttributeConverters(this.attributeConverters);
+		writer.setNumberOfThreads(this.config.global().getNumberOfThreads());
 		writer.write(this.controlerIO.getOutputFilename(Controler.DefaultFiles.population));
 	}
 
@@ -33,6 +33,7 @@ import org.apache.log4j.Logger;
 import org.matsim.core.api.experimental.events.EventsManager;
 import org.matsim.core.config.groups.ControlerConfigGroup;
 import org.matsim.core.config.groups.ControlerConfigGroup.EventsFileFormat;
+import org.matsim.core.config.groups.GlobalConfigGroup;
 import org.matsim.core.controler.Controler;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.BeforeMobsimEvent;
@@ -65,12 +66,16 @@ final class EventsHandlingImpl implements EventsHandling, BeforeMobsimListener,
 
 	private int writeMoreUntilIteration;
 
+	private final int numberOfThreads;
+
 	@Inject
 	EventsHandlingImpl(
 			final EventsManager eventsManager,
 			final ControlerConfigGroup config,
+			final GlobalConfigGroup globalConfig,
 			final OutputDirectoryHierarchy controlerIO) {
 		this.eventsManager = eventsManager;
+		this.numberOfThreads = globalConfig.getNumberOfThreads();
 		this.writeEventsInterval = config.getWriteEventsInterval();
 		this.eventsFileFormats = config.getEventsFileFormats();
 		this.controlerIO = controlerIO;
@@ -90,7 +95,7 @@ final class EventsHandlingImpl implements EventsHandling, BeforeMobsimListener,
 				switch (format) {
 					case xml:
 						this.eventWriters.add(new EventWriterXML(controlerIO.getIterationFilename(event.getIteration(),
-								Controler.DefaultFiles.events)));
+								Controler.DefaultFiles.events), this.numberOfThreads));
 						break;
 					case pb:
 						// The pb dependency is optional at the moment so we search it first
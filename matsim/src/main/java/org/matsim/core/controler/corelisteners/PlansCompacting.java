@@ -0,0 +1,70 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * PlansCompacting.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.corelisteners;
+
+import java.util.Map;
+
+import org.apache.log4j.Logger;
+import org.matsim.analysis.IterationStopWatch;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.core.config.groups.PlansConfigGroup;
+import org.matsim.core.controler.events.IterationEndsEvent;
+import org.matsim.core.controler.listener.IterationEndsListener;
+import org.matsim.core.population.CompactPlanElementsCodec;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.utils.objectattributes.AttributeConverter;
+
+import com.google.inject.Inject;
+import com.google.inject.Singleton;
+
+/**
+ * {@link org.matsim.core.controler.listener.ControlerListener} that compacts the plans which are not
+ * selected at the end of every iteration, see {@link PlansConfigGroup#isCompactingNonSelectedPlans()}.
+ * Until the next replanning, only the selected plans are used by the mobsim and the scoring, and plan
+ * selection only looks at the scores, so most compacted plans are only restored when they are written
+ * or modified.
+ */
+@Singleton
+final class PlansCompacting implements IterationEndsListener {
+
+	static final private Logger log = Logger.getLogger(PlansCompacting.class);
+
+	private final Population population;
+	private final IterationStopWatch stopwatch;
+	private final CompactPlanElementsCodec codec;
+
+	@Inject
+	PlansCompacting(Population population, IterationStopWatch stopwatch, Map<Class<?>, AttributeConverter<?>> attributeConverters) {
+		this.population = population;
+		this.stopwatch = stopwatch;
+		this.codec = new CompactPlanElementsCodec(population.getFactory().getRouteFactories());
+		this.codec.putAttributeConverters(attributeConverters);
+	}
+
+	@Override
+	public void notifyIterationEnds(final IterationEndsEvent event) {
+		stopwatch.beginOperation("compact plans");
+		long compactedPlans = PopulationUtils.compactNonSelectedPlans(population, codec);
+		log.info("compacted " + compactedPlans + " non-selected plans.");
+		stopwatch.endOperation("compact plans");
+	}
+
+}
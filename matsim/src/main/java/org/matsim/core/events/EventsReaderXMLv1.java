@@ -22,6 +22,7 @@ package org.matsim.core.events;
 
 import org.matsim.api.core.v01.Coord;
 import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.IdRegistry;
 import org.matsim.api.core.v01.events.ActivityEndEvent;
 import org.matsim.api.core.v01.events.ActivityStartEvent;
 import org.matsim.api.core.v01.events.Event;
@@ -65,6 +66,11 @@ public final class EventsReaderXMLv1 extends MatsimXmlEventsParser {
 	private final EventsManager events;
 	private final Map<String, MatsimEventsReader.CustomEventMapper> customEventMappers = new HashMap<>();
 
+	// most events refer to links, vehicles and persons, their Ids are created without looking up the registry each time
+	private final IdRegistry<Link> linkIds = Id.getRegistry(Link.class);
+	private final IdRegistry<Vehicle> vehicleIds = Id.getRegistry(Vehicle.class);
+	private final IdRegistry<Person> personIds = Id.getRegistry(Person.class);
+
 	public EventsReaderXMLv1(final EventsManager events) {
 		this.events = events;
 		this.setValidating(false);// events-files have no DTD, thus they cannot validate
@@ -102,23 +108,23 @@ public final class EventsReaderXMLv1 extends MatsimXmlEventsParser {
 		// === material related to wait2link below here ===
 		if (LinkLeaveEvent.EVENT_TYPE.equals(eventType)) {
 			this.events.processEvent(new LinkLeaveEvent(time, 
-					Id.create(atts.getValue(LinkLeaveEvent.ATTRIBUTE_VEHICLE), Vehicle.class), 
-					Id.create(atts.getValue(LinkLeaveEvent.ATTRIBUTE_LINK), Link.class)
+					this.vehicleIds.create(atts.getValue(LinkLeaveEvent.ATTRIBUTE_VEHICLE)), 
+					this.linkIds.create(atts.getValue(LinkLeaveEvent.ATTRIBUTE_LINK))
 					// had driver id in previous version
 					));
 		} else if (LinkEnterEvent.EVENT_TYPE.equals(eventType)) {
 			this.events.processEvent(new LinkEnterEvent(time, 
-					Id.create(atts.getValue(LinkEnterEvent.ATTRIBUTE_VEHICLE), Vehicle.class), 
-					Id.create(atts.getValue(LinkEnterEvent.ATTRIBUTE_LINK), Link.class)
+					this.vehicleIds.create(atts.getValue(LinkEnterEvent.ATTRIBUTE_VEHICLE)), 
+					this.linkIds.create(atts.getValue(LinkEnterEvent.ATTRIBUTE_LINK))
 					// had driver id in previous version
 					));
 		} else if (VehicleEntersTrafficEvent.EVENT_TYPE.equals(eventType) ) {
 			// (this is the new version, marked by the new events name)
 
 			this.events.processEvent(new VehicleEntersTrafficEvent(time, 
-					Id.create(atts.getValue(HasPersonId.ATTRIBUTE_PERSON), Person.class),
-					Id.create(atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_LINK), Link.class), 
-					Id.create(atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_VEHICLE), Vehicle.class),
+					this.personIds.create(atts.getValue(HasPersonId.ATTRIBUTE_PERSON)),
+					this.linkIds.create(atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_LINK)), 
+					this.vehicleIds.create(atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_VEHICLE)),
 					atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_NETWORKMODE), 
 					Double.parseDouble( atts.getValue( VehicleEntersTrafficEvent.ATTRIBUTE_POSITION) )
 					));
@@ -128,10 +134,10 @@ public final class EventsReaderXMLv1 extends MatsimXmlEventsParser {
 			// retrofit vehicle Id:
 			Id<Vehicle> vehicleId ;
 			if ( atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_VEHICLE) != null ) {
-				vehicleId = Id.create( atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_VEHICLE), Vehicle.class ) ;
+				vehicleId = this.vehicleIds.create(atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_VEHICLE)) ;
 			} else {
 				// for the old events type, we set the vehicle id to the driver id if the vehicle id does not exist:
-				vehicleId = Id.create(atts.getValue(HasPersonId.ATTRIBUTE_PERSON), Vehicle.class);
+				vehicleId = this.vehicleIds.create(atts.getValue(HasPersonId.ATTRIBUTE_PERSON));
 			}
 			// retrofit position:
 			double position ;
@@ -141,17 +147,17 @@ public final class EventsReaderXMLv1 extends MatsimXmlEventsParser {
 				position = 1.0 ;
 			}
 			this.events.processEvent(new VehicleEntersTrafficEvent(time, 
-					Id.create(atts.getValue(HasPersonId.ATTRIBUTE_PERSON), Person.class),
-					Id.create(atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_LINK), Link.class), 
+					this.personIds.create(atts.getValue(HasPersonId.ATTRIBUTE_PERSON)),
+					this.linkIds.create(atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_LINK)), 
 					vehicleId,
 					atts.getValue(VehicleEntersTrafficEvent.ATTRIBUTE_NETWORKMODE), 
 					position
 					));
 		} else if (VehicleLeavesTrafficEvent.EVENT_TYPE.equals(eventType)) {
 			this.events.processEvent(new VehicleLeavesTrafficEvent(time, 
-					Id.create(atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_DRIVER), Person.class), 
-					Id.create(atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_LINK), Link.class), 
-					atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_VEHICLE) == null ? null : Id.create(atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_VEHICLE), Vehicle.class), 
+					this.personIds.create(atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_DRIVER)), 
+					this.linkIds.create(atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_LINK)), 
+					atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_VEHICLE) == null ? null : this.vehicleIds.create(atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_VEHICLE)), 
 					atts.getValue(VehicleLeavesTrafficEvent.ATTRIBUTE_NETWORKMODE), 
 					Double.parseDouble( atts.getValue( VehicleLeavesTrafficEvent.ATTRIBUTE_POSITION) )
 					));
@@ -160,8 +166,8 @@ public final class EventsReaderXMLv1 extends MatsimXmlEventsParser {
 		else if (ActivityEndEvent.EVENT_TYPE.equals(eventType)) {
 			this.events.processEvent(new ActivityEndEvent(
 					time, 
-					Id.create(atts.getValue(HasPersonId.ATTRIBUTE_PERSON), Person.class),
-					Id.create(atts.getValue(HasLinkId.ATTRIBUTE_LINK), Link.class),
+					this.personIds.create(atts.getValue(HasPersonId.ATTRIBUTE_PERSON)),
+					this.linkIds.create(atts.getValue(HasLinkId.ATTRIBUTE_LINK)),
 					atts.getValue(HasFacilityId.ATTRIBUTE_FACILITY) == null ? null : Id.create(atts.getValue(HasFacilityId.ATTRIBUTE_FACILITY),
 							ActivityFacility.class),
 					atts.getValue(ActivityEndEvent.ATTRIBUTE_ACTTYPE)));
@@ -174,8 +180,8 @@ public final class EventsReaderXMLv1 extends MatsimXmlEventsParser {
 			}
 			this.events.processEvent(new ActivityStartEvent(
 					time,
-					Id.create(atts.getValue( HasPersonId.ATTRIBUTE_PERSON ), Person.class ),
-					Id.create(atts.getValue( HasLinkId.ATTRIBUTE_LINK ), Link.class ),
+					this.personIds.create(atts.getValue( HasPersonId.ATTRIBUTE_PERSON )),
+					this.linkIds.create(atts.getValue( HasLinkId.ATTRIBUTE_LINK )),
 					atts.getValue( HasFacilityId.ATTRIBUTE_FACILITY ) == null ? null : Id.create(atts.getValue(
 							HasFacilityId.ATTRIBUTE_FACILITY ), ActivityFacility.class ),
 					atts.getValue(ActivityStartEvent.ATTRIBUTE_ACTTYPE ),
@@ -183,52 +189,52 @@ public final class EventsReaderXMLv1 extends MatsimXmlEventsParser {
 		} else if (PersonArrivalEvent.EVENT_TYPE.equals(eventType)) {
 			String legMode = atts.getValue(PersonArrivalEvent.ATTRIBUTE_LEGMODE);
 			String mode = legMode == null ? null : legMode.intern();
-			this.events.processEvent(new PersonArrivalEvent(time, Id.create(atts.getValue(PersonArrivalEvent.ATTRIBUTE_PERSON), Person.class), Id.create(atts.getValue(PersonArrivalEvent.ATTRIBUTE_LINK), Link.class), mode));
+			this.events.processEvent(new PersonArrivalEvent(time, this.personIds.create(atts.getValue(PersonArrivalEvent.ATTRIBUTE_PERSON)), this.linkIds.create(atts.getValue(PersonArrivalEvent.ATTRIBUTE_LINK)), mode));
 		} else if (PersonDepartureEvent.EVENT_TYPE.equals(eventType)) {
 			String legMode = atts.getValue(PersonDepartureEvent.ATTRIBUTE_LEGMODE);
 			String mode = legMode == null ? null : legMode.intern();
-			this.events.processEvent(new PersonDepartureEvent(time, Id.create(atts.getValue(PersonDepartureEvent.ATTRIBUTE_PERSON), Person.class), Id.create(atts.getValue(PersonDepartureEvent.ATTRIBUTE_LINK), Link.class), mode));
+			this.events.processEvent(new PersonDepartureEvent(time, this.personIds.create(atts.getValue(PersonDepartureEvent.ATTRIBUTE_PERSON)), this.linkIds.create(atts.getValue(PersonDepartureEvent.ATTRIBUTE_LINK)), mode));
 		} else if (PersonStuckEvent.EVENT_TYPE.equals(eventType)) {
 			String legMode = atts.getValue(PersonStuckEvent.ATTRIBUTE_LEGMODE);
 			String mode = legMode == null ? null : legMode.intern();
 			String linkIdString = atts.getValue(PersonStuckEvent.ATTRIBUTE_LINK);
-			Id<Link> linkId = linkIdString == null ? null : Id.create(linkIdString, Link.class); // linkId is optional
-			this.events.processEvent(new PersonStuckEvent(time, Id.create(atts.getValue(PersonStuckEvent.ATTRIBUTE_PERSON), Person.class), linkId, mode));
+			Id<Link> linkId = linkIdString == null ? null : this.linkIds.create(linkIdString); // linkId is optional
+			this.events.processEvent(new PersonStuckEvent(time, this.personIds.create(atts.getValue(PersonStuckEvent.ATTRIBUTE_PERSON)), linkId, mode));
 		} else if (VehicleAbortsEvent.EVENT_TYPE.equals(eventType)) {
 			String linkIdString = atts.getValue(VehicleAbortsEvent.ATTRIBUTE_LINK);
-			Id<Link> linkId = linkIdString == null ? null : Id.create(linkIdString, Link.class);
-			this.events.processEvent(new VehicleAbortsEvent(time, Id.create(atts.getValue(VehicleAbortsEvent.ATTRIBUTE_VEHICLE), Vehicle.class), linkId));
+			Id<Link> linkId = linkIdString == null ? null : this.linkIds.create(linkIdString);
+			this.events.processEvent(new VehicleAbortsEvent(time, this.vehicleIds.create(atts.getValue(VehicleAbortsEvent.ATTRIBUTE_VEHICLE)), linkId));
 		} else if (PersonMoneyEvent.EVENT_TYPE.equals(eventType) || "agentMoney".equals(eventType)) {
-			this.events.processEvent(new PersonMoneyEvent(time, Id.create(atts.getValue(PersonMoneyEvent.ATTRIBUTE_PERSON), Person.class), Double.parseDouble(atts.getValue(PersonMoneyEvent.ATTRIBUTE_AMOUNT)), atts.getValue(PersonMoneyEvent.ATTRIBUTE_PURPOSE), atts.getValue(PersonMoneyEvent.ATTRIBUTE_TRANSACTION_PARTNER)));
+			this.events.processEvent(new PersonMoneyEvent(time, this.personIds.create(atts.getValue(PersonMoneyEvent.ATTRIBUTE_PERSON)), Double.parseDouble(atts.getValue(PersonMoneyEvent.ATTRIBUTE_AMOUNT)), atts.getValue(PersonMoneyEvent.ATTRIBUTE_PURPOSE), atts.getValue(PersonMoneyEvent.ATTRIBUTE_TRANSACTION_PARTNER)));
 		} else if (PersonScoreEvent.EVENT_TYPE.equals(eventType) || "personScore".equals(eventType)) {
-			this.events.processEvent(new PersonScoreEvent(time, Id.create(atts.getValue(PersonScoreEvent.ATTRIBUTE_PERSON), Person.class), Double.parseDouble(atts.getValue(PersonScoreEvent.ATTRIBUTE_AMOUNT)), atts.getValue(PersonScoreEvent.ATTRIBUTE_KIND)));
+			this.events.processEvent(new PersonScoreEvent(time, this.personIds.create(atts.getValue(PersonScoreEvent.ATTRIBUTE_PERSON)), Double.parseDouble(atts.getValue(PersonScoreEvent.ATTRIBUTE_AMOUNT)), atts.getValue(PersonScoreEvent.ATTRIBUTE_KIND)));
 		} else if (PersonEntersVehicleEvent.EVENT_TYPE.equals(eventType)) {
 			String personString = atts.getValue(PersonEntersVehicleEvent.ATTRIBUTE_PERSON);
 			String vehicleString = atts.getValue(PersonEntersVehicleEvent.ATTRIBUTE_VEHICLE);
-			this.events.processEvent(new PersonEntersVehicleEvent(time, Id.create(personString, Person.class), Id.create(vehicleString, Vehicle.class)));
+			this.events.processEvent(new PersonEntersVehicleEvent(time, this.personIds.create(personString), this.vehicleIds.create(vehicleString)));
 		} else if (PersonLeavesVehicleEvent.EVENT_TYPE.equals(eventType)) {
-			Id<Person> pId = Id.create(atts.getValue(PersonLeavesVehicleEvent.ATTRIBUTE_PERSON), Person.class);
-			Id<Vehicle> vId = Id.create(atts.getValue(PersonLeavesVehicleEvent.ATTRIBUTE_VEHICLE), Vehicle.class);
+			Id<Person> pId = this.personIds.create(atts.getValue(PersonLeavesVehicleEvent.ATTRIBUTE_PERSON));
+			Id<Vehicle> vId = this.vehicleIds.create(atts.getValue(PersonLeavesVehicleEvent.ATTRIBUTE_VEHICLE));
 			this.events.processEvent(new PersonLeavesVehicleEvent(time, pId, vId));
 		} else if (TeleportationArrivalEvent.EVENT_TYPE.equals(eventType)) {
 			this.events.processEvent(new TeleportationArrivalEvent(
 					time,
-					Id.create(atts.getValue(TeleportationArrivalEvent.ATTRIBUTE_PERSON), Person.class),
+					this.personIds.create(atts.getValue(TeleportationArrivalEvent.ATTRIBUTE_PERSON)),
 					Double.parseDouble(atts.getValue(TeleportationArrivalEvent.ATTRIBUTE_DISTANCE)), atts.getValue(TeleportationArrivalEvent.ATTRIBUTE_MODE)));
 		} else if (VehicleArrivesAtFacilityEvent.EVENT_TYPE.equals(eventType)) {
 			String delay = atts.getValue(VehicleArrivesAtFacilityEvent.ATTRIBUTE_DELAY);
-			this.events.processEvent(new VehicleArrivesAtFacilityEvent(time, Id.create(atts.getValue(VehicleArrivesAtFacilityEvent.ATTRIBUTE_VEHICLE), Vehicle.class), Id.create(atts.getValue(VehicleArrivesAtFacilityEvent.ATTRIBUTE_FACILITY), TransitStopFacility.class), delay == null ? 0.0 : Double.parseDouble(delay)));
+			this.events.processEvent(new VehicleArrivesAtFacilityEvent(time, this.vehicleIds.create(atts.getValue(VehicleArrivesAtFacilityEvent.ATTRIBUTE_VEHICLE)), Id.create(atts.getValue(VehicleArrivesAtFacilityEvent.ATTRIBUTE_FACILITY), TransitStopFacility.class), delay == null ? 0.0 : Double.parseDouble(delay)));
 		} else if (VehicleDepartsAtFacilityEvent.EVENT_TYPE.equals(eventType)) {
 			String delay = atts.getValue(VehicleDepartsAtFacilityEvent.ATTRIBUTE_DELAY);
-			this.events.processEvent(new VehicleDepartsAtFacilityEvent(time, Id.create(atts.getValue(VehicleArrivesAtFacilityEvent.ATTRIBUTE_VEHICLE), Vehicle.class), Id.create(atts.getValue(VehicleArrivesAtFacilityEvent.ATTRIBUTE_FACILITY), TransitStopFacility.class), delay == null ? 0.0 : Double.parseDouble(delay)));
+			this.events.processEvent(new VehicleDepartsAtFacilityEvent(time, this.vehicleIds.create(atts.getValue(VehicleArrivesAtFacilityEvent.ATTRIBUTE_VEHICLE)), Id.create(atts.getValue(VehicleArrivesAtFacilityEvent.ATTRIBUTE_FACILITY), TransitStopFacility.class), delay == null ? 0.0 : Double.parseDouble(delay)));
 		} else if (TransitDriverStartsEvent.EVENT_TYPE.equals(eventType)) {
-			this.events.processEvent(new TransitDriverStartsEvent(time, Id.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_DRIVER_ID), Person.class), Id.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_VEHICLE_ID), Vehicle.class), Id.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_TRANSIT_LINE_ID), TransitLine.class), Id.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_TRANSIT_ROUTE_ID), TransitRoute.class), Id.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_DEPARTURE_ID), Departure.class)));
+			this.events.processEvent(new TransitDriverStartsEvent(time, this.personIds.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_DRIVER_ID)), this.vehicleIds.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_VEHICLE_ID)), Id.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_TRANSIT_LINE_ID), TransitLine.class), Id.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_TRANSIT_ROUTE_ID), TransitRoute.class), Id.create(atts.getValue(TransitDriverStartsEvent.ATTRIBUTE_DEPARTURE_ID), Departure.class)));
 		} else if (BoardingDeniedEvent.EVENT_TYPE.equals(eventType)){
-			Id<Person> personId = Id.create(atts.getValue(BoardingDeniedEvent.ATTRIBUTE_PERSON_ID), Person.class);
-			Id<Vehicle> vehicleId = Id.create(atts.getValue(BoardingDeniedEvent.ATTRIBUTE_VEHICLE_ID), Vehicle.class);
+			Id<Person> personId = this.personIds.create(atts.getValue(BoardingDeniedEvent.ATTRIBUTE_PERSON_ID));
+			Id<Vehicle> vehicleId = this.vehicleIds.create(atts.getValue(BoardingDeniedEvent.ATTRIBUTE_VEHICLE_ID));
 			this.events.processEvent(new BoardingDeniedEvent(time, personId, vehicleId));
 		} else if (AgentWaitingForPtEvent.EVENT_TYPE.equals(eventType)){
-			Id<Person> agentId = Id.create(atts.getValue(AgentWaitingForPtEvent.ATTRIBUTE_AGENT), Person.class);
+			Id<Person> agentId = this.personIds.create(atts.getValue(AgentWaitingForPtEvent.ATTRIBUTE_AGENT));
 			Id<TransitStopFacility> waitStopId = Id.create(atts.getValue(AgentWaitingForPtEvent.ATTRIBUTE_WAITSTOP), TransitStopFacility.class);
 			Id<TransitStopFacility> destinationStopId = Id.create(atts.getValue(AgentWaitingForPtEvent.ATTRIBUTE_DESTINATIONSTOP), TransitStopFacility.class);
 			this.events.processEvent(new AgentWaitingForPtEvent(time, agentId, waitStopId, destinationStopId));
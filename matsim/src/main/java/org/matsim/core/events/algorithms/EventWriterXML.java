@@ -40,6 +40,19 @@ public class EventWriterXML implements EventWriter, BasicEventHandler {
 		this.writeHeader();
 	}
 
+	/**
+	 * Writes the events with the given number of threads compressing the file, if it is compressed
+	 * with gzip or ZStandard. The events themselves are formatted on the thread handling the events,
+	 * as they may be changed after they have been handled.
+	 *
+	 * @param outfilename
+	 * @param numberOfThreads
+	 */
+	public EventWriterXML(final String outfilename, final int numberOfThreads) {
+		this.out = IOUtils.getBufferedWriter(IOUtils.getFileUrl(outfilename), IOUtils.CHARSET_UTF8, false, numberOfThreads);
+		this.writeHeader();
+	}
+
 	/**
 	 * Constructor so you can pass System.out or System.err to the writer to see the result on the console.
 	 *
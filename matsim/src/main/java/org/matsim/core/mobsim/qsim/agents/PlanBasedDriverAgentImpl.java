@@ -18,8 +18,6 @@
  * *********************************************************************** */
 package org.matsim.core.mobsim.qsim.agents;
 
-import java.util.List;
-
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
@@ -28,6 +26,7 @@ import org.matsim.api.core.v01.population.Person;
 import org.matsim.core.mobsim.framework.DriverAgent;
 import org.matsim.core.mobsim.framework.MobsimAgent;
 import org.matsim.core.mobsim.qsim.interfaces.MobsimVehicle;
+import org.matsim.core.population.routes.LinkIdCursor;
 import org.matsim.core.population.routes.NetworkRoute;
 import org.matsim.vehicles.Vehicle;
 
@@ -50,6 +49,13 @@ public final class PlanBasedDriverAgentImpl implements DriverAgent {
 
 	private Id<Link> cachedNextLinkId = null;
 
+	/*
+	 * Goes along the links of the current route, so that routes which do not keep their links as list need
+	 * not create the list for every link the vehicle moves to.
+	 */
+	private NetworkRoute cachedRoute = null;
+	private LinkIdCursor cachedRouteLinkIds = null;
+
 	@Override
 	public final void notifyMoveOverNode(Id<Link> newLinkId) {
 		if (expectedLinkWarnCount < 10 && !newLinkId.equals(this.cachedNextLinkId)) {
@@ -94,7 +100,7 @@ public final class PlanBasedDriverAgentImpl implements DriverAgent {
 			return null ;
 		}
 
-		List<Id<Link>> routeLinkIds = ((NetworkRoute) this.basicPlanAgentDelegate.getCurrentLeg().getRoute()).getLinkIds();
+		LinkIdCursor routeLinkIds = getRouteLinkIds();
 
 		// (3) if route has run dry, we return the destination link (except for one special case, which however may not be necessary any more):
 		if (this.basicPlanAgentDelegate.getCurrentLinkIndex() >= routeLinkIds.size() ) {
@@ -117,7 +123,7 @@ public final class PlanBasedDriverAgentImpl implements DriverAgent {
 		}
 
 		// (4) otherwise (normal case): return the next link of the plan (after caching it):
-		this.cachedNextLinkId = routeLinkIds.get(this.basicPlanAgentDelegate.getCurrentLinkIndex());
+		this.cachedNextLinkId = routeLinkIds.getLinkId(this.basicPlanAgentDelegate.getCurrentLinkIndex());
 		return this.cachedNextLinkId;
 
 	}
@@ -130,8 +136,7 @@ public final class PlanBasedDriverAgentImpl implements DriverAgent {
 			return true ;
 		}
 
-		final List<Id<Link>> routeLinkIds = ((NetworkRoute) this.basicPlanAgentDelegate.getCurrentLeg().getRoute()).getLinkIds();
-		final int routeLinkIdsSize = routeLinkIds.size();
+		final int routeLinkIdsSize = getRouteLinkIds().size();
 
 		// the standard condition used to be "route has run dry AND destination link not attached to current link":
 		// 2nd condition essentially meant "destination link EQUALS current link" but really stupid way of stating this.  Thus
@@ -184,6 +189,8 @@ public final class PlanBasedDriverAgentImpl implements DriverAgent {
 		// Compromise: package-private here; making it public in the Withinday class.  kai, nov'10
 
 		this.cachedNextLinkId = null;
+		this.cachedRoute = null;
+		this.cachedRouteLinkIds = null;
 
 		if( this.basicPlanAgentDelegate.getCurrentPlanElement()==null ) {
 			throw new RuntimeException("encountered unexpected null pointer" ) ;
@@ -201,6 +208,15 @@ public final class PlanBasedDriverAgentImpl implements DriverAgent {
 		this.basicPlanAgentDelegate.resetCaches();
 	}
 
+	private LinkIdCursor getRouteLinkIds() {
+		NetworkRoute route = (NetworkRoute) this.basicPlanAgentDelegate.getCurrentLeg().getRoute();
+		if (route != this.cachedRoute) {
+			this.cachedRoute = route;
+			this.cachedRouteLinkIds = route.getLinkIdCursor();
+		}
+		return this.cachedRouteLinkIds;
+	}
+
 	@Override
 	public Id<Person> getId() {
 		return this.basicPlanAgentDelegate.getId();
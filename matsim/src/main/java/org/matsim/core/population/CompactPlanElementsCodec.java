@@ -0,0 +1,471 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CompactPlanElementsCodec.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.PlanElement;
+import org.matsim.api.core.v01.population.Route;
+import org.matsim.core.population.routes.LinkIdCursor;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.population.routes.RouteFactories;
+import org.matsim.core.utils.misc.OptionalTime;
+import org.matsim.facilities.ActivityFacility;
+import org.matsim.utils.objectattributes.AttributeConverter;
+import org.matsim.utils.objectattributes.ObjectAttributesConverter;
+import org.matsim.utils.objectattributes.attributable.Attributes;
+import org.matsim.vehicles.Vehicle;
+
+/**
+ * Encodes the plan elements of a plan into a compact byte array, and decodes them again.
+ * <p>
+ * Ids are stored as variable length encoded indices (see {@link Id#index()}), the link ids of network
+ * routes thus need one to three bytes per link in most networks. Activity types, modes, route types and
+ * the classes of attributes are stored as indices into a table of strings which is shared by all plans
+ * encoded by the same codec. Attributes are stored as strings, converted in the same way as when the
+ * population is written to a file.
+ * <p>
+ * Only plans consisting of the default activity and leg implementations, and routes that can be created
+ * by the {@link RouteFactories}, can be encoded. For other plans, {@link #encode(List)} returns <code>null</code>.
+ * The codec is thread-safe.
+ *
+ * @see PopulationUtils#compactNonSelectedPlans(org.matsim.api.core.v01.population.Population, CompactPlanElementsCodec)
+ */
+public final class CompactPlanElementsCodec {
+
+	private static final byte ACTIVITY = 0;
+	private static final byte LEG = 1;
+
+	private static final byte NO_ROUTE = 0;
+	private static final byte NETWORK_ROUTE = 1;
+	private static final byte DESCRIBED_ROUTE = 2;
+
+	private static final int HAS_COORD = 1;
+	private static final int HAS_Z = 2;
+
+	private final RouteFactories routeFactories;
+	private final ObjectAttributesConverter attributesConverter = new ObjectAttributesConverter();
+
+	private final ConcurrentMap<String, Class<?>> createdRouteClasses = new ConcurrentHashMap<>();
+
+	private final ConcurrentMap<String, Integer> stringIndices = new ConcurrentHashMap<>();
+	private final ConcurrentMap<Integer, String> strings = new ConcurrentHashMap<>();
+
+	public CompactPlanElementsCodec(final RouteFactories routeFactories) {
+		this.routeFactories = routeFactories;
+	}
+
+	public void putAttributeConverters(final Map<Class<?>, AttributeConverter<?>> converters) {
+		this.attributesConverter.putAttributeConverters(converters);
+	}
+
+	/**
+	 * @return the encoded plan elements, or <code>null</code> if they cannot be encoded
+	 */
+	public byte[] encode(final List<PlanElement> planElements) {
+		Output out = new Output();
+		out.writeVarInt(planElements.size());
+		for (PlanElement pe : planElements) {
+			boolean isEncoded;
+			if (pe.getClass() == ActivityImpl.class) {
+				isEncoded = encodeActivity((Activity) pe, out);
+			} else if (pe.getClass() == LegImpl.class) {
+				isEncoded = encodeLeg((Leg) pe, out);
+			} else {
+				isEncoded = false;
+			}
+			if (!isEncoded) {
+				return null;
+			}
+		}
+		return out.toByteArray();
+	}
+
+	public List<PlanElement> decode(final byte[] data) {
+		return decode(data, this.ownTables);
+	}
+
+	/**
+	 * Decodes plan elements which were encoded by another codec, possibly in another process, see {@link Tables}.
+	 */
+	/* package */ List<PlanElement> decode(final byte[] data, final Tables tables) {
+		Input in = new Input(data, tables);
+		int size = in.readVarInt();
+		List<PlanElement> planElements = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			byte kind = in.readByte();
+			if (kind == ACTIVITY) {
+				planElements.add(decodeActivity(in));
+			} else {
+				planElements.add(decodeLeg(in));
+			}
+		}
+		return planElements;
+	}
+
+	private boolean encodeActivity(final Activity act, final Output out) {
+		out.writeByte(ACTIVITY);
+		out.writeVarInt(getStringIndex(act.getType()));
+		Coord coord = act.getCoord();
+		int flags = coord == null ? 0 : (coord.hasZ() ? HAS_COORD | HAS_Z : HAS_COORD);
+		out.writeVarInt(flags);
+		if (coord != null) {
+			out.writeDouble(coord.getX());
+			out.writeDouble(coord.getY());
+			if (coord.hasZ()) {
+				out.writeDouble(coord.getZ());
+			}
+		}
+		out.writeId(act.getLinkId());
+		out.writeId(act.getFacilityId());
+		out.writeTime(act.getStartTime());
+		out.writeTime(act.getEndTime());
+		out.writeTime(act.getMaximumDuration());
+		return encodeAttributes(act.getAttributes(), out);
+	}
+
+	private Activity decodeActivity(final Input in) {
+		ActivityImpl act = new ActivityImpl(in.readStringIndex());
+		int flags = in.readVarInt();
+		if ((flags & HAS_COORD) != 0) {
+			double x = in.readDouble();
+			double y = in.readDouble();
+			act.setCoord((flags & HAS_Z) != 0 ? new Coord(x, y, in.readDouble()) : new Coord(x, y));
+		}
+		act.setLinkId(in.readId(Link.class));
+		act.setFacilityId(in.readId(ActivityFacility.class));
+		in.readTime().ifDefinedOrElse(act::setStartTime, act::setStartTimeUndefined);
+		in.readTime().ifDefinedOrElse(act::setEndTime, act::setEndTimeUndefined);
+		in.readTime().ifDefinedOrElse(act::setMaximumDuration, act::setMaximumDurationUndefined);
+		decodeAttributes(act.getAttributes(), in);
+		return act;
+	}
+
+	private boolean encodeLeg(final Leg leg, final Output out) {
+		out.writeByte(LEG);
+		out.writeVarInt(getStringIndex(leg.getMode()));
+		out.writeTime(leg.getDepartureTime());
+		out.writeTime(leg.getTravelTime());
+		if (!encodeRoute(leg.getRoute(), out)) {
+			return false;
+		}
+		return encodeAttributes(leg.getAttributes(), out);
+	}
+
+	private Leg decodeLeg(final Input in) {
+		LegImpl leg = new LegImpl(in.readStringIndex());
+		in.readTime().ifDefinedOrElse(leg::setDepartureTime, leg::setDepartureTimeUndefined);
+		in.readTime().ifDefinedOrElse(leg::setTravelTime, leg::setTravelTimeUndefined);
+		leg.setRoute(decodeRoute(in));
+		decodeAttributes(leg.getAttributes(), in);
+		return leg;
+	}
+
+	private boolean encodeRoute(final Route route, final Output out) {
+		if (route == null) {
+			out.writeByte(NO_ROUTE);
+			return true;
+		}
+		// only routes which are re-created with the same class can be encoded
+		if (getCreatedRouteClass(route.getRouteType()) != route.getClass()) {
+			return false;
+		}
+		out.writeByte(route instanceof NetworkRoute ? NETWORK_ROUTE : DESCRIBED_ROUTE);
+		out.writeVarInt(getStringIndex(route.getRouteType()));
+		out.writeId(route.getStartLinkId());
+		out.writeId(route.getEndLinkId());
+		out.writeDouble(route.getDistance());
+		out.writeTime(route.getTravelTime());
+		if (route instanceof NetworkRoute) {
+			NetworkRoute networkRoute = (NetworkRoute) route;
+			out.writeDouble(networkRoute.getTravelCost());
+			out.writeId(networkRoute.getVehicleId());
+			LinkIdCursor linkIds = networkRoute.getLinkIdCursor();
+			out.writeVarInt(linkIds.size());
+			for (int i = 0, n = linkIds.size(); i < n; i++) {
+				out.writeVarInt(linkIds.getLinkId(i).index());
+			}
+		} else {
+			out.writeString(route.getRouteDescription());
+		}
+		return true;
+	}
+
+	private Route decodeRoute(final Input in) {
+		byte kind = in.readByte();
+		if (kind == NO_ROUTE) {
+			return null;
+		}
+		Class<? extends Route> routeClass = this.routeFactories.getRouteClassForType(in.readStringIndex());
+		Id<Link> startLinkId = in.readId(Link.class);
+		Id<Link> endLinkId = in.readId(Link.class);
+		Route route = this.routeFactories.createRoute(routeClass, startLinkId, endLinkId);
+		double distance = in.readDouble();
+		OptionalTime travelTime = in.readTime();
+		if (kind == NETWORK_ROUTE) {
+			NetworkRoute networkRoute = (NetworkRoute) route;
+			networkRoute.setTravelCost(in.readDouble());
+			networkRoute.setVehicleId(in.readId(Vehicle.class));
+			int[] linkIndices = new int[in.readVarInt()];
+			for (int i = 0; i < linkIndices.length; i++) {
+				linkIndices[i] = in.readVarInt();
+			}
+			networkRoute.setLinkIds(startLinkId, in.tables.getIds(linkIndices, Link.class), endLinkId);
+		} else {
+			String description = in.readString();
+			if (description != null) {
+				route.setRouteDescription(description);
+			}
+		}
+		// set after the description, which may contain its own values
+		route.setDistance(distance);
+		travelTime.ifDefinedOrElse(route::setTravelTime, route::setTravelTimeUndefined);
+		return route;
+	}
+
+	private boolean encodeAttributes(final Attributes attributes, final Output out) {
+		out.writeVarInt(attributes.size());
+		for (Map.Entry<String, Object> attribute : attributes.getAsMap().entrySet()) {
+			String value = this.attributesConverter.convertToString(attribute.getValue());
+			if (value == null) {
+				return false;
+			}
+			out.writeString(attribute.getKey());
+			out.writeVarInt(getStringIndex(attribute.getValue().getClass().getName()));
+			out.writeString(value);
+		}
+		return true;
+	}
+
+	private void decodeAttributes(final Attributes attributes, final Input in) {
+		int size = in.readVarInt();
+		for (int i = 0; i < size; i++) {
+			String name = in.readString();
+			String className = in.readStringIndex();
+			attributes.putAttribute(name, this.attributesConverter.convert(className, in.readString()));
+		}
+	}
+
+	/*
+	 * The route factories are registered by interface, hence the class of the routes they create is
+	 * only known after creating one.
+	 */
+	private Class<?> getCreatedRouteClass(final String routeType) {
+		return this.createdRouteClasses.computeIfAbsent(routeType, type ->
+				this.routeFactories.createRoute(this.routeFactories.getRouteClassForType(type), null, null).getClass());
+	}
+
+	private int getStringIndex(final String string) {
+		Integer index = this.stringIndices.get(string);
+		if (index != null) {
+			return index;
+		}
+		// new strings are added one at a time, so that no two strings get the same index
+		synchronized (this.stringIndices) {
+			return this.stringIndices.computeIfAbsent(string, s -> {
+				int newIndex = this.strings.size();
+				this.strings.put(newIndex, s.intern());
+				return newIndex;
+			});
+		}
+	}
+
+	private String getString(final int index) {
+		return this.strings.get(index);
+	}
+
+	/**
+	 * @return the strings referenced by the data encoded so far, in the order of their indices
+	 */
+	/* package */ String[] getStrings() {
+		String[] table = new String[this.strings.size()];
+		for (int i = 0; i < table.length; i++) {
+			table[i] = this.strings.get(i);
+		}
+		return table;
+	}
+
+	/**
+	 * Resolves the indices of strings and ids stored in encoded data. The indices are only valid in the process
+	 * and for the codec which encoded the data, data which is decoded elsewhere has to be accompanied by the
+	 * strings and ids they stand for.
+	 */
+	/* package */ interface Tables {
+		String getString(int index);
+
+		<T> Id<T> getId(int index, Class<T> type);
+
+		default <T> List<Id<T>> getIds(final int[] indices, final Class<T> type) {
+			List<Id<T>> ids = new ArrayList<>(indices.length);
+			for (int index : indices) {
+				ids.add(getId(index, type));
+			}
+			return ids;
+		}
+	}
+
+	private final Tables ownTables = new Tables() {
+		@Override
+		public String getString(final int index) {
+			return CompactPlanElementsCodec.this.getString(index);
+		}
+
+		@Override
+		public <T> Id<T> getId(final int index, final Class<T> type) {
+			return Id.get(index, type);
+		}
+
+		@Override
+		public <T> List<Id<T>> getIds(final int[] indices, final Class<T> type) {
+			return Id.get(indices, type);
+		}
+	};
+
+	private static final class Output {
+		private byte[] data = new byte[256];
+		private int length = 0;
+
+		private void ensureCapacity(final int additional) {
+			if (this.length + additional > this.data.length) {
+				this.data = Arrays.copyOf(this.data, Math.max(2 * this.data.length, this.length + additional));
+			}
+		}
+
+		void writeByte(final int b) {
+			ensureCapacity(1);
+			this.data[this.length++] = (byte) b;
+		}
+
+		void writeVarInt(int value) {
+			ensureCapacity(5);
+			while ((value & ~0x7F) != 0) {
+				this.data[this.length++] = (byte) ((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			this.data[this.length++] = (byte) value;
+		}
+
+		void writeDouble(final double value) {
+			ensureCapacity(8);
+			long bits = Double.doubleToRawLongBits(value);
+			for (int i = 0; i < 8; i++) {
+				this.data[this.length++] = (byte) (bits >>> (8 * i));
+			}
+		}
+
+		/* undefined times are stored as NaN, which is not a valid time */
+		void writeTime(final OptionalTime time) {
+			writeDouble(time.isDefined() ? time.seconds() : Double.NaN);
+		}
+
+		/* 0 stands for null, all other values for the index plus one */
+		void writeId(final Id<?> id) {
+			writeVarInt(id == null ? 0 : id.index() + 1);
+		}
+
+		/* 0 stands for null, all other values for the length plus one */
+		void writeString(final String string) {
+			if (string == null) {
+				writeVarInt(0);
+				return;
+			}
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length + 1);
+			ensureCapacity(bytes.length);
+			System.arraycopy(bytes, 0, this.data, this.length, bytes.length);
+			this.length += bytes.length;
+		}
+
+		byte[] toByteArray() {
+			return Arrays.copyOf(this.data, this.length);
+		}
+	}
+
+	private static final class Input {
+		private final byte[] data;
+		private final Tables tables;
+		private int position = 0;
+
+		Input(final byte[] data, final Tables tables) {
+			this.data = data;
+			this.tables = tables;
+		}
+
+		byte readByte() {
+			return this.data[this.position++];
+		}
+
+		int readVarInt() {
+			int value = 0;
+			int shift = 0;
+			byte b;
+			do {
+				b = this.data[this.position++];
+				value |= (b & 0x7F) << shift;
+				shift += 7;
+			} while ((b & 0x80) != 0);
+			return value;
+		}
+
+		double readDouble() {
+			long bits = 0;
+			for (int i = 0; i < 8; i++) {
+				bits |= (this.data[this.position++] & 0xFFL) << (8 * i);
+			}
+			return Double.longBitsToDouble(bits);
+		}
+
+		OptionalTime readTime() {
+			double seconds = readDouble();
+			return Double.isNaN(seconds) ? OptionalTime.undefined() : OptionalTime.defined(seconds);
+		}
+
+		<T> Id<T> readId(final Class<T> type) {
+			int value = readVarInt();
+			return value == 0 ? null : this.tables.getId(value - 1, type);
+		}
+
+		String readStringIndex() {
+			return this.tables.getString(readVarInt());
+		}
+
+		String readString() {
+			int value = readVarInt();
+			if (value == 0) {
+				return null;
+			}
+			String string = new String(this.data, this.position, value - 1, StandardCharsets.UTF_8);
+			this.position += value - 1;
+			return string;
+		}
+	}
+}
@@ -36,7 +36,16 @@ import org.matsim.utils.objectattributes.attributable.Attributes;
 
 /* deliberately package */  final class PlanImpl implements Plan {
 
-	private ArrayList<PlanElement> actsLegs = new ArrayList<>();
+	// volatile, so that a plan restored by one thread is seen completely by the others
+	private volatile ArrayList<PlanElement> actsLegs = new ArrayList<>();
+
+	/*
+	 * The plan elements in their compact form, see compact(...). When set, actsLegs is null and is
+	 * only restored when the plan elements are accessed. Switching between both forms is synchronized,
+	 * so a compact plan may be read by several threads at the same time.
+	 */
+	private byte[] compactActsLegs = null;
+	private CompactPlanElementsCodec codec = null;
 
 	private Double score = null;
 	private Person person = null;
@@ -122,17 +131,68 @@ import org.matsim.utils.objectattributes.attributable.Attributes;
 
 	@Override
 	public final List<PlanElement> getPlanElements() {
-		return this.actsLegs;
+		ArrayList<PlanElement> planElements = this.actsLegs;
+		return planElements != null ? planElements : materialize();
 	}
 
 	@Override
 	public final void addLeg(final Leg leg) {
-		this.actsLegs.add(leg);
+		getPlanElements().add(leg);
 	}
 
 	@Override
 	public final void addActivity(final Activity act) {
-		this.actsLegs.add(act);
+		getPlanElements().add(act);
+	}
+
+	/**
+	 * Replaces the plan elements by their compact form until they are accessed again.
+	 *
+	 * @return <code>true</code> if the plan elements were compacted by this call, <code>false</code> if they
+	 * already were compact or cannot be encoded by the codec and are kept as they are
+	 */
+	/* package */ synchronized boolean compact(final CompactPlanElementsCodec planElementsCodec) {
+		if (this.actsLegs == null) {
+			return false;
+		}
+		byte[] data = planElementsCodec.encode(this.actsLegs);
+		if (data == null) {
+			return false;
+		}
+		this.compactActsLegs = data;
+		this.codec = planElementsCodec;
+		this.actsLegs = null;
+		return true;
+	}
+
+	/**
+	 * Encodes the plan elements without restoring them if they are compacted, re-using the compact form if it
+	 * was created by the same codec.
+	 *
+	 * @return <code>null</code> if the plan elements cannot be encoded by the codec
+	 */
+	/* package */ synchronized byte[] encode(final CompactPlanElementsCodec planElementsCodec) {
+		if (this.actsLegs != null) {
+			return planElementsCodec.encode(this.actsLegs);
+		}
+		if (this.codec == planElementsCodec) {
+			return this.compactActsLegs;
+		}
+		return planElementsCodec.encode(this.codec.decode(this.compactActsLegs));
+	}
+
+	/* package */ boolean isCompact() {
+		return this.actsLegs == null;
+	}
+
+	private synchronized ArrayList<PlanElement> materialize() {
+		if (this.actsLegs == null) {
+			ArrayList<PlanElement> planElements = new ArrayList<>(this.codec.decode(this.compactActsLegs));
+			this.compactActsLegs = null;
+			this.codec = null;
+			this.actsLegs = planElements;
+		}
+		return this.actsLegs;
 	}
 
 	@Override
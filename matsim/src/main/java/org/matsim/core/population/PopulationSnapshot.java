@@ -0,0 +1,298 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * PopulationSnapshot.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PlanElement;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.core.utils.io.UncheckedIOException;
+import org.matsim.facilities.ActivityFacility;
+import org.matsim.utils.objectattributes.ObjectAttributesConverter;
+import org.matsim.utils.objectattributes.attributable.Attributes;
+import org.matsim.vehicles.Vehicle;
+
+/**
+ * A binary copy of all persons of a population with all their plans, scores and attributes, e.g. to continue
+ * a run from a checkpoint.
+ * <p>
+ * The copy is taken by {@link #create(Population, CompactPlanElementsCodec, ObjectAttributesConverter)} and does
+ * not change when the population changes later, so it can be written to a file by another thread. The plan
+ * elements are stored as encoded by the {@link CompactPlanElementsCodec}, together with the strings and ids the
+ * encoded data refers to, so that they can be restored in another process. Plan elements which cannot be encoded
+ * by the codec cannot be copied. Attributes are stored as strings, converted in the same way as when the population
+ * is written to a file.
+ */
+public final class PopulationSnapshot {
+
+	private static final Class<?>[] ID_TYPES = new Class<?>[] { Link.class, ActivityFacility.class, Vehicle.class };
+
+	private final String[] strings;
+	private final int[] numberOfIds;
+	private final List<byte[]> persons;
+
+	private PopulationSnapshot(final String[] strings, final int[] numberOfIds, final List<byte[]> persons) {
+		this.strings = strings;
+		this.numberOfIds = numberOfIds;
+		this.persons = persons;
+	}
+
+	/**
+	 * Copies all persons of the population. The persons are copied in parallel.
+	 *
+	 * @throws IllegalArgumentException if a plan contains elements that cannot be encoded by the codec
+	 */
+	public static PopulationSnapshot create(final Population population, final CompactPlanElementsCodec codec,
+			final ObjectAttributesConverter attributesConverter) {
+		List<byte[]> persons = population.getPersons().values().parallelStream()
+				.map(person -> encodePerson(person, codec, attributesConverter))
+				.collect(Collectors.toList());
+		// the strings and ids are only known after all persons are encoded
+		int[] numberOfIds = new int[ID_TYPES.length];
+		for (int i = 0; i < ID_TYPES.length; i++) {
+			numberOfIds[i] = Id.getNumberOfIds(ID_TYPES[i]);
+		}
+		return new PopulationSnapshot(codec.getStrings(), numberOfIds, persons);
+	}
+
+	public int getNumberOfPersons() {
+		return this.persons.size();
+	}
+
+	public void write(final DataOutput out) throws IOException {
+		out.writeInt(this.strings.length);
+		for (String string : this.strings) {
+			out.writeUTF(string);
+		}
+		for (int i = 0; i < ID_TYPES.length; i++) {
+			out.writeInt(this.numberOfIds[i]);
+			for (int index = 0; index < this.numberOfIds[i]; index++) {
+				out.writeUTF(Id.get(index, ID_TYPES[i]).toString());
+			}
+		}
+		out.writeInt(this.persons.size());
+		for (byte[] person : this.persons) {
+			out.writeInt(person.length);
+			out.write(person);
+		}
+	}
+
+	/**
+	 * Restores the persons written by {@link #write(DataOutput)} into the population. Persons which are already
+	 * part of the population get the plans and attributes from the snapshot, persons which are not part of the
+	 * snapshot are removed from the population.
+	 */
+	public static void read(final DataInput in, final Population population, final CompactPlanElementsCodec codec,
+			final ObjectAttributesConverter attributesConverter) throws IOException {
+		String[] strings = new String[in.readInt()];
+		for (int i = 0; i < strings.length; i++) {
+			strings[i] = in.readUTF().intern();
+		}
+		Map<Class<?>, Id<?>[]> ids = new HashMap<>();
+		for (Class<?> type : ID_TYPES) {
+			Id<?>[] typeIds = new Id<?>[in.readInt()];
+			for (int index = 0; index < typeIds.length; index++) {
+				typeIds[index] = Id.create(in.readUTF(), type);
+			}
+			ids.put(type, typeIds);
+		}
+		CompactPlanElementsCodec.Tables tables = new CompactPlanElementsCodec.Tables() {
+			@Override
+			public String getString(final int index) {
+				return strings[index];
+			}
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public <T> Id<T> getId(final int index, final Class<T> type) {
+				return (Id<T>) ids.get(type)[index];
+			}
+		};
+
+		int numberOfPersons = in.readInt();
+		List<byte[]> records = new ArrayList<>(numberOfPersons);
+		for (int i = 0; i < numberOfPersons; i++) {
+			byte[] record = new byte[in.readInt()];
+			in.readFully(record);
+			records.add(record);
+		}
+
+		PopulationFactory factory = population.getFactory();
+		List<Person> persons = records.parallelStream()
+				.map(record -> decodePerson(record, factory, codec, tables, attributesConverter))
+				.collect(Collectors.toList());
+
+		Map<Id<Person>, Person> restored = new HashMap<>();
+		for (Person person : persons) {
+			restored.put(person.getId(), person);
+		}
+		population.getPersons().keySet().stream()
+				.filter(personId -> !restored.containsKey(personId))
+				.collect(Collectors.toList())
+				.forEach(population::removePerson);
+		for (Person person : persons) {
+			Person existing = population.getPersons().get(person.getId());
+			if (existing == null) {
+				population.addPerson(person);
+			} else {
+				moveTo(person, existing);
+			}
+		}
+	}
+
+	/*
+	 * Moves plans and attributes to the person which is already part of the population, so that
+	 * references to that person stay valid.
+	 */
+	private static void moveTo(final Person from, final Person to) {
+		to.setSelectedPlan(null);
+		to.getPlans().clear();
+		Plan selectedPlan = from.getSelectedPlan();
+		for (Plan plan : from.getPlans()) {
+			to.addPlan(plan);
+		}
+		to.setSelectedPlan(selectedPlan);
+		to.getAttributes().clear();
+		for (Map.Entry<String, Object> attribute : from.getAttributes().getAsMap().entrySet()) {
+			to.getAttributes().putAttribute(attribute.getKey(), attribute.getValue());
+		}
+	}
+
+	private static byte[] encodePerson(final Person person, final CompactPlanElementsCodec codec,
+			final ObjectAttributesConverter attributesConverter) {
+		try {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+			DataOutputStream out = new DataOutputStream(bytes);
+			out.writeUTF(person.getId().toString());
+			writeAttributes(person.getAttributes(), out, attributesConverter);
+			List<? extends Plan> plans = person.getPlans();
+			out.writeInt(plans.size());
+			out.writeInt(plans.indexOf(person.getSelectedPlan()));
+			for (Plan plan : plans) {
+				Double score = plan.getScore();
+				out.writeBoolean(score != null);
+				if (score != null) {
+					out.writeDouble(score);
+				}
+				out.writeBoolean(plan.getType() != null);
+				if (plan.getType() != null) {
+					out.writeUTF(plan.getType());
+				}
+				writeAttributes(plan.getAttributes(), out, attributesConverter);
+				byte[] planElements = plan instanceof PlanImpl ? ((PlanImpl) plan).encode(codec) : codec.encode(plan.getPlanElements());
+				if (planElements == null) {
+					throw new IllegalArgumentException("The plan elements of person " + person.getId() + " cannot be encoded. "
+							+ "Only plans consisting of the default activity and leg implementations, and routes that can be "
+							+ "created by the route factories, are supported.");
+				}
+				out.writeInt(planElements.length);
+				out.write(planElements);
+			}
+			out.close();
+			return bytes.toByteArray();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private static Person decodePerson(final byte[] record, final PopulationFactory factory, final CompactPlanElementsCodec codec,
+			final CompactPlanElementsCodec.Tables tables, final ObjectAttributesConverter attributesConverter) {
+		try {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+			Person person = factory.createPerson(Id.createPersonId(in.readUTF()));
+			readAttributes(person.getAttributes(), in, attributesConverter);
+			int numberOfPlans = in.readInt();
+			int selectedPlanIndex = in.readInt();
+			for (int i = 0; i < numberOfPlans; i++) {
+				Plan plan = factory.createPlan();
+				if (in.readBoolean()) {
+					plan.setScore(in.readDouble());
+				}
+				if (in.readBoolean()) {
+					plan.setType(in.readUTF());
+				}
+				readAttributes(plan.getAttributes(), in, attributesConverter);
+				byte[] planElements = new byte[in.readInt()];
+				in.readFully(planElements);
+				for (PlanElement planElement : codec.decode(planElements, tables)) {
+					plan.getPlanElements().add(planElement);
+				}
+				person.addPlan(plan);
+			}
+			person.setSelectedPlan(selectedPlanIndex < 0 ? null : person.getPlans().get(selectedPlanIndex));
+			return person;
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/*
+	 * Attributes which cannot be converted are left out, as when writing the population to a file.
+	 */
+	private static void writeAttributes(final Attributes attributes, final DataOutput out,
+			final ObjectAttributesConverter attributesConverter) throws IOException {
+		List<String[]> converted = new ArrayList<>(attributes.size());
+		for (Map.Entry<String, Object> attribute : attributes.getAsMap().entrySet()) {
+			String value = attributesConverter.convertToString(attribute.getValue());
+			if (value != null) {
+				converted.add(new String[] { attribute.getKey(), attribute.getValue().getClass().getName(), value });
+			}
+		}
+		out.writeInt(converted.size());
+		for (String[] attribute : converted) {
+			out.writeUTF(attribute[0]);
+			out.writeUTF(attribute[1]);
+			// values may be longer than supported by writeUTF
+			byte[] value = attribute[2].getBytes(StandardCharsets.UTF_8);
+			out.writeInt(value.length);
+			out.write(value);
+		}
+	}
+
+	private static void readAttributes(final Attributes attributes, final DataInput in,
+			final ObjectAttributesConverter attributesConverter) throws IOException {
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			String name = in.readUTF();
+			String className = in.readUTF();
+			byte[] value = new byte[in.readInt()];
+			in.readFully(value);
+			attributes.putAttribute(name, attributesConverter.convert(className, new String(value, StandardCharsets.UTF_8)));
+		}
+	}
+}
@@ -131,8 +131,8 @@ public final class PopulationUtils {
 		RouteFactory factory;
 		if (PlansConfigGroup.NetworkRouteType.LinkNetworkRoute.equals(networkRouteType)) {
 			factory = new LinkNetworkRouteFactory();
-		} else if (PlansConfigGroup.NetworkRouteType.CompressedNetworkRoute.equals(networkRouteType) && network != null) {
-			factory = new CompressedNetworkRouteFactory(network);
+		} else if (PlansConfigGroup.NetworkRouteType.CompressedNetworkRoute.equals(networkRouteType)) {
+			factory = new CompressedNetworkRouteFactory();
 		} else {
 			throw new IllegalArgumentException("The type \"" + networkRouteType + "\" is not a supported type for network routes.");
 		}
@@ -1138,6 +1138,20 @@ public final class PopulationUtils {
 	public static OptionalTime decideOnTravelTimeForLeg( Leg leg ) {
 		return leg.getRoute() != null ? leg.getRoute().getTravelTime().or(leg::getTravelTime) : leg.getTravelTime();
 	}
+	/**
+	 * Replaces the plan elements of all plans which are not selected by a compact representation, see
+	 * {@link CompactPlanElementsCodec}. The plan elements are restored as soon as they are accessed, e.g.
+	 * when the plan is selected or written. Plans that do not use the default implementations, or whose
+	 * plan elements cannot be encoded, are left unchanged.
+	 *
+	 * @return the number of plans compacted by this call, not counting plans which already were compact
+	 */
+	public static long compactNonSelectedPlans( Population population, CompactPlanElementsCodec codec ) {
+		return population.getPersons().values().parallelStream()
+				.flatMap( person -> person.getPlans().stream().filter( plan -> plan != person.getSelectedPlan() ) )
+				.filter( plan -> plan instanceof PlanImpl && ((PlanImpl) plan).compact( codec ) )
+				.count();
+	}
 	public static void sampleDown( Population pop, double sample ) {
 		final Random rnd = MatsimRandom.getLocalInstance();;
 		log.info( "population size before downsampling=" + pop.getPersons().size() ) ;
@@ -0,0 +1,264 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ParallelPopulationReaderMatsimV6.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population.io;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Stack;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.apache.log4j.Logger;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.utils.objectattributes.AttributeConverter;
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
+
+import com.google.inject.Inject;
+
+/**
+ * Parallel implementation of the {@link PopulationReaderMatsimV6}. The main thread only reads
+ * the file, creates empty person objects and adds them to the population, so that their order
+ * is the same as in the file. The xml data of the persons is handed over in chunks of persons
+ * to the parallel threads, which create the plans, routes and attributes of the persons.
+ * <p>
+ * The population itself, including its attributes and coordinate reference system, is read by
+ * the main thread. As in the {@link ParallelPopulationReaderMatsimV4}, population streaming is not
+ * supported. When it is activated, the non-parallel reader is used.
+ */
+/* deliberately package */ class ParallelPopulationReaderMatsimV6 extends PopulationReaderMatsimV6 {
+
+	private static final Logger log = Logger.getLogger(ParallelPopulationReaderMatsimV6.class);
+
+	/*
+	 * Handing over single persons makes the threads compete for the queue, hence several persons
+	 * are collected before they are added to it.
+	 */
+	static final int PERSONS_PER_CHUNK = 100;
+
+	private final Scenario scenario;
+	private final boolean isPopulationStreaming;
+	private final int numThreads;
+	private final BlockingQueue<List<Tag>> queue;
+	private final Map<Class<?>, AttributeConverter<?>> attributeConverters = new HashMap<>();
+	private boolean convertingAttributesLazily = false;
+
+	private Thread[] threads;
+	private ParallelPopulationReaderMatsimV6Runner[] runners;
+	private List<Tag> currentChunk;
+	private int personsInCurrentChunk = 0;
+	private boolean isInPerson = false;
+
+	ParallelPopulationReaderMatsimV6(
+			final String inputCRS,
+			final String targetCRS,
+			final Scenario scenario) {
+		super(inputCRS, targetCRS, scenario);
+		this.scenario = scenario;
+
+		if (scenario.getPopulation() instanceof StreamingPopulationReader.StreamingPopulation) {
+			log.warn("Population streaming is activated - cannot use " + ParallelPopulationReaderMatsimV6.class.getName() + "!");
+
+			this.isPopulationStreaming = true;
+			this.numThreads = 1;
+			this.queue = null;
+		} else {
+			this.isPopulationStreaming = false;
+			this.numThreads = Math.max(scenario.getConfig().global().getNumberOfThreads(), 1);
+			this.queue = new LinkedBlockingQueue<>();
+		}
+	}
+
+	@Override
+	public void putAttributeConverter(final Class<?> clazz, AttributeConverter<?> converter) {
+		super.putAttributeConverter(clazz, converter);
+		this.attributeConverters.put(clazz, converter);
+	}
+
+	@Override
+	@Inject
+	public void putAttributeConverters(final Map<Class<?>, AttributeConverter<?>> converters) {
+		super.putAttributeConverters(converters);
+		this.attributeConverters.putAll(converters);
+	}
+
+	@Override
+	void setConvertingAttributesLazily(final boolean convertingLazily) {
+		super.setConvertingAttributesLazily(convertingLazily);
+		this.convertingAttributesLazily = convertingLazily;
+	}
+
+	private void initThreads() {
+		this.threads = new Thread[this.numThreads];
+		this.runners = new ParallelPopulationReaderMatsimV6Runner[this.numThreads];
+		for (int i = 0; i < this.numThreads; i++) {
+
+			// the runners use the transformation that results from the population attributes read so far
+			ParallelPopulationReaderMatsimV6Runner runner =
+					new ParallelPopulationReaderMatsimV6Runner(
+							this.coordinateTransformation,
+							this.scenario,
+							this.queue);
+			runner.putAttributeConverters(this.attributeConverters);
+			runner.setConvertingAttributesLazily(this.convertingAttributesLazily);
+
+			Thread thread = new Thread(runner);
+			thread.setDaemon(true);
+			thread.setName(ParallelPopulationReaderMatsimV6Runner.class.getSimpleName() + i);
+			this.runners[i] = runner;
+			this.threads[i] = thread;
+			thread.start();
+		}
+	}
+
+	@Override
+	public void startTag(final String name, final Attributes atts, final Stack<String> context) {
+
+		// if population streaming is activated, use non-parallel reader
+		if (this.isPopulationStreaming) {
+			super.startTag(name, atts, context);
+			return;
+		}
+
+		if (PERSON.equals(name)) {
+			if (this.threads == null) {
+				log.info("Start parallel population reading...");
+				initThreads();
+			}
+			if (this.currentChunk == null) {
+				this.currentChunk = new ArrayList<>();
+			}
+
+			Person person = PopulationUtils.getFactory().createPerson(Id.create(atts.getValue("id"), Person.class));
+			this.scenario.getPopulation().addPerson(person);
+			this.isInPerson = true;
+
+			PersonTag tag = new PersonTag();
+			tag.name = name;
+			tag.person = person;
+			this.currentChunk.add(tag);
+		} else if (this.isInPerson) {
+			StartTag tag = new StartTag();
+			tag.name = name;
+			tag.atts = new AttributesImpl(atts);	// We have to create copies of the attributes because the object is re-used by the parser!
+			this.currentChunk.add(tag);
+		} else {
+			super.startTag(name, atts, context);
+		}
+	}
+
+	@Override
+	public void endTag(final String name, final String content, final Stack<String> context) {
+
+		// if population streaming is activated, use non-parallel reader
+		if (this.isPopulationStreaming) {
+			super.endTag(name, content, context);
+			return;
+		}
+
+		if (this.isInPerson) {
+			EndTag tag = new EndTag();
+			tag.name = name;
+			tag.content = content;
+			this.currentChunk.add(tag);
+
+			if (PERSON.equals(name)) {
+				this.isInPerson = false;
+				this.personsInCurrentChunk++;
+				if (this.personsInCurrentChunk == PERSONS_PER_CHUNK) {
+					flushChunk();
+				}
+			}
+		} else if (POPULATION.equals(name)) {
+			if (this.threads != null) {
+				finishThreads();
+				log.info("Finished parallel population reading...");
+			}
+			super.endTag(name, content, context);
+		} else {
+			super.endTag(name, content, context);
+		}
+	}
+
+	private void flushChunk() {
+		if (this.currentChunk != null && !this.currentChunk.isEmpty()) {
+			this.queue.add(this.currentChunk);
+		}
+		this.currentChunk = null;
+		this.personsInCurrentChunk = 0;
+	}
+
+	private void finishThreads() {
+		flushChunk();
+
+		// signal the threads that they should end parsing
+		for (int i = 0; i < this.numThreads; i++) {
+			List<Tag> list = new ArrayList<>();
+			list.add(new EndProcessingTag());
+			this.queue.add(list);
+		}
+
+		// wait for the threads to finish
+		try {
+			for (Thread thread : this.threads) {
+				thread.join();
+			}
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+
+		for (ParallelPopulationReaderMatsimV6Runner runner : this.runners) {
+			if (runner.getException() != null) {
+				throw new RuntimeException("Exception while reading the persons in parallel.", runner.getException());
+			}
+		}
+	}
+
+	abstract static class Tag {
+		String name;
+	}
+
+	static final class StartTag extends Tag {
+		Attributes atts;
+	}
+
+	/*
+	 * Start tag of a person. The person has already been created and added to the population.
+	 */
+	static final class PersonTag extends Tag {
+		Person person;
+	}
+
+	static final class EndTag extends Tag {
+		String content;
+	}
+
+	/*
+	 * Marker Tag to inform the threads that no further data has to be parsed.
+	 */
+	static final class EndProcessingTag extends Tag {
+	}
+}
@@ -0,0 +1,108 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ParallelPopulationReaderMatsimV6Runner.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population.io;
+
+import java.util.List;
+import java.util.Stack;
+import java.util.concurrent.BlockingQueue;
+
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.core.population.io.ParallelPopulationReaderMatsimV6.EndProcessingTag;
+import org.matsim.core.population.io.ParallelPopulationReaderMatsimV6.EndTag;
+import org.matsim.core.population.io.ParallelPopulationReaderMatsimV6.PersonTag;
+import org.matsim.core.population.io.ParallelPopulationReaderMatsimV6.StartTag;
+import org.matsim.core.population.io.ParallelPopulationReaderMatsimV6.Tag;
+import org.matsim.core.utils.geometry.CoordinateTransformation;
+
+/**
+ * Runnable used by ParallelPopulationReaderMatsimV6.
+ * Processes the xml data of chunks of persons taken from a BlockingQueue
+ * which is filled in the main class.
+ */
+/* deliberately package */ class ParallelPopulationReaderMatsimV6Runner extends PopulationReaderMatsimV6 implements Runnable {
+
+	private final BlockingQueue<List<Tag>> queue;
+
+	/*
+	 * The parser's context is not handed over with the tags, it is rebuilt while replaying them.
+	 * All tags handed over to this runner are located within the population element.
+	 */
+	private final Stack<String> context = new Stack<>();
+
+	private volatile Throwable exception = null;
+
+	ParallelPopulationReaderMatsimV6Runner(
+			final CoordinateTransformation coordinateTransformation,
+			final Scenario scenario,
+			final BlockingQueue<List<Tag>> queue) {
+		// the coordinate reference systems have already been handled by the main reader
+		super(null, null, scenario);
+		this.coordinateTransformation = coordinateTransformation;
+		this.queue = queue;
+		this.context.push(POPULATION);
+	}
+
+	@Override
+	public void run() {
+		/*
+		 * The thread will go on with the parsing until an EndProcessingTag is found,
+		 * which calls "return".
+		 */
+		try {
+			while (true) {
+				List<Tag> tags = this.queue.take();
+
+				for (Tag tag : tags) {
+					if (tag instanceof PersonTag) {
+						this.currperson = ((PersonTag) tag).person;
+						this.context.push(tag.name);
+					} else if (tag instanceof StartTag) {
+						this.startTag(tag.name, ((StartTag) tag).atts, this.context);
+						this.context.push(tag.name);
+					} else if (tag instanceof EndTag) {
+						this.context.pop();
+						/*
+						 * If it is a person tag, we reset the current person. We do not hand the
+						 * tag over to the superclass because the person has already been added
+						 * to the population.
+						 */
+						if (PERSON.equals(tag.name)) {
+							this.currperson = null;
+						} else {
+							this.endTag(tag.name, ((EndTag) tag).content, this.context);
+						}
+					} else if (tag instanceof EndProcessingTag) {
+						return;
+					}
+				}
+			}
+		} catch (InterruptedException e) {
+			this.exception = e;
+		} catch (RuntimeException e) {
+			// re-thrown by the main thread once all threads have finished
+			this.exception = e;
+		}
+	}
+
+	Throwable getException() {
+		return this.exception;
+	}
+}
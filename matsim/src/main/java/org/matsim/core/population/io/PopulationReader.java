@@ -58,6 +58,7 @@ public final class PopulationReader extends MatsimXmlParser {
 	private final Scenario scenario;
 
 	private Map<Class<?>, AttributeConverter<?>> attributeConverters = new HashMap<>();
+	private boolean convertingAttributesLazily = false;
 
 	private static final Logger log = Logger.getLogger(PopulationReader.class);
 
@@ -91,6 +92,16 @@ public final class PopulationReader extends MatsimXmlParser {
 		attributeConverters.putAll( converters );
 	}
 
+	/**
+	 * Sets, if the values of attributes should only be converted when they are accessed the first time. This is
+	 * only supported by population_v6 files, older formats do not have attributes.
+	 *
+	 * @see org.matsim.utils.objectattributes.attributable.AttributesXmlReaderDelegate#setConvertingLazily(boolean)
+	 */
+	public void setConvertingAttributesLazily( final boolean convertingLazily ) {
+		this.convertingAttributesLazily = convertingLazily;
+	}
+
 	@Override
 	public void startTag(final String name, final Attributes atts, final Stack<String> context) {
 		this.delegate.startTag(name, atts, context);
@@ -115,11 +126,12 @@ public final class PopulationReader extends MatsimXmlParser {
 		switch ( doctype ) {
 			case POPULATION_V6:
 				this.delegate =
-						new PopulationReaderMatsimV6(
+						new ParallelPopulationReaderMatsimV6(
 						        inputCRS,
 						        targetCRS,
 								this.scenario);
 				((PopulationReaderMatsimV6) delegate).putAttributeConverters( attributeConverters );
+				((PopulationReaderMatsimV6) delegate).setConvertingAttributesLazily( convertingAttributesLazily );
 				log.info("using population_v6-reader.");
 				break;
 			case POPULATION_V5:
@@ -65,8 +65,8 @@ import com.google.inject.Inject;
 /* deliberately package */ class PopulationReaderMatsimV6 extends MatsimXmlParser implements MatsimReader {
     private static final Logger log = Logger.getLogger(PopulationReaderMatsimV6.class);
 
-	private final static String POPULATION = "population";
-	private final static String PERSON = "person";
+	final static String POPULATION = "population";
+	final static String PERSON = "person";
 	private final static String ATTRIBUTES = "attributes";
 	private final static String ATTRIBUTE = "attribute";
 	private final static String PLAN = "plan";
@@ -106,7 +106,7 @@ import com.google.inject.Inject;
 	private final Population plans;
 	private final String externalInputCRS;
 
-	private Person currperson = null;
+	Person currperson = null;
 	private Plan currplan = null;
 	private Activity curract = null;
 	private Leg currleg = null;
@@ -115,7 +115,7 @@ import com.google.inject.Inject;
 	private org.matsim.utils.objectattributes.attributable.Attributes currAttributes = null;
 
 	private final String targetCRS;
-	private CoordinateTransformation coordinateTransformation = new IdentityTransformation();
+	CoordinateTransformation coordinateTransformation = new IdentityTransformation();
 
 	private Activity prevAct = null;
 
@@ -143,6 +143,13 @@ import com.google.inject.Inject;
 		attributesReader.putAttributeConverters( converters );
 	}
 
+	/**
+	 * @see AttributesXmlReaderDelegate#setConvertingLazily(boolean)
+	 */
+	void setConvertingAttributesLazily( final boolean convertingLazily ) {
+		attributesReader.setConvertingLazily( convertingLazily );
+	}
+
 	@Override
 	public void startTag(final String name, final Attributes atts, final Stack<String> context) {
 		switch( name ) {
@@ -20,10 +20,20 @@
 
 package org.matsim.core.population.io;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.network.Network;
@@ -52,6 +62,10 @@ public final class PopulationWriter extends AbstractMatsimWriter implements Mats
 	private final static Logger log = Logger.getLogger(PopulationWriter.class);
 	private Map<Class<?>,AttributeConverter<?>> converters = new HashMap<>();
 
+	/* number of persons that are formatted as one piece of work when writing with several threads */
+	static final int PERSONS_PER_CHUNK = 1000;
+	private int numberOfThreads = 1;
+
 
 	public PopulationWriter(final Population population) {
 		this(population, null, 1.0);
@@ -128,6 +142,16 @@ public final class PopulationWriter extends AbstractMatsimWriter implements Mats
 		this.converters.put( key, converter );
 	}
 
+	/**
+	 * Sets the number of threads used for writing. With more than one thread, the persons are formatted
+	 * in chunks on parallel threads (only for the population_v6 format), and gzip or ZStandard compressed
+	 * files are compressed in parallel. The content of the written file does not depend on the number of threads,
+	 * but gzip files are written as multi-member gzip files.
+	 */
+	public void setNumberOfThreads( final int numberOfThreads ) {
+		this.numberOfThreads = Math.max( numberOfThreads, 1 );
+	}
+
 	/**
 	 * Writes all plans to the file.
 	 */
@@ -135,7 +159,7 @@ public final class PopulationWriter extends AbstractMatsimWriter implements Mats
 	public final void write(final String filename) {
 		try {
 			this.handler.putAttributeConverters(converters);
-			this.openFile(filename);
+			this.openFile(filename, this.numberOfThreads);
 			this.handler.writeHeaderAndStartElement(this.writer);
 			this.handler.startPlans(this.population, this.writer);
 			this.handler.writeSeparator(this.writer);
@@ -175,11 +199,70 @@ public final class PopulationWriter extends AbstractMatsimWriter implements Mats
 
 
 	private  final void writePersons() {
+		if (this.numberOfThreads > 1 && this.handler instanceof PopulationWriterHandlerImplV6) {
+			writePersonsParallel();
+			return;
+		}
 		for (Person p : PopulationUtils.getSortedPersons(this.population).values()) {
 			writePerson(p);
 		}
 	}
 
+	private void writePersonsParallel() {
+		// the persons to write are drawn on this thread, so that the random numbers are the same as when writing serially
+		List<Person> persons = new ArrayList<>();
+		for (Person p : PopulationUtils.getSortedPersons(this.population).values()) {
+			if ((this.write_person_fraction < 1.0) && (MatsimRandom.getRandom().nextDouble() >= this.write_person_fraction)) {
+				continue;
+			}
+			persons.add(p);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(this.numberOfThreads, runnable -> {
+			Thread thread = new Thread(runnable, PopulationWriter.class.getSimpleName());
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			// chunks are written in their order, at most two chunks per thread are kept in memory
+			Deque<Future<String>> pendingChunks = new ArrayDeque<>();
+			for (int start = 0; start < persons.size(); start += PERSONS_PER_CHUNK) {
+				List<Person> chunk = persons.subList(start, Math.min(start + PERSONS_PER_CHUNK, persons.size()));
+				pendingChunks.addLast(executor.submit(() -> formatPersons(chunk)));
+				if (pendingChunks.size() >= 2 * this.numberOfThreads) {
+					writeChunk(pendingChunks.pollFirst());
+				}
+			}
+			while (!pendingChunks.isEmpty()) {
+				writeChunk(pendingChunks.pollFirst());
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private String formatPersons(final List<Person> persons) throws IOException {
+		StringWriter chunk = new StringWriter();
+		try (BufferedWriter chunkWriter = new BufferedWriter(chunk)) {
+			for (Person person : persons) {
+				this.handler.writePerson(person, chunkWriter);
+				counter.incCounter();
+			}
+		}
+		return chunk.toString();
+	}
+
+	private void writeChunk(final Future<String> pendingChunk) {
+		try {
+			String chunk = pendingChunk.get();
+			this.writer.write(chunk);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} catch (InterruptedException | ExecutionException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
 	private final void writePerson(final Person person) {
 		try {
 			if ((this.write_person_fraction < 1.0) && (MatsimRandom.getRandom().nextDouble() >= this.write_person_fraction)) {
@@ -20,37 +20,31 @@
 
 package org.matsim.core.population.routes;
 
-import java.util.Map;
-
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
 import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.population.Route;
-import org.matsim.core.network.algorithms.SubsequentLinksAnalyzer;
 
+/**
+ * Creates {@link NetworkRoute}s which store the links of the route as compact as possible, see
+ * {@link CompressedNetworkRouteImpl}.
+ */
 public final class CompressedNetworkRouteFactory implements RouteFactory {
 
-	private Map<Id<Link>, Id<Link>> subsequentLinks = null;
-	private final Network network;
+	public CompressedNetworkRouteFactory() {
+	}
+
 	/**
-	 * Uses {@link SubsequentLinksAnalyzer} to get the map of subsequent links,
-	 * used to compress the route information stored.
-	 *
-	 * @param network
+	 * @deprecated the network is no longer needed to compress the routes, use {@link #CompressedNetworkRouteFactory()}
 	 */
+	@Deprecated
 	public CompressedNetworkRouteFactory(final Network network) {
-		this.network = network;
+		this();
 	}
 
 	@Override
 	public Route createRoute(final Id<Link> startLinkId, final Id<Link> endLinkId) {
-		if ( network==null ) {
-			throw new RuntimeException( "need to set Network in Population in order to be able to create compressed routes") ;
-		}
-		if (this.subsequentLinks == null) {
-			this.subsequentLinks = new SubsequentLinksAnalyzer(this.network).getSubsequentLinks();
-		}
-		return new CompressedNetworkRouteImpl(startLinkId, endLinkId, this.network, this.subsequentLinks);
+		return new CompressedNetworkRouteImpl(startLinkId, endLinkId);
 	}
 	
 	@Override
@@ -21,13 +21,11 @@
 package org.matsim.core.population.routes;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
 
-import org.apache.log4j.Logger;
 import org.matsim.api.core.v01.Id;
 import org.matsim.api.core.v01.network.Link;
-import org.matsim.api.core.v01.network.Network;
 import org.matsim.core.network.NetworkUtils;
 import org.matsim.vehicles.Vehicle;
 
@@ -35,104 +33,62 @@ import org.matsim.vehicles.Vehicle;
  * Implementation of {@link NetworkRoute} that tries to minimize the amount of
  * data needed to be stored for each route. This will give some memory savings,
  * allowing for larger scenarios (=more agents), especially on detailed
- * networks, but is likely a bit slower due to the more complex access of the
- * route information internally.
+ * networks.
  *
  * <p>Description of the compression algorithm:<br />
- * Given a map containing for each link a defined successor (subsequentLinks-map), this implementation
- * does not store the links in its route-information that are the same as the successor defined in the
- * subsequentLinks-map.<br />
- * Given a startLinkId, endLinkId and a list of linkIds to be stored, this implementation stores
- * first the startLinkId. Next, if the successor of the startLinkId is different from the first linkId
- * in the list, this linkId is stored, otherwise not. Then the successor of that linkId is compared to
- * the next linkId in the list. If the successor is different, the linkId is stored, otherwise not.
- * This procedure is repeated until the complete list of linkIds is processed.
+ * Instead of the link ids, the {@link Id#index() indices} of the link ids are stored. Each index is
+ * stored as the difference to the index of the previous link of the route, starting with the start link,
+ * as zigzag-encoded variable-length integer: 7 bits per byte, with the highest bit set if another byte
+ * follows. Links which were created one after the other, e.g. when reading the network, often have
+ * close indices, so most links of a route need only one or two bytes.
+ * </p>
+ *
+ * <p>Decoding the route does not need the network. The links can be accessed one by one with the
+ * {@link #getLinkIdCursor() cursor}, without creating the list returned by {@link #getLinkIds()}.
  * </p>
  *
  * @author mrieser
  */
 final class CompressedNetworkRouteImpl extends AbstractRoute implements NetworkRoute, Cloneable {
 
-	private final static Logger log = Logger.getLogger(CompressedNetworkRouteImpl.class);
+	private static final byte[] EMPTY = new byte[0];
 
-	private ArrayList<Id<Link>> route = new ArrayList<Id<Link>>(0);
-	private final Map<Id<Link>, Id<Link>> subsequentLinks;
-	private double travelCost = Double.NaN;
-	/** number of links in uncompressed route */
+	private byte[] route = EMPTY;
+	/** index of the start link when the route was encoded, the first difference is relative to it */
+	private int startLinkIndex = 0;
+	/** number of links in uncompressed route, or <code>-1</code> if the links were never set */
 	private int uncompressedLength = -1;
-	private int modCount = 0;
-	private int routeModCountState = 0;
+	private double travelCost = Double.NaN;
 	private Id<Vehicle> vehicleId = null;
-	private final Network network;
 
-	public CompressedNetworkRouteImpl(final Id<Link> startLinkId, final Id<Link> endLinkId, Network network, final Map<Id<Link>, Id<Link>> subsequentLinks) {
+	public CompressedNetworkRouteImpl(final Id<Link> startLinkId, final Id<Link> endLinkId) {
 		super(startLinkId, endLinkId);
-		this.network = network;
-		this.subsequentLinks = subsequentLinks;
 	}
 
 	@Override
 	public CompressedNetworkRouteImpl clone() {
-		CompressedNetworkRouteImpl cloned = (CompressedNetworkRouteImpl) super.clone();
-		ArrayList<Id<Link>> tmpRoute = cloned.route;
-		cloned.route = new ArrayList<Id<Link>>(tmpRoute); // deep copy
-		return cloned;
+		// the encoded route is never changed, but replaced by setLinkIds(...), so it can be shared
+		return (CompressedNetworkRouteImpl) super.clone();
 	}
 
 	@Override
 	public List<Id<Link>> getLinkIds() {
-		if (this.uncompressedLength < 0) { // it seems the route never got initialized correctly
-			return new ArrayList<Id<Link>>(0);
-		}
-		ArrayList<Id<Link>> links = new ArrayList<Id<Link>>(this.uncompressedLength);
-		if (this.modCount != this.routeModCountState) {
-			log.error("Route was modified after storing it! modCount=" + this.modCount + " routeModCount=" + this.routeModCountState);
-			return links;
-		}
-		Id<Link> previousLinkId = getStartLinkId();
-		Id<Link> endLinkId = getEndLinkId();
-		if ((previousLinkId == null) || (endLinkId == null)) {
-			return links;
-		}
-		if (previousLinkId.equals(endLinkId)) {
-			return links;
+		if (this.uncompressedLength <= 0) { // the route may never have been initialized
+			return new ArrayList<>(0);
 		}
-		for (Id<Link> linkId : this.route) {
-			getLinksTillLink(links, linkId, previousLinkId);
-			links.add(linkId);
-			previousLinkId = linkId;
+		ArrayList<Id<Link>> links = new ArrayList<>(this.uncompressedLength);
+		LinkIdCursor cursor = getLinkIdCursor();
+		for (int i = 0; i < this.uncompressedLength; i++) {
+			links.add(cursor.getLinkId(i));
 		}
-		getLinksTillLink(links, endLinkId, previousLinkId);
-
 		return links;
 	}
 
-	private void getLinksTillLink(final List<Id<Link>> links, final Id<Link> nextLinkId, final Id<Link> startLinkId) {
-		Id<Link> linkId = startLinkId;
-		Link nextLink = this.network.getLinks().get(nextLinkId);
-		while (true) { // loop until we hit "return;"
-			Link link = this.network.getLinks().get(linkId);
-			if (link.getToNode() == nextLink.getFromNode()) {
-				return;
-			}
-			linkId = this.subsequentLinks.get(linkId);
-			links.add(linkId);
-		}
+	@Override
+	public LinkIdCursor getLinkIdCursor() {
+		return new Cursor();
 	}
 
-//	@Override
-//	public void setEndLinkId(final Id<Link> linkId) {
-//		this.modCount++;
-//		super.setEndLinkId(linkId);
-//	}
-//
-//	@Override
-//	public void setStartLinkId(final Id<Link> linkId) {
-//		this.modCount++;
-//		super.setStartLinkId(linkId);
-//	}
-	// AbstractRoute is now implements Lockable and I have addressed this via that feature.  kai, sep/17
-
 	@Override
 	public NetworkRoute getSubRoute(Id<Link> fromLinkId, Id<Link> toLinkId) {
 		List<Id<Link>> newLinkIds = new ArrayList<Id<Link>>(10);
@@ -175,7 +131,7 @@ final class CompressedNetworkRouteImpl extends AbstractRoute implements NetworkR
 				throw new IllegalArgumentException("toLinkId is not part of this route.");
 			}
 		}
-		NetworkRoute subRoute = new CompressedNetworkRouteImpl(fromLinkId, toLinkId, this.network, this.subsequentLinks);
+		NetworkRoute subRoute = new CompressedNetworkRouteImpl(fromLinkId, toLinkId);
 		subRoute.setLinkIds(fromLinkId, newLinkIds, toLinkId);
 		return subRoute;
 	}
@@ -192,24 +148,33 @@ final class CompressedNetworkRouteImpl extends AbstractRoute implements NetworkR
 
 	@Override
 	public void setLinkIds(final Id<Link> startLinkId, final List<Id<Link>> srcRoute, final Id<Link> endLinkId) {
-		this.route.clear();
 		setStartLinkId(startLinkId);
 		setEndLinkId(endLinkId);
-		this.routeModCountState = this.modCount;
 		if ((srcRoute == null) || (srcRoute.size() == 0)) {
+			this.route = EMPTY;
 			this.uncompressedLength = 0;
 			return;
 		}
-		Id<Link> previousLinkId = startLinkId;
+		byte[] data = new byte[srcRoute.size() * 2];
+		int length = 0;
+		int previousIndex = startLinkId.index();
 		for (Id<Link> linkId : srcRoute) {
-			if (!this.subsequentLinks.get(previousLinkId).equals(linkId)) {
-				this.route.add(linkId);
+			if (data.length - length < 5) {
+				data = Arrays.copyOf(data, data.length * 2);
+			}
+			int index = linkId.index();
+			int delta = index - previousIndex;
+			int value = (delta << 1) ^ (delta >> 31); // zigzag, so small negative differences stay small
+			while ((value & ~0x7f) != 0) {
+				data[length++] = (byte) ((value & 0x7f) | 0x80);
+				value >>>= 7;
 			}
-			previousLinkId = linkId;
+			data[length++] = (byte) value;
+			previousIndex = index;
 		}
-		this.route.trimToSize();
+		this.route = Arrays.copyOf(data, length);
+		this.startLinkIndex = startLinkId.index();
 		this.uncompressedLength = srcRoute.size();
-//		System.out.println("uncompressed size: \t" + this.uncompressedLength + "\tcompressed size: \t" + this.route.size());
 		
 		this.setLocked() ;
 	}
@@ -233,12 +198,13 @@ final class CompressedNetworkRouteImpl extends AbstractRoute implements NetworkR
 	public String getRouteDescription() {
 		StringBuilder desc = new StringBuilder(100);
 		desc.append(this.getStartLinkId().toString());
-		for (Id<Link> linkId : this.getLinkIds()) {
+		LinkIdCursor cursor = getLinkIdCursor();
+		for (int i = 0, n = cursor.size(); i < n; i++) {
 			desc.append(" ");
-			desc.append(linkId.toString());
+			desc.append(cursor.getLinkId(i).toString());
 		}
 		// If the start links equals the end link additionally check if its is a round trip. 
-		if (!this.getEndLinkId().equals(this.getStartLinkId()) || this.getLinkIds().size() > 0) {
+		if (!this.getEndLinkId().equals(this.getStartLinkId()) || cursor.size() > 0) {
 			desc.append(" ");
 			desc.append(this.getEndLinkId().toString());
 		}
@@ -262,4 +228,51 @@ final class CompressedNetworkRouteImpl extends AbstractRoute implements NetworkR
 		
 	}
 	
+	/*
+	 * Decodes the link indices one after the other. If the links of the route are set again, the cursor
+	 * starts over with the new links.
+	 */
+	private final class Cursor implements LinkIdCursor {
+
+		private byte[] data = null;
+		private int size;
+		/** position of the current link, -1 before the first link */
+		private int index;
+		/** offset of the next byte to decode */
+		private int offset;
+		private int linkIndex;
+
+		@Override
+		public int size() {
+			return Math.max(0, CompressedNetworkRouteImpl.this.uncompressedLength);
+		}
+
+		@Override
+		public Id<Link> getLinkId(final int index) {
+			if (this.data != CompressedNetworkRouteImpl.this.route || index < this.index) {
+				this.data = CompressedNetworkRouteImpl.this.route;
+				this.size = size();
+				this.index = -1;
+				this.offset = 0;
+				this.linkIndex = CompressedNetworkRouteImpl.this.startLinkIndex;
+			}
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
+			while (this.index < index) {
+				int value = 0;
+				int shift = 0;
+				byte b;
+				do {
+					b = this.data[this.offset++];
+					value |= (b & 0x7f) << shift;
+					shift += 7;
+				} while (b < 0);
+				this.linkIndex += (value >>> 1) ^ -(value & 1);
+				this.index++;
+			}
+			return Id.get(this.linkIndex, Link.class);
+		}
+	}
+
 }
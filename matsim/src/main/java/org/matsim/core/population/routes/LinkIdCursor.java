@@ -0,0 +1,49 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * LinkIdCursor.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population.routes;
+
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+
+/**
+ * Gives access to the link ids of a {@link NetworkRoute} one by one, without creating the list returned by
+ * {@link NetworkRoute#getLinkIds()}. As for that list, the start and end link of the route are not included.
+ * <p>
+ * A cursor remembers its position in the route: accessing the same or the next link id as before is cheap for
+ * every implementation, so the link ids should be accessed in the order of the route, as when driving along it.
+ * A cursor is not thread-safe.
+ *
+ * @see NetworkRoute#getLinkIdCursor()
+ */
+public interface LinkIdCursor {
+
+	/**
+	 * @return the number of link ids in the route
+	 */
+	int size();
+
+	/**
+	 * @return the link id at the given position, from <code>0</code> to <code>size() - 1</code>
+	 * @throws IndexOutOfBoundsException if there is no link id at the given position
+	 */
+	Id<Link> getLinkId(int index);
+
+}
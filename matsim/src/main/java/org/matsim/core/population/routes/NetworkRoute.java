@@ -58,6 +58,26 @@ public interface NetworkRoute extends Route {
 	 */
 	public List<Id<Link>> getLinkIds();
 
+	/**
+	 * Returns a cursor over the link ids of {@link #getLinkIds()}. Routes which do not keep the link ids as a
+	 * list, see {@link CompressedNetworkRouteFactory}, return them one by one without creating the list, so
+	 * this is the cheaper way to go along the route repeatedly, e.g. in the mobsim.
+	 */
+	public default LinkIdCursor getLinkIdCursor() {
+		final List<Id<Link>> linkIds = getLinkIds();
+		return new LinkIdCursor() {
+			@Override
+			public int size() {
+				return linkIds.size();
+			}
+
+			@Override
+			public Id<Link> getLinkId(final int index) {
+				return linkIds.get(index);
+			}
+		};
+	}
+
 	/**
 	 * This method returns a new Route object with the subroute of this, using fromLinkId as the
 	 * subroute's startLink, toLinkId as the subroute's endLink, and the links in between fromLinkId
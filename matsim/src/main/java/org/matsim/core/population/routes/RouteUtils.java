@@ -143,8 +143,9 @@ public class RouteUtils {
 	 */
 	public static double calcDistanceExcludingStartEndLink(final NetworkRoute route, final Network network) {
 		double dist = 0;
-		for (Id<Link> linkId : route.getLinkIds()) {
-			dist += network.getLinks().get(linkId).getLength();
+		LinkIdCursor linkIds = route.getLinkIdCursor();
+		for (int i = 0, n = linkIds.size(); i < n; i++) {
+			dist += network.getLinks().get(linkIds.getLinkId(i)).getLength();
 		}
 		return dist;
 	}
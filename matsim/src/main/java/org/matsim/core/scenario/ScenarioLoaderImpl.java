@@ -163,6 +163,7 @@ class ScenarioLoaderImpl {
 
             MatsimFacilitiesReader reader = new MatsimFacilitiesReader(inputCRS, internalCRS, this.scenario.getActivityFacilities());
             reader.putAttributeConverters(attributeConverters);
+            reader.setConvertingAttributesLazily(this.config.facilities().isConvertingAttributesLazily());
             reader.parse(facilitiesFileName);
 
 			log.info("loaded " + this.scenario.getActivityFacilities().getFacilities().size() + " facilities from " + facilitiesFileName);
@@ -199,6 +200,7 @@ class ScenarioLoaderImpl {
 
             final PopulationReader reader = new PopulationReader(targetCRS, internalCRS, this.scenario);
             reader.putAttributeConverters( attributeConverters );
+            reader.setConvertingAttributesLazily( this.config.plans().isConvertingAttributesLazily() );
             reader.parse( populationFileName );
 
 			PopulationUtils.printPlansCount(this.scenario.getPopulation()) ;
@@ -48,6 +48,9 @@ import org.matsim.core.utils.collections.Tuple;
 import org.matsim.vehicles.Vehicle;
 import org.matsim.vehicles.VehicleType;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
@@ -488,6 +491,72 @@ public final class TravelTimeCalculator implements LinkEnterEventHandler, LinkLe
 		}
 	}
 
+	/**
+	 * Writes the travel times collected so far, e.g. to continue a run from a checkpoint. Together with
+	 * {@link #readState(DataInput)}, the same travel times are returned as before, as long as the
+	 * calculator is configured in the same way.
+	 */
+	public void writeState(final DataOutput out) throws IOException {
+		out.writeUTF(this.ttDataFactory.getClass().getName());
+		out.writeInt(this.timeSlice);
+		out.writeInt(this.numSlots);
+		if (this.calculateLinkTravelTimes) {
+			out.writeInt(this.linkData.size());
+			for (Map.Entry<Id<Link>, TravelTimeData> entry : this.linkData.entrySet()) {
+				out.writeUTF(entry.getKey().toString());
+				writeState(entry.getValue(), out);
+			}
+		}
+		if (this.calculateLinkToLinkTravelTimes) {
+			out.writeInt(this.linkToLinkData.size());
+			for (Map.Entry<Tuple<Id<Link>, Id<Link>>, TravelTimeData> entry : this.linkToLinkData.entrySet()) {
+				out.writeUTF(entry.getKey().getFirst().toString());
+				out.writeUTF(entry.getKey().getSecond().toString());
+				writeState(entry.getValue(), out);
+			}
+		}
+	}
+
+	private static void writeState(final TravelTimeData data, final DataOutput out) throws IOException {
+		out.writeBoolean(data.isNeedingConsolidation());
+		data.writeState(out);
+	}
+
+	/**
+	 * Replaces the travel times collected so far by the ones written by {@link #writeState(DataOutput)}.
+	 */
+	public void readState(final DataInput in) throws IOException {
+		String factory = in.readUTF();
+		int timeSlice = in.readInt();
+		int numSlots = in.readInt();
+		if (!factory.equals(this.ttDataFactory.getClass().getName()) || timeSlice != this.timeSlice || numSlots != this.numSlots) {
+			throw new IllegalStateException("The travel times were collected with different settings: " + factory + " with "
+					+ numSlots + " time bins of " + timeSlice + "s, instead of " + this.ttDataFactory.getClass().getName()
+					+ " with " + this.numSlots + " time bins of " + this.timeSlice + "s.");
+		}
+		reset(0);
+		if (this.calculateLinkTravelTimes) {
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				Id<Link> linkId = Id.createLinkId(in.readUTF());
+				readState(this.dataContainerProvider.getTravelTimeData(linkId, true), in);
+			}
+		}
+		if (this.calculateLinkToLinkTravelTimes) {
+			int size = in.readInt();
+			for (int i = 0; i < size; i++) {
+				Id<Link> fromLinkId = Id.createLinkId(in.readUTF());
+				Id<Link> toLinkId = Id.createLinkId(in.readUTF());
+				readState(getLinkToLinkTravelTimeData(new Tuple<>(fromLinkId, toLinkId)), in);
+			}
+		}
+	}
+
+	private static void readState(final TravelTimeData data, final DataInput in) throws IOException {
+		data.setNeedsConsolidation(in.readBoolean());
+		data.readState(in);
+	}
+
 	private static int cnt = 0 ;
 
 	public TravelTime getLinkTravelTimes() {
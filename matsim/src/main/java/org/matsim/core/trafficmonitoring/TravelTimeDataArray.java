@@ -22,6 +22,9 @@ package org.matsim.core.trafficmonitoring;
 
 import org.matsim.api.core.v01.network.Link;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
 
 /**
@@ -79,6 +82,34 @@ class TravelTimeDataArray extends TravelTimeData {
 		return freespeed;
 	}
 
+	@Override
+	void writeState( final DataOutput out ) throws IOException {
+		// also the free speed travel times filled in by getTravelTime(...), which depend on the time they were asked for
+		int size = 0;
+		for ( double ttime : this.travelTimes ) {
+			if ( ttime >= 0.0 ) size++;
+		}
+		out.writeInt( size );
+		for ( int ii = 0 ; ii < this.travelTimes.length ; ii++ ) {
+			if ( this.travelTimes[ii] >= 0.0 ) {
+				out.writeInt( ii );
+				out.writeShort( this.timeCnt[ii] );
+				out.writeDouble( this.travelTimes[ii] );
+			}
+		}
+	}
+
+	@Override
+	void readState( final DataInput in ) throws IOException {
+		resetTravelTimes();
+		int size = in.readInt();
+		for ( int ii = 0 ; ii < size ; ii++ ) {
+			int timeSlot = in.readInt();
+			this.timeCnt[timeSlot] = in.readShort();
+			this.travelTimes[timeSlot] = in.readDouble();
+		}
+	}
+
 	/* package-private for debugging */ String cntToString(){
 		StringBuilder strb = new StringBuilder().append( "cnt=[ " );
 		for( int ii = 0 ; ii < this.timeCnt.length ; ii++ ){
@@ -114,6 +114,10 @@ import java.util.zip.GZIPOutputStream;
  * <li><code>*.zst</code>: ZStandard compression</li>
  * </ul>
  *
+ * For writing gzip and ZStandard compressed files, a number of threads can be specified
+ * which compress the data in parallel. Gzip files are then written as multi-member gzip files,
+ * see {@link ParallelGZIPOutputStream}.
+ *
  * <h2>Encryption</h2>
  *
  * Files ending with {@code .enc} are assumed to be encrypted and will be handled with {@link CipherUtils}.
@@ -299,8 +303,19 @@ final public class IOUtils {
 	 * 
 	 * @throws UncheckedIOException
 	 */
-	@SuppressWarnings("resource")
 	public static OutputStream getOutputStream(URL url, boolean append) throws UncheckedIOException {
+		return getOutputStream(url, append, 1);
+	}
+
+	/**
+	 * See {@link #getOutputStream(URL, boolean)}. If the URL has the extension of gzip or
+	 * ZStandard compression and more than one thread is given, the data is compressed on the
+	 * given number of threads.
+	 *
+	 * @throws UncheckedIOException
+	 */
+	@SuppressWarnings("resource")
+	public static OutputStream getOutputStream(URL url, boolean append, int numberOfThreads) throws UncheckedIOException {
 		try {
 			if (!url.getProtocol().equals("file")) {
 				throw new UncheckedIOException("Can only write to file:// protocol URLs");
@@ -318,7 +333,11 @@ final public class IOUtils {
 			if (compression != null) {
 				switch (compression) {
 					case GZIP:
-						outputStream = new GZIPOutputStream(outputStream);
+						if (numberOfThreads > 1) {
+							outputStream = new ParallelGZIPOutputStream(outputStream, numberOfThreads);
+						} else {
+							outputStream = new GZIPOutputStream(outputStream);
+						}
 						break;
 					case LZ4:
 						outputStream = new LZ4FrameOutputStream(outputStream);
@@ -327,7 +346,11 @@ final public class IOUtils {
 						outputStream = new CompressorStreamFactory().createCompressorOutputStream(CompressorStreamFactory.BZIP2, outputStream);
 						break;
 					case ZSTD:
-						outputStream = new ZstdOutputStream(outputStream, 6);
+						ZstdOutputStream zstdOutputStream = new ZstdOutputStream(outputStream, 6);
+						if (numberOfThreads > 1) {
+							zstdOutputStream.setWorkers(numberOfThreads);
+						}
+						outputStream = zstdOutputStream;
 						break;
 				}
 			}
@@ -348,7 +371,18 @@ final public class IOUtils {
 	 */
 	public static BufferedWriter getBufferedWriter(URL url, Charset charset, boolean append)
 			throws UncheckedIOException {
-		OutputStream outputStream = getOutputStream(url, append);
+		return getBufferedWriter(url, charset, append, 1);
+	}
+
+	/**
+	 * See {@link #getBufferedWriter(URL, Charset, boolean)}. Compression uses the given number
+	 * of threads, see {@link #getOutputStream(URL, boolean, int)}.
+	 *
+	 * @throws UncheckedIOException
+	 */
+	public static BufferedWriter getBufferedWriter(URL url, Charset charset, boolean append, int numberOfThreads)
+			throws UncheckedIOException {
+		OutputStream outputStream = getOutputStream(url, append, numberOfThreads);
 		return new BufferedWriter(new OutputStreamWriter(outputStream, charset));
 	}
 
@@ -29,11 +29,20 @@ import org.xml.sax.helpers.DefaultHandler;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParser;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.Arrays;
+import java.util.Locale;
 import java.util.Stack;
 import java.util.zip.GZIPInputStream;
 
@@ -43,6 +52,12 @@ import java.util.zip.GZIPInputStream;
  * to implement a custom parser.<br>
  * The parser implements a custom <code>EntityResolver</code> to look for DTDs in the MATSim world.
  * <p></p>
+ * Validating parsers use SAX, as it can validate against DTDs and XML schemas. Parsers that do not validate use the
+ * faster StAX parser provided by the JDK instead. Both call {@link #startTag}, {@link #endTag} and {@link #characters}
+ * in the same way, DTDs are read by both to determine the doctype and to apply default attribute values.
+ * Validation can be switched off for all parsers by setting the system property <code>matsim.xmlValidation</code> to
+ * <code>false</code>, which e.g. speeds up reading large populations.
+ * <p></p>
  * Notes:<ul>
  * <li> If implementing classes want to override the final methods, the will have to resort to delegation.   
  * </ul>
@@ -53,7 +68,13 @@ public abstract class MatsimXmlParser extends DefaultHandler implements MatsimRe
 
 	private static final Logger log = Logger.getLogger(MatsimXmlParser.class);
 
-	private final Stack<StringBuffer> buffers = new Stack<>();
+	/*
+	 * The character content of all open elements. Each element only keeps the offset where its own content starts,
+	 * the content is removed again when the element is closed.
+	 */
+	private final StringBuilder content = new StringBuilder();
+	private int[] contentOffsets = new int[16];
+	private int depth = 0;
 	private final Stack<String> theContext = new Stack<>();
 
 	private boolean isValidating = true;
@@ -80,6 +101,10 @@ public abstract class MatsimXmlParser extends DefaultHandler implements MatsimRe
 		if (localDtd != null) {
 			this.preferLocalDtds = Boolean.parseBoolean(localDtd);
 		}
+		String validation = System.getProperty("matsim.xmlValidation");
+		if (validation != null) {
+			this.isValidating = Boolean.parseBoolean(validation);
+		}
 	}
 
 	/**
@@ -104,7 +129,7 @@ public abstract class MatsimXmlParser extends DefaultHandler implements MatsimRe
 	/**
 	 * Sets, if this parser should validate the read XML or not. Not validating is sometimes useful during development or
 	 * during some tests with format-extensions that are not yet part of the DTD, but it is <b>strongly discouraged</b> not
-	 * to validate during production use.
+	 * to validate during production use. Files are read with StAX instead of SAX if they are not validated.
 	 *
 	 * @param validateXml Whether the parsed XML should be validated or not.
 	 */
@@ -176,27 +201,136 @@ public abstract class MatsimXmlParser extends DefaultHandler implements MatsimRe
 	}
 
 	public final void parse(final InputSource input) throws UncheckedIOException {
+		this.content.setLength(0);
+		this.depth = 0;
+		if (!this.isValidating) {
+			parseWithStax(input);
+			return;
+		}
 		try {
 			SAXParserFactory factory = SAXParserFactory.newInstance();
-			factory.setValidating(this.isValidating);
+			factory.setValidating(true);
 			factory.setNamespaceAware(this.isNamespaceAware);
 			factory.setFeature("http://xml.org/sax/features/external-general-entities", false); // prevent XEE attack: https://en.wikipedia.org/wiki/XML_external_entity_attack
-			if (this.isValidating) {
-				// enable optional support for XML Schemas
-				factory.setFeature("http://apache.org/xml/features/validation/schema", true);
-				SAXParser parser = factory.newSAXParser();
-				XMLReader reader = parser.getXMLReader();
-				reader.setContentHandler(this);
-//				reader.setErrorHandler(getErrorHandler());      // (**)
-//				reader.setEntityResolver(getEntityResolver()); // (**)
-				reader.setErrorHandler(this);
-				reader.setEntityResolver(this);
-				reader.parse(input);
+			// enable optional support for XML Schemas
+			factory.setFeature("http://apache.org/xml/features/validation/schema", true);
+			SAXParser parser = factory.newSAXParser();
+			XMLReader reader = parser.getXMLReader();
+			reader.setContentHandler(this);
+//			reader.setErrorHandler(getErrorHandler());      // (**)
+//			reader.setEntityResolver(getEntityResolver()); // (**)
+			reader.setErrorHandler(this);
+			reader.setEntityResolver(this);
+			reader.parse(input);
+		} catch (SAXException | ParserConfigurationException | IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	private void parseWithStax(final InputSource input) throws UncheckedIOException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, this.isNamespaceAware);
+		factory.setProperty(XMLInputFactory.IS_VALIDATING, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, false);
+		// the DTD is read for the doctype and default attribute values
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, true);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, true);
+		factory.setXMLResolver((publicId, systemId, baseUri, namespace) -> openExternalEntity(systemId));
+
+		XMLStreamReader reader = null;
+		try (InputStream stream = openStream(input); Reader characterStream = input.getCharacterStream()) {
+			if (characterStream != null) {
+				reader = factory.createXMLStreamReader(input.getSystemId(), characterStream);
 			} else {
-				SAXParser parser = factory.newSAXParser();
-				parser.parse(input, this);
+				reader = factory.createXMLStreamReader(input.getSystemId(), stream);
 			}
-		} catch (SAXException | ParserConfigurationException | IOException e) {
+			StaxAttributes atts = new StaxAttributes();
+			// the reader is positioned at the start of the document already, next() never returns it
+			startDocument();
+			while (reader.hasNext()) {
+				switch (reader.next()) {
+					case XMLStreamConstants.START_ELEMENT:
+						atts.read(reader);
+						startElement(getTag(reader), atts);
+						break;
+					case XMLStreamConstants.END_ELEMENT:
+						endElement(getTag(reader));
+						break;
+					case XMLStreamConstants.END_DOCUMENT:
+						endDocument();
+						break;
+					case XMLStreamConstants.CHARACTERS:
+					case XMLStreamConstants.CDATA:
+						if (this.depth > 0) {
+							characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+						}
+						break;
+					default:
+						// ignorable whitespace, comments, processing instructions and the DTD are not reported
+						break;
+				}
+			}
+		} catch (XMLStreamException e) {
+			log.error("XML-ERROR: " + this.theSource + (e.getLocation() == null ? "" : ", line " + e.getLocation().getLineNumber()
+					+ ", column " + e.getLocation().getColumnNumber()) + ": " + e.getMessage());
+			throw new UncheckedIOException(e);
+		} catch (SAXException | IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (XMLStreamException e) {
+					log.warn("Could not close the xml reader.", e);
+				}
+			}
+		}
+	}
+
+	/*
+	 * Same as in SAX: the qualified name for elements without namespace, the local name otherwise.
+	 */
+	private static String getTag(final XMLStreamReader reader) {
+		String uri = reader.getNamespaceURI();
+		if (uri == null || uri.isEmpty()) {
+			String prefix = reader.getPrefix();
+			return (prefix == null || prefix.isEmpty()) ? reader.getLocalName() : prefix + ':' + reader.getLocalName();
+		}
+		return reader.getLocalName();
+	}
+
+	/*
+	 * Returns null if the input source provides a reader, which is then used directly.
+	 */
+	private static InputStream openStream(final InputSource input) throws IOException {
+		if (input.getCharacterStream() != null) {
+			return null;
+		}
+		if (input.getByteStream() != null) {
+			return input.getByteStream();
+		}
+		return new URL(input.getSystemId()).openStream();
+	}
+
+	/*
+	 * Other external entities than DTDs are replaced by empty content, as in SAX when external general entities are
+	 * disabled (prevent XEE attack).
+	 */
+	private InputStream openExternalEntity(final String systemId) {
+		if (systemId == null || !systemId.toLowerCase(Locale.ROOT).endsWith(".dtd")) {
+			return new ByteArrayInputStream(new byte[0]);
+		}
+		InputSource source = findDtd(systemId);
+		if (source == null) {
+			return null;
+		}
+		if (source.getByteStream() != null) {
+			return source.getByteStream();
+		}
+		try {
+			// the DTDs found in the file system are only referenced by their path
+			return new FileInputStream(source.getSystemId());
+		} catch (IOException e) {
 			throw new UncheckedIOException(e);
 		}
 	}
@@ -228,6 +362,14 @@ public abstract class MatsimXmlParser extends DefaultHandler implements MatsimRe
 	public final InputSource resolveEntity(final String publicId, final String systemId) {
 		// ConfigReader* did override this.  Not sure if it did that for good reaons.  kai, jul'16
 		
+		InputSource source = findDtd(systemId);
+		if (source != null) {
+			source.setSystemId(systemId);
+		}
+		return source;
+	}
+
+	private InputSource findDtd(final String systemId) {
 		// extract the last part of the systemId
 		int index = systemId.replace('\\', '/').lastIndexOf('/');
 		String shortSystemId = systemId.substring(index + 1);
@@ -266,11 +408,9 @@ public abstract class MatsimXmlParser extends DefaultHandler implements MatsimRe
 		if (source == null) {
 			// We could neither get the remote nor the local version of the dtd, show a warning
 			log.warn("Could neither get the DTD from the web nor a local one. " + systemId);
-		} else {
-            source.setSystemId(systemId);
-        }
+		}
 		return source;
-    }
+	}
 
 	private static InputSource findDtdInRemoteLocation(final String fullSystemId) {
 		log.info("Trying to load " + fullSystemId + ". In some cases (e.g. network interface up but no connection), this may take a bit.");
@@ -332,10 +472,7 @@ public abstract class MatsimXmlParser extends DefaultHandler implements MatsimRe
 	public void characters(final char[] ch, final int start, final int length) throws SAXException {
 		// has to be non-final since otherwise the events parser does not work.  Probably ok (this here is just a default implementation). kai, jul'16
 		
-		StringBuffer buffer = this.buffers.peek();
-		if (buffer != null) {
-			buffer.append(ch, start, length);
-		}
+		this.content.append(ch, start, length);
 	}
 
 	@Override
@@ -343,9 +480,7 @@ public abstract class MatsimXmlParser extends DefaultHandler implements MatsimRe
 		// I have not good intuition if making this one non-final might be ok.  kai, jul'16
 
 		String tag = (uri.length() == 0) ? qName : localName;
-		this.buffers.push(new StringBuffer());
-		this.startTag(tag, atts, this.theContext);
-		this.theContext.push(tag);
+		startElement(tag, atts);
 	}
 
 	@Override
@@ -353,9 +488,27 @@ public abstract class MatsimXmlParser extends DefaultHandler implements MatsimRe
 		// I have not good intuition if making this one non-final might be ok.  kai, jul'16
 		
 		String tag = (uri.length() == 0) ? qName : localName;
+		endElement(tag);
+	}
+
+	private void startElement(final String tag, final Attributes atts) {
+		if (this.depth == this.contentOffsets.length) {
+			this.contentOffsets = Arrays.copyOf(this.contentOffsets, 2 * this.depth);
+		}
+		this.contentOffsets[this.depth++] = this.content.length();
+		this.startTag(tag, atts, this.theContext);
+		this.theContext.push(tag);
+	}
+
+	private void endElement(final String tag) {
 		this.theContext.pop();
-		StringBuffer buffer = this.buffers.pop();
-		this.endTag(tag, buffer.toString(), this.theContext);
+		int offset = this.contentOffsets[--this.depth];
+		String text = "";
+		if (this.content.length() > offset) {
+			text = this.content.substring(offset);
+			this.content.setLength(offset);
+		}
+		this.endTag(tag, text, this.theContext);
 	}
 
 	/* implement ErrorHandler */
@@ -0,0 +1,156 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ParallelGZIPOutputStream.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.utils.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A gzip output stream that compresses the data on several threads.
+ * <p>
+ * The data is cut into blocks of {@link #BLOCK_SIZE} bytes, and every block is compressed into
+ * a gzip member of its own. The members are written in the order of the data, so the result is a
+ * multi-member gzip file as described in RFC 1952, which can be read by {@link java.util.zip.GZIPInputStream}
+ * and the command line tools like any other gzip file. Compressing the blocks independently
+ * costs a little compression ratio compared to a single member.
+ * <p>
+ * At most two blocks per thread are buffered, writing blocks when this limit is reached.
+ * Flushing this stream does not end the current block, as flushing does not end the deflate block
+ * in {@link GZIPOutputStream} either.
+ */
+public final class ParallelGZIPOutputStream extends FilterOutputStream {
+
+	static final int BLOCK_SIZE = 1 << 20;
+
+	private final ExecutorService executor;
+	private final int maxPendingBlocks;
+	private final Deque<Future<byte[]>> pendingBlocks = new ArrayDeque<>();
+
+	private byte[] block = new byte[BLOCK_SIZE];
+	private int blockLength = 0;
+	private boolean isAnyBlockSubmitted = false;
+	private boolean closed = false;
+
+	public ParallelGZIPOutputStream(final OutputStream out, final int numberOfThreads) {
+		super(out);
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException("numberOfThreads must be at least 1, but is " + numberOfThreads);
+		}
+		this.executor = Executors.newFixedThreadPool(numberOfThreads, runnable -> {
+			Thread thread = new Thread(runnable, ParallelGZIPOutputStream.class.getSimpleName());
+			thread.setDaemon(true);
+			return thread;
+		});
+		this.maxPendingBlocks = 2 * numberOfThreads;
+	}
+
+	@Override
+	public void write(final int b) throws IOException {
+		this.block[this.blockLength++] = (byte) b;
+		if (this.blockLength == BLOCK_SIZE) {
+			submitBlock();
+		}
+	}
+
+	@Override
+	public void write(final byte[] b, int off, int len) throws IOException {
+		while (len > 0) {
+			int length = Math.min(len, BLOCK_SIZE - this.blockLength);
+			System.arraycopy(b, off, this.block, this.blockLength, length);
+			this.blockLength += length;
+			off += length;
+			len -= length;
+			if (this.blockLength == BLOCK_SIZE) {
+				submitBlock();
+			}
+		}
+	}
+
+	@Override
+	public void flush() throws IOException {
+		while (!this.pendingBlocks.isEmpty() && this.pendingBlocks.peekFirst().isDone()) {
+			writeBlock(this.pendingBlocks.pollFirst());
+		}
+		this.out.flush();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (this.closed) {
+			return;
+		}
+		this.closed = true;
+		// the underlying stream is closed even if writing the remaining blocks fails
+		try (OutputStream closing = this.out) {
+			if (this.blockLength > 0 || !this.isAnyBlockSubmitted) {
+				// an empty stream still results in an (empty) gzip member, as with GZIPOutputStream
+				submitBlock();
+			}
+			while (!this.pendingBlocks.isEmpty()) {
+				writeBlock(this.pendingBlocks.pollFirst());
+			}
+		} finally {
+			this.executor.shutdownNow();
+		}
+	}
+
+	private void submitBlock() throws IOException {
+		final byte[] data = this.block;
+		final int length = this.blockLength;
+		this.pendingBlocks.addLast(this.executor.submit(() -> compress(data, length)));
+		this.isAnyBlockSubmitted = true;
+		this.block = new byte[BLOCK_SIZE];
+		this.blockLength = 0;
+
+		while (this.pendingBlocks.size() >= this.maxPendingBlocks) {
+			writeBlock(this.pendingBlocks.pollFirst());
+		}
+	}
+
+	private void writeBlock(final Future<byte[]> pendingBlock) throws IOException {
+		try {
+			byte[] compressed = pendingBlock.get();
+			this.out.write(compressed);
+		} catch (InterruptedException e) {
+			throw new InterruptedIOException(e.getMessage());
+		} catch (ExecutionException e) {
+			throw new IOException(e.getCause());
+		}
+	}
+
+	private static byte[] compress(final byte[] data, final int length) throws IOException {
+		ByteArrayOutputStream compressed = new ByteArrayOutputStream(length / 4 + 64);
+		try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+			gzip.write(data, 0, length);
+		}
+		return compressed.toByteArray();
+	}
+}
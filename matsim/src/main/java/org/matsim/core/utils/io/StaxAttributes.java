@@ -0,0 +1,156 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * StaxAttributes.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.utils.io;
+
+import javax.xml.stream.XMLStreamReader;
+
+import org.xml.sax.Attributes;
+
+/**
+ * Presents the attributes of the current start element of an {@link XMLStreamReader} as SAX {@link Attributes},
+ * so that the same {@link MatsimXmlParser#startTag} implementations can be used with both parsers.
+ * <p>
+ * A single instance is used for all elements of a file. The attributes of every element are copied into arrays
+ * which are re-used for the next element, so they are only valid until the next element starts, as with SAX.
+ */
+/* package */ final class StaxAttributes implements Attributes {
+
+	private static final String CDATA = "CDATA";
+
+	private int length = 0;
+	private String[] uris = new String[8];
+	private String[] prefixes = new String[8];
+	private String[] localNames = new String[8];
+	private String[] types = new String[8];
+	private String[] values = new String[8];
+
+	void read(final XMLStreamReader reader) {
+		int n = reader.getAttributeCount();
+		if (n > this.values.length) {
+			int capacity = Math.max(n, 2 * this.values.length);
+			this.uris = new String[capacity];
+			this.prefixes = new String[capacity];
+			this.localNames = new String[capacity];
+			this.types = new String[capacity];
+			this.values = new String[capacity];
+		}
+		for (int i = 0; i < n; i++) {
+			String uri = reader.getAttributeNamespace(i);
+			String type = reader.getAttributeType(i);
+			this.uris[i] = uri == null ? "" : uri;
+			this.prefixes[i] = reader.getAttributePrefix(i);
+			this.localNames[i] = reader.getAttributeLocalName(i);
+			this.types[i] = type == null ? CDATA : type;
+			this.values[i] = reader.getAttributeValue(i);
+		}
+		this.length = n;
+	}
+
+	@Override
+	public int getLength() {
+		return this.length;
+	}
+
+	@Override
+	public String getURI(final int index) {
+		return index < 0 || index >= this.length ? null : this.uris[index];
+	}
+
+	@Override
+	public String getLocalName(final int index) {
+		return index < 0 || index >= this.length ? null : this.localNames[index];
+	}
+
+	@Override
+	public String getQName(final int index) {
+		if (index < 0 || index >= this.length) {
+			return null;
+		}
+		String prefix = this.prefixes[index];
+		return (prefix == null || prefix.isEmpty()) ? this.localNames[index] : prefix + ':' + this.localNames[index];
+	}
+
+	@Override
+	public String getType(final int index) {
+		return index < 0 || index >= this.length ? null : this.types[index];
+	}
+
+	@Override
+	public String getValue(final int index) {
+		return index < 0 || index >= this.length ? null : this.values[index];
+	}
+
+	@Override
+	public int getIndex(final String uri, final String localName) {
+		for (int i = 0; i < this.length; i++) {
+			if (localName.equals(this.localNames[i]) && uri.equals(this.uris[i])) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@Override
+	public int getIndex(final String qName) {
+		for (int i = 0; i < this.length; i++) {
+			if (isQName(i, qName)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/*
+	 * Compares the parts of the qualified name, so that no string has to be built for every attribute.
+	 */
+	private boolean isQName(final int index, final String qName) {
+		String localName = this.localNames[index];
+		String prefix = this.prefixes[index];
+		if (prefix == null || prefix.isEmpty()) {
+			return localName.equals(qName);
+		}
+		int prefixLength = prefix.length();
+		return qName.length() == prefixLength + 1 + localName.length()
+				&& qName.startsWith(prefix)
+				&& qName.charAt(prefixLength) == ':'
+				&& qName.endsWith(localName);
+	}
+
+	@Override
+	public String getType(final String uri, final String localName) {
+		return getType(getIndex(uri, localName));
+	}
+
+	@Override
+	public String getType(final String qName) {
+		return getType(getIndex(qName));
+	}
+
+	@Override
+	public String getValue(final String uri, final String localName) {
+		return getValue(getIndex(uri, localName));
+	}
+
+	@Override
+	public String getValue(final String qName) {
+		return getValue(getIndex(qName));
+	}
+}
@@ -27,6 +27,7 @@ import org.matsim.utils.objectattributes.attributeconverters.*;
 import org.matsim.api.core.v01.Coord;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Object that converts arbitrary objects to and from strings based on the logic defined by {@AttributeConverter}s
@@ -35,9 +36,10 @@ import java.util.*;
  */
 public class ObjectAttributesConverter {
 	private static final Logger log = Logger.getLogger(ObjectAttributesConverter.class);
-	private final Map<String, AttributeConverter<?>> converters = new HashMap<>();
+	// concurrent, as the population writer may convert attributes on several threads
+	private final Map<String, AttributeConverter<?>> converters = new ConcurrentHashMap<>();
 
-	private final Set<String> missingConverters = new HashSet<>();
+	private final Set<String> missingConverters = ConcurrentHashMap.newKeySet();
 
 	@Inject
 	public ObjectAttributesConverter(final Map<Class<?>, AttributeConverter<?>> converters) {
@@ -65,6 +67,13 @@ public class ObjectAttributesConverter {
 		return converter == null ? null : converter.convert(value);
 	}
 
+	/**
+	 * @return whether values of the given class can be converted, i.e. whether {@link #convert(String, String)} can be used.
+	 */
+	public boolean hasConverter(String className) {
+		return getConverter(className) != null;
+	}
+
 	private AttributeConverter getConverter(String className) {
 		if (converters.containsKey(className)) return converters.get(className);
 		try {
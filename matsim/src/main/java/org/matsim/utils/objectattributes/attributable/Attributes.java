@@ -50,7 +50,7 @@ public final class Attributes {
 		for ( int i=0; i < keys.length; i++ ) {
 			String subkey = keys[ i ];
 			stb.append("{ key=").append(subkey);
-			stb.append("; object=").append( values[ i ].toString());
+			stb.append("; object=").append( getValue( i ).toString());
 			stb.append( " }" );
 		}
 		return stb.toString() ;
@@ -60,7 +60,7 @@ public final class Attributes {
 		final int insertion = Arrays.binarySearch( keys , attribute );
 
 		if ( insertion >= 0 ) {
-			final Object prev = values[ insertion ];
+			final Object prev = getValue( insertion );
 			values[ insertion ] = value;
 			return prev;
 		}
@@ -86,7 +86,25 @@ public final class Attributes {
 
 		if ( insertion < 0 ) return null;
 
-		return values[ insertion ];
+		return getValue( insertion );
+	}
+
+	/*package*/ void putLazyAttribute( final String attribute, final LazyAttributeBuffer.Value value ) {
+		putAttribute( attribute, value );
+	}
+
+	/*
+	 * Values read from file may be stored unconverted, see AttributesXmlReaderDelegate#setConvertingLazily(boolean).
+	 * They are converted when they are accessed the first time. If this happens concurrently, the value may be
+	 * converted more than once, which results in equal, but not identical objects.
+	 */
+	private Object getValue( final int index ) {
+		Object value = values[ index ];
+		if ( value instanceof LazyAttributeBuffer.Value ) {
+			value = ((LazyAttributeBuffer.Value) value).convert();
+			values[ index ] = value;
+		}
+		return value;
 	}
 
 	public Object removeAttribute( final String attribute ) {
@@ -94,7 +112,7 @@ public final class Attributes {
 
 		if ( insertion < 0 ) return null;
 
-		final Object prev = values[ insertion ];
+		final Object prev = getValue( insertion );
 
 		for ( int i=insertion; i < keys.length - 1; i++ ) {
 			keys[ i ] = keys[ i + 1 ];
@@ -160,7 +178,7 @@ public final class Attributes {
 			if (index >= keys.length) {
 				throw new NoSuchElementException();
 			}
-			Map.Entry<String, Object> entry = new AbstractMap.SimpleEntry<>(keys[index], values[index]) ;
+			Map.Entry<String, Object> entry = new AbstractMap.SimpleEntry<>(keys[index], getValue(index)) ;
 			index++;
 			return entry;
 		}
@@ -45,6 +45,7 @@ import org.matsim.utils.objectattributes.attributeconverters.StringConverter;
 public class AttributesXmlReaderDelegate {
 	private final static Logger log = Logger.getLogger(AttributesXmlReaderDelegate.class);
 	private final ObjectAttributesConverter converter = new ObjectAttributesConverter();
+	private LazyAttributeBuffer lazyAttributes = null;
 
 	private Attributes currentAttributes = null;
 	private String currentAttribute = null;
@@ -69,6 +70,13 @@ public class AttributesXmlReaderDelegate {
 
 	public void endTag(String name, String content, Stack<String> context) {
 		if (TAG_ATTRIBUTE.equals(name)) {
+			if (this.lazyAttributes != null) {
+				// attributes without converter are skipped, as when they are converted right away
+				if (!converter.hasConverter(this.currentAttributeClass)) return;
+				Gbl.assertNotNull( this.currentAttributes );
+				this.currentAttributes.putLazyAttribute( this.currentAttribute, this.lazyAttributes.add(this.currentAttributeClass, content));
+				return;
+			}
 			Object o = converter.convert(this.currentAttributeClass, content);
 			if (o == null) return;
 			Gbl.assertNotNull( this.currentAttributes );
@@ -76,6 +84,23 @@ public class AttributesXmlReaderDelegate {
 		}
 	}
 
+	/**
+	 * Sets, if the attribute values should only be converted when they are accessed the first time. Until then,
+	 * the values are kept as they were read from file in a compact form. This saves time and memory when many
+	 * attributes are read, but only few of them are used.
+	 * <p>
+	 * The converters used are those registered with this delegate when the value is accessed.
+	 *
+	 * @param convertingLazily whether the attribute values should only be converted on first access
+	 */
+	public void setConvertingLazily(final boolean convertingLazily) {
+		if (!convertingLazily) {
+			this.lazyAttributes = null;
+		} else if (this.lazyAttributes == null) {
+			this.lazyAttributes = new LazyAttributeBuffer(this.converter);
+		}
+	}
+
 	public Attributes getCurrentAttributes() {
 		return currentAttributes;
 	}
@@ -0,0 +1,101 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * LazyAttributeBuffer.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.utils.objectattributes.attributable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.matsim.utils.objectattributes.ObjectAttributesConverter;
+
+/**
+ * Keeps the values of attributes as they were read from file, to convert them only when they are accessed.
+ * <p>
+ * The values of all attributes read by one reader are stored one after the other in large byte arrays, so that an
+ * attribute which is never accessed only needs a small {@link Value} object and the bytes of its value.
+ * Instances are not thread-safe, every reader has to use its own buffer.
+ */
+/* package */ final class LazyAttributeBuffer {
+
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	private final ObjectAttributesConverter converter;
+	private final Map<String, Type> types = new HashMap<>();
+
+	private byte[] chunk = new byte[CHUNK_SIZE];
+	private int position = 0;
+
+	LazyAttributeBuffer(final ObjectAttributesConverter converter) {
+		this.converter = converter;
+	}
+
+	Value add(final String className, final String value) {
+		Type type = this.types.computeIfAbsent(className, name -> new Type(name, this.converter));
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		if (bytes.length > CHUNK_SIZE / 4) {
+			// large values would waste most of a chunk if they do not fit anymore
+			return new Value(type, bytes, 0, bytes.length);
+		}
+		if (this.position + bytes.length > CHUNK_SIZE) {
+			this.chunk = new byte[CHUNK_SIZE];
+			this.position = 0;
+		}
+		System.arraycopy(bytes, 0, this.chunk, this.position, bytes.length);
+		Value lazyValue = new Value(type, this.chunk, this.position, bytes.length);
+		this.position += bytes.length;
+		return lazyValue;
+	}
+
+	/*
+	 * Shared by all values of the same class, so that the values themselves only need a single reference.
+	 */
+	private static final class Type {
+		private final String className;
+		private final ObjectAttributesConverter converter;
+
+		Type(final String className, final ObjectAttributesConverter converter) {
+			this.className = className;
+			this.converter = converter;
+		}
+	}
+
+	/**
+	 * An attribute value which has not been converted yet.
+	 */
+	static final class Value {
+		private final Type type;
+		private final byte[] data;
+		private final int offset;
+		private final int length;
+
+		private Value(final Type type, final byte[] data, final int offset, final int length) {
+			this.type = type;
+			this.data = data;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		Object convert() {
+			String value = new String(this.data, this.offset, this.length, StandardCharsets.UTF_8);
+			return this.type.converter.convert(this.type.className, value);
+		}
+	}
+}
@@ -25,6 +25,7 @@ import org.matsim.core.controler.AbstractModule;
 import org.matsim.core.controler.ControlerListenerManager;
 import org.matsim.core.controler.ControlerListenerManagerImpl;
 import org.matsim.core.controler.Injector;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.events.ShutdownEvent;
 import org.matsim.core.population.PopulationUtils;
@@ -110,6 +111,7 @@ public class IterationTravelStatsControlerListenerTest {
 				// an AnalysisMainModeIdentifier must be bound to avoid injection creation errors. TripRouterModule should do this. Check thereby that TripRouterModule still does that by installing TripRouterModule instead of binding AnalysisMainModeIdentifier directly
 				install(new TripRouterModule());
 				bind(OutputDirectoryHierarchy.class).asEagerSingleton();
+				bind(IterationOutputExecutor.class).asEagerSingleton();
 				//bind(ExperiencedPlansService.class).to(ExperiencedPlansServiceImpl.class);
 				bind(IterationTravelStatsControlerListener.class).asEagerSingleton();
 				bind(ControlerListenerManager.class).to(ControlerListenerManagerImpl.class);
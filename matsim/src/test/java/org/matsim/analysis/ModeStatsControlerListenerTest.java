@@ -27,6 +27,7 @@ import org.matsim.core.config.groups.ControlerConfigGroup;
 import org.matsim.core.config.groups.ControlerConfigGroup.CompressionType;
 import org.matsim.core.config.groups.PlanCalcScoreConfigGroup;
 import org.matsim.core.config.groups.PlanCalcScoreConfigGroup.ModeParams;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.OutputDirectoryHierarchy.OverwriteFileSetting;
 import org.matsim.core.controler.events.IterationEndsEvent;
@@ -357,7 +358,7 @@ public class ModeStatsControlerListenerTest {
 		controlerConfigGroup.setCreateGraphs(true);
 		controlerConfigGroup.setFirstIteration(0);
 		ModeStatsControlerListener modStatListner = new ModeStatsControlerListener(controlerConfigGroup, population,
-				controlerIO, scoreConfig, transportId);
+				controlerIO, scoreConfig, transportId, new IterationOutputExecutor(0));
 
 		StartupEvent eventStart = new StartupEvent(null);
 		modStatListner.notifyStartup(eventStart);
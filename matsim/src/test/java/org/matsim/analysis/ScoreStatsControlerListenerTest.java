@@ -26,6 +26,7 @@ import org.matsim.api.core.v01.population.Route;
 import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.config.groups.ControlerConfigGroup;
 import org.matsim.core.config.groups.ControlerConfigGroup.CompressionType;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.OutputDirectoryHierarchy.OverwriteFileSetting;
 import org.matsim.core.controler.events.IterationEndsEvent;
@@ -480,7 +481,7 @@ public class ScoreStatsControlerListenerTest {
 		controlerConfigGroup.setCreateGraphs(true);
 		controlerConfigGroup.setFirstIteration(0);
 		controlerConfigGroup.setLastIteration(10);
-		ScoreStatsControlerListener scoreStatsControlerListener = new ScoreStatsControlerListener(controlerConfigGroup, population, controlerIO, null, null);
+		ScoreStatsControlerListener scoreStatsControlerListener = new ScoreStatsControlerListener(controlerConfigGroup, population, controlerIO, null, null, new IterationOutputExecutor(0));
 		
 		StartupEvent eventStart = new StartupEvent(null);
 		scoreStatsControlerListener.notifyStartup(eventStart);
@@ -23,6 +23,7 @@ import org.matsim.api.core.v01.population.Plan;
 import org.matsim.api.core.v01.population.Route;
 import org.matsim.core.config.groups.ControlerConfigGroup;
 import org.matsim.core.config.groups.ControlerConfigGroup.CompressionType;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.OutputDirectoryHierarchy.OverwriteFileSetting;
 import org.matsim.core.population.PopulationUtils;
@@ -342,7 +343,7 @@ public class TravelDistanceStatsTest {
 		controlerConfigGroup.setCreateGraphs(true);
 		controlerConfigGroup.setFirstIteration(0);
 		controlerConfigGroup.setLastIteration(10);
-		TravelDistanceStats travelDistanceStats = new TravelDistanceStats(controlerConfigGroup, controlerIO);
+		TravelDistanceStats travelDistanceStats = new TravelDistanceStats(controlerConfigGroup, controlerIO, new IterationOutputExecutor(0));
 		travelDistanceStats.addIteration(0, map);
 		readAndValidateValues(0, person1legsum + person2legsum + person3legsum, 12,
 				person1TotalNumberOfLegs + person2TotalNumberOfLegs + person3TotalNumberOfLegs);
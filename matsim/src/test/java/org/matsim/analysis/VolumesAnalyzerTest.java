@@ -3,6 +3,8 @@
  */
 package org.matsim.analysis;
 
+import java.util.Set;
+
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -132,4 +134,39 @@ public class VolumesAnalyzerTest {
 		Assert.assertEquals(volumeForLinkBike[6], 3, 0);
 		
 	}
+
+	@Test
+	public void testLinkIdsAndModes() {
+		final Id<Link> link1 = Id.create("va1", Link.class);
+		final Id<Link> link2 = Id.create("va2", Link.class);
+		final Id<Link> link3 = Id.create("va3", Link.class);
+		final Id<Vehicle> veh1 = Id.create("va1", Vehicle.class);
+		final Id<Vehicle> veh2 = Id.create("va2", Vehicle.class);
+		final Id<Person> person = Id.create("va", Person.class);
+
+		VolumesAnalyzer analyzer = new VolumesAnalyzer(3600, 86400, ScenarioUtils.createScenario(ConfigUtils.createConfig()).getNetwork(), true);
+
+		analyzer.handleEvent(new VehicleEntersTrafficEvent(0.0, person, link1, veh1, TransportMode.bike, 1.0));
+		analyzer.handleEvent(new VehicleEntersTrafficEvent(0.0, person, link1, veh2, TransportMode.car, 1.0));
+		// vehicles which entered traffic, but did not leave any link yet, do not make their mode appear
+		analyzer.handleEvent(new VehicleEntersTrafficEvent(0.0, person, link1, Id.create("va3", Vehicle.class), TransportMode.ride, 1.0));
+
+		analyzer.handleEvent(new LinkLeaveEvent(100, veh1, link1));
+		analyzer.handleEvent(new LinkLeaveEvent(4000, veh1, link3));
+		analyzer.handleEvent(new LinkLeaveEvent(4100, veh2, link3));
+
+		Assert.assertEquals(Set.of(link1, link3), analyzer.getLinkIds());
+		Assert.assertEquals(Set.of(TransportMode.bike, TransportMode.car), analyzer.getModes());
+		Assert.assertNull(analyzer.getVolumesForLink(link2));
+		Assert.assertNull(analyzer.getVolumesForLink(link2, TransportMode.bike));
+		Assert.assertNull(analyzer.getVolumesForLink(link1, TransportMode.car));
+		Assert.assertEquals(2, analyzer.getVolumesForLink(link3)[1]);
+		Assert.assertEquals(1, analyzer.getVolumesForLink(link3, TransportMode.car)[1]);
+		Assert.assertEquals(1.0, analyzer.getVolumesPerHourForLink(link3, TransportMode.bike)[1], 0);
+
+		analyzer.reset(1);
+		Assert.assertTrue(analyzer.getLinkIds().isEmpty());
+		Assert.assertTrue(analyzer.getModes().isEmpty());
+		Assert.assertNull(analyzer.getVolumesForLink(link1));
+	}
 }
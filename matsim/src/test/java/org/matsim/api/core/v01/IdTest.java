@@ -134,6 +134,92 @@ public class IdTest {
 		Assert.assertEquals("The number of created Ids should not have changed.", countBefore, countAfter);
 	}
 
+	@Test
+	public void testGetByIndex() {
+		Id<TNode> id1 = Id.create("index-1", TNode.class);
+		Id<TNode> id2 = Id.create("index-2", TNode.class);
+		Assert.assertSame(id1, Id.get(id1.index(), TNode.class));
+		Assert.assertSame(id2, Id.get(id2.index(), TNode.class));
+		Assert.assertSame(id2, Id.get("index-2", TNode.class));
+		Assert.assertNull(Id.get("index-3", TNode.class));
+
+		List<Id<TNode>> ids = Id.get(new int[] { id2.index(), id1.index(), id2.index() }, TNode.class);
+		Assert.assertEquals(List.of(id2, id1, id2), ids);
+	}
+
+	@Test
+	public void testRegistry() {
+		IdRegistry<TLink> registry = Id.getRegistry(TLink.class);
+		Assert.assertSame(registry, Id.getRegistry(TLink.class));
+
+		Id<TLink> id = registry.create("registry-1");
+		Assert.assertSame(id, Id.create("registry-1", TLink.class));
+		Assert.assertSame(id, registry.get(id.index()));
+		Assert.assertEquals(Id.getNumberOfIds(TLink.class), registry.size());
+
+		// the registry stays valid after the caches are reset
+		Id.resetCaches();
+		Assert.assertEquals(0, registry.size());
+		Id<TLink> newId = Id.create("registry-1", TLink.class);
+		Assert.assertEquals(0, newId.index());
+		Assert.assertSame(newId, registry.get(0));
+	}
+
+	@Test
+	public void testRegistry_manyIds() {
+		// more ids than fit into one chunk of the index table
+		final int numberOfIds = 10000;
+		IdRegistry<TLink> registry = Id.getRegistry(TLink.class);
+		int offset = registry.size();
+		for (int i = 0; i < numberOfIds; i++) {
+			registry.create("many-" + i);
+		}
+		for (int i = 0; i < numberOfIds; i++) {
+			Id<TLink> id = registry.get(offset + i);
+			Assert.assertEquals("many-" + i, id.toString());
+			Assert.assertEquals(offset + i, id.index());
+		}
+		try {
+			registry.get(registry.size());
+			Assert.fail("expected IndexOutOfBoundsException");
+		} catch (IndexOutOfBoundsException expected) {
+		}
+	}
+
+	@Test
+	public void testRegistry_concurrentCreation() throws InterruptedException {
+		final int numberOfThreads = 4;
+		final int numberOfIds = 5000;
+		IdRegistry<TNode> registry = Id.getRegistry(TNode.class);
+		int sizeBefore = registry.size();
+
+		List<Thread> threads = new ArrayList<>();
+		List<Throwable> exceptions = new ArrayList<>();
+		for (int t = 0; t < numberOfThreads; t++) {
+			Thread thread = new Thread(() -> {
+				for (int i = 0; i < numberOfIds; i++) {
+					Id<TNode> id = registry.create("concurrent-" + i);
+					if (registry.get(id.index()) != id) {
+						throw new AssertionError("wrong id for index " + id.index());
+					}
+				}
+			});
+			thread.setUncaughtExceptionHandler((th, e) -> {
+				synchronized (exceptions) {
+					exceptions.add(e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		Assert.assertTrue(exceptions.isEmpty());
+		Assert.assertEquals(sizeBefore + numberOfIds, registry.size());
+	}
+
 	private static class TLink {}
 	private static class TNode {}
 
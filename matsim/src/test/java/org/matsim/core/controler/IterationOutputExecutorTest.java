@@ -0,0 +1,145 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+package org.matsim.core.controler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.matsim.core.controler.events.ShutdownEvent;
+
+public class IterationOutputExecutorTest {
+
+	@Test
+	public void testWithoutThreads() {
+		IterationOutputExecutor executor = new IterationOutputExecutor(0);
+		List<Thread> threads = new ArrayList<>();
+		executor.execute("a", () -> threads.add(Thread.currentThread()));
+		Assert.assertEquals("the task is expected to be executed right away by the calling thread",
+				List.of(Thread.currentThread()), threads);
+
+		try {
+			executor.execute("a", () -> { throw new IllegalStateException("expected"); });
+			Assert.fail("the exception is expected to be thrown right away");
+		} catch (IllegalStateException e) {
+			Assert.assertEquals("expected", e.getMessage());
+		}
+	}
+
+	@Test
+	public void testSameOutputInOrder() {
+		IterationOutputExecutor executor = new IterationOutputExecutor(4);
+		List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+		AtomicInteger otherOutputs = new AtomicInteger();
+		for (int i = 0; i < 100; i++) {
+			final int index = i;
+			executor.execute("a", () -> {
+				if (index % 10 == 0) {
+					sleep(5);
+				}
+				order.add(index);
+			});
+			executor.execute("b" + i, otherOutputs::incrementAndGet);
+		}
+		executor.flush();
+
+		Assert.assertEquals(100, otherOutputs.get());
+		Assert.assertEquals(100, order.size());
+		for (int i = 0; i < 100; i++) {
+			Assert.assertEquals("tasks writing the same output are expected in the order they were handed over", i, (int) order.get(i));
+		}
+		executor.notifyShutdown(new ShutdownEvent(null, false, 0));
+	}
+
+	@Test
+	public void testBackPressure() throws InterruptedException {
+		IterationOutputExecutor executor = new IterationOutputExecutor(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicInteger started = new AtomicInteger();
+		// one thread allows two pending tasks
+		executor.execute("a", () -> { started.incrementAndGet(); await(release); });
+		executor.execute("b", started::incrementAndGet);
+
+		Thread submitter = new Thread(() -> executor.execute("c", started::incrementAndGet));
+		submitter.start();
+		submitter.join(200);
+		Assert.assertTrue("handing over a third task is expected to block while two tasks are pending", submitter.isAlive());
+
+		release.countDown();
+		submitter.join(10000);
+		Assert.assertFalse(submitter.isAlive());
+		executor.flush();
+		Assert.assertEquals(3, started.get());
+		executor.notifyShutdown(new ShutdownEvent(null, false, 0));
+	}
+
+	@Test
+	public void testFailureIsRethrown() {
+		IterationOutputExecutor executor = new IterationOutputExecutor(2);
+		AtomicInteger executed = new AtomicInteger();
+		CountDownLatch fail = new CountDownLatch(1);
+		executor.execute("a", () -> { await(fail); throw new IllegalStateException("expected"); });
+		executor.execute("a", executed::incrementAndGet);
+		fail.countDown();
+		try {
+			executor.flush();
+			Assert.fail("the failure of the task is expected to be re-thrown");
+		} catch (IllegalStateException e) {
+			Assert.assertEquals("expected", e.getMessage());
+		}
+		Assert.assertEquals("a failed task is not expected to prevent later tasks for the same output", 1, executed.get());
+
+		// the failure is only reported once
+		executor.flush();
+		executor.notifyShutdown(new ShutdownEvent(null, false, 0));
+	}
+
+	@Test
+	public void testAfterShutdown() {
+		IterationOutputExecutor executor = new IterationOutputExecutor(2);
+		AtomicInteger executed = new AtomicInteger();
+		executor.execute("a", () -> { sleep(50); executed.incrementAndGet(); });
+		executor.notifyShutdown(new ShutdownEvent(null, false, 0));
+		Assert.assertEquals("pending output is expected to be written at shutdown", 1, executed.get());
+
+		List<Thread> threads = new ArrayList<>();
+		executor.execute("a", () -> threads.add(Thread.currentThread()));
+		Assert.assertEquals(List.of(Thread.currentThread()), threads);
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
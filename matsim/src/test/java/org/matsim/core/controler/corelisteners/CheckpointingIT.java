@@ -0,0 +1,176 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.controler.corelisteners;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.network.Network;
+import org.matsim.api.core.v01.network.Node;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.config.groups.PlanCalcScoreConfigGroup.ActivityParams;
+import org.matsim.core.config.groups.StrategyConfigGroup.StrategySettings;
+import org.matsim.core.controler.Controler;
+import org.matsim.core.controler.OutputDirectoryHierarchy.OverwriteFileSetting;
+import org.matsim.core.replanning.strategies.DefaultPlanStrategiesModule.DefaultSelector;
+import org.matsim.core.replanning.strategies.DefaultPlanStrategiesModule.DefaultStrategy;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.io.IOUtils;
+import org.matsim.core.utils.misc.CRCChecksum;
+import org.matsim.testcases.MatsimTestUtils;
+
+/**
+ * Tests that a run continued from a checkpoint ends in the same state as the run that wrote the checkpoint.
+ */
+public class CheckpointingIT {
+
+	@Rule public MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	public void testContinueFromCheckpoint() throws IOException {
+		final String fullOutput = this.utils.getOutputDirectory() + "full/";
+		final String continuedOutput = this.utils.getOutputDirectory() + "continued/";
+
+		Controler full = new Controler(createScenario(createConfig(fullOutput, 0, null)));
+		full.run();
+		String checkpoint = full.getControlerIO().getIterationFilename(2, Controler.DefaultFiles.checkpoint);
+		Assert.assertTrue("checkpoint is expected to be written", new File(checkpoint).exists());
+
+		// replanning has to run in the first iteration of the continued run, and re-routing has to be disabled again after iteration 3
+		Controler continued = new Controler(createScenario(createConfig(continuedOutput, 3, checkpoint)));
+		continued.run();
+
+		Assert.assertEquals("continued run is expected to end with the same plans",
+				CRCChecksum.getCRCFromFile(fullOutput + "output_plans.xml.gz"),
+				CRCChecksum.getCRCFromFile(continuedOutput + "output_plans.xml.gz"));
+
+		List<String> fullScores = readScoreStats(fullOutput);
+		List<String> continuedScores = readScoreStats(continuedOutput);
+		Assert.assertEquals(7, fullScores.size());
+		Assert.assertNotEquals("scores are expected to change, otherwise the test proves nothing", fullScores.get(1), fullScores.get(4));
+		Assert.assertEquals(fullScores.get(0), continuedScores.get(0));
+		Assert.assertEquals("continued run is expected to have the same scores", fullScores.subList(4, 7), continuedScores.subList(1, 4));
+	}
+
+	private static Config createConfig(final String outputDirectory, final int firstIteration, final String inputCheckpointFile) {
+		Config config = ConfigUtils.createConfig();
+		config.controler().setOutputDirectory(outputDirectory);
+		config.controler().setFirstIteration(firstIteration);
+		config.controler().setLastIteration(5);
+		config.controler().setWriteCheckpointsInterval(1);
+		config.controler().setInputCheckpointFile(inputCheckpointFile);
+		config.controler().setCreateGraphs(false);
+		config.controler().setOverwriteFileSetting(OverwriteFileSetting.deleteDirectoryIfExists);
+
+		ActivityParams home = new ActivityParams("h");
+		home.setTypicalDuration(16 * 3600);
+		config.planCalcScore().addActivityParams(home);
+		ActivityParams work = new ActivityParams("w");
+		work.setTypicalDuration(8 * 3600);
+		config.planCalcScore().addActivityParams(work);
+
+		StrategySettings reRoute = new StrategySettings();
+		reRoute.setStrategyName(DefaultStrategy.ReRoute);
+		reRoute.setWeight(0.3);
+		reRoute.setDisableAfter(3);
+		config.strategy().addStrategySettings(reRoute);
+		StrategySettings changeExpBeta = new StrategySettings();
+		changeExpBeta.setStrategyName(DefaultSelector.ChangeExpBeta);
+		changeExpBeta.setWeight(0.7);
+		config.strategy().addStrategySettings(changeExpBeta);
+		return config;
+	}
+
+	/*
+	 * A direct route with low capacity and a longer detour, so that the agents leaving home every two seconds
+	 * spread over both routes during the iterations.
+	 */
+	private static Scenario createScenario(final Config config) {
+		Scenario scenario = ScenarioUtils.createScenario(config);
+		Network network = scenario.getNetwork();
+		Node n1 = addNode(network, 1, -100, 0);
+		Node n2 = addNode(network, 2, 0, 0);
+		Node n3 = addNode(network, 3, 1000, 0);
+		Node n4 = addNode(network, 4, 1100, 0);
+		Node n5 = addNode(network, 5, 500, 500);
+		addLink(network, 1, n1, n2, 100, 7200);
+		addLink(network, 2, n2, n3, 1000, 360);
+		addLink(network, 3, n3, n4, 100, 7200);
+		addLink(network, 4, n2, n5, 700, 7200);
+		addLink(network, 5, n5, n3, 700, 7200);
+		addLink(network, 6, n4, n1, 100, 7200);
+
+		PopulationFactory pf = scenario.getPopulation().getFactory();
+		for (int i = 0; i < 100; i++) {
+			Person person = pf.createPerson(Id.createPersonId(i));
+			Plan plan = pf.createPlan();
+			Activity home = pf.createActivityFromLinkId("h", Id.createLinkId(1));
+			home.setEndTime(7 * 3600 + i * 2);
+			plan.addActivity(home);
+			plan.addLeg(pf.createLeg("car"));
+			plan.addActivity(pf.createActivityFromLinkId("w", Id.createLinkId(3)));
+			person.addPlan(plan);
+			scenario.getPopulation().addPerson(person);
+		}
+		return scenario;
+	}
+
+	private static Node addNode(final Network network, final int id, final double x, final double y) {
+		Node node = network.getFactory().createNode(Id.createNodeId(id), new Coord(x, y));
+		network.addNode(node);
+		return node;
+	}
+
+	private static void addLink(final Network network, final int id, final Node from, final Node to, final double length,
+			final double capacity) {
+		Link link = network.getFactory().createLink(Id.createLinkId(id), from, to);
+		link.setLength(length);
+		link.setFreespeed(10);
+		link.setCapacity(capacity);
+		link.setNumberOfLanes(1);
+		network.addLink(link);
+	}
+
+	private static List<String> readScoreStats(final String outputDirectory) throws IOException {
+		List<String> lines = new ArrayList<>();
+		try (BufferedReader reader = IOUtils.getBufferedReader(outputDirectory + "scorestats.txt")) {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				lines.add(line);
+			}
+		}
+		return lines;
+	}
+}
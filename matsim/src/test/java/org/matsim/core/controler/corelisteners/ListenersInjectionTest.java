@@ -31,6 +31,7 @@ import org.matsim.core.controler.ControlerListenerManager;
 import org.matsim.core.controler.ControlerListenerManagerImpl;
 import org.matsim.core.controler.Injector;
 import org.matsim.core.controler.IterationCounter;
+import org.matsim.core.controler.IterationOutputExecutor;
 import org.matsim.core.controler.OutputDirectoryHierarchy;
 import org.matsim.core.controler.listener.ControlerListener;
 import org.matsim.core.scenario.ScenarioByInstanceModule;
@@ -88,6 +89,7 @@ public class ListenersInjectionTest {
 								OutputDirectoryHierarchy.OverwriteFileSetting.deleteDirectoryIfExists,
 								config.controler().getCompressionType()));
 						bind(IterationStopWatch.class).toInstance(new IterationStopWatch());
+						bind(IterationOutputExecutor.class).toInstance(new IterationOutputExecutor(0));
 						bind(IterationCounter.class).toInstance(() -> 0);
 						install(new ScenarioByInstanceModule(ScenarioUtils.createScenario(config)));
 					}
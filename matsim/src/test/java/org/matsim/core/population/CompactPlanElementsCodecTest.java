@@ -0,0 +1,266 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * CompactPlanElementsCodecTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.PlanElement;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.population.io.PopulationWriter;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.core.utils.misc.CRCChecksum;
+import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.vehicles.Vehicle;
+
+public class CompactPlanElementsCodecTest {
+
+	@Rule
+	public final MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	public void testCompactNonSelectedPlans() {
+		final Population population = createPopulation(10);
+		final String expectedFile = utils.getOutputDirectory() + "/expected.xml";
+		final String compactedFile = utils.getOutputDirectory() + "/compacted.xml";
+		new PopulationWriter(population).writeV6(expectedFile);
+
+		CompactPlanElementsCodec codec = new CompactPlanElementsCodec(population.getFactory().getRouteFactories());
+		Assert.assertEquals(10, PopulationUtils.compactNonSelectedPlans(population, codec));
+		Assert.assertEquals("plans which already are compact are not expected to be counted again",
+				0, PopulationUtils.compactNonSelectedPlans(population, codec));
+
+		for (Person person : population.getPersons().values()) {
+			Assert.assertFalse(((PlanImpl) person.getSelectedPlan()).isCompact());
+			Assert.assertTrue(((PlanImpl) person.getPlans().get(1)).isCompact());
+			// scores are not part of the compact form, and can be read without restoring the plan
+			Assert.assertNotNull(person.getPlans().get(1).getScore());
+			Assert.assertTrue(((PlanImpl) person.getPlans().get(1)).isCompact());
+		}
+
+		new PopulationWriter(population).writeV6(compactedFile);
+		Assert.assertEquals("restored plans differ from the original ones",
+				CRCChecksum.getCRCFromFile(expectedFile), CRCChecksum.getCRCFromFile(compactedFile));
+		for (Person person : population.getPersons().values()) {
+			Assert.assertFalse(((PlanImpl) person.getPlans().get(1)).isCompact());
+		}
+	}
+
+	@Test
+	public void testRoundTrip() {
+		final Population population = createPopulation(1);
+		final Plan plan = population.getPersons().get(Id.createPersonId(0)).getPlans().get(1);
+
+		final Leg leg = (Leg) plan.getPlanElements().get(1);
+		final NetworkRoute route = (NetworkRoute) leg.getRoute();
+		final Activity work = (Activity) plan.getPlanElements().get(2);
+
+		CompactPlanElementsCodec codec = new CompactPlanElementsCodec(population.getFactory().getRouteFactories());
+		Assert.assertTrue(((PlanImpl) plan).compact(codec));
+		Assert.assertTrue(((PlanImpl) plan).isCompact());
+		Assert.assertFalse(((PlanImpl) plan).compact(codec));
+
+		Assert.assertEquals(3, plan.getPlanElements().size());
+		Assert.assertFalse(((PlanImpl) plan).isCompact());
+
+		final Leg restoredLeg = (Leg) plan.getPlanElements().get(1);
+		Assert.assertNotSame(leg, restoredLeg);
+		Assert.assertEquals("car", restoredLeg.getMode());
+		Assert.assertEquals(leg.getDepartureTime(), restoredLeg.getDepartureTime());
+		Assert.assertTrue(restoredLeg.getTravelTime().isUndefined());
+		Assert.assertEquals(Boolean.TRUE, restoredLeg.getAttributes().getAttribute("shared"));
+
+		final NetworkRoute restoredRoute = (NetworkRoute) restoredLeg.getRoute();
+		Assert.assertEquals(route.getLinkIds(), restoredRoute.getLinkIds());
+		Assert.assertEquals(route.getStartLinkId(), restoredRoute.getStartLinkId());
+		Assert.assertEquals(route.getEndLinkId(), restoredRoute.getEndLinkId());
+		Assert.assertEquals(route.getVehicleId(), restoredRoute.getVehicleId());
+		Assert.assertEquals(route.getDistance(), restoredRoute.getDistance(), 0.0);
+		Assert.assertEquals(route.getTravelCost(), restoredRoute.getTravelCost(), 0.0);
+
+		final Activity restoredWork = (Activity) plan.getPlanElements().get(2);
+		Assert.assertEquals(work.getType(), restoredWork.getType());
+		Assert.assertSame("activity types are expected to be interned", work.getType(), restoredWork.getType());
+		Assert.assertEquals(work.getCoord(), restoredWork.getCoord());
+		Assert.assertNull(restoredWork.getFacilityId());
+		Assert.assertTrue(restoredWork.getEndTime().isUndefined());
+		Assert.assertEquals(work.getMaximumDuration(), restoredWork.getMaximumDuration());
+	}
+
+	@Test
+	public void testPlanWithUnconvertibleAttributeIsNotCompacted() {
+		final Population population = createPopulation(1);
+		final Plan plan = population.getPersons().get(Id.createPersonId(0)).getPlans().get(1);
+		final Leg leg = (Leg) plan.getPlanElements().get(1);
+		leg.getAttributes().putAttribute("unknown", new Object());
+
+		CompactPlanElementsCodec codec = new CompactPlanElementsCodec(population.getFactory().getRouteFactories());
+		Assert.assertEquals(0, PopulationUtils.compactNonSelectedPlans(population, codec));
+		Assert.assertFalse(((PlanImpl) plan).isCompact());
+		Assert.assertSame(leg, plan.getPlanElements().get(1));
+	}
+
+	@Test
+	public void testConcurrentEncoding() throws Exception {
+		final int numberOfThreads = 8;
+		final int plansPerThread = 200;
+		final PopulationFactory factory = PopulationUtils.getFactory();
+		final CompactPlanElementsCodec codec = new CompactPlanElementsCodec(factory.getRouteFactories());
+
+		// every thread encodes its own activity types and modes, so that new strings are added concurrently
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		List<Future<List<byte[]>>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < numberOfThreads; t++) {
+				final int thread = t;
+				futures.add(executor.submit(() -> {
+					List<byte[]> encoded = new ArrayList<>();
+					for (int i = 0; i < plansPerThread; i++) {
+						encoded.add(codec.encode(createPlanElements(factory, thread, i)));
+					}
+					return encoded;
+				}));
+			}
+			for (int t = 0; t < numberOfThreads; t++) {
+				List<byte[]> encoded = futures.get(t).get();
+				for (int i = 0; i < plansPerThread; i++) {
+					List<PlanElement> decoded = codec.decode(encoded.get(i));
+					Assert.assertEquals(3, decoded.size());
+					Assert.assertEquals("home-" + t + "-" + i, ((Activity) decoded.get(0)).getType());
+					Assert.assertEquals("mode-" + t + "-" + i, ((Leg) decoded.get(1)).getMode());
+					Assert.assertEquals("work-" + t + "-" + i, ((Activity) decoded.get(2)).getType());
+				}
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@Test
+	public void testConcurrentRestoring() throws Exception {
+		final int numberOfThreads = 8;
+		final int numberOfPersons = 2000;
+		final Population population = createPopulation(numberOfPersons);
+		CompactPlanElementsCodec codec = new CompactPlanElementsCodec(population.getFactory().getRouteFactories());
+		Assert.assertEquals(numberOfPersons, PopulationUtils.compactNonSelectedPlans(population, codec));
+
+		// all threads start together and read the same compact plans at the same time
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		CyclicBarrier start = new CyclicBarrier(numberOfThreads);
+		List<Future<?>> futures = new ArrayList<>();
+		try {
+			for (int t = 0; t < numberOfThreads; t++) {
+				futures.add(executor.submit(() -> {
+					start.await();
+					for (Person person : population.getPersons().values()) {
+						List<PlanElement> planElements = person.getPlans().get(1).getPlanElements();
+						Assert.assertEquals(3, planElements.size());
+						Assert.assertEquals("car", ((Leg) planElements.get(1)).getMode());
+					}
+					return null;
+				}));
+			}
+			for (Future<?> future : futures) {
+				future.get();
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+		for (Person person : population.getPersons().values()) {
+			Assert.assertFalse(((PlanImpl) person.getPlans().get(1)).isCompact());
+		}
+	}
+
+	private static List<PlanElement> createPlanElements(final PopulationFactory factory, final int thread, final int i) {
+		final String suffix = "-" + thread + "-" + i;
+		Plan plan = factory.createPlan();
+		Activity home = factory.createActivityFromLinkId("home" + suffix, Id.createLinkId("1"));
+		home.setEndTime(6 * 3600 + i);
+		plan.addActivity(home);
+		Leg leg = factory.createLeg("mode" + suffix);
+		leg.setRoute(RouteUtils.createGenericRouteImpl(Id.createLinkId("1"), Id.createLinkId("4")));
+		plan.addLeg(leg);
+		plan.addActivity(factory.createActivityFromLinkId("work" + suffix, Id.createLinkId("4")));
+		return plan.getPlanElements();
+	}
+
+	private static Population createPopulation(int numberOfPersons) {
+		final Population population = PopulationUtils.createPopulation(ConfigUtils.createConfig());
+		final PopulationFactory factory = population.getFactory();
+
+		for (int i = 0; i < numberOfPersons; i++) {
+			Person person = factory.createPerson(Id.createPersonId(i));
+			population.addPerson(person);
+
+			for (int p = 0; p < 2; p++) {
+				Plan plan = factory.createPlan();
+				plan.setScore(i + 0.5 * p);
+				person.addPlan(plan);
+
+				Activity home = factory.createActivityFromLinkId("home", Id.createLinkId("1"));
+				home.setCoord(new Coord(i, p));
+				home.setEndTime(6 * 3600 + i);
+				home.getAttributes().putAttribute("persons", 1 + i % 3);
+				plan.addActivity(home);
+
+				Leg leg = factory.createLeg(p == 0 ? "walk" : "car");
+				leg.setDepartureTime(6 * 3600 + i);
+				leg.getAttributes().putAttribute("shared", i % 2 == 0);
+				if (p == 0) {
+					leg.setRoute(RouteUtils.createGenericRouteImpl(Id.createLinkId("1"), Id.createLinkId("4")));
+					leg.setTravelTime(600);
+				} else {
+					List<Id<Link>> links = List.of(Id.createLinkId("2"), Id.createLinkId("300"), Id.createLinkId("2"));
+					NetworkRoute route = RouteUtils.createLinkNetworkRouteImpl(Id.createLinkId("1"), links, Id.createLinkId("4"));
+					route.setVehicleId(Id.create(i, Vehicle.class));
+					route.setTravelCost(12.5);
+					leg.setRoute(route);
+				}
+				leg.getRoute().setDistance(1000 + i);
+				plan.addLeg(leg);
+
+				Activity work = factory.createActivityFromLinkId("work", Id.createLinkId("4"));
+				work.setCoord(new Coord(i, 10 + p, 5));
+				work.setMaximumDuration(8 * 3600);
+				plan.addActivity(work);
+			}
+			person.setSelectedPlan(person.getPlans().get(0));
+		}
+		return population;
+	}
+}
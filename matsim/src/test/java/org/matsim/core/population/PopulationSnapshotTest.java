@@ -0,0 +1,175 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * PopulationSnapshotTest.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ * email           : info at matsim dot org                                *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.population.io.PopulationWriter;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.core.utils.misc.CRCChecksum;
+import org.matsim.testcases.MatsimTestUtils;
+import org.matsim.utils.objectattributes.ObjectAttributesConverter;
+import org.matsim.vehicles.Vehicle;
+
+public class PopulationSnapshotTest {
+
+	@Rule
+	public final MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		final Population population = createPopulation(10);
+		final String expectedFile = utils.getOutputDirectory() + "/expected.xml";
+		final String restoredFile = utils.getOutputDirectory() + "/restored.xml";
+		new PopulationWriter(population).writeV6(expectedFile);
+
+		// compacted plans are copied without being restored
+		CompactPlanElementsCodec codec = new CompactPlanElementsCodec(population.getFactory().getRouteFactories());
+		Assert.assertEquals(10, PopulationUtils.compactNonSelectedPlans(population, codec));
+		PopulationSnapshot snapshot = PopulationSnapshot.create(population, codec, new ObjectAttributesConverter());
+		Assert.assertTrue(((PlanImpl) population.getPersons().get(Id.createPersonId(3)).getPlans().get(0)).isCompact());
+
+		// later changes are not part of the snapshot
+		population.getPersons().get(Id.createPersonId(0)).getSelectedPlan().setScore(-1000.0);
+		population.getPersons().get(Id.createPersonId(1)).getAttributes().putAttribute("age", 99);
+		population.removePerson(Id.createPersonId(2));
+
+		Population restored = PopulationUtils.createPopulation(ConfigUtils.createConfig());
+		read(write(snapshot), restored);
+
+		Assert.assertEquals(10, restored.getPersons().size());
+		new PopulationWriter(restored).writeV6(restoredFile);
+		Assert.assertEquals("restored population differs from the original one",
+				CRCChecksum.getCRCFromFile(expectedFile), CRCChecksum.getCRCFromFile(restoredFile));
+		Person person = restored.getPersons().get(Id.createPersonId(5));
+		Assert.assertSame(person.getPlans().get(1), person.getSelectedPlan());
+		Assert.assertEquals(5 + 0.5, person.getSelectedPlan().getScore(), 0.0);
+		Assert.assertNull(person.getPlans().get(0).getScore());
+		Assert.assertEquals("innovation", person.getPlans().get(1).getType());
+	}
+
+	@Test
+	public void testReadIntoExistingPersons() throws IOException {
+		final Population population = createPopulation(3);
+		byte[] data = write(PopulationSnapshot.create(population,
+				new CompactPlanElementsCodec(population.getFactory().getRouteFactories()), new ObjectAttributesConverter()));
+
+		Population existing = PopulationUtils.createPopulation(ConfigUtils.createConfig());
+		PopulationFactory factory = existing.getFactory();
+		Person person0 = factory.createPerson(Id.createPersonId(0));
+		person0.addPlan(factory.createPlan());
+		person0.getAttributes().putAttribute("unknown", "x");
+		existing.addPerson(person0);
+		existing.addPerson(factory.createPerson(Id.createPersonId("other")));
+
+		read(data, existing);
+
+		Assert.assertEquals(3, existing.getPersons().size());
+		Assert.assertNull("persons which are not part of the snapshot are expected to be removed",
+				existing.getPersons().get(Id.createPersonId("other")));
+		Assert.assertSame("existing persons are expected to be kept", person0, existing.getPersons().get(Id.createPersonId(0)));
+		Assert.assertEquals(2, person0.getPlans().size());
+		Assert.assertSame(person0, person0.getSelectedPlan().getPerson());
+		Assert.assertSame(person0.getPlans().get(1), person0.getSelectedPlan());
+		Assert.assertNull(person0.getAttributes().getAttribute("unknown"));
+		Assert.assertEquals(20, person0.getAttributes().getAttribute("age"));
+	}
+
+	private static byte[] write(final PopulationSnapshot snapshot) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (DataOutputStream out = new DataOutputStream(bytes)) {
+			snapshot.write(out);
+		}
+		return bytes.toByteArray();
+	}
+
+	private static void read(final byte[] data, final Population population) throws IOException {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+			PopulationSnapshot.read(in, population,
+					new CompactPlanElementsCodec(population.getFactory().getRouteFactories()), new ObjectAttributesConverter());
+		}
+	}
+
+	private static Population createPopulation(int numberOfPersons) {
+		final Population population = PopulationUtils.createPopulation(ConfigUtils.createConfig());
+		final PopulationFactory factory = population.getFactory();
+
+		for (int i = 0; i < numberOfPersons; i++) {
+			Person person = factory.createPerson(Id.createPersonId(i));
+			person.getAttributes().putAttribute("age", 20 + i);
+			population.addPerson(person);
+
+			for (int p = 0; p < 2; p++) {
+				Plan plan = factory.createPlan();
+				if (p == 1) {
+					plan.setScore(i + 0.5);
+					plan.setType("innovation");
+					plan.getAttributes().putAttribute("iteration", i);
+				}
+				person.addPlan(plan);
+
+				Activity home = factory.createActivityFromLinkId("home", Id.createLinkId("1"));
+				home.setCoord(new Coord(i, p));
+				home.setEndTime(6 * 3600 + i);
+				plan.addActivity(home);
+
+				Leg leg = factory.createLeg(p == 0 ? "walk" : "car");
+				leg.setDepartureTime(6 * 3600 + i);
+				if (p == 0) {
+					leg.setRoute(RouteUtils.createGenericRouteImpl(Id.createLinkId("1"), Id.createLinkId("4")));
+					leg.setTravelTime(600);
+				} else {
+					List<Id<Link>> links = List.of(Id.createLinkId("2"), Id.createLinkId("snapshot-" + i), Id.createLinkId("3"));
+					NetworkRoute route = RouteUtils.createLinkNetworkRouteImpl(Id.createLinkId("1"), links, Id.createLinkId("4"));
+					route.setVehicleId(Id.create(i, Vehicle.class));
+					leg.setRoute(route);
+				}
+				leg.getRoute().setDistance(1000 + i);
+				plan.addLeg(leg);
+
+				Activity work = factory.createActivityFromLinkId("work", Id.createLinkId("4"));
+				work.setMaximumDuration(8 * 3600);
+				plan.addActivity(work);
+			}
+			person.setSelectedPlan(person.getPlans().get(1));
+		}
+		return population;
+	}
+}
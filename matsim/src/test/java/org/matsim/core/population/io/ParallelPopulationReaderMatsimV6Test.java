@@ -0,0 +1,140 @@
+/* *********************************************************************** *
+ * project: org.matsim.*
+ * ParallelPopulationReaderMatsimV6Test.java
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ * copyright       : (C) 2020 by the members listed in the COPYING,        *
+ *                   LICENSE and WARRANTY file.                            *
+ *                                                                         *
+ * *********************************************************************** *
+ *                                                                         *
+ *   This program is free software; you can redistribute it and/or modify  *
+ *   it under the terms of the GNU General Public License as published by  *
+ *   the Free Software Foundation; either version 2 of the License, or     *
+ *   (at your option) any later version.                                   *
+ *   See also COPYING, LICENSE and WARRANTY file                           *
+ *                                                                         *
+ * *********************************************************************** */
+
+package org.matsim.core.population.io;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.matsim.api.core.v01.Coord;
+import org.matsim.api.core.v01.Id;
+import org.matsim.api.core.v01.Scenario;
+import org.matsim.api.core.v01.network.Link;
+import org.matsim.api.core.v01.population.Activity;
+import org.matsim.api.core.v01.population.Leg;
+import org.matsim.api.core.v01.population.Person;
+import org.matsim.api.core.v01.population.Plan;
+import org.matsim.api.core.v01.population.Population;
+import org.matsim.api.core.v01.population.PopulationFactory;
+import org.matsim.core.config.Config;
+import org.matsim.core.config.ConfigUtils;
+import org.matsim.core.population.PopulationUtils;
+import org.matsim.core.population.routes.NetworkRoute;
+import org.matsim.core.population.routes.RouteUtils;
+import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.testcases.MatsimTestUtils;
+
+public class ParallelPopulationReaderMatsimV6Test {
+
+	@Rule
+	public final MatsimTestUtils utils = new MatsimTestUtils();
+
+	@Test
+	public void testSameResultAsSerialReader() {
+		// more persons than fit into one chunk, so that several threads get work
+		final int numberOfPersons = 3 * ParallelPopulationReaderMatsimV6.PERSONS_PER_CHUNK + 17;
+		final String file = utils.getOutputDirectory() + "/population.xml";
+		new PopulationWriter(createPopulation(numberOfPersons)).writeV6(file);
+
+		final Scenario serialScenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		new PopulationReaderMatsimV6(null, null, serialScenario).readFile(file);
+
+		final Config config = ConfigUtils.createConfig();
+		config.global().setNumberOfThreads(4);
+		final Scenario parallelScenario = ScenarioUtils.createScenario(config);
+		new ParallelPopulationReaderMatsimV6(null, null, parallelScenario).readFile(file);
+
+		Assert.assertEquals(numberOfPersons, parallelScenario.getPopulation().getPersons().size());
+		Assert.assertEquals("persons are expected in the order of the file",
+				new ArrayList<>(serialScenario.getPopulation().getPersons().keySet()),
+				new ArrayList<>(parallelScenario.getPopulation().getPersons().keySet()));
+		Assert.assertEquals("population attributes differ",
+				serialScenario.getPopulation().getAttributes().getAttribute("description"),
+				parallelScenario.getPopulation().getAttributes().getAttribute("description"));
+		Assert.assertTrue("populations differ",
+				PopulationUtils.equalPopulation(serialScenario.getPopulation(), parallelScenario.getPopulation()));
+
+		Person person = parallelScenario.getPopulation().getPersons().get(Id.createPersonId(numberOfPersons - 1));
+		Assert.assertEquals(numberOfPersons - 1, person.getAttributes().getAttribute("age"));
+		Assert.assertEquals(2, person.getPlans().size());
+		Leg leg = (Leg) person.getSelectedPlan().getPlanElements().get(1);
+		Assert.assertEquals(Id.createLinkId("2"), ((NetworkRoute) leg.getRoute()).getLinkIds().get(0));
+		Assert.assertEquals((numberOfPersons - 1) % 2 == 1, leg.getAttributes().getAttribute("shared"));
+	}
+
+	@Test
+	public void testPopulationWithoutPersons() {
+		final String file = utils.getOutputDirectory() + "/population.xml";
+		new PopulationWriter(createPopulation(0)).writeV6(file);
+
+		final Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		new ParallelPopulationReaderMatsimV6(null, null, scenario).readFile(file);
+
+		Assert.assertTrue(scenario.getPopulation().getPersons().isEmpty());
+		Assert.assertEquals("test population", scenario.getPopulation().getAttributes().getAttribute("description"));
+	}
+
+	private static Population createPopulation(int numberOfPersons) {
+		final Population population = PopulationUtils.createPopulation(ConfigUtils.createConfig());
+		final PopulationFactory factory = population.getFactory();
+		population.getAttributes().putAttribute("description", "test population");
+
+		for (int i = 0; i < numberOfPersons; i++) {
+			Person person = factory.createPerson(Id.createPersonId(i));
+			person.getAttributes().putAttribute("age", i);
+			person.getAttributes().putAttribute("name", "person " + i);
+			population.addPerson(person);
+
+			for (int p = 0; p < 2; p++) {
+				Plan plan = factory.createPlan();
+				plan.setScore(i + 0.5 * p);
+				plan.getAttributes().putAttribute("index", p);
+				person.addPlan(plan);
+
+				Activity home = factory.createActivityFromLinkId("home", Id.createLinkId("1"));
+				home.setCoord(new Coord(i, p));
+				home.setEndTime(6 * 3600 + i);
+				home.getAttributes().putAttribute("persons", 1 + i % 3);
+				plan.addActivity(home);
+
+				Leg leg = factory.createLeg(p == 0 ? "car" : "walk");
+				leg.setDepartureTime(6 * 3600 + i);
+				leg.setTravelTime(600);
+				leg.getAttributes().putAttribute("shared", i % 2 == 1);
+				if (p == 0) {
+					List<Id<Link>> links = List.of(Id.createLinkId("2"), Id.createLinkId("3"));
+					leg.setRoute(RouteUtils.createLinkNetworkRouteImpl(Id.createLinkId("1"), links, Id.createLinkId("4")));
+				} else {
+					leg.setRoute(RouteUtils.createGenericRouteImpl(Id.createLinkId("1"), Id.createLinkId("4")));
+				}
+				leg.getRoute().setDistance(1000 + i);
+				plan.addLeg(leg);
+
+				Activity work = factory.createActivityFromLinkId("work", Id.createLinkId("4"));
+				work.setCoord(new Coord(i, 10 + p));
+				plan.addActivity(work);
+			}
+			person.setSelectedPlan(person.getPlans().get(0));
+		}
+		return population;
+	}
+}
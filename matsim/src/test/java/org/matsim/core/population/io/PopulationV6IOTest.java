@@ -38,6 +38,7 @@ import org.matsim.core.config.ConfigUtils;
 import org.matsim.core.population.PopulationUtils;
 import org.matsim.core.population.routes.GenericRouteImpl;
 import org.matsim.core.scenario.ScenarioUtils;
+import org.matsim.core.utils.misc.CRCChecksum;
 import org.matsim.testcases.MatsimTestUtils;
 
 import java.io.ByteArrayInputStream;
@@ -321,4 +322,80 @@ public class PopulationV6IOTest {
 
 		Assert.assertEquals(route.getRouteDescription(), ((Leg) scenario.getPopulation().getPersons().get(person1.getId()).getSelectedPlan().getPlanElements().get(1)).getRoute().getRouteDescription());
 	}
+
+	@Test
+	public void testParallelWriting() {
+		final Population population = PopulationUtils.createPopulation(ConfigUtils.createConfig() );
+		final PopulationFactory factory = population.getFactory();
+		for (int i = 0; i < 2 * PopulationWriter.PERSONS_PER_CHUNK + 123; i++) {
+			final Person person = factory.createPerson(Id.createPersonId(i));
+			person.getAttributes().putAttribute( "index" , i );
+			final Plan plan = factory.createPlan();
+			plan.addActivity(factory.createActivityFromCoord( "home" , new Coord( i , 0 ) ));
+			plan.addLeg(factory.createLeg( "walk" ));
+			plan.addActivity(factory.createActivityFromCoord( "work" , new Coord( 0 , i ) ));
+			person.addPlan( plan );
+			population.addPerson( person );
+		}
+
+		final String serialFile = utils.getOutputDirectory()+"/serial_population.xml.gz";
+		new PopulationWriter( population ).writeV6( serialFile );
+
+		final String parallelFile = utils.getOutputDirectory()+"/parallel_population.xml.gz";
+		final PopulationWriter writer = new PopulationWriter( population );
+		writer.setNumberOfThreads( 4 );
+		writer.writeV6( parallelFile );
+
+		Assert.assertEquals( "the uncompressed content is expected to be independent of the number of threads",
+				CRCChecksum.getCRCFromFile( serialFile ),
+				CRCChecksum.getCRCFromFile( parallelFile ) );
+	}
+
+	@Test
+	public void testLazyAttributesIO() {
+		final Population population = PopulationUtils.createPopulation(ConfigUtils.createConfig() );
+		final PopulationFactory factory = population.getFactory();
+		for (int i = 0; i < 100; i++) {
+			final Person person = factory.createPerson(Id.createPersonId(i));
+			person.getAttributes().putAttribute( "index" , i );
+			person.getAttributes().putAttribute( "name" , "person " + i );
+			person.getAttributes().putAttribute( "coord" , new Coord( i , 2.5 * i ) );
+			final Plan plan = factory.createPlan();
+			final Activity home = factory.createActivityFromCoord( "home" , new Coord( i , 0 ) );
+			home.getAttributes().putAttribute( "weight" , 0.5 * i );
+			plan.addActivity( home );
+			person.addPlan( plan );
+			population.addPerson( person );
+		}
+
+		final String file = utils.getOutputDirectory()+"/population.xml";
+		new PopulationWriter( population ).writeV6( file );
+
+		final Scenario eagerScenario = ScenarioUtils.createScenario( ConfigUtils.createConfig() );
+		new PopulationReader( eagerScenario ).readFile( file );
+
+		final Scenario lazyScenario = ScenarioUtils.createScenario( ConfigUtils.createConfig() );
+		final PopulationReader lazyReader = new PopulationReader( lazyScenario );
+		lazyReader.setConvertingAttributesLazily( true );
+		lazyReader.readFile( file );
+
+		// write before any attribute is accessed, to make sure unconverted values are written the same way
+		final String eagerFile = utils.getOutputDirectory()+"/eager_population.xml";
+		new PopulationWriter( eagerScenario.getPopulation() ).writeV6( eagerFile );
+		final String lazyFile = utils.getOutputDirectory()+"/lazy_population.xml";
+		new PopulationWriter( lazyScenario.getPopulation() ).writeV6( lazyFile );
+		Assert.assertEquals( "lazily converted attributes are expected to be written the same way",
+				CRCChecksum.getCRCFromFile( eagerFile ),
+				CRCChecksum.getCRCFromFile( lazyFile ) );
+
+		for (Person person : population.getPersons().values()) {
+			final Person readPerson = lazyScenario.getPopulation().getPersons().get( person.getId() );
+			Assert.assertEquals( person.getAttributes().getAttribute( "index" ), readPerson.getAttributes().getAttribute( "index" ) );
+			Assert.assertEquals( person.getAttributes().getAttribute( "name" ), readPerson.getAttributes().getAttribute( "name" ) );
+			Assert.assertEquals( person.getAttributes().getAttribute( "coord" ), readPerson.getAttributes().getAttribute( "coord" ) );
+			final Activity home = (Activity) person.getSelectedPlan().getPlanElements().get( 0 );
+			final Activity readHome = (Activity) readPerson.getSelectedPlan().getPlanElements().get( 0 );
+			Assert.assertEquals( home.getAttributes().getAttribute( "weight" ), readHome.getAttributes().getAttribute( "weight" ) );
+		}
+	}
 }
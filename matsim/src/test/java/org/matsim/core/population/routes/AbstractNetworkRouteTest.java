@@ -66,6 +66,34 @@ public abstract class AbstractNetworkRouteTest {
 		Assert.assertEquals(Id.create("14", Link.class), linkIds.get(4));
 	}
 
+	@Test
+	public void testGetLinkIdCursor() {
+		Network network = createTestNetwork();
+		List<Id<Link>> links = NetworkUtils.getLinkIds("-22 2 3 24 14");
+		final Id<Link> link11 = Id.create(11, Link.class);
+		final Id<Link> link15 = Id.create(15, Link.class);
+		NetworkRoute route = getNetworkRouteInstance(link11, link15, network);
+		route.setLinkIds(link11, links, link15);
+
+		LinkIdCursor cursor = route.getLinkIdCursor();
+		Assert.assertEquals("number of links in route.", 5, cursor.size());
+		for (int i = 0; i < links.size(); i++) {
+			Assert.assertEquals(links.get(i), cursor.getLinkId(i));
+			Assert.assertEquals("accessing the same link again is expected to return the same link", links.get(i), cursor.getLinkId(i));
+		}
+		Assert.assertEquals(links.get(1), cursor.getLinkId(1));
+		Assert.assertEquals(links.get(4), cursor.getLinkId(4));
+		try {
+			cursor.getLinkId(5);
+			Assert.fail("expected IndexOutOfBoundsException.");
+		} catch (IndexOutOfBoundsException e) {
+			log.info("catched expected exception: " + e.getMessage());
+		}
+		Assert.assertEquals(links.get(0), cursor.getLinkId(0));
+
+		Assert.assertEquals(0, getNetworkRouteInstance(link11, link15, network).getLinkIdCursor().size());
+	}
+
 	@Test
 	public void testSetLinks_linksNull() {
 		Network network = createTestNetwork();
@@ -23,8 +23,6 @@ package org.matsim.core.population.routes;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
-import java.util.TreeMap;
 
 import org.junit.Assert;
 import org.junit.Test;
@@ -35,7 +33,6 @@ import org.matsim.api.core.v01.network.Network;
 import org.matsim.api.core.v01.network.NetworkFactory;
 import org.matsim.api.core.v01.network.Node;
 import org.matsim.core.network.NetworkUtils;
-import org.matsim.core.network.algorithms.SubsequentLinksAnalyzer;
 
 /**
  * @author mrieser
@@ -44,8 +41,7 @@ public class CompressedNetworkRouteTest extends AbstractNetworkRouteTest {
 
 	@Override
 	public NetworkRoute getNetworkRouteInstance(final Id<Link> fromLinkId, final Id<Link> toLinkId, final Network network) {
-		SubsequentLinksAnalyzer subsequent = new SubsequentLinksAnalyzer(network);
-		return new CompressedNetworkRouteImpl(fromLinkId, toLinkId, network, subsequent.getSubsequentLinks());
+		return new CompressedNetworkRouteImpl(fromLinkId, toLinkId);
 	}
 
 	/**
@@ -88,13 +84,7 @@ public class CompressedNetworkRouteTest extends AbstractNetworkRouteTest {
 		List<Id<Link>> linkIds = new ArrayList<Id<Link>>(4);
 		Collections.addAll(linkIds, link1.getId(), link2.getId(), link3.getId());
 
-		Map<Id<Link>, Id<Link>> subsequentLinks = new TreeMap<Id<Link>, Id<Link>>();
-		subsequentLinks.put(link0.getId(), link1.getId());
-		subsequentLinks.put(link1.getId(), link2.getId());
-		subsequentLinks.put(link2.getId(), link3.getId());
-		subsequentLinks.put(link3.getId(), link4.getId());
-
-		NetworkRoute route = new CompressedNetworkRouteImpl(link0.getId(), link4.getId(), network, subsequentLinks);
+		NetworkRoute route = new CompressedNetworkRouteImpl(link0.getId(), link4.getId());
 		route.setLinkIds(link0.getId(), linkIds, link4.getId());
 
 		List<Id<Link>> linksId2 = route.getLinkIds();
@@ -112,18 +102,9 @@ public class CompressedNetworkRouteTest extends AbstractNetworkRouteTest {
 	public void testGetLinkIds_incompleteInitialization() {
 		Network network = createTestNetwork();
 		Link link0 = network.getLinks().get(Id.create("0", Link.class));
-		Link link1 = network.getLinks().get(Id.create("1", Link.class));
-		Link link2 = network.getLinks().get(Id.create("2", Link.class));
-		Link link3 = network.getLinks().get(Id.create("3", Link.class));
 		Link link4 = network.getLinks().get(Id.create("4", Link.class));
 
-		Map<Id<Link>, Id<Link>> subsequentLinks = new TreeMap<Id<Link>, Id<Link>>();
-		subsequentLinks.put(link0.getId(), link1.getId());
-		subsequentLinks.put(link1.getId(), link2.getId());
-		subsequentLinks.put(link2.getId(), link3.getId());
-		subsequentLinks.put(link3.getId(), link4.getId());
-
-		NetworkRoute route = new CompressedNetworkRouteImpl(link0.getId(), link4.getId(), network, subsequentLinks);
+		NetworkRoute route = new CompressedNetworkRouteImpl(link0.getId(), link4.getId());
 		// NO route.setLinks() here!
 
 		Assert.assertEquals("expected 0 links.", 0, route.getLinkIds().size());
@@ -161,25 +142,45 @@ public class CompressedNetworkRouteTest extends AbstractNetworkRouteTest {
 		network.addLink(link5);
 		network.addLink(endLink);
 
-		Map<Id<Link>, Id<Link>> subsequentLinks = new TreeMap<>();
-		subsequentLinks.put(startLink.getId(), link3.getId());
-		subsequentLinks.put(link3.getId(), link4.getId());
-		subsequentLinks.put(link4.getId(), link5.getId());
-		subsequentLinks.put(link5.getId(), endLink.getId());
-
-		CompressedNetworkRouteImpl route1 = new CompressedNetworkRouteImpl(startLink.getId(), endLink.getId(), network, subsequentLinks);
+		CompressedNetworkRouteImpl route1 = new CompressedNetworkRouteImpl(startLink.getId(), endLink.getId());
 		ArrayList<Id<Link>> srcRoute = new ArrayList<>(5);
 		Collections.addAll(srcRoute, link3.getId(), link4.getId());
 		route1.setLinkIds(startLink.getId(), srcRoute, link5.getId());
 		Assert.assertEquals(2, route1.getLinkIds().size());
 
 		CompressedNetworkRouteImpl route2 = route1.clone();
+		LinkIdCursor cursor2 = route2.getLinkIdCursor();
+		Assert.assertEquals(link4.getId(), cursor2.getLinkId(1));
 
 		srcRoute.add(link5.getId());
 		route2.setLinkIds(startLink.getId(), srcRoute, endLink.getId());
 
 		Assert.assertEquals(2, route1.getLinkIds().size());
 		Assert.assertEquals(3, route2.getLinkIds().size());
+		Assert.assertEquals("the cursor is expected to go along the new links", link5.getId(), cursor2.getLinkId(2));
+	}
+
+	/**
+	 * Tests that links with indices far away from each other, in both directions, are stored correctly.
+	 */
+	@Test
+	public void testGetLinkIds_largeIndexDifferences() {
+		Id<Link> startLinkId = Id.create("cnr-start", Link.class);
+		List<Id<Link>> allLinkIds = new ArrayList<>();
+		for (int i = 0; i < 100000; i++) {
+			allLinkIds.add(Id.create("cnr-" + i, Link.class));
+		}
+		Id<Link> endLinkId = Id.create("cnr-end", Link.class);
+
+		List<Id<Link>> linkIds = new ArrayList<>();
+		Collections.addAll(linkIds, allLinkIds.get(99999), allLinkIds.get(0), allLinkIds.get(1), allLinkIds.get(200),
+				allLinkIds.get(199), allLinkIds.get(70000), startLinkId, endLinkId, allLinkIds.get(5));
+		NetworkRoute route = new CompressedNetworkRouteImpl(startLinkId, endLinkId);
+		route.setLinkIds(startLinkId, linkIds, endLinkId);
+
+		Assert.assertEquals(linkIds, route.getLinkIds());
+		Assert.assertEquals("cnr-start cnr-99999 cnr-0 cnr-1 cnr-200 cnr-199 cnr-70000 cnr-start cnr-end cnr-5 cnr-end",
+				route.getRouteDescription());
 	}
 
 }
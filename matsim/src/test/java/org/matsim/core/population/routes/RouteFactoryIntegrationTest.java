@@ -86,7 +86,7 @@ public class RouteFactoryIntegrationTest {
 		// test another setting
 		config.controler().setOutputDirectory(utils.getOutputDirectory() + "/variant1");
 		MutableScenario scenario = (MutableScenario) ScenarioUtils.createScenario(config);
-		scenario.getPopulation().getFactory().getRouteFactories().setRouteFactory(NetworkRoute.class, new CompressedNetworkRouteFactory(scenario.getNetwork()));
+		scenario.getPopulation().getFactory().getRouteFactories().setRouteFactory(NetworkRoute.class, new CompressedNetworkRouteFactory());
 		ScenarioUtils.loadScenario(scenario);
 
 		Controler controler2 = new Controler(scenario);
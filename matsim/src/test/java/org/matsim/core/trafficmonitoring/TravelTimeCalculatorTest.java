@@ -22,6 +22,10 @@ package org.matsim.core.trafficmonitoring;
 
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 
@@ -280,6 +284,52 @@ public class TravelTimeCalculatorTest extends MatsimTestCase {
 		assertEquals(freeSpeedTT, ttcalc.getLinkTravelTimes().getLinkTravelTime(link1, firstTimeBinStart + 5*timeBinSize + offset, null, null), EPSILON);
 	}
 	
+	public void testWriteAndReadState() throws IOException {
+		Scenario scenario = ScenarioUtils.createScenario(ConfigUtils.createConfig());
+		Network network = scenario.getNetwork();
+		final Node node1 = NetworkUtils.createAndAddNode(network, Id.create("1", Node.class), new Coord(0, 0));
+		final Node node2 = NetworkUtils.createAndAddNode(network, Id.create("2", Node.class), new Coord(1000, 0));
+		final Node node3 = NetworkUtils.createAndAddNode(network, Id.create("3", Node.class), new Coord(2000, 0));
+		Link link1 = NetworkUtils.createAndAddLink(network, Id.create("1", Link.class), node1, node2, 1000.0, 10.0, 3600.0, 1.0);
+		Link link2 = NetworkUtils.createAndAddLink(network, Id.create("2", Link.class), node2, node3, 1000.0, 20.0, 3600.0, 1.0);
+		Id<Vehicle> vehId = Id.create("1", Vehicle.class);
+
+		int timeBinSize = 15*60;
+		TravelTimeCalculator ttcalc = new TravelTimeCalculator(network, timeBinSize, 12*3600, scenario.getConfig().travelTimeCalculator());
+		ttcalc.handleEvent(new LinkEnterEvent(7.0*3600, vehId, link1.getId()));
+		ttcalc.handleEvent(new LinkLeaveEvent(7.0*3600 + 40*60, vehId, link1.getId()));
+		ttcalc.handleEvent(new LinkEnterEvent(7.0*3600 + 40*60, vehId, link2.getId()));
+		ttcalc.handleEvent(new LinkLeaveEvent(7.0*3600 + 43*60, vehId, link2.getId()));
+		ttcalc.handleEvent(new LinkEnterEvent(8.0*3600, vehId, link1.getId()));
+		ttcalc.handleEvent(new LinkLeaveEvent(8.0*3600 + 123.4, vehId, link1.getId()));
+		// some travel times are already consolidated when the state is written, others are not
+		ttcalc.getLinkTravelTimes().getLinkTravelTime(link1, 7.0*3600, null, null);
+
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		ttcalc.writeState(new DataOutputStream(bytes));
+
+		TravelTimeCalculator restored = new TravelTimeCalculator(network, timeBinSize, 12*3600, scenario.getConfig().travelTimeCalculator());
+		restored.handleEvent(new LinkEnterEvent(9.0*3600, vehId, link2.getId()));
+		restored.handleEvent(new LinkLeaveEvent(9.0*3600 + 1000, vehId, link2.getId()));
+		restored.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+		for (double time = 6.0*3600; time < 12.0*3600; time += 300) {
+			for (Link link : new Link[] { link1, link2 }) {
+				assertEquals("different travel time on link " + link.getId() + " at " + time,
+						ttcalc.getLinkTravelTimes().getLinkTravelTime(link, time, null, null),
+						restored.getLinkTravelTimes().getLinkTravelTime(link, time, null, null), 0.0);
+			}
+		}
+
+		TravelTimeCalculator otherBins = new TravelTimeCalculator(network, 60*60, 12*3600, scenario.getConfig().travelTimeCalculator());
+		try {
+			otherBins.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+			fail("reading travel times collected with other time bins is expected to fail");
+		} catch (IllegalStateException e) {
+			log.info("caught expected exception: " + e.getMessage());
+		}
+	}
+
 	/**
 	 * Test linear interpolation of aggregated travel times at different positions of a time bin. (Previous tests only test the midpoint of each time bin.)
 	 * 
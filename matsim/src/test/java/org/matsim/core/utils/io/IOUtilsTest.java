@@ -213,6 +213,65 @@ public class IOUtilsTest {
 		Assert.assertTrue("compressed file should be less than 50 bytes, but is " + file.length(), file.length() < 50);
 	}
 
+	@Test
+	public void testGetBufferedWriter_gzipped_parallel() throws IOException {
+		String filename = this.utils.getOutputDirectory() + "test.txt.gz";
+		URL url = IOUtils.getFileUrl(filename);
+		// more than two blocks, so that there are several gzip members
+		int lines = 2 * ParallelGZIPOutputStream.BLOCK_SIZE / 10 + 1234;
+		try (BufferedWriter writer = IOUtils.getBufferedWriter(url, IOUtils.CHARSET_UTF8, false, 4)) {
+			for (int i = 0; i < lines; i++) {
+				writer.write(String.format("%9d\n", i));
+			}
+		}
+		try (BufferedReader reader = IOUtils.getBufferedReader(url)) {
+			for (int i = 0; i < lines; i++) {
+				Assert.assertEquals(String.format("%9d", i), reader.readLine());
+			}
+			Assert.assertNull(reader.readLine());
+		}
+	}
+
+	@Test
+	public void testGetBufferedWriter_gzipped_parallel_empty() throws IOException {
+		String filename = this.utils.getOutputDirectory() + "test.txt.gz";
+		URL url = IOUtils.getFileUrl(filename);
+		IOUtils.getBufferedWriter(url, IOUtils.CHARSET_UTF8, false, 4).close();
+		try (BufferedReader reader = IOUtils.getBufferedReader(url)) {
+			Assert.assertNull(reader.readLine());
+		}
+	}
+
+	@Test
+	public void testParallelGZIPOutputStream_closesOnFailure() {
+		final boolean[] closed = { false };
+		OutputStream failing = new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				throw new IOException("expected");
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				throw new IOException("expected");
+			}
+
+			@Override
+			public void close() {
+				closed[0] = true;
+			}
+		};
+		ParallelGZIPOutputStream out = new ParallelGZIPOutputStream(failing, 2);
+		try {
+			out.write(new byte[] { 1, 2, 3 });
+			out.close();
+			Assert.fail("expected IOException.");
+		} catch (IOException e) {
+			Assert.assertEquals("expected", e.getMessage());
+		}
+		Assert.assertTrue("the underlying stream is expected to be closed when writing fails", closed[0]);
+	}
+
 	@Test(expected = UncheckedIOException.class)
 	public void testGetBufferedWriter_append_lz4() throws IOException {
 		String filename = this.utils.getOutputDirectory() + "test.txt.lz4";
@@ -284,6 +343,24 @@ public class IOUtilsTest {
 		Assert.assertEquals("compressed file should be equal 28 bytes, but is " + file.length(), 28, file.length());
 	}
 
+	@Test
+	public void testGetBufferedWriter_zst_parallel() throws IOException {
+		String filename = this.utils.getOutputDirectory() + "test.txt.zst";
+		URL url = IOUtils.getFileUrl(filename);
+		int lines = 100000;
+		try (BufferedWriter writer = IOUtils.getBufferedWriter(url, IOUtils.CHARSET_UTF8, false, 4)) {
+			for (int i = 0; i < lines; i++) {
+				writer.write(String.format("%9d\n", i));
+			}
+		}
+		try (BufferedReader reader = IOUtils.getBufferedReader(url)) {
+			for (int i = 0; i < lines; i++) {
+				Assert.assertEquals(String.format("%9d", i), reader.readLine());
+			}
+			Assert.assertNull(reader.readLine());
+		}
+	}
+
 	@Test
 	public void testGetInputStream_UTFwithoutBOM() throws IOException {
 		String filename = utils.getOutputDirectory() + "test.txt";
@@ -104,6 +104,80 @@ public class MatsimXmlParserTest {
 		Assert.assertEquals("value2", parser.lastAttributes.getValue("someAttribute2"));
 	}
 	
+	@Test
+	public void testParsing_nestedContent() {
+		String str = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+				"<root>a<child>b<![CDATA[<c>]]></child>d</root>";
+
+		final List<String> log = new ArrayList<>();
+		new MatsimXmlParser() {
+			{
+				this.setValidating(false);
+			}
+			@Override
+			public void startTag(String name, Attributes atts, Stack<String> context) {
+			}
+			@Override
+			public void endTag(String name, String content, Stack<String> context) {
+				log.add(name + "=" + content + " in " + context);
+			}
+		}.parse(new ByteArrayInputStream(str.getBytes()));
+
+		Assert.assertEquals(2, log.size());
+		Assert.assertEquals("child=b<c> in [root]", log.get(0));
+		Assert.assertEquals("root=ad in []", log.get(1));
+	}
+
+	@Test
+	public void testParsing_nonValidatingReadsDtd() {
+		String str = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+				"<!DOCTYPE network SYSTEM \"http://www.matsim.org/files/dtd/network_v1.dtd\">\n" +
+				"<network>\n" +
+				"<nodes/>\n" +
+				"<links capperiod=\"02:00:00\"/>\n" +
+				"</network>";
+
+		TestParser parser = new TestParser();
+		parser.setValidating(false);
+		parser.parse(new ByteArrayInputStream(str.getBytes()));
+
+		Assert.assertEquals("the doctype is expected to be detected without validation", "network_v1.dtd", parser.getDoctype());
+		Assert.assertEquals("links", parser.lastStartTag);
+		Assert.assertEquals("02:00:00", parser.lastAttributes.getValue("capperiod"));
+		Assert.assertEquals("default values of the DTD are expected", "7.5", parser.lastAttributes.getValue("effectivecellsize"));
+	}
+
+	@Test
+	public void testParsing_nonValidatingReportsDocument() {
+		String str = "<?xml version='1.0' encoding='UTF-8'?>\n" +
+				"<root><child/></root>";
+
+		final List<String> log = new ArrayList<>();
+		new MatsimXmlParser() {
+			{
+				this.setValidating(false);
+			}
+			@Override
+			public void startDocument() {
+				log.add("startDocument");
+			}
+			@Override
+			public void endDocument() {
+				log.add("endDocument");
+			}
+			@Override
+			public void startTag(String name, Attributes atts, Stack<String> context) {
+				log.add("start " + name);
+			}
+			@Override
+			public void endTag(String name, String content, Stack<String> context) {
+				log.add("end " + name);
+			}
+		}.parse(new ByteArrayInputStream(str.getBytes()));
+
+		Assert.assertEquals(List.of("startDocument", "start root", "start child", "end child", "end root", "endDocument"), log);
+	}
+
 	private static class TestParser extends MatsimXmlParser {
 
 		public String lastStartTag = null;